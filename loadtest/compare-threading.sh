@@ -0,0 +1,65 @@
+#!/usr/bin/env bash
+# 플랫폼 스레드와 가상 스레드(virtual 프로파일) 실행 모드의 처리량과 p99 지연 시간을 비교한다
+#
+# 준비: PostgreSQL(RDS_* 환경변수), hey(https://github.com/rakyll/hey), ./gradlew bootJar
+# 사용: ./loadtest/compare-threading.sh
+#   CONCURRENCY  동시 요청 수 (기본 200)
+#   DURATION     모드마다 엔드포인트별 측정 시간 (기본 30s)
+#   IMAGE        이미지 엔드포인트로 내려받을 파일명 (비우면 건너뛴다)
+#   JAVA_OPTS    JVM 옵션 (기본값은 ECS 작업의 256 CPU 단위처럼 JVM이 프로세서 1개로 보고 풀 크기를 정하게 한다)
+set -euo pipefail
+
+CONCURRENCY=${CONCURRENCY:-200}
+DURATION=${DURATION:-30s}
+IMAGE=${IMAGE:-}
+JAVA_OPTS=${JAVA_OPTS:--XX:ActiveProcessorCount=1 -Xmx384m}
+PORT=${PORT:-8080}
+BASE_URL="http://localhost:${PORT}"
+JAR=$(ls build/libs/*.jar | grep -v plain | head -n 1)
+
+ENDPOINTS=("/api/menus" "/api/menus?limit=20" "/api/categories")
+if [[ -n "$IMAGE" ]]; then
+    ENDPOINTS+=("/api/images/${IMAGE}")
+fi
+
+start_app() {
+    local include=$1
+    SPRING_PROFILES_ACTIVE=local SPRING_PROFILES_INCLUDE="$include" \
+        java $JAVA_OPTS -jar "$JAR" --server.port="$PORT" --logging.level.root=WARN \
+        --logging.level.com.ohgiraffers.awsdeploy=WARN --logging.level.org.springframework.web=WARN \
+        --spring.jpa.show-sql=false > "build/loadtest-${include:-platform}.log" 2>&1 &
+    APP_PID=$!
+    for _ in $(seq 1 60); do
+        if curl -sf "${BASE_URL}/api/categories" > /dev/null; then
+            return
+        fi
+        sleep 1
+    done
+    echo "애플리케이션이 시작되지 않았습니다: build/loadtest-${include:-platform}.log" >&2
+    exit 1
+}
+
+stop_app() {
+    kill "$APP_PID"
+    wait "$APP_PID" 2> /dev/null || true
+}
+
+run_mode() {
+    local mode=$1 include=$2
+    start_app "$include"
+    for endpoint in "${ENDPOINTS[@]}"; do
+        # JIT와 커넥션 풀을 데운 뒤 측정한다
+        hey -z 5s -c "$CONCURRENCY" "${BASE_URL}${endpoint}" > /dev/null
+        local report
+        report=$(hey -z "$DURATION" -c "$CONCURRENCY" "${BASE_URL}${endpoint}")
+        local rps p99
+        rps=$(awk '/Requests\/sec:/ {print $2}' <<< "$report")
+        p99=$(awk '/ 99% in / {print $3 * 1000}' <<< "$report")
+        printf "%-10s %-28s %12s %12s\n" "$mode" "$endpoint" "$rps" "${p99:-n/a}"
+    done
+    stop_app
+}
+
+printf "%-10s %-28s %12s %12s\n" "mode" "endpoint" "req/s" "p99(ms)"
+run_mode platform ""
+run_mode virtual virtual
@@ -0,0 +1,33 @@
+package com.ohgiraffers.awsdeploy.controller;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ImageController 벤치마크
+ * 이미지 응답마다 실행되는 확장자별 Content-Type 판별 비용을 잰다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ImageControllerBenchmark {
+
+    private final String[] filenames = {
+            "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08.png",
+            "123e4567-e89b-12d3-a456-426614174000.JPG",
+            "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08-480.jpg",
+            "animation.gif",
+            "photo.webp",
+            "document.pdf"
+    };
+
+    @Benchmark
+    @OperationsPerInvocation(6)
+    public void getContentType(Blackhole blackhole) {
+        for (String filename : filenames) {
+            blackhole.consume(ImageController.getContentType(filename));
+        }
+    }
+}
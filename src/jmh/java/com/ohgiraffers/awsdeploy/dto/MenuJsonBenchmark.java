@@ -0,0 +1,71 @@
+package com.ohgiraffers.awsdeploy.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ohgiraffers.awsdeploy.util.PrecompressedJson;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메뉴 목록 JSON 직렬화 벤치마크
+ * GET /api/menus 응답 본문처럼 List<MenuDTO>를 Spring MVC와 같은 설정의 ObjectMapper로 직렬화한다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MenuJsonBenchmark {
+
+    @Param({"20", "100", "1000"})
+    private int menuCount;
+
+    private List<MenuDTO> menus;
+
+    private ObjectMapper objectMapper;
+
+    private ObjectWriter listWriter;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        menus = new ArrayList<>(menuCount);
+        for (int i = 0; i < menuCount; i++) {
+            MenuDTO menu = new MenuDTO((long) i + 1, "메뉴" + i, 1_000 + i, "메뉴 설명 " + i, "Y",
+                    new CategoryDTO((long) i % 3 + 1, "식사"), i + ".jpg", 100);
+            if (i % 2 == 0) {
+                menu.setMenuImageVariants(Map.of(160, i + "-160.jpg", 480, i + "-480.jpg", 1024, i + "-1024.jpg"));
+            }
+            menus.add(menu);
+        }
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, MenuDTO.class));
+    }
+
+    /**
+     * 컨트롤러 응답처럼 요소마다 런타임 타입으로 직렬화기를 찾는다
+     */
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(menus);
+    }
+
+    /**
+     * 목록 타입을 미리 지정한 ObjectWriter로 직렬화한다
+     */
+    @Benchmark
+    public byte[] typedWriter() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(menus);
+    }
+
+    /**
+     * 카탈로그 버전이 바뀔 때 한 번 드는 응답 본문 캐시 재생성 비용 (직렬화 + gzip 압축)
+     */
+    @Benchmark
+    public PrecompressedJson precompress() throws JsonProcessingException {
+        return PrecompressedJson.of(objectMapper.writeValueAsBytes(menus));
+    }
+}
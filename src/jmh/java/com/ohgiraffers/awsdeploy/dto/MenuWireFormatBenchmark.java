@@ -0,0 +1,90 @@
+package com.ohgiraffers.awsdeploy.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ohgiraffers.awsdeploy.util.MenuCborCodec;
+import com.ohgiraffers.awsdeploy.util.PrecompressedJson;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메뉴 목록 응답 형식 벤치마크
+ * GET /api/menus의 JSON과 바이너리(MenuCborCodec) 형식의 인코딩/디코딩 시간을 비교한다
+ * 형식별 본문 크기(압축 전, gzip)는 시작할 때 한 번 출력한다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MenuWireFormatBenchmark {
+
+    // 실제 응답처럼 모든 이미지가 같은 버킷 경로를 쓴다
+    private static final String IMAGE_PREFIX = "https://ohgiraffers-menu.s3.ap-northeast-2.amazonaws.com/menus/";
+
+    @Param({"20", "100", "1000"})
+    private int menuCount;
+
+    private List<MenuDTO> menus;
+
+    private ObjectMapper objectMapper;
+
+    private byte[] json;
+
+    private byte[] cbor;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        menus = new ArrayList<>(menuCount);
+        for (int i = 0; i < menuCount; i++) {
+            String image = IMAGE_PREFIX + "3f2a9c4e-" + i + ".jpg";
+            MenuDTO menu = new MenuDTO((long) i + 1, "메뉴" + i, 1_000 + i, "메뉴 설명 " + i, "Y",
+                    new CategoryDTO((long) i % 3 + 1, "식사"), image, 100);
+            menu.setMenuImageVariants(Map.of(160, IMAGE_PREFIX + "3f2a9c4e-" + i + "-160.jpg",
+                    480, IMAGE_PREFIX + "3f2a9c4e-" + i + "-480.jpg"));
+            menus.add(menu);
+        }
+        json = writeJson();
+        cbor = MenuCborCodec.encode(menus);
+        System.out.printf("%n[menuCount=%d] json=%dB (gzip %dB), cbor=%dB (gzip %dB)%n", menuCount,
+                json.length, gzipSize(json), cbor.length, gzipSize(cbor));
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() {
+        return writeJson();
+    }
+
+    @Benchmark
+    public List<MenuDTO> jsonDecode() throws IOException {
+        return objectMapper.readValue(json, new TypeReference<List<MenuDTO>>() {});
+    }
+
+    @Benchmark
+    public byte[] cborEncode() {
+        return MenuCborCodec.encode(menus);
+    }
+
+    @Benchmark
+    public List<MenuDTO> cborDecode() {
+        return MenuCborCodec.decode(cbor);
+    }
+
+    private byte[] writeJson() {
+        try {
+            return objectMapper.writeValueAsBytes(menus);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int gzipSize(byte[] body) {
+        byte[] gzip = PrecompressedJson.of(body).getGzip();
+        return gzip == null ? body.length : gzip.length;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ohgiraffers.awsdeploy.service;
+
+import com.ohgiraffers.awsdeploy.dto.MenuDTO;
+import com.ohgiraffers.awsdeploy.entity.Category;
+import com.ohgiraffers.awsdeploy.entity.Menu;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MenuService 벤치마크
+ * 목록 조회와 일괄 등록 응답에서 메뉴 엔티티 목록을 DTO로 바꾸는 비용을 잰다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MenuServiceBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int menuCount;
+
+    private List<Menu> menus;
+
+    @Setup
+    public void setUp() {
+        menus = new ArrayList<>(menuCount);
+        Category[] categories = {category(1L, "식사"), category(2L, "디저트"), category(3L, "음료")};
+        for (int i = 0; i < menuCount; i++) {
+            Menu menu = new Menu("메뉴" + i, 1_000 + i, "메뉴 설명 " + i, categories[i % categories.length],
+                    "https://bucket.s3.ap-northeast-2.amazonaws.com/" + i + ".jpg", 100);
+            menu.setMenuCode((long) i + 1);
+            menu.setMenuOrderable("Y");
+            // 절반은 변형 이미지가 있어 URL 맵을 만든다
+            if (i % 2 == 0) {
+                menu.setMenuImageVariants("160,480,1024");
+            }
+            menus.add(menu);
+        }
+    }
+
+    @Benchmark
+    public List<MenuDTO> convertToDTO() {
+        return menus.stream().map(MenuService::convertToDTO).toList();
+    }
+
+    private static Category category(Long code, String name) {
+        Category category = new Category(name);
+        category.setCategoryCode(code);
+        return category;
+    }
+}
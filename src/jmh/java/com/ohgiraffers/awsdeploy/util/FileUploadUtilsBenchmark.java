@@ -0,0 +1,82 @@
+package com.ohgiraffers.awsdeploy.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * FileUploadUtils 벤치마크
+ * 로컬 업로드 경로인 내용 해시 계산(파일명 결정)과 디스크 저장을 파일 크기별로 잰다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FileUploadUtilsBenchmark {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+
+    @Param({"16384", "1048576", "8388608"})
+    private int fileSize;
+
+    private Path uploadRoot;
+
+    private FileUploadUtils fileUploadUtils;
+
+    private MockMultipartFile file;
+
+    private String filename;
+
+    @Setup
+    public void setUp() throws IOException {
+        uploadRoot = Files.createTempDirectory("jmh-upload-");
+        fileUploadUtils = new FileUploadUtils(uploadRoot.toString(),
+                new ImageVariantUtils(new int[] {160}, 0.8f, Runnable::run), new SimpleMeterRegistry());
+        byte[] content = new byte[fileSize];
+        System.arraycopy(PNG_SIGNATURE, 0, content, 0, PNG_SIGNATURE.length);
+        for (int i = PNG_SIGNATURE.length; i < fileSize; i++) {
+            content[i] = (byte) i;
+        }
+        file = new MockMultipartFile("image", "photo.png", "image/png", content);
+        filename = fileUploadUtils.inspectImage(file).getFilename();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(uploadRoot)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * 업로드를 한 번 읽으며 SHA-256 해시와 이미지 형식으로 저장할 파일명을 정한다
+     */
+    @Benchmark
+    public FileUploadUtils.ImageContent inspectImage() throws IOException {
+        return fileUploadUtils.inspectImage(file);
+    }
+
+    /**
+     * 업로드를 임시 파일에 쓰고 해시 파일명으로 옮긴다 (같은 이름을 덮어쓴다)
+     */
+    @Benchmark
+    public String storeFile() throws IOException {
+        return fileUploadUtils.storeFile(file, filename);
+    }
+
+    /**
+     * 로컬 업로드 한 건의 전체 경로 (파일명 결정 후 저장)
+     */
+    @Benchmark
+    public String inspectAndStore() throws IOException {
+        return fileUploadUtils.storeFile(file, fileUploadUtils.inspectImage(file).getFilename());
+    }
+}
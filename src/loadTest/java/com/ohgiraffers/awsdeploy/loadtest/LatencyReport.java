@@ -0,0 +1,117 @@
+package com.ohgiraffers.awsdeploy.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 요청 종류별 지연 시간 집계
+ * 지연 시간은 마이크로초 단위 HdrHistogram에 기록하고, 실패와 건너뛴 요청은 따로 센다
+ */
+public class LatencyReport {
+    
+    // 유효 숫자 3자리 (백분위 값의 오차 0.1% 이내)
+    private static final int SIGNIFICANT_DIGITS = 3;
+    
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> skipped = new EnumMap<>(Operation.class);
+    
+    public LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+            errors.put(operation, new LongAdder());
+            skipped.put(operation, new LongAdder());
+        }
+    }
+    
+    /**
+     * 끝난 요청의 지연 시간을 기록한다
+     * @param operation 요청 종류
+     * @param latencyNanos 지연 시간 (나노초)
+     * @param success 2xx 응답이면 true
+     */
+    public void record(Operation operation, long latencyNanos, boolean success) {
+        histograms.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+    
+    /**
+     * 보낼 대상이 없어 건너뛴 요청을 센다 (예: 지울 메뉴가 아직 없는 DELETE)
+     * @param operation 요청 종류
+     */
+    public void skip(Operation operation) {
+        skipped.get(operation).increment();
+    }
+    
+    /**
+     * 요청 종류별 처리량과 백분위 지연 시간을 표로 출력한다
+     * @param out 출력 스트림
+     * @param elapsedSeconds 측정 시간 (초)
+     */
+    public void print(PrintStream out, double elapsedSeconds) {
+        out.printf("%-8s %9s %7s %7s %9s %9s %9s %9s %9s %9s%n",
+                "op", "count", "errors", "skipped", "req/s", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+        long totalErrors = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            long errorCount = errors.get(operation).sum();
+            long skipCount = skipped.get(operation).sum();
+            if (histogram.getTotalCount() == 0 && skipCount == 0) {
+                continue;
+            }
+            printRow(out, operation.getKey(), histogram, errorCount, skipCount, elapsedSeconds);
+            total.add(histogram);
+            totalErrors += errorCount;
+        }
+        printRow(out, "total", total, totalErrors, 0, elapsedSeconds);
+    }
+    
+    /**
+     * 요청 종류별 백분위 분포를 .hgrm 파일로 남긴다 (HdrHistogram 플로터로 커밋끼리 겹쳐 볼 수 있다)
+     * @param reportDir 결과 폴더
+     * @param prefix 파일명 앞부분 (예: closed, open)
+     * @throws IOException 파일 쓰기 실패시 발생
+     */
+    public void writePercentileDistributions(Path reportDir, String prefix) throws IOException {
+        Files.createDirectories(reportDir);
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            Path file = reportDir.resolve(prefix + "-" + operation.getKey() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                // 마이크로초로 기록했으므로 1000으로 나눠 밀리초로 출력한다
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+    
+    private static void printRow(PrintStream out, String name, Histogram histogram,
+                                 long errorCount, long skipCount, double elapsedSeconds) {
+        out.printf("%-8s %9d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, histogram.getTotalCount(), errorCount, skipCount,
+                histogram.getTotalCount() / elapsedSeconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+    
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
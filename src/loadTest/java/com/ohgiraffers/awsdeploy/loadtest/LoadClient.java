@@ -0,0 +1,181 @@
+package com.ohgiraffers.awsdeploy.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 부하 테스트 HTTP 클라이언트
+ * 요청 종류마다 실제 API를 호출하고, 조회/삭제 대상이 될 메뉴 코드와 이미지 파일명을 기억한다
+ */
+public class LoadClient {
+    
+    // 응답 코드 대신 돌려주는 값: 보낼 대상이 없어 요청을 건너뛰었다
+    public static final int SKIPPED = 0;
+    
+    private static final String BOUNDARY = "----awsdeploy-loadtest";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    // 요청마다 돌려 쓰는 PNG 이미지 (같은 내용은 내용 해시로 한 번만 저장된다)
+    private final List<byte[]> images;
+    // 시작할 때 등록한 메뉴 코드 (GET 대상, 지우지 않는다)
+    private final List<Long> seededMenuCodes = new ArrayList<>();
+    // 시작할 때 올린 이미지 파일명 (IMAGE 대상, 시드 메뉴가 참조하므로 지워지지 않는다)
+    private final List<String> imageNames = new ArrayList<>();
+    // 부하 중에 등록한 메뉴 코드 (DELETE 대상)
+    private final ConcurrentLinkedQueue<Long> createdMenuCodes = new ConcurrentLinkedQueue<>();
+    
+    public LoadClient(String baseUrl, ObjectMapper objectMapper, int imageVariety, int imageWidth) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.images = createImages(imageVariety, imageWidth);
+    }
+    
+    /**
+     * 부하를 걸기 전에 메뉴와 이미지를 준비한다
+     * 이미지마다 메뉴를 하나씩 등록해 두어 부하 중 DELETE가 이미지를 지우지 않게 한다
+     * @param seededCodes 미리 등록한 메뉴 코드
+     * @throws IOException 요청 실패시 발생
+     * @throws InterruptedException 요청 대기 중 인터럽트시 발생
+     */
+    public void prepare(List<Long> seededCodes) throws IOException, InterruptedException {
+        seededMenuCodes.addAll(seededCodes);
+        for (int i = 0; i < images.size(); i++) {
+            HttpResponse<byte[]> response = send(createRequest(images.get(i)));
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("시드 이미지 등록에 실패했습니다: " + response.statusCode());
+            }
+            JsonNode menu = objectMapper.readTree(response.body());
+            seededMenuCodes.add(menu.get("menuCode").asLong());
+            imageNames.add(menu.get("menuImageUrl").asText());
+        }
+    }
+    
+    /**
+     * 요청 하나를 보낸다
+     * @param operation 요청 종류
+     * @return HTTP 응답 코드 (대상이 없어 건너뛰면 SKIPPED)
+     * @throws IOException 요청 실패시 발생
+     * @throws InterruptedException 요청 대기 중 인터럽트시 발생
+     */
+    public int execute(Operation operation) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case LIST -> send(get("/api/menus")).statusCode();
+            case GET -> send(get("/api/menus/" + seededMenuCodes.get(random.nextInt(seededMenuCodes.size())))).statusCode();
+            case IMAGE -> send(get("/api/images/" + imageNames.get(random.nextInt(imageNames.size())))).statusCode();
+            case CREATE -> {
+                HttpResponse<byte[]> response = send(createRequest(images.get(random.nextInt(images.size()))));
+                if (response.statusCode() == 200) {
+                    createdMenuCodes.add(objectMapper.readTree(response.body()).get("menuCode").asLong());
+                }
+                yield response.statusCode();
+            }
+            case DELETE -> {
+                Long menuCode = createdMenuCodes.poll();
+                if (menuCode == null) {
+                    yield SKIPPED;
+                }
+                yield send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/menus/" + menuCode))
+                        .timeout(REQUEST_TIMEOUT)
+                        .DELETE()
+                        .build()).statusCode();
+            }
+        };
+    }
+    
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                // 브라우저처럼 압축 응답을 받는다 (본문은 읽지 않으므로 풀지 않는다)
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+    }
+    
+    /**
+     * 이미지를 포함한 메뉴 등록 요청(multipart/form-data)을 만든다
+     * @param image PNG 이미지
+     * @return 메뉴 등록 요청
+     */
+    private HttpRequest createRequest(byte[] image) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(image.length + 1024);
+        writeField(body, "menuName", "부하테스트메뉴" + random.nextInt(1_000_000));
+        writeField(body, "menuPrice", String.valueOf(1_000 + random.nextInt(20_000)));
+        writeField(body, "menuDescription", "부하 테스트로 등록한 메뉴");
+        writeField(body, "categoryCode", String.valueOf(1 + random.nextInt(3)));
+        writeField(body, "menuStock", "100");
+        body.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"imageFile\"; filename=\"menu.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(image);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/menus"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+    }
+    
+    private static void writeField(ByteArrayOutputStream body, String name, String value) throws IOException {
+        body.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+    
+    /**
+     * 서로 다른 내용의 PNG 이미지를 만든다 (썸네일 생성까지 실제와 같게 거치도록 디코딩 가능한 이미지로 만든다)
+     * @param count 만들 이미지 수
+     * @param width 이미지 너비 (높이는 3:4 비율)
+     * @return PNG 바이트 목록
+     */
+    private static List<byte[]> createImages(int count, int width) {
+        List<byte[]> images = new ArrayList<>(count);
+        int height = width * 3 / 4;
+        for (int i = 0; i < count; i++) {
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = image.createGraphics();
+            graphics.setColor(Color.getHSBColor(i / (float) count, 0.6f, 0.9f));
+            graphics.fillRect(0, 0, width, height);
+            graphics.setColor(Color.WHITE);
+            graphics.drawString("load-test-" + i, 20, 40);
+            graphics.dispose();
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ImageIO.write(image, "png", out);
+                images.add(out.toByteArray());
+            } catch (IOException e) {
+                throw new IllegalStateException("테스트 이미지 생성에 실패했습니다", e);
+            }
+        }
+        return images;
+    }
+}
@@ -0,0 +1,169 @@
+package com.ohgiraffers.awsdeploy.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 부하 테스트 설정
+ * Gradle의 -Pload.* 프로퍼티가 시스템 프로퍼티로 넘어온다 (./gradlew loadTest -Pload.model=open -Pload.rate=300)
+ */
+public class LoadTestConfig {
+    
+    /**
+     * 요청 도착 모델
+     */
+    public enum Model {
+        // 고정된 수의 사용자가 응답을 받은 뒤 바로 다음 요청을 보낸다 (처리량은 서버 응답 속도를 따른다)
+        CLOSED,
+        // 응답과 관계없이 고정된 초당 요청 수로 보낸다 (서버가 밀리면 대기 시간이 지연 시간에 그대로 잡힌다)
+        OPEN
+    }
+    
+    private final Model model;
+    private final int concurrency;
+    private final int rate;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Map<Operation, Integer> mix;
+    private final int seedMenus;
+    private final int imageVariety;
+    private final int imageWidth;
+    private final Path reportDir;
+    // 누적 가중치 (요청 종류를 고를 때 사용)
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    
+    private LoadTestConfig(Model model, int concurrency, int rate, Duration duration, Duration warmup,
+                           Map<Operation, Integer> mix, int seedMenus, int imageVariety, int imageWidth, Path reportDir) {
+        this.model = model;
+        this.concurrency = concurrency;
+        this.rate = rate;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.mix = mix;
+        this.seedMenus = seedMenus;
+        this.imageVariety = imageVariety;
+        this.imageWidth = imageWidth;
+        this.reportDir = reportDir;
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+    
+    /**
+     * 시스템 프로퍼티에서 설정을 읽는다
+     * @return 부하 테스트 설정
+     */
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Model.valueOf(System.getProperty("load.model", "closed").toUpperCase()),
+                Integer.getInteger("load.concurrency", 32),
+                Integer.getInteger("load.rate", 200),
+                DurationStyle.detectAndParse(System.getProperty("load.duration", "30s")),
+                DurationStyle.detectAndParse(System.getProperty("load.warmup", "10s")),
+                parseMix(System.getProperty("load.mix", "list=50,get=30,create=10,delete=5,image=5")),
+                Integer.getInteger("load.seedMenus", 200),
+                Integer.getInteger("load.imageVariety", 32),
+                Integer.getInteger("load.imageWidth", 800),
+                Path.of(System.getProperty("load.reportDir", "build/reports/loadtest")));
+    }
+    
+    /**
+     * key=가중치 목록을 요청 종류별 가중치로 바꾼다
+     * @param mix 요청 비중 설정 (예: list=50,get=30)
+     * @return 요청 종류별 가중치
+     */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("load.mix 형식은 key=가중치 입니다: " + entry);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.fromKey(pair[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("load.mix에 가중치가 있는 요청이 없습니다: " + mix);
+        }
+        return weights;
+    }
+    
+    /**
+     * 가중치에 따라 다음 요청 종류를 고른다
+     * @return 요청 종류
+     */
+    public Operation nextOperation() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+    
+    // Getter
+    public Model getModel() {
+        return model;
+    }
+    
+    public int getConcurrency() {
+        return concurrency;
+    }
+    
+    public int getRate() {
+        return rate;
+    }
+    
+    public Duration getDuration() {
+        return duration;
+    }
+    
+    public Duration getWarmup() {
+        return warmup;
+    }
+    
+    public Map<Operation, Integer> getMix() {
+        return mix;
+    }
+    
+    public int getSeedMenus() {
+        return seedMenus;
+    }
+    
+    public int getImageVariety() {
+        return imageVariety;
+    }
+    
+    public int getImageWidth() {
+        return imageWidth;
+    }
+    
+    public Path getReportDir() {
+        return reportDir;
+    }
+    
+    @Override
+    public String toString() {
+        return "LoadTestConfig{" +
+                "model=" + model +
+                (model == Model.CLOSED ? ", concurrency=" + concurrency : ", rate=" + rate + "/s") +
+                ", duration=" + duration +
+                ", warmup=" + warmup +
+                ", mix=" + mix +
+                ", seedMenus=" + seedMenus +
+                '}';
+    }
+}
@@ -0,0 +1,178 @@
+package com.ohgiraffers.awsdeploy.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ohgiraffers.awsdeploy.Chap02AwsDeployApplication;
+import com.ohgiraffers.awsdeploy.dto.MenuDTO;
+import com.ohgiraffers.awsdeploy.dto.MenuRegisterRequestDTO;
+import com.ohgiraffers.awsdeploy.entity.Category;
+import com.ohgiraffers.awsdeploy.repository.CategoryRepository;
+import com.ohgiraffers.awsdeploy.service.MenuService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HTTP 부하 테스트 실행기
+ * 애플리케이션을 H2 인메모리 DB와 임시 업로드 폴더로 띄운 뒤, 설정한 비중의 요청을 닫힌/열린 모델로 보내고
+ * 요청 종류별 HdrHistogram 백분위 지연 시간을 출력한다
+ *
+ * 실행: ./gradlew loadTest -Pload.model=open -Pload.rate=300 -Pload.duration=60s
+ */
+public class LoadTestRunner {
+    
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        Path uploadDir = Files.createTempDirectory("loadtest-uploads-");
+        
+        try (ConfigurableApplicationContext context = startApplication(uploadDir)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadClient client = new LoadClient("http://localhost:" + port, context.getBean(ObjectMapper.class),
+                    config.getImageVariety(), config.getImageWidth());
+            client.prepare(seedMenus(context, config.getSeedMenus()));
+            System.out.println(config);
+            
+            // JIT 컴파일과 커넥션 풀이 안정될 때까지 돌린 결과는 버린다
+            drive(config, client, config.getWarmup(), new LatencyReport());
+            
+            LatencyReport report = new LatencyReport();
+            long started = System.nanoTime();
+            drive(config, client, config.getDuration(), report);
+            double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+            
+            report.print(System.out, elapsedSeconds);
+            String prefix = config.getModel().name().toLowerCase();
+            report.writePercentileDistributions(config.getReportDir(), prefix);
+            System.out.println("백분위 분포: " + config.getReportDir().toAbsolutePath().resolve(prefix + "-*.hgrm"));
+        }
+    }
+    
+    /**
+     * 애플리케이션을 임의 포트와 H2 인메모리 DB로 띄운다
+     * application.yaml보다 우선하도록 설정을 명령행 인자로 넘긴다
+     * @param uploadDir 로컬 이미지 업로드 폴더
+     * @return 애플리케이션 컨텍스트
+     */
+    private static ConfigurableApplicationContext startApplication(Path uploadDir) {
+        Map<String, String> properties = Map.ofEntries(
+                Map.entry("spring.profiles.active", "local"),
+                Map.entry("server.port", "0"),
+                Map.entry("spring.datasource.driver-class-name", "org.h2.Driver"),
+                Map.entry("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000"),
+                Map.entry("spring.datasource.username", "sa"),
+                Map.entry("spring.datasource.password", ""),
+                Map.entry("spring.jpa.hibernate.ddl-auto", "create-drop"),
+                Map.entry("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect"),
+                Map.entry("spring.jpa.show-sql", "false"),
+                Map.entry("spring.sql.init.mode", "never"),
+                Map.entry("spring.flyway.enabled", "false"),
+                Map.entry("file.upload.path", uploadDir.toString()),
+                // 요청마다 찍히는 로그가 측정을 흐리지 않게 한다
+                Map.entry("logging.level.root", "WARN"),
+                Map.entry("logging.level.com.ohgiraffers.awsdeploy", "WARN"),
+                Map.entry("logging.level.org.springframework.web", "WARN"));
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(Chap02AwsDeployApplication.class).run(args);
+    }
+    
+    /**
+     * 카테고리 3개와 이미지 없는 메뉴를 등록한다
+     * @param context 애플리케이션 컨텍스트
+     * @param count 등록할 메뉴 수
+     * @return 등록된 메뉴 코드
+     */
+    private static List<Long> seedMenus(ConfigurableApplicationContext context, int count) {
+        List<Category> categories = context.getBean(CategoryRepository.class).saveAll(
+                List.of(new Category("식사"), new Category("디저트"), new Category("음료")));
+        List<MenuRegisterRequestDTO> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(new MenuRegisterRequestDTO("시드메뉴" + i, 1_000 + i * 10, "부하 테스트 시드 메뉴",
+                    categories.get(i % categories.size()).getCategoryCode(), 1_000_000, null));
+        }
+        return context.getBean(MenuService.class).registerMenus(requests, Map.of()).stream()
+                .map(MenuDTO::getMenuCode)
+                .toList();
+    }
+    
+    /**
+     * 설정한 모델로 정해진 시간 동안 요청을 보낸다
+     * @param config 부하 테스트 설정
+     * @param client HTTP 클라이언트
+     * @param duration 요청을 보낼 시간
+     * @param report 지연 시간 집계
+     */
+    private static void drive(LoadTestConfig config, LoadClient client, Duration duration, LatencyReport report)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (config.getModel() == LoadTestConfig.Model.CLOSED) {
+                for (int i = 0; i < config.getConcurrency(); i++) {
+                    executor.execute(() -> {
+                        while (System.nanoTime() - deadline < 0) {
+                            Operation operation = config.nextOperation();
+                            send(client, operation, System.nanoTime(), report);
+                        }
+                    });
+                }
+            } else {
+                // 요청마다 보낼 예정 시각을 정해 두고, 서버가 밀려 늦게 보내진 시간까지 지연 시간에 넣는다
+                // (앞 요청이 늦어져 다음 요청을 덜 보내는 coordinated omission을 막는다)
+                long interval = TimeUnit.SECONDS.toNanos(1) / config.getRate();
+                long start = System.nanoTime();
+                for (long i = 0; ; i++) {
+                    long intended = start + i * interval;
+                    if (intended - deadline >= 0) {
+                        break;
+                    }
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    Operation operation = config.nextOperation();
+                    executor.execute(() -> send(client, operation, intended, report));
+                }
+            }
+            executor.shutdown();
+            // 보낸 요청은 응답 제한 시간까지 기다려 집계에 넣는다
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+    
+    /**
+     * 요청 하나를 보내고 지연 시간을 기록한다
+     * @param client HTTP 클라이언트
+     * @param operation 요청 종류
+     * @param startNanos 지연 시간의 기준 시각 (열린 모델은 보낼 예정이던 시각)
+     * @param report 지연 시간 집계
+     */
+    private static void send(LoadClient client, Operation operation, long startNanos, LatencyReport report) {
+        boolean success;
+        try {
+            int status = client.execute(operation);
+            if (status == LoadClient.SKIPPED) {
+                report.skip(operation);
+                return;
+            }
+            success = status >= 200 && status < 300;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            success = false;
+        }
+        report.record(operation, System.nanoTime() - startNanos, success);
+    }
+}
@@ -0,0 +1,43 @@
+package com.ohgiraffers.awsdeploy.loadtest;
+
+/**
+ * 부하 테스트가 보내는 요청 종류
+ * load.mix 설정에서 각 요청의 비중을 key=가중치로 지정한다 (예: list=50,get=30,create=10,delete=5,image=5)
+ */
+public enum Operation {
+    
+    // GET /api/menus
+    LIST("list"),
+    // GET /api/menus/{menuCode}
+    GET("get"),
+    // POST /api/menus (multipart, 이미지 포함)
+    CREATE("create"),
+    // DELETE /api/menus/{menuCode} (부하 테스트 중에 등록한 메뉴만 지운다)
+    DELETE("delete"),
+    // GET /api/images/{filename}
+    IMAGE("image");
+    
+    private final String key;
+    
+    Operation(String key) {
+        this.key = key;
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    /**
+     * load.mix 설정의 key로 요청 종류를 찾는다
+     * @param key 요청 종류 이름
+     * @return 요청 종류
+     */
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("알 수 없는 요청 종류입니다: " + key);
+    }
+}
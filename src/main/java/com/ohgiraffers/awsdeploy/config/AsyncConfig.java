@@ -0,0 +1,132 @@
+package com.ohgiraffers.awsdeploy.config;
+
+import com.ohgiraffers.awsdeploy.util.SqlStatementStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 비동기 실행 설정
+ * DB 트랜잭션 밖에서 병렬로 처리할 작업용 스레드 풀을 등록하고, 이미지 삭제 대기열 같은 주기 작업을 켠다
+ * virtual 프로파일(spring.threads.virtual.enabled)에서는 업로드 작업을 가상 스레드로 실행한다
+ * 업로드 작업이 실행한 SQL은 작업을 제출한 요청의 SQL 통계에 센다
+ */
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+    
+    /**
+     * 이미지 업로드용 스레드 풀
+     * 업로드는 대부분 네트워크/디스크 대기이므로 CPU 수와 관계없이 고정 크기로 둔다
+     * @param poolSize 동시에 업로드할 최대 파일 수
+     * @return 이미지 업로드 실행기
+     */
+    @Bean(name = "imageUploadExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor imageUploadExecutor(@Value("${app.image-upload.pool-size:8}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("image-upload-");
+        // 대기열이 가득 차면 요청 스레드가 직접 업로드해서 자연스럽게 속도를 늦춘다
+        // 요청 스레드에서만 작업을 넣는다 (S3 완료 스레드가 넘기는 작업은 imageCallbackExecutor를 쓴다)
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(SqlStatementStats::wrap);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+    
+    /**
+     * 가상 스레드 이미지 업로드 실행기
+     * 작업마다 가상 스레드를 만들어 S3/디스크 대기 중에 플랫폼 스레드를 붙잡지 않는다
+     * DB 작업의 동시 실행 수는 Hikari 커넥션 풀이 제한하고, 이 한도는 S3 연결과 업로드 임시 파일을 붙잡은 채 기다리는 작업 수만 묶어 둔다 (넘치면 제출한 스레드가 기다리며 속도를 늦춘다)
+     * @param concurrencyLimit 동시에 실행할 최대 업로드 작업 수
+     * @return 이미지 업로드 실행기
+     */
+    @Bean(name = "imageUploadExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualImageUploadExecutor(
+            @Value("${app.image-upload.virtual-concurrency-limit:64}") int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("image-upload-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setTaskTerminationTimeout(30_000);
+        executor.setTaskDecorator(SqlStatementStats::wrap);
+        return executor;
+    }
+    
+    /**
+     * 이미지 업로드 후처리용 스레드 풀
+     * S3 완료 스레드(Netty 이벤트 루프)와 변형 스레드가 메뉴 저장, 참조 되돌리기 같은 DB 작업을 넘기는 곳이다
+     * 넘긴 스레드가 대신 실행하면 그동안 모든 S3 입출력이 멈추므로, 대기열이 가득 차면 거절하고 요청을 503으로 끝낸다
+     * @param poolSize 동시에 실행할 최대 후처리 작업 수
+     * @param queueCapacity 대기할 수 있는 최대 후처리 작업 수
+     * @return 이미지 업로드 후처리 실행기
+     */
+    @Bean(name = "imageCallbackExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor imageCallbackExecutor(@Value("${app.image-upload.pool-size:8}") int poolSize,
+                                                        @Value("${app.image-upload.callback-queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-callback-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setTaskDecorator(SqlStatementStats::wrap);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+    
+    /**
+     * 가상 스레드 이미지 업로드 후처리 실행기
+     * 한도에 닿으면 넘긴 스레드를 기다리게 하지 않고 거절한다 (S3 완료 스레드를 붙잡지 않는다)
+     * @param concurrencyLimit 동시에 실행할 최대 후처리 작업 수
+     * @return 이미지 업로드 후처리 실행기
+     */
+    @Bean(name = "imageCallbackExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualImageCallbackExecutor(
+            @Value("${app.image-upload.virtual-concurrency-limit:64}") int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("image-callback-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setRejectTasksWhenLimitReached(true);
+        executor.setTaskTerminationTimeout(30_000);
+        executor.setTaskDecorator(SqlStatementStats::wrap);
+        return executor;
+    }
+    
+    /**
+     * 이미지 변형(썸네일) 생성용 스레드 풀
+     * 디코딩과 리사이즈는 CPU와 힙을 많이 쓰므로 작은 풀과 제한된 대기열로 동시에 처리할 이미지 수를 묶어 둔다
+     * CPU 작업이라 가상 스레드로 얻을 것이 없으므로 virtual 프로파일에서도 플랫폼 스레드 풀을 쓴다
+     * @param poolSize 동시에 변형을 만들 최대 이미지 수
+     * @param queueCapacity 대기할 수 있는 최대 이미지 수
+     * @return 이미지 변형 실행기
+     */
+    @Bean(name = "imageVariantExecutor")
+    public ThreadPoolTaskExecutor imageVariantExecutor(@Value("${app.image-variant.pool-size:1}") int poolSize,
+                                                       @Value("${app.image-variant.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-variant-");
+        // 대기열이 가득 차면 업로드를 붙잡지 않고 변형 생성을 건너뛴다 (원본 이미지는 그대로 쓸 수 있다)
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ohgiraffers.awsdeploy.config;
+
+import com.ohgiraffers.awsdeploy.util.AdaptiveConcurrencyLimit;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * 동시 처리 한도 설정
+ * API 요청(/api/*)에만 한도를 건다 (헬스 체크와 정적 자원은 거절하지 않는다)
+ * app.concurrency-limit.enabled=false면 필터를 등록하지 않는다
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+    
+    /**
+     * 한도를 넘는 API 요청을 503으로 돌려보내는 필터
+     * 거절한 요청도 http.server.requests에 남도록 관찰(observation) 필터 뒤에 둔다
+     * @param meterRegistry 지표 레지스트리
+     * @param retryAfter 거절할 때 Retry-After로 알려줄 대기 시간
+     * @return 필터 등록 정보
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.concurrency-limit.read.initial-limit:20}") int readInitialLimit,
+            @Value("${app.concurrency-limit.read.min-limit:4}") int readMinLimit,
+            @Value("${app.concurrency-limit.read.max-limit:200}") int readMaxLimit,
+            @Value("${app.concurrency-limit.write.initial-limit:8}") int writeInitialLimit,
+            @Value("${app.concurrency-limit.write.min-limit:2}") int writeMinLimit,
+            @Value("${app.concurrency-limit.write.max-limit:64}") int writeMaxLimit,
+            @Value("${app.concurrency-limit.storage.initial-limit:4}") int storageInitialLimit,
+            @Value("${app.concurrency-limit.storage.min-limit:1}") int storageMinLimit,
+            @Value("${app.concurrency-limit.storage.max-limit:16}") int storageMaxLimit,
+            @Value("${app.concurrency-limit.retry-after:1s}") Duration retryAfter) {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(meterRegistry,
+                new AdaptiveConcurrencyLimit(readInitialLimit, readMinLimit, readMaxLimit),
+                new AdaptiveConcurrencyLimit(writeInitialLimit, writeMinLimit, writeMaxLimit),
+                new AdaptiveConcurrencyLimit(storageInitialLimit, storageMinLimit, storageMaxLimit),
+                retryAfter);
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
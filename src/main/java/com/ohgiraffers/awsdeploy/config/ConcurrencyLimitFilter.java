@@ -0,0 +1,154 @@
+package com.ohgiraffers.awsdeploy.config;
+
+import com.ohgiraffers.awsdeploy.util.AdaptiveConcurrencyLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * 동시 처리 한도 필터
+ * RDS나 S3가 느려져 요청이 Tomcat에 쌓이면 메모리가 바닥나기 전에 한도를 넘는 요청을 바로 503으로 돌려보낸다
+ * 조회(GET, HEAD), 가벼운 쓰기(재고 차감, 서명 URL 발급, JSON 메뉴 등록), 저장소 작업(multipart 업로드, 삭제)은 처리 비용이 달라 한도를 따로 둔다
+ * 업로드가 몰려 저장소 한도가 차도 주문 요청(재고 차감)은 쓰기 한도로 계속 받는다
+ * 거절도 요청 스레드에서 하지만 컨트롤러와 DB/S3를 거치지 않고 바로 응답하므로 스레드를 오래 붙잡지 않는다
+ * 한도는 AdaptiveConcurrencyLimit가 응답 시간을 보고 조정한다
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    
+    private final Group read;
+    private final Group write;
+    private final Group storage;
+    private final String retryAfterSeconds;
+    
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry, AdaptiveConcurrencyLimit readLimit,
+                                  AdaptiveConcurrencyLimit writeLimit, AdaptiveConcurrencyLimit storageLimit,
+                                  Duration retryAfter) {
+        this.read = Group.register(meterRegistry, "read", readLimit);
+        this.write = Group.register(meterRegistry, "write", writeLimit);
+        this.storage = Group.register(meterRegistry, "storage", storageLimit);
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Group group = isRead(request) ? read : isStorage(request) ? storage : write;
+        if (!group.limit().tryAcquire()) {
+            group.rejected().increment();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            return;
+        }
+        group.accepted().increment();
+        
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                // 비동기 컨트롤러(CompletableFuture)는 응답을 마칠 때까지 자리를 차지한다
+                request.getAsyncContext().addListener(new ReleaseListener(group, start, response));
+            } else {
+                group.limit().release(System.nanoTime() - start, failed || response.getStatus() >= 500);
+            }
+        }
+    }
+    
+    /**
+     * @param request 요청
+     * @return 조회 요청이면 true
+     */
+    static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+    
+    /**
+     * multipart 업로드와 삭제는 임시 파일과 S3 연결을 오래 붙잡으므로 저장소 한도로 센다
+     * @param request 조회가 아닌 요청
+     * @return 저장소 작업 요청이면 true
+     */
+    static boolean isStorage(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return HttpMethod.DELETE.matches(request.getMethod())
+                || (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("multipart/"));
+    }
+    
+    /**
+     * 요청 종류별 한도와 지표
+     */
+    private record Group(AdaptiveConcurrencyLimit limit, Counter accepted, Counter rejected) {
+        
+        private static Group register(MeterRegistry meterRegistry, String name, AdaptiveConcurrencyLimit limit) {
+            Gauge.builder("http.server.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .description("응답 시간에 따라 조정된 동시 처리 한도")
+                    .tag("group", name)
+                    .register(meterRegistry);
+            Gauge.builder("http.server.concurrency.inflight", limit, AdaptiveConcurrencyLimit::getInflight)
+                    .description("처리 중인 요청 수")
+                    .tag("group", name)
+                    .register(meterRegistry);
+            return new Group(limit, requestCounter(meterRegistry, name, "accepted"),
+                    requestCounter(meterRegistry, name, "rejected"));
+        }
+        
+        private static Counter requestCounter(MeterRegistry meterRegistry, String name, String result) {
+            return Counter.builder("http.server.concurrency.requests")
+                    .description("동시 처리 한도로 받거나 거절한 요청 수")
+                    .tag("group", name)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+    
+    /**
+     * 비동기 처리가 끝나면 자리를 돌려주는 리스너
+     * 시간 초과나 오류로 끝나도 onComplete가 불린다
+     */
+    private static class ReleaseListener implements AsyncListener {
+        
+        private final Group group;
+        private final long start;
+        private final HttpServletResponse response;
+        
+        private ReleaseListener(Group group, long start, HttpServletResponse response) {
+            this.group = group;
+            this.start = start;
+            this.response = response;
+        }
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            group.limit().release(System.nanoTime() - start, response.getStatus() >= 500);
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // 비동기 처리를 다시 시작하면 리스너가 지워지므로 다시 건다
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.ohgiraffers.awsdeploy.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 읽기 복제본 설정
+ * app.datasource.replica.urls에 복제본 주소가 있을 때만 켜지며, 주 DB 풀과 복제본 풀을 만들어 ReadReplicaRouter로 묶는다
+ * 주 DB 풀은 spring.datasource.*와 spring.datasource.hikari.*를 그대로 쓰고,
+ * 복제본 풀은 같은 Hikari 설정에 app.datasource.replica.hikari.*를 덮어쓴다 (사용자명/비밀번호도 따로 줄 수 있다)
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.urls")
+public class ReadReplicaConfig {
+    
+    /**
+     * 주 DB와 복제본 커넥션 풀을 만들고 라우터로 묶는다
+     * @param properties spring.datasource 설정
+     * @param environment Hikari 설정을 바인딩할 환경
+     * @param meterRegistry 커넥션 풀과 라우팅 지표 레지스트리
+     * @param replicaUrls 복제본 JDBC URL 목록
+     * @param maxLag 복제본을 쓸 수 있는 최대 복제 지연
+     * @param readYourWritesWindow 쓰기 뒤 모든 읽기를 주 DB로 보내는 시간
+     * @param lagQuery 복제 지연(초)을 조회하는 SQL (비우면 PostgreSQL 기본 쿼리)
+     * @return 읽기 복제본 라우터
+     */
+    @Bean(destroyMethod = "close")
+    public ReadReplicaRouter readReplicaRouter(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+                                               @Value("${app.datasource.replica.urls}") List<String> replicaUrls,
+                                               @Value("${app.datasource.replica.max-lag:1s}") Duration maxLag,
+                                               @Value("${app.datasource.replica.read-your-writes-window:5s}") Duration readYourWritesWindow,
+                                               @Value("${app.datasource.replica.lag-query:}") String lagQuery) {
+        Binder binder = Binder.get(environment);
+        HikariConfig primaryConfig = new HikariConfig();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primaryConfig));
+        primaryConfig.setJdbcUrl(properties.determineUrl());
+        primaryConfig.setUsername(properties.determineUsername());
+        primaryConfig.setPassword(properties.determinePassword());
+        primaryConfig.setDriverClassName(properties.determineDriverClassName());
+        
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig replicaConfig = new HikariConfig();
+            primaryConfig.copyStateTo(replicaConfig);
+            binder.bind("app.datasource.replica.hikari", Bindable.ofInstance(replicaConfig));
+            replicaConfig.setJdbcUrl(replicaUrls.get(i).trim());
+            replicaConfig.setReadOnly(true);
+            String name = "replica-" + (i + 1);
+            replicas.put(name, pool(replicaConfig, name, meterRegistry));
+        }
+        return new ReadReplicaRouter(pool(primaryConfig, "primary", meterRegistry), replicas,
+                maxLag, readYourWritesWindow, lagQuery, meterRegistry);
+    }
+    
+    /**
+     * 애플리케이션이 쓰는 데이터소스
+     * JPA, Flyway 모두 이 데이터소스를 쓰며, 읽기 전용 트랜잭션만 복제본으로 간다
+     * @param readReplicaRouter 읽기 복제본 라우터
+     * @return 라우팅 데이터소스
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRouter readReplicaRouter) {
+        return readReplicaRouter.getDataSource();
+    }
+    
+    /**
+     * 커넥션 풀을 만든다
+     * 여러 풀의 hikaricp_* 지표를 pool 태그로 나누어 볼 수 있도록 풀 이름을 붙인다
+     */
+    private static HikariDataSource pool(HikariConfig config, String poolName, MeterRegistry meterRegistry) {
+        config.setPoolName(poolName);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,283 @@
+package com.ohgiraffers.awsdeploy.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기 복제본 라우터
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true))은 복제본 풀로, 나머지는 모두 주 DB로 보낸다
+ * 복제본은 주기적으로 복제 지연을 재서 기준을 넘거나 응답하지 않으면 다시 따라잡을 때까지 빼고, 쓸 수 있는 복제본이 없으면 주 DB에서 읽는다
+ * 주 DB에 쓰기(INSERT/UPDATE/DELETE)가 일어나면 그 뒤 일정 시간 동안은 모든 읽기를 주 DB로 보낸다
+ * (메뉴 카탈로그 캐시가 커밋 직후 다시 만들어지므로 복제본이 아직 모르는 데이터로 캐시가 채워지지 않게 한다)
+ */
+public class ReadReplicaRouter implements AutoCloseable {
+    
+    // PostgreSQL 스트리밍 복제본의 지연(초). 받은 WAL을 모두 재생했으면 0, 복제본이 아니면 NULL(0으로 본다)
+    public static final String DEFAULT_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+    
+    private static final String PRIMARY = "primary";
+    
+    // 지연 측정 쿼리 제한 시간 (초)
+    private static final int LAG_QUERY_TIMEOUT_SECONDS = 2;
+    
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final long readYourWritesWindowNanos;
+    private final String lagQuery;
+    private final LazyConnectionDataSourceProxy dataSource;
+    
+    // 마지막으로 주 DB에 쓴 시각 (System.nanoTime, 아직 쓰지 않았으면 Long.MIN_VALUE)
+    private volatile long lastWriteNanos = Long.MIN_VALUE;
+    // 복제본을 번갈아 고르기 위한 순번
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    // 쓰기 트랜잭션이 커밋될 때 쓰기 시각을 다시 남긴다 (트랜잭션마다 한 번만 등록된다)
+    private final TransactionSynchronization writeCommitted = new WriteCommitted();
+    
+    private final Counter writeRoutes;
+    private final Counter readYourWritesRoutes;
+    private final Counter replicaUnavailableRoutes;
+    private final Counter replicaRoutes;
+    
+    /**
+     * @param primary 주 DB 커넥션 풀
+     * @param replicas 복제본 이름 → 복제본 커넥션 풀
+     * @param maxLag 복제본을 쓸 수 있는 최대 복제 지연
+     * @param readYourWritesWindow 쓰기 뒤 모든 읽기를 주 DB로 보내는 시간
+     * @param lagQuery 복제 지연(초)을 조회하는 SQL (비어 있으면 PostgreSQL 기본 쿼리)
+     * @param meterRegistry 지표 레지스트리
+     */
+    public ReadReplicaRouter(DataSource primary, Map<String, DataSource> replicas, Duration maxLag,
+                             Duration readYourWritesWindow, String lagQuery, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagMillis = maxLag.toMillis();
+        this.readYourWritesWindowNanos = readYourWritesWindow.toNanos();
+        this.lagQuery = (lagQuery == null || lagQuery.isBlank()) ? DEFAULT_LAG_QUERY : lagQuery;
+        
+        this.replicas = new ArrayList<>(replicas.size());
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, ProxyDataSourceBuilder.create(primary)
+                .name(PRIMARY)
+                .listener(new WriteListener())
+                .build());
+        replicas.forEach((name, replicaDataSource) -> {
+            Replica replica = new Replica(name, replicaDataSource);
+            this.replicas.add(replica);
+            targets.put(name, replicaDataSource);
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("복제본의 복제 지연 (측정 실패 시 NaN)")
+                    .baseUnit("seconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+        
+        RoutingDataSource routing = new RoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(targets.get(PRIMARY));
+        routing.afterPropertiesSet();
+        // 트랜잭션의 읽기 전용 여부가 정해진 뒤 첫 SQL을 실행할 때 커넥션을 고르도록 실제 커넥션을 늦게 얻는다
+        this.dataSource = new LazyConnectionDataSourceProxy(routing);
+        this.dataSource.setDefaultAutoCommit(true);
+        this.dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        
+        this.writeRoutes = routeCounter(meterRegistry, PRIMARY, "write");
+        this.readYourWritesRoutes = routeCounter(meterRegistry, PRIMARY, "read_your_writes");
+        this.replicaUnavailableRoutes = routeCounter(meterRegistry, PRIMARY, "replica_unavailable");
+        this.replicaRoutes = routeCounter(meterRegistry, "replica", "read");
+    }
+    
+    /**
+     * 트랜잭션에 따라 주 DB와 복제본으로 나누어 보내는 데이터소스
+     * @return 라우팅 데이터소스
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+    
+    /**
+     * 복제본마다 복제 지연을 재서 쓸 수 있는지 갱신한다
+     * 처음 잴 때까지는 복제본을 쓰지 않는다
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval:1s}")
+    public void checkReplicaLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(LAG_QUERY_TIMEOUT_SECONDS);
+                try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                    double lagSeconds = resultSet.next() ? resultSet.getDouble(1) : 0;
+                    replica.lagSeconds = lagSeconds;
+                    replica.available = lagSeconds * 1000 <= maxLagMillis;
+                }
+            } catch (SQLException e) {
+                replica.lagSeconds = Double.NaN;
+                replica.available = false;
+            }
+        }
+    }
+    
+    /**
+     * 주 DB에 쓴 시각을 남긴다
+     * 트랜잭션 안이면 커밋 시점에 한 번 더 남겨서, 커밋 직후 다시 만들어지는 캐시도 주 DB에서 읽게 한다
+     */
+    void recordWrite() {
+        lastWriteNanos = System.nanoTime();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(writeCommitted);
+        }
+    }
+    
+    /**
+     * 지금 커넥션을 얻을 대상을 고른다
+     * @return 주 DB 또는 복제본 이름
+     */
+    String route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writeRoutes.increment();
+            return PRIMARY;
+        }
+        long lastWrite = lastWriteNanos;
+        if (lastWrite != Long.MIN_VALUE && System.nanoTime() - lastWrite < readYourWritesWindowNanos) {
+            readYourWritesRoutes.increment();
+            return PRIMARY;
+        }
+        
+        int size = replicas.size();
+        if (size == 0) {
+            replicaUnavailableRoutes.increment();
+            return PRIMARY;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.available) {
+                replicaRoutes.increment();
+                return replica.name;
+            }
+        }
+        replicaUnavailableRoutes.increment();
+        return PRIMARY;
+    }
+    
+    /**
+     * 주 DB와 복제본 커넥션 풀을 닫는다
+     */
+    @Override
+    public void close() throws Exception {
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+    
+    /**
+     * SQL이 데이터를 바꾸는 문인지 확인한다 (SELECT ... FOR UPDATE는 쓰기로 보지 않는다)
+     * @param query SQL
+     * @return INSERT, UPDATE, DELETE, MERGE 문이면 true
+     */
+    static boolean isWrite(String query) {
+        String statement = query.stripLeading().toLowerCase(Locale.ROOT);
+        return statement.startsWith("insert") || statement.startsWith("update")
+                || statement.startsWith("delete") || statement.startsWith("merge");
+    }
+    
+    private static Counter routeCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.routing")
+                .description("커넥션을 보낸 대상별 횟수")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * 복제본 하나와 마지막으로 잰 상태
+     */
+    private static class Replica {
+        
+        private final String name;
+        private final DataSource dataSource;
+        // 마지막으로 잰 복제 지연 (초)
+        private volatile double lagSeconds = Double.NaN;
+        // 복제 지연이 기준 안이라 읽기를 보낼 수 있는지
+        private volatile boolean available;
+        
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+    
+    private class RoutingDataSource extends AbstractRoutingDataSource {
+        
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return route();
+        }
+    }
+    
+    /**
+     * 주 DB에서 실행한 쓰기 문을 알아채는 리스너
+     */
+    private class WriteListener implements QueryExecutionListener {
+        
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+        
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                if (isWrite(queryInfo.getQuery())) {
+                    recordWrite();
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * 쓰기 트랜잭션이 커밋되면 쓰기 시각을 다시 남긴다
+     * 메뉴 카탈로그 캐시 무효화(afterCommit)보다 먼저 실행되도록 가장 높은 우선순위를 둔다
+     */
+    private class WriteCommitted implements TransactionSynchronization {
+        
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+        
+        @Override
+        public void afterCommit() {
+            lastWriteNanos = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.ohgiraffers.awsdeploy.config;
+
+import com.ohgiraffers.awsdeploy.util.SqlStatementStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * 요청별 SQL 통계 설정
+ * 데이터소스를 datasource-proxy로 감싸 실행한 SQL 문을 현재 요청의 통계에 더하고, API 요청마다 통계를 만들어 응답 헤더와 지표로 내보낸다
+ * app.sql-stats.enabled=false면 데이터소스를 감싸지 않는다
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql-stats.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatsConfig {
+    
+    /**
+     * 데이터소스를 SQL 문을 세는 프록시로 감싼다
+     * 다른 빈보다 먼저 만들어져야 하므로 static으로 등록한다
+     * @return 데이터소스 후처리기
+     */
+    @Bean
+    public static BeanPostProcessor sqlStatsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new StatementCountingListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+    
+    /**
+     * API 요청마다 SQL 통계를 만드는 필터
+     * 비동기 컨트롤러(CompletableFuture)는 응답을 마치는 ASYNC 디스패치에서 기록하도록 두 디스패치 모두에 건다
+     * @param meterRegistry 지표 레지스트리
+     * @param warnThreshold 이 개수를 넘는 SQL 문을 실행한 요청을 경고로 남긴다
+     * @return 필터 등록 정보
+     */
+    @Bean
+    public FilterRegistrationBean<SqlStatsFilter> sqlStatsFilter(MeterRegistry meterRegistry,
+                                                                 @Value("${app.sql-stats.warn-threshold:10}") int warnThreshold) {
+        FilterRegistrationBean<SqlStatsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatsFilter(meterRegistry, warnThreshold));
+        registration.addUrlPatterns("/api/*");
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        return registration;
+    }
+    
+    /**
+     * 실행이 끝난 SQL 문을 현재 스레드의 요청 통계에 더하는 리스너
+     * 요청 밖(스케줄러, 이미지 변형 후처리)에서 실행한 SQL은 세지 않는다
+     */
+    static class StatementCountingListener implements QueryExecutionListener {
+        
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+        
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            SqlStatementStats stats = SqlStatementStats.current();
+            if (stats != null) {
+                stats.record(execInfo.getElapsedTime());
+            }
+        }
+    }
+}
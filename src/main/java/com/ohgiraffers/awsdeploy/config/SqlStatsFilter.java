@@ -0,0 +1,109 @@
+package com.ohgiraffers.awsdeploy.config;
+
+import com.ohgiraffers.awsdeploy.util.SqlStatementStats;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * 요청별 SQL 통계 필터
+ * 요청마다 SQL 통계를 스레드에 묶고, 응답이 끝나면 실행한 SQL 문 수와 JDBC 시간을 지표로 남긴다
+ * 기준 개수를 넘은 요청은 N+1 조회를 의심할 수 있도록 경고 로그를 남긴다
+ */
+public class SqlStatsFilter extends OncePerRequestFilter {
+    
+    // 실행한 SQL 문 수 응답 헤더
+    public static final String COUNT_HEADER = "X-SQL-Count";
+    
+    // JDBC 실행 시간 합계(밀리초) 응답 헤더
+    public static final String TIME_HEADER = "X-SQL-Time";
+    
+    // 비동기 처리 후 ASYNC 디스패치에서 같은 통계를 이어 쓰기 위한 요청 속성
+    private static final String STATS_ATTRIBUTE = SqlStatsFilter.class.getName() + ".STATS";
+    
+    private static final Logger log = LoggerFactory.getLogger(SqlStatsFilter.class);
+    
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+    
+    public SqlStatsFilter(MeterRegistry meterRegistry, int warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+    
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = (SqlStatementStats) request.getAttribute(STATS_ATTRIBUTE);
+        if (stats == null) {
+            stats = new SqlStatementStats();
+            request.setAttribute(STATS_ATTRIBUTE, stats);
+        }
+        
+        SqlStatementStats previous = SqlStatementStats.bind(stats);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementStats.restore(previous);
+        }
+        
+        if (request.isAsyncStarted()) {
+            // 응답은 비동기 처리가 끝난 뒤 ASYNC 디스패치에서 마무리하므로 그때 기록한다
+            return;
+        }
+        // 본문이 있는 응답은 SqlStatsResponseAdvice가 본문을 쓰기 전에 헤더를 넣었다 (본문 없는 304, 404 등만 여기서 넣는다)
+        if (!response.isCommitted()) {
+            response.setHeader(COUNT_HEADER, String.valueOf(stats.getStatementCount()));
+            response.setHeader(TIME_HEADER, String.valueOf(stats.getElapsedMillis()));
+        }
+        record(request, stats);
+    }
+    
+    /**
+     * 요청의 SQL 통계를 지표로 남기고, 기준을 넘었으면 경고 로그를 남긴다
+     * @param request 끝난 요청
+     * @param stats 요청 통계
+     */
+    private void record(HttpServletRequest request, SqlStatementStats stats) {
+        // http.server.requests와 같은 uri 태그를 쓰도록 매핑된 경로 패턴을 쓴다 (실제 경로는 카디널리티가 크다)
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        long statementCount = stats.getStatementCount();
+        
+        DistributionSummary.builder("http.server.sql.statements")
+                .description("요청 하나가 실행한 SQL 문 수")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statementCount);
+        Timer.builder("http.server.sql.time")
+                .description("요청 하나의 JDBC 실행 시간 합계")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofMillis(stats.getElapsedMillis()));
+        
+        if (statementCount > warnThreshold) {
+            log.warn("SQL {}개 실행 (기준 {}개 초과, JDBC {}ms): {} {}",
+                    statementCount, warnThreshold, stats.getElapsedMillis(), request.getMethod(), request.getRequestURI());
+        }
+    }
+}
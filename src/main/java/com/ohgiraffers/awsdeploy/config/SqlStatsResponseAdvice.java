@@ -0,0 +1,35 @@
+package com.ohgiraffers.awsdeploy.config;
+
+import com.ohgiraffers.awsdeploy.util.SqlStatementStats;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 응답 본문에 SQL 통계 헤더를 넣는 어드바이스
+ * 본문을 쓰면 응답이 커밋되어 필터에서는 헤더를 넣을 수 없으므로, 조회가 끝나고 본문을 쓰기 직전에 넣는다
+ */
+@ControllerAdvice
+public class SqlStatsResponseAdvice implements ResponseBodyAdvice<Object> {
+    
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+    
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            response.getHeaders().set(SqlStatsFilter.COUNT_HEADER, String.valueOf(stats.getStatementCount()));
+            response.getHeaders().set(SqlStatsFilter.TIME_HEADER, String.valueOf(stats.getElapsedMillis()));
+        }
+        return body;
+    }
+}
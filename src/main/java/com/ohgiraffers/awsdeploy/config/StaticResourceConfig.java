@@ -0,0 +1,32 @@
+package com.ohgiraffers.awsdeploy.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+import java.time.Duration;
+
+/**
+ * 정적 자원 서빙 설정
+ * 빌드(processResources)가 내용 해시를 붙여 static/assets에 복사한 CSS/JS는 이름이 곧 버전이므로 1년 동안 재검증 없이 캐시한다
+ * 빌드가 미리 만든 .br/.gz 파일이 있으면 Accept-Encoding에 맞춰 그대로 보낸다
+ * index.html 등 나머지 정적 자원은 spring.web.resources 설정에 따라 매번 재검증한다
+ */
+@Configuration
+public class StaticResourceConfig implements WebMvcConfigurer {
+    
+    // 지문이 붙은 자원의 캐시 기간 (내용이 바뀌면 이름도 바뀐다)
+    private static final CacheControl ASSET_CACHE_CONTROL =
+            CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/assets/**")
+                .addResourceLocations("classpath:/static/assets/")
+                .setCacheControl(ASSET_CACHE_CONTROL)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+    }
+}
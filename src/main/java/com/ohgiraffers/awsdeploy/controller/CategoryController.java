@@ -1,14 +1,26 @@
 package com.ohgiraffers.awsdeploy.controller;
 
 import com.ohgiraffers.awsdeploy.dto.CategoryDTO;
+import com.ohgiraffers.awsdeploy.dto.MenuDTO;
 import com.ohgiraffers.awsdeploy.service.CategoryService;
+import com.ohgiraffers.awsdeploy.service.MenuService;
+import com.ohgiraffers.awsdeploy.service.ResponseBodyCache;
+import com.ohgiraffers.awsdeploy.util.HttpCacheUtils;
+import com.ohgiraffers.awsdeploy.util.MenuCborCodec;
+import com.ohgiraffers.awsdeploy.util.PrecompressedJson;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -20,25 +32,115 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class CategoryController {
     
+    // 카테고리는 거의 바뀌지 않으므로 10분 동안은 재검증 없이 사용한다
+    private static final CacheControl CATEGORY_CACHE_CONTROL =
+            CacheControl.maxAge(Duration.ofMinutes(10)).mustRevalidate();
+    // 메뉴 목록은 언제든 바뀔 수 있으므로 매번 ETag로 재검증한다
+    private static final CacheControl MENU_CACHE_CONTROL = CacheControl.noCache();
+    
     private final CategoryService categoryService;
+    private final MenuService menuService;
+    private final ResponseBodyCache responseBodyCache;
     
     @Autowired
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, MenuService menuService,
+                              ResponseBodyCache responseBodyCache) {
         this.categoryService = categoryService;
+        this.menuService = menuService;
+        this.responseBodyCache = responseBodyCache;
     }
     
     /**
      * 모든 카테고리 목록을 조회한다
-     * @return 카테고리 목록
+     * If-None-Match가 현재 목록 해시와 같으면 본문 없이 304를 반환한다
+     * 본문은 한 번만 직렬화/압축해 두고 Accept-Encoding에 맞는 바이트를 그대로 쓴다
+     * @param ifNoneMatch 클라이언트가 보관한 ETag
+     * @param acceptEncoding 클라이언트가 받을 수 있는 압축 방식
+     * @return 카테고리 목록 JSON
      */
     @GetMapping
-    public ResponseEntity<List<CategoryDTO>> getAllCategories() {
+    public ResponseEntity<byte[]> getAllCategories(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
+            // 압축본과 원본은 바이트가 다르므로 ETag를 나눈다
+            String etag = PrecompressedJson.strongETag(acceptEncoding, "categories", Long.toHexString(categoryService.getCategoriesHash()));
+            if (HttpCacheUtils.matchesIfNoneMatch(ifNoneMatch, etag)) {
+                return notModified(etag, CATEGORY_CACHE_CONTROL, HttpHeaders.ACCEPT_ENCODING);
+            }
+            
             List<CategoryDTO> categories = categoryService.findAllCategories();
-            return ResponseEntity.ok(categories);
+            return responseBodyCache.getJson("categories", categories).toResponse(ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CATEGORY_CACHE_CONTROL), acceptEncoding);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 카테고리에 속한 주문 가능한 메뉴 목록을 조회한다
+     * If-None-Match가 해당 카테고리의 현재 버전과 같으면 본문 없이 304를 반환한다
+     * Accept에 메뉴 목록 바이너리 형식(MenuCborCodec)을 명시하면 JSON 대신 CBOR로 응답한다
+     * @param categoryCode 카테고리 코드
+     * @param ifNoneMatch 클라이언트가 보관한 ETag
+     * @param accept 클라이언트가 받을 수 있는 형식
+     * @param acceptEncoding 클라이언트가 받을 수 있는 압축 방식
+     * @return 메뉴 목록 JSON 또는 CBOR
+     */
+    @GetMapping("/{categoryCode}/menus")
+    public ResponseEntity<byte[]> getMenusByCategory(
+            @PathVariable Long categoryCode,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        try {
+            boolean binary = MenuCborCodec.isRequested(accept);
+            long version = menuService.getCategoryCatalogVersion(categoryCode);
+            // 형식과 압축 방식마다 본문이 다르므로 ETag도 나눈다
+            String etag = binary
+                    ? HttpCacheUtils.strongETag("category", categoryCode, "menus", version, "cbor")
+                    : PrecompressedJson.strongETag(acceptEncoding, "category", categoryCode, "menus", version);
+            if (HttpCacheUtils.matchesIfNoneMatch(ifNoneMatch, etag)) {
+                // 200 응답과 같은 Vary를 보낸다 (JSON은 PrecompressedJson이 Accept-Encoding을 더한다)
+                return binary
+                        ? notModified(etag, MENU_CACHE_CONTROL, HttpHeaders.ACCEPT)
+                        : notModified(etag, MENU_CACHE_CONTROL, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+            }
+            
+            List<MenuDTO> menus = menuService.findOrderableMenusByCategory(categoryCode);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(MENU_CACHE_CONTROL)
+                    .varyBy(HttpHeaders.ACCEPT);
+            String key = "category:" + categoryCode;
+            if (binary) {
+                return response.contentType(MenuCborCodec.MEDIA_TYPE)
+                        .body(responseBodyCache.getMenuCbor(key, menus));
+            }
+            return responseBodyCache.getJson(key, menus).toResponse(response, acceptEncoding);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.internalServerError().build();
         }
     }
+    
+    /**
+     * 본문 없는 304 응답을 만든다
+     * RFC 9110에 따라 200 응답이 보냈을 Vary를 그대로 보내야 캐시가 다른 형식의 저장본을 이 응답으로 갱신하지 않는다
+     * @param etag 현재 ETag
+     * @param cacheControl 200 응답과 같은 캐시 정책
+     * @param vary 200 응답의 Vary 헤더 값
+     * @return 304 응답
+     */
+    private static <T> ResponseEntity<T> notModified(String etag, CacheControl cacheControl, String... vary) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(vary)
+                .build();
+    }
 } 
\ No newline at end of file
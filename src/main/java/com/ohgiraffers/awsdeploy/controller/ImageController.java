@@ -1,16 +1,31 @@
 package com.ohgiraffers.awsdeploy.controller;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.ohgiraffers.awsdeploy.util.FileUploadUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 /**
  * 이미지 서빙 컨트롤러
@@ -21,38 +36,116 @@ import java.nio.file.Paths;
 @CrossOrigin(origins = "*")
 public class ImageController {
     
-    @Value("${file.upload.path}")
-    private String uploadPath;
+    // Tomcat이 sendfile을 쓸 수 있을 때 요청에 넣어 주는 속성과, 본문 대신 파일을 소켓으로 바로 보내 달라고 알리는 속성
+    static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // 작은 파일은 sendfile로 넘기는 것보다 바로 쓰는 편이 빠르다 (Tomcat DefaultServlet 기본값과 같다)
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+    
+    // 내용 해시나 UUID로 만든 파일명(크기별 변형 포함)은 내용이 바뀌지 않으므로 재검증 없이 1년 동안 캐시하게 한다
+    private static final Pattern IMMUTABLE_IMAGE_NAME = Pattern.compile(
+            "([0-9a-f]{64}|[0-9a-f]{8}-?[0-9a-f]{4}-?[0-9a-f]{4}-?[0-9a-f]{4}-?[0-9a-f]{12})(_w\\d+)?\\.[A-Za-z0-9]+");
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE_CACHE_CONTROL = "no-cache";
+    
+    // 이미지 서빙 결과: 파일을 보냄, 캐시가 유효함(304), 요청 구간이 파일 밖(416), 파일 없음(404), 처리 실패(500)
+    static final String SERVE_HIT = "hit";
+    static final String SERVE_NOT_MODIFIED = "not_modified";
+    static final String SERVE_RANGE_NOT_SATISFIABLE = "range_not_satisfiable";
+    static final String SERVE_MISS = "miss";
+    static final String SERVE_ERROR = "error";
+    
+    private final FileUploadUtils fileUploadUtils;
+    // 결과별 이미지 서빙 시간
+    private final Map<String, Timer> serveTimers;
+    
+    public ImageController(FileUploadUtils fileUploadUtils, MeterRegistry meterRegistry) {
+        this.fileUploadUtils = fileUploadUtils;
+        this.serveTimers = Map.of(
+                SERVE_HIT, serveTimer(meterRegistry, SERVE_HIT),
+                SERVE_NOT_MODIFIED, serveTimer(meterRegistry, SERVE_NOT_MODIFIED),
+                SERVE_RANGE_NOT_SATISFIABLE, serveTimer(meterRegistry, SERVE_RANGE_NOT_SATISFIABLE),
+                SERVE_MISS, serveTimer(meterRegistry, SERVE_MISS),
+                SERVE_ERROR, serveTimer(meterRegistry, SERVE_ERROR));
+    }
     
     /**
      * 이미지 파일을 서빙한다
+     * ETag/Last-Modified 조건부 요청(304)과 단일 구간 Range 요청(206)을 지원하고,
+     * 본문은 sendfile 또는 FileChannel.transferTo로 힙에 복사하지 않고 보낸다
      * @param filename 이미지 파일명
-     * @return 이미지 파일
+     * @param request HTTP 요청
+     * @param response HTTP 응답
      */
     @GetMapping("/{filename}")
-    public ResponseEntity<Resource> serveImage(@PathVariable String filename) {
-        
-		try {
-            // 프로젝트 루트 기준으로 절대 경로 생성
-            String projectRoot = System.getProperty("user.dir");
-            String fullUploadPath = projectRoot + File.separator + uploadPath;
-            Path filePath = Paths.get(fullUploadPath).resolve(filename);
-            Resource resource = new FileSystemResource(filePath);
+    public void serveImage(@PathVariable String filename, HttpServletRequest request, HttpServletResponse response) {
+        long started = System.nanoTime();
+        String result = writeImage(filename, request, response);
+        serveTimers.get(result).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * 이미지 파일을 응답에 쓰고 서빙 결과를 반환한다
+     * @param filename 이미지 파일명
+     * @param request HTTP 요청
+     * @param response HTTP 응답
+     * @return 서빙 결과 (hit, not_modified, miss, error)
+     */
+    private String writeImage(String filename, HttpServletRequest request, HttpServletResponse response) {
+        try {
+            Path filePath = fileUploadUtils.resolve(filename);
+            if (!Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return SERVE_MISS;
+            }
             
-            if (!resource.exists() || !resource.isReadable()) {
-                return ResponseEntity.notFound().build();
+            BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+            long length = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+            
+            response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE_IMAGE_NAME.matcher(filename).matches()
+                    ? IMMUTABLE_CACHE_CONTROL
+                    : REVALIDATE_CACHE_CONTROL);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            // If-None-Match/If-Modified-Since가 맞으면 304, If-Match/If-Unmodified-Since가 어긋나면 412로 끝낸다 (ETag, Last-Modified 헤더도 여기서 붙는다)
+            if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+                return SERVE_NOT_MODIFIED;
             }
             
             // 파일 확장자에 따른 Content-Type 설정
-            String contentType = getContentType(filename);
+            response.setContentType(getContentType(filename));
             
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_TYPE, contentType)
-                    .body(resource);
-                    
+            HttpRange range = getRequestedRange(request, etag, lastModified);
+            long start = 0;
+            long end = length - 1;
+            if (range != null) {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+                if (start >= length || start > end) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    // 파일을 보내지 않았으므로 적중률에 넣지 않는다
+                    return SERVE_RANGE_NOT_SATISFIABLE;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+            
+            writeFile(request, response, filePath, start, end - start + 1);
+            return SERVE_HIT;
+            
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return SERVE_MISS;
         } catch (Exception e) {
             e.printStackTrace();
-            return ResponseEntity.internalServerError().build();
+            if (!response.isCommitted()) {
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
+            return SERVE_ERROR;
         }
     }
     
@@ -64,11 +157,7 @@ public class ImageController {
     @GetMapping("/download/{filename}")
     public ResponseEntity<Resource> downloadImage(@PathVariable String filename) {
         try {
-            // 프로젝트 루트 기준으로 절대 경로 생성
-            String projectRoot = System.getProperty("user.dir");
-            String fullUploadPath = projectRoot + File.separator + uploadPath;
-            Path filePath = Paths.get(fullUploadPath).resolve(filename);
-            Resource resource = new FileSystemResource(filePath);
+            Resource resource = new FileSystemResource(fileUploadUtils.resolve(filename));
             
             if (!resource.exists() || !resource.isReadable()) {
                 return ResponseEntity.notFound().build();
@@ -81,26 +170,118 @@ public class ImageController {
                     .header(HttpHeaders.CONTENT_TYPE, contentType)
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
                     .body(resource);
-                    
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.internalServerError().build();
         }
     }
     
+    /**
+     * 요청의 Range 헤더에서 보낼 구간을 구한다
+     * 여러 구간 요청, 형식이 잘못된 요청, If-Range가 현재 파일과 다른 요청은 전체 파일을 보낸다
+     * @param request HTTP 요청
+     * @param etag 현재 파일의 ETag
+     * @param lastModified 현재 파일의 수정 시각
+     * @return 보낼 구간 (전체 파일이면 null)
+     */
+    private HttpRange getRequestedRange(HttpServletRequest request, String etag, long lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+        
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                // If-Range는 강한 비교만 허용한다
+                if (!ifRange.equals(etag)) {
+                    return null;
+                }
+            } else {
+                try {
+                    if (request.getDateHeader(HttpHeaders.IF_RANGE) != lastModified / 1000 * 1000) {
+                        return null;
+                    }
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        }
+        
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * 파일의 지정 구간을 응답 본문으로 보낸다
+     * Tomcat이 sendfile을 지원하면 커널이 파일을 소켓으로 바로 보내게 하고,
+     * 아니면 FileChannel.transferTo로 힙 버퍼 없이 출력 스트림에 옮긴다
+     * @param request HTTP 요청
+     * @param response HTTP 응답
+     * @param filePath 보낼 파일
+     * @param start 시작 위치
+     * @param count 보낼 바이트 수
+     * @throws IOException 파일 읽기 또는 응답 쓰기 실패시 발생
+     */
+    private void writeFile(HttpServletRequest request, HttpServletResponse response,
+                           Path filePath, long start, long count) throws IOException {
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+        
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED)) && count >= SENDFILE_MIN_SIZE) {
+            request.setAttribute(SENDFILE_FILENAME, filePath.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long end = start + count;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, out);
+                if (transferred <= 0) {
+                    // 보내는 도중 파일이 줄어든 경우
+                    break;
+                }
+                position += transferred;
+            }
+        }
+    }
+    
+    private static Timer serveTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("image.serve")
+                .description("로컬 이미지 서빙 시간")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
     /**
      * 파일 확장자에 따른 Content-Type을 반환한다
+     * JMH 벤치마크(src/jmh)가 직접 호출할 수 있도록 패키지 범위로 둔다
      * @param filename 파일명
      * @return Content-Type
      */
-    private String getContentType(String filename) {
+    static String getContentType(String filename) {
         String extension = filename.substring(filename.lastIndexOf(".") + 1).toLowerCase();
         
         return switch (extension) {
             case "jpg", "jpeg" -> MediaType.IMAGE_JPEG_VALUE;
             case "png" -> MediaType.IMAGE_PNG_VALUE;
             case "gif" -> MediaType.IMAGE_GIF_VALUE;
+            case "webp" -> "image/webp";
             default -> MediaType.APPLICATION_OCTET_STREAM_VALUE;
         };
     }
-} 
\ No newline at end of file
+}
@@ -1,13 +1,32 @@
 package com.ohgiraffers.awsdeploy.controller;
 
+import com.ohgiraffers.awsdeploy.dto.ImageUploadRequestDTO;
 import com.ohgiraffers.awsdeploy.dto.MenuDTO;
+import com.ohgiraffers.awsdeploy.dto.MenuPageDTO;
+import com.ohgiraffers.awsdeploy.dto.MenuRegisterRequestDTO;
+import com.ohgiraffers.awsdeploy.dto.PresignedUploadDTO;
+import com.ohgiraffers.awsdeploy.dto.StockDecrementRequestDTO;
 import com.ohgiraffers.awsdeploy.service.MenuService;
+import com.ohgiraffers.awsdeploy.service.ResponseBodyCache;
+import com.ohgiraffers.awsdeploy.util.CursorUtils;
+import com.ohgiraffers.awsdeploy.util.HttpCacheUtils;
+import com.ohgiraffers.awsdeploy.util.MenuCborCodec;
+import com.ohgiraffers.awsdeploy.util.PrecompressedJson;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 메뉴 API 컨트롤러
@@ -18,22 +37,94 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class MenuController {
     
+    // 메뉴는 재고와 등록/삭제로 자주 바뀌므로 매번 ETag로 재검증하게 한다
+    private static final CacheControl MENU_CACHE_CONTROL = CacheControl.noCache();
+    // 한 번에 재고를 차감할 수 있는 최대 항목 수
+    private static final int MAX_STOCK_BATCH_SIZE = 100;
+    
     private final MenuService menuService;
+    private final ResponseBodyCache responseBodyCache;
     
     @Autowired
-    public MenuController(MenuService menuService) {
+    public MenuController(MenuService menuService, ResponseBodyCache responseBodyCache) {
         this.menuService = menuService;
+        this.responseBodyCache = responseBodyCache;
     }
     
     /**
      * 모든 주문 가능한 메뉴 목록을 조회한다
-     * @return 메뉴 목록
+     * If-None-Match가 현재 카탈로그 버전과 같으면 DB 조회 없이 304를 반환한다
+     * 본문은 카탈로그 스냅샷마다 한 번만 직렬화/압축해 두고 Accept-Encoding에 맞는 바이트를 그대로 쓴다
+     * Accept에 메뉴 목록 바이너리 형식(MenuCborCodec)을 명시하면 JSON 대신 CBOR로 응답한다
+     * @param ifNoneMatch 클라이언트가 보관한 ETag
+     * @param accept 클라이언트가 받을 수 있는 형식
+     * @param acceptEncoding 클라이언트가 받을 수 있는 압축 방식
+     * @return 메뉴 목록 JSON 또는 CBOR
      */
     @GetMapping
-    public ResponseEntity<List<MenuDTO>> getAllMenus() {
+    public ResponseEntity<byte[]> getAllMenus(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
+            boolean binary = MenuCborCodec.isRequested(accept);
+            // 형식과 압축 방식마다 본문이 다르므로 ETag도 나눈다
+            String etag = binary
+                    ? HttpCacheUtils.strongETag("menus", menuService.getCatalogVersion(), "cbor")
+                    : PrecompressedJson.strongETag(acceptEncoding, "menus", menuService.getCatalogVersion());
+            if (HttpCacheUtils.matchesIfNoneMatch(ifNoneMatch, etag)) {
+                // 200 응답과 같은 Vary를 보낸다 (JSON은 PrecompressedJson이 Accept-Encoding을 더한다)
+                return binary
+                        ? notModified(etag, HttpHeaders.ACCEPT)
+                        : notModified(etag, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+            }
+            
             List<MenuDTO> menus = menuService.findAllOrderableMenus();
-            return ResponseEntity.ok(menus);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(MENU_CACHE_CONTROL)
+                    .varyBy(HttpHeaders.ACCEPT);
+            if (binary) {
+                return response.contentType(MenuCborCodec.MEDIA_TYPE)
+                        .body(responseBodyCache.getMenuCbor("menus", menus));
+            }
+            return responseBodyCache.getJson("menus", menus).toResponse(response, acceptEncoding);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 주문 가능한 메뉴 목록을 커서 기반으로 한 페이지씩 조회한다
+     * limit 파라미터가 있을 때만 이 메서드가 선택된다
+     * @param limit 페이지 크기
+     * @param after 이전 페이지의 nextCursor (첫 페이지는 생략)
+     * @param ifNoneMatch 클라이언트가 보관한 ETag
+     * @return 메뉴 페이지
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<MenuPageDTO> getMenuPage(
+            @RequestParam("limit") int limit,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            // 커서를 먼저 검증해서 잘못된 값이 ETag 헤더에 섞이지 않게 한다
+            String position = (after == null || after.isEmpty())
+                    ? "first"
+                    : String.valueOf(CursorUtils.decodeMenuCursor(after));
+            String etag = HttpCacheUtils.strongETag("menus", menuService.getCatalogVersion(), position, limit);
+            if (HttpCacheUtils.matchesIfNoneMatch(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+            
+            MenuPageDTO page = menuService.findOrderableMenuPage(after, limit);
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(MENU_CACHE_CONTROL)
+                    .body(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.internalServerError().build();
@@ -42,14 +133,26 @@ public class MenuController {
     
     /**
      * 메뉴 코드로 특정 메뉴를 조회한다
+     * If-None-Match가 현재 카탈로그 버전과 같으면 DB 조회 없이 304를 반환한다
      * @param menuCode 메뉴 코드
+     * @param ifNoneMatch 클라이언트가 보관한 ETag
      * @return 메뉴 정보
      */
     @GetMapping("/{menuCode}")
-    public ResponseEntity<MenuDTO> getMenuByCode(@PathVariable Long menuCode) {
+    public ResponseEntity<MenuDTO> getMenuByCode(
+            @PathVariable Long menuCode,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
+            String etag = HttpCacheUtils.strongETag("menu", menuCode, menuService.getCatalogVersion());
+            if (HttpCacheUtils.matchesIfNoneMatch(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+            
             MenuDTO menu = menuService.findMenuByCode(menuCode);
-            return ResponseEntity.ok(menu);
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(MENU_CACHE_CONTROL)
+                    .body(menu);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -60,6 +163,7 @@ public class MenuController {
     
     /**
      * 새로운 메뉴를 등록한다
+     * 이미지 업로드가 끝날 때까지 요청 스레드를 붙잡지 않고, 메뉴가 저장되면 응답을 완료한다
      * @param menuName 메뉴명
      * @param menuPrice 메뉴 가격
      * @param menuDescription 메뉴 설명
@@ -69,7 +173,7 @@ public class MenuController {
      * @return 등록된 메뉴 정보
      */
     @PostMapping
-    public ResponseEntity<MenuDTO> registerMenu(
+    public CompletableFuture<ResponseEntity<MenuDTO>> registerMenu(
             @RequestParam("menuName") String menuName,
             @RequestParam("menuPrice") Integer menuPrice,
             @RequestParam("menuDescription") String menuDescription,
@@ -78,18 +182,112 @@ public class MenuController {
             @RequestParam(value = "imageFile", required = false) MultipartFile imageFile) {
         
         try {
-            MenuDTO registeredMenu = menuService.registerMenu(
-                    menuName, menuPrice, menuDescription, 
-                    categoryCode, menuStock, imageFile);
-            return ResponseEntity.ok(registeredMenu);
+            return menuService.registerMenuAsync(
+                            menuName, menuPrice, menuDescription, 
+                            categoryCode, menuStock, imageFile)
+                    .thenApply(ResponseEntity::ok)
+                    .exceptionally(this::registerFailed);
         } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return CompletableFuture.completedFuture(ResponseEntity.internalServerError().build());
+        }
+    }
+    
+    /**
+     * S3에 직접 업로드한 이미지로 새로운 메뉴를 등록한다
+     * 이미지 바이트는 이 요청에 실리지 않고, 업로드 확인과 메뉴 저장이 끝나면 응답을 완료한다
+     * @param request 등록할 메뉴 정보 (imageKey는 이미지 업로드 URL 발급 응답의 imageKey)
+     * @return 등록된 메뉴 정보 (S3 환경이 아니면 409)
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<MenuDTO>> registerMenuWithUploadedImage(
+            @RequestBody MenuRegisterRequestDTO request) {
+        if (request.getMenuName() == null || request.getMenuName().isBlank()
+                || request.getMenuPrice() == null || request.getCategoryCode() == null
+                || request.getMenuStock() == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        
+        try {
+            return menuService.registerMenuWithUploadedImageAsync(
+                            request.getMenuName(), request.getMenuPrice(), request.getMenuDescription(),
+                            request.getCategoryCode(), request.getMenuStock(), request.getImageKey())
+                    .thenApply(ResponseEntity::ok)
+                    .exceptionally(this::registerFailed);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        } catch (IllegalStateException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT).build());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return CompletableFuture.completedFuture(ResponseEntity.internalServerError().build());
+        }
+    }
+    
+    /**
+     * 이미지를 S3에 직접 올리기 위한 서명된 업로드 URL을 발급한다
+     * 응답의 uploadUrl로 headers와 함께 이미지를 PUT 한 뒤, imageKey를 담아 메뉴를 등록한다
+     * @param request 업로드할 이미지의 형식과 크기
+     * @return 서명된 업로드 정보 (S3 환경이 아니면 409)
+     */
+    @PostMapping("/images/presign")
+    public ResponseEntity<PresignedUploadDTO> presignImageUpload(@RequestBody ImageUploadRequestDTO request) {
+        if (request.getContentType() == null || request.getContentLength() == null) {
             return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            PresignedUploadDTO upload = menuService.presignImageUpload(
+                    request.getContentType(), request.getContentLength());
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .body(upload);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.internalServerError().build();
         }
     }
     
+    /**
+     * 여러 메뉴를 이미지 없이 한 번에 등록한다
+     * @param menus 등록할 메뉴 목록
+     * @return 등록된 메뉴 목록
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<MenuDTO>> registerMenus(@RequestBody List<MenuRegisterRequestDTO> menus) {
+        return registerMenuBatch(menus, Map.of());
+    }
+    
+    /**
+     * 여러 메뉴를 이미지와 함께 한 번에 등록한다
+     * 각 메뉴의 imageName은 images 파트 중 하나의 원본 파일명과 같아야 한다
+     * @param menus 등록할 메뉴 목록 (application/json 파트)
+     * @param images 메뉴 이미지 파일들
+     * @return 등록된 메뉴 목록
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<List<MenuDTO>> registerMenusWithImages(
+            @RequestPart("menus") List<MenuRegisterRequestDTO> menus,
+            @RequestPart(value = "images", required = false) List<MultipartFile> images) {
+        Map<String, MultipartFile> imagesByName = new HashMap<>();
+        if (images != null) {
+            for (MultipartFile image : images) {
+                // 같은 이름의 파일이 둘이면 어느 메뉴의 이미지인지 알 수 없다
+                if (image.getOriginalFilename() == null
+                        || imagesByName.putIfAbsent(image.getOriginalFilename(), image) != null) {
+                    return ResponseEntity.badRequest().build();
+                }
+            }
+        }
+        return registerMenuBatch(menus, imagesByName);
+    }
+    
     /**
      * 메뉴를 삭제한다
      * @param menuCode 삭제할 메뉴 코드
@@ -107,4 +305,126 @@ public class MenuController {
             return ResponseEntity.internalServerError().build();
         }
     }
+    
+    /**
+     * 메뉴 재고를 차감한다
+     * @param menuCode 메뉴 코드
+     * @param quantity 차감할 수량 (기본값 1)
+     * @return 차감 후 메뉴 정보 (재고가 부족하면 409)
+     */
+    @PostMapping("/{menuCode}/stock/decrement")
+    public ResponseEntity<MenuDTO> decrementStock(
+            @PathVariable Long menuCode,
+            @RequestParam(value = "quantity", defaultValue = "1") int quantity) {
+        if (quantity < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            MenuDTO menu = menuService.decrementStock(menuCode, quantity);
+            return ResponseEntity.ok(menu);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 여러 메뉴의 재고를 한 번에 차감한다
+     * 하나라도 재고가 부족하면 아무 재고도 차감하지 않는다
+     * @param items 메뉴별 차감 요청 목록
+     * @return 차감 후 메뉴 목록 (재고가 부족하면 409)
+     */
+    @PostMapping("/stock/decrement")
+    public ResponseEntity<List<MenuDTO>> decrementStocks(@RequestBody List<StockDecrementRequestDTO> items) {
+        if (items == null || items.isEmpty() || items.size() > MAX_STOCK_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        for (StockDecrementRequestDTO item : items) {
+            if (item == null || item.getMenuCode() == null || item.getQuantity() == null || item.getQuantity() < 1) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        
+        try {
+            List<MenuDTO> menus = menuService.decrementStocks(items);
+            return ResponseEntity.ok(menus);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException | ArithmeticException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 일괄 등록을 실행하고 결과를 응답으로 만든다
+     * @param menus 등록할 메뉴 목록
+     * @param images 원본 파일명별 이미지 파일
+     * @return 등록된 메뉴 목록
+     */
+    private ResponseEntity<List<MenuDTO>> registerMenuBatch(List<MenuRegisterRequestDTO> menus,
+                                                            Map<String, MultipartFile> images) {
+        if (menus == null || menus.isEmpty() || menus.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            List<MenuDTO> registeredMenus = menuService.registerMenus(menus, images);
+            return ResponseEntity.ok(registeredMenus);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * 비동기 메뉴 등록 실패를 응답으로 바꾼다
+     * @param failure 실패 원인 (CompletionException으로 감싸져 있을 수 있다)
+     * @return 잘못된 요청이면 400, 저장소에서 지우는 중인 이미지면 409, 업로드 후처리 대기열이 가득 찼으면 503, 그 외에는 500
+     */
+    private ResponseEntity<MenuDTO> registerFailed(Throwable failure) {
+        Throwable cause = failure;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof IllegalArgumentException) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (cause instanceof IllegalStateException) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+        cause.printStackTrace();
+        return ResponseEntity.internalServerError().build();
+    }
+    
+    /**
+     * 본문 없는 304 응답을 만든다
+     * RFC 9110에 따라 200 응답이 보냈을 Vary를 그대로 보내야 캐시가 다른 형식의 저장본을 이 응답으로 갱신하지 않는다
+     * @param etag 현재 ETag
+     * @param vary 200 응답의 Vary 헤더 값 (없으면 생략)
+     * @return 304 응답
+     */
+    private <T> ResponseEntity<T> notModified(String etag, String... vary) {
+        ResponseEntity.HeadersBuilder<?> response = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(MENU_CACHE_CONTROL);
+        if (vary.length > 0) {
+            response.varyBy(vary);
+        }
+        return response.build();
+    }
 } 
\ No newline at end of file
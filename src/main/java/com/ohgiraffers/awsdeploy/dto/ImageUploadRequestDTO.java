@@ -0,0 +1,47 @@
+package com.ohgiraffers.awsdeploy.dto;
+
+/**
+ * 이미지 업로드 요청 데이터 전송 객체
+ * 브라우저가 S3에 직접 올릴 이미지의 형식과 크기를 전달하기 위해 사용된다
+ */
+public class ImageUploadRequestDTO {
+    
+    // 이미지 MIME 타입 (예: image/jpeg)
+    private String contentType;
+    // 이미지 크기 (바이트)
+    private Long contentLength;
+    
+    // 기본 생성자
+    public ImageUploadRequestDTO() {}
+    
+    // 생성자
+    public ImageUploadRequestDTO(String contentType, Long contentLength) {
+        this.contentType = contentType;
+        this.contentLength = contentLength;
+    }
+    
+    // Getter 및 Setter
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+    
+    public Long getContentLength() {
+        return contentLength;
+    }
+    
+    public void setContentLength(Long contentLength) {
+        this.contentLength = contentLength;
+    }
+    
+    @Override
+    public String toString() {
+        return "ImageUploadRequestDTO{" +
+                "contentType='" + contentType + '\'' +
+                ", contentLength=" + contentLength +
+                '}';
+    }
+}
@@ -1,5 +1,9 @@
 package com.ohgiraffers.awsdeploy.dto;
 
+import com.ohgiraffers.awsdeploy.util.ImageVariantUtils;
+
+import java.util.Map;
+
 /**
  * 메뉴 데이터 전송 객체
  * 클라이언트와 서버 간 메뉴 정보 전송에 사용한다
@@ -13,6 +17,8 @@ public class MenuDTO {
     private String menuOrderable;
     private CategoryDTO category;
     private String menuImageUrl;
+    // 너비(px)별 변형 이미지 URL (아직 만들어지지 않았으면 비어 있다)
+    private Map<Integer, String> menuImageVariants = Map.of();
     private Integer menuStock;
     
     // 기본 생성자
@@ -32,6 +38,17 @@ public class MenuDTO {
         this.menuStock = menuStock;
     }
     
+    // JPQL 생성자 표현식용 생성자 (카테고리 컬럼을 조인해서 한 번에 받는다)
+    public MenuDTO(Long menuCode, String menuName, Integer menuPrice,
+                   String menuDescription, String menuOrderable,
+                   Long categoryCode, String categoryName,
+                   String menuImageUrl, String menuImageVariants, Integer menuStock) {
+        this(menuCode, menuName, menuPrice, menuDescription, menuOrderable,
+                categoryCode != null ? new CategoryDTO(categoryCode, categoryName) : null,
+                menuImageUrl, menuStock);
+        this.menuImageVariants = ImageVariantUtils.variantUrls(menuImageUrl, menuImageVariants);
+    }
+    
     // Getter 및 Setter
     public Long getMenuCode() {
         return menuCode;
@@ -89,6 +106,14 @@ public class MenuDTO {
         this.menuImageUrl = menuImageUrl;
     }
     
+    public Map<Integer, String> getMenuImageVariants() {
+        return menuImageVariants;
+    }
+    
+    public void setMenuImageVariants(Map<Integer, String> menuImageVariants) {
+        this.menuImageVariants = menuImageVariants;
+    }
+    
     public Integer getMenuStock() {
         return menuStock;
     }
@@ -107,6 +132,7 @@ public class MenuDTO {
                 ", menuOrderable='" + menuOrderable + '\'' +
                 ", category=" + category +
                 ", menuImageUrl='" + menuImageUrl + '\'' +
+                ", menuImageVariants=" + menuImageVariants +
                 ", menuStock=" + menuStock +
                 '}';
     }
@@ -0,0 +1,47 @@
+package com.ohgiraffers.awsdeploy.dto;
+
+import java.util.List;
+
+/**
+ * 메뉴 페이지 데이터 전송 객체
+ * 커서 기반 페이지 조회 결과와 다음 페이지 커서를 담는다
+ */
+public class MenuPageDTO {
+    
+    private List<MenuDTO> menus;
+    private String nextCursor;
+    
+    // 기본 생성자
+    public MenuPageDTO() {}
+    
+    // 생성자
+    public MenuPageDTO(List<MenuDTO> menus, String nextCursor) {
+        this.menus = menus;
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getter 및 Setter
+    public List<MenuDTO> getMenus() {
+        return menus;
+    }
+    
+    public void setMenus(List<MenuDTO> menus) {
+        this.menus = menus;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    @Override
+    public String toString() {
+        return "MenuPageDTO{" +
+                "menus=" + menus +
+                ", nextCursor='" + nextCursor + '\'' +
+                '}';
+    }
+}
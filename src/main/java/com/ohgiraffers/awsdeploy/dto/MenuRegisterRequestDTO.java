@@ -0,0 +1,102 @@
+package com.ohgiraffers.awsdeploy.dto;
+
+/**
+ * 메뉴 등록 요청 데이터 전송 객체
+ * 일괄 메뉴 등록 API에서 메뉴 하나의 등록 정보를 전달하기 위해 사용된다
+ */
+public class MenuRegisterRequestDTO {
+    
+    private String menuName;
+    private Integer menuPrice;
+    private String menuDescription;
+    private Long categoryCode;
+    private Integer menuStock;
+    // 함께 업로드한 이미지 파일 중 이 메뉴에 쓸 파일의 원본 파일명 (없으면 null)
+    private String imageName;
+    // presigned URL로 S3에 직접 올린 이미지의 객체 키 (단건 JSON 등록에서 사용, 없으면 null)
+    private String imageKey;
+    
+    // 기본 생성자
+    public MenuRegisterRequestDTO() {}
+    
+    // 생성자
+    public MenuRegisterRequestDTO(String menuName, Integer menuPrice, String menuDescription,
+                                  Long categoryCode, Integer menuStock, String imageName) {
+        this.menuName = menuName;
+        this.menuPrice = menuPrice;
+        this.menuDescription = menuDescription;
+        this.categoryCode = categoryCode;
+        this.menuStock = menuStock;
+        this.imageName = imageName;
+    }
+    
+    // Getter 및 Setter
+    public String getMenuName() {
+        return menuName;
+    }
+    
+    public void setMenuName(String menuName) {
+        this.menuName = menuName;
+    }
+    
+    public Integer getMenuPrice() {
+        return menuPrice;
+    }
+    
+    public void setMenuPrice(Integer menuPrice) {
+        this.menuPrice = menuPrice;
+    }
+    
+    public String getMenuDescription() {
+        return menuDescription;
+    }
+    
+    public void setMenuDescription(String menuDescription) {
+        this.menuDescription = menuDescription;
+    }
+    
+    public Long getCategoryCode() {
+        return categoryCode;
+    }
+    
+    public void setCategoryCode(Long categoryCode) {
+        this.categoryCode = categoryCode;
+    }
+    
+    public Integer getMenuStock() {
+        return menuStock;
+    }
+    
+    public void setMenuStock(Integer menuStock) {
+        this.menuStock = menuStock;
+    }
+    
+    public String getImageName() {
+        return imageName;
+    }
+    
+    public void setImageName(String imageName) {
+        this.imageName = imageName;
+    }
+    
+    public String getImageKey() {
+        return imageKey;
+    }
+    
+    public void setImageKey(String imageKey) {
+        this.imageKey = imageKey;
+    }
+    
+    @Override
+    public String toString() {
+        return "MenuRegisterRequestDTO{" +
+                "menuName='" + menuName + '\'' +
+                ", menuPrice=" + menuPrice +
+                ", menuDescription='" + menuDescription + '\'' +
+                ", categoryCode=" + categoryCode +
+                ", menuStock=" + menuStock +
+                ", imageName='" + imageName + '\'' +
+                ", imageKey='" + imageKey + '\'' +
+                '}';
+    }
+}
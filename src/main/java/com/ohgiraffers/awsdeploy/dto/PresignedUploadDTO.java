@@ -0,0 +1,74 @@
+package com.ohgiraffers.awsdeploy.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * 미리 서명된 업로드 정보 데이터 전송 객체
+ * 브라우저가 애플리케이션을 거치지 않고 S3에 이미지를 PUT 하기 위해 필요한 정보를 담는다
+ */
+public class PresignedUploadDTO {
+    
+    // 업로드될 S3 객체 키 (메뉴 등록 시 imageKey로 다시 보낸다)
+    private String imageKey;
+    // 서명된 PUT 요청 URL
+    private String uploadUrl;
+    // PUT 요청에 그대로 실어 보내야 하는 헤더 (서명에 포함되어 있다)
+    private Map<String, String> headers;
+    // 서명 만료 시각
+    private Instant expiresAt;
+    
+    // 기본 생성자
+    public PresignedUploadDTO() {}
+    
+    // 생성자
+    public PresignedUploadDTO(String imageKey, String uploadUrl, Map<String, String> headers, Instant expiresAt) {
+        this.imageKey = imageKey;
+        this.uploadUrl = uploadUrl;
+        this.headers = headers;
+        this.expiresAt = expiresAt;
+    }
+    
+    // Getter 및 Setter
+    public String getImageKey() {
+        return imageKey;
+    }
+    
+    public void setImageKey(String imageKey) {
+        this.imageKey = imageKey;
+    }
+    
+    public String getUploadUrl() {
+        return uploadUrl;
+    }
+    
+    public void setUploadUrl(String uploadUrl) {
+        this.uploadUrl = uploadUrl;
+    }
+    
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+    
+    public void setHeaders(Map<String, String> headers) {
+        this.headers = headers;
+    }
+    
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "PresignedUploadDTO{" +
+                "imageKey='" + imageKey + '\'' +
+                ", uploadUrl='" + uploadUrl + '\'' +
+                ", headers=" + headers +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
@@ -0,0 +1,45 @@
+package com.ohgiraffers.awsdeploy.dto;
+
+/**
+ * 재고 차감 요청 데이터 전송 객체
+ * 일괄 재고 차감 API에서 메뉴 하나의 차감 수량을 전달하기 위해 사용된다
+ */
+public class StockDecrementRequestDTO {
+    
+    private Long menuCode;
+    private Integer quantity;
+    
+    // 기본 생성자
+    public StockDecrementRequestDTO() {}
+    
+    // 생성자
+    public StockDecrementRequestDTO(Long menuCode, Integer quantity) {
+        this.menuCode = menuCode;
+        this.quantity = quantity;
+    }
+    
+    // Getter 및 Setter
+    public Long getMenuCode() {
+        return menuCode;
+    }
+    
+    public void setMenuCode(Long menuCode) {
+        this.menuCode = menuCode;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+    
+    @Override
+    public String toString() {
+        return "StockDecrementRequestDTO{" +
+                "menuCode=" + menuCode +
+                ", quantity=" + quantity +
+                '}';
+    }
+}
@@ -0,0 +1,94 @@
+package com.ohgiraffers.awsdeploy.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * 이미지 삭제 대기 엔티티
+ * 메뉴 삭제와 같은 트랜잭션에 기록해 두었다가 백그라운드에서 저장소의 이미지를 지우는 작업 하나를 나타낸다
+ */
+@Entity
+@Table(name = "tbl_image_deletion")
+public class ImageDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "deletion_id")
+    private Long deletionId;
+
+    // 지울 이미지 파일명 (S3 객체 키)
+    @Column(name = "image_key", nullable = false)
+    private String imageKey;
+
+    // 삭제를 요청한 시각 (대기 지연 측정용)
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // 실패한 삭제 시도 횟수
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    // 다음에 삭제를 시도할 시각
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    // 기본 생성자
+    public ImageDeletion() {}
+
+    // 생성자 (요청 즉시 시도할 수 있다)
+    public ImageDeletion(String imageKey, Instant createdAt) {
+        this.imageKey = imageKey;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+    }
+
+    /**
+     * 저장소 삭제를 시작하며 임대가 끝날 때까지 다른 인스턴스가 가져가지 않게 한다
+     * 결과를 기록하기 전에 인스턴스가 멈추면 임대가 끝난 뒤 다시 시도된다
+     * @param leaseUntil 임대가 끝나는 시각
+     */
+    public void claim(Instant leaseUntil) {
+        this.nextAttemptAt = leaseUntil;
+    }
+
+    /**
+     * 삭제 실패를 기록하고 다음 시도 시각을 미룬다
+     * @param nextAttemptAt 다음에 삭제를 시도할 시각
+     */
+    public void recordFailure(Instant nextAttemptAt) {
+        this.attempts++;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    // Getter
+    public Long getDeletionId() {
+        return deletionId;
+    }
+
+    public String getImageKey() {
+        return imageKey;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ImageDeletion{" +
+                "deletionId=" + deletionId +
+                ", imageKey='" + imageKey + '\'' +
+                ", attempts=" + attempts +
+                ", nextAttemptAt=" + nextAttemptAt +
+                '}';
+    }
+}
@@ -0,0 +1,133 @@
+package com.ohgiraffers.awsdeploy.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * 이미지 객체 엔티티
+ * 내용 해시로 저장한 이미지 파일(S3 객체) 하나와 그 이미지를 쓰는 메뉴 수를 나타낸다
+ */
+@Entity
+@Table(name = "tbl_image_object")
+public class ImageObject {
+
+    // 저장소의 파일명 (S3 객체 키), SHA-256 해시 + 확장자
+    @Id
+    @Column(name = "image_key")
+    private String imageKey;
+
+    // 이 이미지를 참조하는 메뉴 수
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    // 저장소에 다 쓴 것이 확인되었는지 (새로 만든 행은 업로드가 끝나야 true가 된다)
+    @Column(name = "stored", nullable = false)
+    private boolean stored;
+
+    // 만들어 둔 변형 너비 (쉼표로 구분, 아직 만들지 않았으면 null)
+    @Column(name = "variant_widths", length = 64)
+    private String variantWidths;
+
+    // 삭제 대기열이 저장소에서 지우는 중이면 그 임대가 끝나는 시각 (지우는 중이 아니면 null)
+    @Column(name = "deleting_until")
+    private Instant deletingUntil;
+
+    // 기본 생성자
+    public ImageObject() {}
+
+    // 생성자 (처음 저장하는 이미지는 참조 하나로 시작한다)
+    public ImageObject(String imageKey) {
+        this.imageKey = imageKey;
+        this.refCount = 1;
+    }
+
+    /**
+     * 참조 수를 하나 늘린다
+     */
+    public void increaseRefCount() {
+        this.refCount++;
+    }
+
+    /**
+     * 참조 수를 하나 줄인다
+     * @return 줄인 뒤의 참조 수
+     */
+    public int decreaseRefCount() {
+        return --this.refCount;
+    }
+
+    /**
+     * 저장소에 다 쓴 것으로 기록한다
+     */
+    public void markStored() {
+        this.stored = true;
+    }
+
+    /**
+     * 만들어 둔 변형 너비를 기록한다
+     * @param variantWidths 쉼표로 구분한 변형 너비
+     */
+    public void recordVariantWidths(String variantWidths) {
+        this.variantWidths = variantWidths;
+    }
+
+    /**
+     * 저장소에서 지우기 시작한다
+     * 삭제가 끝나면 원본과 변형이 없으므로, 다시 참조되면 처음부터 써야 한다
+     * @param deletingUntil 삭제 임대가 끝나는 시각
+     */
+    public void startDeletion(Instant deletingUntil) {
+        this.stored = false;
+        this.variantWidths = null;
+        this.deletingUntil = deletingUntil;
+    }
+
+    /**
+     * 저장소 삭제가 끝났거나 실패해 임대를 푼다
+     */
+    public void finishDeletion() {
+        this.deletingUntil = null;
+    }
+
+    /**
+     * 삭제 대기열이 저장소에서 지우는 중인지 확인한다
+     * @param now 현재 시각
+     * @return 임대가 아직 끝나지 않았으면 true
+     */
+    public boolean isDeleting(Instant now) {
+        return deletingUntil != null && deletingUntil.isAfter(now);
+    }
+
+    // Getter
+    public String getImageKey() {
+        return imageKey;
+    }
+
+    public int getRefCount() {
+        return refCount;
+    }
+
+    public boolean isStored() {
+        return stored;
+    }
+
+    public String getVariantWidths() {
+        return variantWidths;
+    }
+
+    public Instant getDeletingUntil() {
+        return deletingUntil;
+    }
+
+    @Override
+    public String toString() {
+        return "ImageObject{" +
+                "imageKey='" + imageKey + '\'' +
+                ", refCount=" + refCount +
+                ", stored=" + stored +
+                ", variantWidths='" + variantWidths + '\'' +
+                ", deletingUntil=" + deletingUntil +
+                '}';
+    }
+}
@@ -7,11 +7,18 @@ import jakarta.persistence.*;
  * 레스토랑의 메뉴 정보를 나타낸다
  */
 @Entity
-@Table(name = "tbl_menu")
+@Table(name = "tbl_menu", indexes = {
+        // 커서 기반 페이지 조회(주문 가능 여부 + 메뉴 코드 역순)를 위한 인덱스
+        @Index(name = "idx_menu_orderable_code", columnList = "menu_orderable, menu_code DESC"),
+        // 카테고리별 메뉴 목록 조회를 위한 인덱스
+        @Index(name = "idx_menu_category_orderable_code", columnList = "category_code, menu_orderable, menu_code")
+})
 public class Menu {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // 시퀀스에서 50개씩 미리 할당받아 INSERT를 JDBC 배치로 묶을 수 있게 한다 (IDENTITY는 배치가 꺼진다)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menu_code_seq")
+    @SequenceGenerator(name = "menu_code_seq", sequenceName = "tbl_menu_menu_code_seq", allocationSize = 50)
     @Column(name = "menu_code")
     private Long menuCode;
 
@@ -34,6 +41,10 @@ public class Menu {
     @Column(name = "menu_image_url")
     private String menuImageUrl;
 
+    // 만들어진 크기별 변형 이미지 너비 (쉼표 구분, 예: 160,480,1024). 아직 없으면 null
+    @Column(name = "menu_image_variants", length = 64)
+    private String menuImageVariants;
+
     @Column(name = "menu_stock", nullable = false)
     private Integer menuStock = 0;
 
@@ -108,6 +119,14 @@ public class Menu {
         this.menuImageUrl = menuImageUrl;
     }
 
+    public String getMenuImageVariants() {
+        return menuImageVariants;
+    }
+
+    public void setMenuImageVariants(String menuImageVariants) {
+        this.menuImageVariants = menuImageVariants;
+    }
+
     public Integer getMenuStock() {
         return menuStock;
     }
@@ -126,6 +145,7 @@ public class Menu {
                 ", menuOrderable='" + menuOrderable + '\'' +
                 ", category=" + (category != null ? category.getCategoryName() : null) +
                 ", menuImageUrl='" + menuImageUrl + '\'' +
+                ", menuImageVariants='" + menuImageVariants + '\'' +
                 ", menuStock=" + menuStock +
                 '}';
     }
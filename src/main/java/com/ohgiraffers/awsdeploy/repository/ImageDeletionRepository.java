@@ -0,0 +1,49 @@
+package com.ohgiraffers.awsdeploy.repository;
+
+import com.ohgiraffers.awsdeploy.entity.ImageDeletion;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 이미지 삭제 대기열 리포지토리
+ * 메뉴 삭제와 같은 트랜잭션에 기록한 이미지 삭제 작업의 데이터 접근을 담당한다
+ */
+@Repository
+public interface ImageDeletionRepository extends JpaRepository<ImageDeletion, Long> {
+    
+    /**
+     * 시도할 시각이 된 삭제 작업을 먼저 들어온 순서대로 행 잠금과 함께 조회한다
+     * 여러 인스턴스가 같은 작업을 동시에 가져가지 않도록 잠그고, 가져간 작업은 임대가 끝날 때까지 다음 시도 시각을 미룬다
+     * @param now 현재 시각
+     * @param limit 한 번에 처리할 최대 작업 수
+     * @return 삭제 작업 목록
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM ImageDeletion d WHERE d.nextAttemptAt <= :now ORDER BY d.deletionId")
+    List<ImageDeletion> findDueForUpdate(Instant now, Limit limit);
+    
+    /**
+     * 가장 오래 기다린 삭제 작업의 요청 시각을 조회한다
+     * @return 요청 시각 (대기 중인 작업이 없으면 null)
+     */
+    @Query("SELECT MIN(d.createdAt) FROM ImageDeletion d")
+    Instant findOldestCreatedAt();
+    
+    /**
+     * 끝난 삭제 작업들을 지운다
+     * @param deletionIds 삭제 작업 ID 목록
+     * @return 지운 행 수
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ImageDeletion d WHERE d.deletionId IN :deletionIds")
+    int deleteByIds(Collection<Long> deletionIds);
+}
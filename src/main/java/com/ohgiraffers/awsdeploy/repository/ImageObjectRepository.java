@@ -0,0 +1,50 @@
+package com.ohgiraffers.awsdeploy.repository;
+
+import com.ohgiraffers.awsdeploy.entity.ImageObject;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 이미지 객체 리포지토리
+ * 내용 해시로 저장한 이미지의 참조 수 데이터 접근을 담당한다
+ */
+@Repository
+public interface ImageObjectRepository extends JpaRepository<ImageObject, String> {
+    
+    /**
+     * 이미지 객체를 행 잠금(SELECT ... FOR UPDATE)과 함께 조회한다
+     * 같은 이미지의 참조를 늘리고 줄이는 작업이 트랜잭션이 끝날 때까지 차례로 실행되게 한다
+     * @param imageKey 이미지 파일명 (S3 객체 키)
+     * @return 이미지 객체 (참조 중인 메뉴가 없으면 빈 값)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM ImageObject o WHERE o.imageKey = :imageKey")
+    Optional<ImageObject> findByIdForUpdate(String imageKey);
+    
+    /**
+     * 여러 이미지 객체를 행 잠금과 함께 조회한다
+     * 참조를 늘리는 요청과 교착 상태가 생기지 않도록 키 순서로 잠근다
+     * @param imageKeys 이미지 파일명 목록
+     * @return 참조 행이 남아 있는 이미지 객체 목록
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM ImageObject o WHERE o.imageKey IN :imageKeys ORDER BY o.imageKey")
+    List<ImageObject> findAllByIdForUpdate(Collection<String> imageKeys);
+    
+    /**
+     * 참조하는 메뉴가 없는 이미지 객체 행을 지운다
+     * @param imageKeys 이미지 파일명 목록
+     * @return 지운 행 수
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ImageObject o WHERE o.imageKey IN :imageKeys AND o.refCount = 0")
+    int deleteUnreferenced(Collection<String> imageKeys);
+}
@@ -1,11 +1,16 @@
 package com.ohgiraffers.awsdeploy.repository;
 
+import com.ohgiraffers.awsdeploy.dto.MenuDTO;
 import com.ohgiraffers.awsdeploy.entity.Menu;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 메뉴 리포지토리
@@ -14,18 +19,99 @@ import java.util.List;
 @Repository
 public interface MenuRepository extends JpaRepository<Menu, Long> {
     
+    // 메뉴와 카테고리 컬럼을 한 번의 조인으로 읽어 MenuDTO를 바로 만드는 SELECT 절
+    String MENU_DTO_SELECT = "SELECT new com.ohgiraffers.awsdeploy.dto.MenuDTO("
+            + "m.menuCode, m.menuName, m.menuPrice, m.menuDescription, m.menuOrderable, "
+            + "c.categoryCode, c.categoryName, m.menuImageUrl, m.menuImageVariants, m.menuStock) "
+            + "FROM Menu m LEFT JOIN m.category c ";
+    
     /**
-     * 주문 가능한 메뉴 목록을 최신순으로 조회한다
+     * 주문 가능한 메뉴 목록을 카테고리와 함께 최신순으로 조회한다
      * @return 주문 가능한 메뉴 목록 (최신순)
      */
-    @Query("SELECT m FROM Menu m WHERE m.menuOrderable = 'Y' ORDER BY m.menuCode DESC")
+    @Query("SELECT m FROM Menu m LEFT JOIN FETCH m.category WHERE m.menuOrderable = 'Y' ORDER BY m.menuCode DESC")
     List<Menu> findOrderableMenus();
     
     /**
-     * 카테고리별 메뉴 목록을 조회한다
+     * 카테고리별 메뉴 목록을 카테고리와 함께 조회한다
      * @param categoryCode 카테고리 코드
      * @return 해당 카테고리의 메뉴 목록
      */
-    @Query("SELECT m FROM Menu m WHERE m.category.categoryCode = :categoryCode AND m.menuOrderable = 'Y' ORDER BY m.menuCode")
+    @Query("SELECT m FROM Menu m LEFT JOIN FETCH m.category WHERE m.category.categoryCode = :categoryCode AND m.menuOrderable = 'Y' ORDER BY m.menuCode")
     List<Menu> findMenusByCategoryCode(Long categoryCode);
+    
+    /**
+     * 주문 가능한 메뉴 목록을 MenuDTO로 최신순 조회한다
+     * @return 주문 가능한 메뉴 DTO 목록 (최신순)
+     */
+    @Query(MENU_DTO_SELECT + "WHERE m.menuOrderable = 'Y' ORDER BY m.menuCode DESC")
+    List<MenuDTO> findOrderableMenuDTOs();
+    
+    /**
+     * 주어진 메뉴 코드보다 오래된 주문 가능한 메뉴를 MenuDTO로 최신순 limit개 조회한다
+     * OFFSET 없이 (menu_orderable, menu_code) 인덱스 범위 검색만 하므로 몇 번째 페이지든 비용이 같다
+     * @param afterMenuCode 이전 페이지의 마지막 메뉴 코드 (첫 페이지는 Long.MAX_VALUE)
+     * @param limit 조회할 최대 개수
+     * @return 주문 가능한 메뉴 DTO 목록 (최신순)
+     */
+    @Query(MENU_DTO_SELECT + "WHERE m.menuOrderable = 'Y' AND m.menuCode < :afterMenuCode ORDER BY m.menuCode DESC")
+    List<MenuDTO> findOrderableMenuDTOsAfter(Long afterMenuCode, Limit limit);
+    
+    /**
+     * 메뉴 코드로 메뉴를 MenuDTO로 조회한다
+     * @param menuCode 메뉴 코드
+     * @return 메뉴 DTO
+     */
+    @Query(MENU_DTO_SELECT + "WHERE m.menuCode = :menuCode")
+    Optional<MenuDTO> findMenuDTOById(Long menuCode);
+    
+    /**
+     * 카테고리별 주문 가능한 메뉴 목록을 MenuDTO로 조회한다
+     * @param categoryCode 카테고리 코드
+     * @return 해당 카테고리의 메뉴 DTO 목록
+     */
+    @Query(MENU_DTO_SELECT + "WHERE c.categoryCode = :categoryCode AND m.menuOrderable = 'Y' ORDER BY m.menuCode")
+    List<MenuDTO> findMenuDTOsByCategoryCode(Long categoryCode);
+    
+    /**
+     * 여러 메뉴 코드의 메뉴를 MenuDTO로 메뉴 코드 순 조회한다
+     * @param menuCodes 메뉴 코드들
+     * @return 메뉴 DTO 목록 (메뉴 코드 순)
+     */
+    @Query(MENU_DTO_SELECT + "WHERE m.menuCode IN :menuCodes ORDER BY m.menuCode")
+    List<MenuDTO> findMenuDTOsByIds(Collection<Long> menuCodes);
+    
+    /**
+     * 이미지 URL을 이미 사용하는 메뉴가 있는지 확인한다
+     * @param menuImageUrl 이미지 URL
+     * @return 사용하는 메뉴가 있으면 true
+     */
+    boolean existsByMenuImageUrl(String menuImageUrl);
+    
+    /**
+     * 재고가 충분할 때만 메뉴 재고를 차감한다
+     * 조건부 UPDATE 한 번으로 처리하므로 동시에 주문이 들어와도 재고가 음수가 되지 않으며,
+     * 재고가 정확히 0이 되면 같은 문장에서 주문 불가('N')로 바꾼다
+     * @param menuCode 메뉴 코드
+     * @param quantity 차감할 수량
+     * @return 변경된 행 수 (메뉴가 없거나 재고가 부족하면 0)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Menu m SET m.menuOrderable = CASE WHEN m.menuStock = :quantity THEN 'N' ELSE m.menuOrderable END, "
+            + "m.menuStock = m.menuStock - :quantity "
+            + "WHERE m.menuCode = :menuCode AND m.menuStock >= :quantity")
+    int decrementStock(Long menuCode, int quantity);
+    
+    /**
+     * 메뉴에 크기별 변형 이미지 너비를 기록한다
+     * 변형을 만드는 사이 메뉴가 지워졌거나 이미지가 바뀌었으면 아무것도 바꾸지 않는다
+     * @param menuCode 메뉴 코드
+     * @param menuImageUrl 변형을 만든 원본 이미지 URL
+     * @param menuImageVariants 쉼표로 구분한 변형 너비
+     * @return 변경된 행 수
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Menu m SET m.menuImageVariants = :menuImageVariants "
+            + "WHERE m.menuCode = :menuCode AND m.menuImageUrl = :menuImageUrl")
+    int updateImageVariants(Long menuCode, String menuImageUrl, String menuImageVariants);
 } 
\ No newline at end of file
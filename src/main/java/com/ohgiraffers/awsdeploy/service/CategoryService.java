@@ -3,12 +3,17 @@ package com.ohgiraffers.awsdeploy.service;
 import com.ohgiraffers.awsdeploy.dto.CategoryDTO;
 import com.ohgiraffers.awsdeploy.entity.Category;
 import com.ohgiraffers.awsdeploy.repository.CategoryRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.zip.CRC32;
 
 /**
  * 카테고리 서비스
@@ -16,10 +21,14 @@ import java.util.stream.Collectors;
  */
 @Service
 @Transactional(readOnly = true)
+@Timed(value = "service.calls", histogram = true)
 public class CategoryService {
     
     private final CategoryRepository categoryRepository;
     
+    // 카테고리는 API로 변경되지 않으므로 한 번 읽은 목록을 계속 사용한다
+    private volatile CategorySnapshot snapshot;
+    
     @Autowired
     public CategoryService(CategoryRepository categoryRepository) {
         this.categoryRepository = categoryRepository;
@@ -27,13 +36,22 @@ public class CategoryService {
     
     /**
      * 모든 카테고리 목록을 조회한다
-     * @return 카테고리 DTO 목록
+     * 한 번 읽은 뒤에는 트랜잭션을 열지 않고 보관된 목록을 반환한다
+     * @return 변경할 수 없는 카테고리 DTO 목록
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<CategoryDTO> findAllCategories() {
-        List<Category> categories = categoryRepository.findAll();
-        return categories.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return loadSnapshot().categories();
+    }
+    
+    /**
+     * 카테고리 목록 내용으로 계산한 해시를 조회한다
+     * 목록이 같으면 항상 같은 값을 반환하므로 ETag로 사용할 수 있다
+     * @return 카테고리 목록 해시
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public long getCategoriesHash() {
+        return loadSnapshot().hash();
     }
     
     /**
@@ -47,6 +65,43 @@ public class CategoryService {
         return convertToDTO(category);
     }
     
+    /**
+     * 카테고리 스냅샷을 반환하고, 없으면 DB에서 읽어 만든다
+     * @return 카테고리 스냅샷
+     */
+    private CategorySnapshot loadSnapshot() {
+        CategorySnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        
+        List<CategoryDTO> categories = categoryRepository.findAll().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        CategorySnapshot loaded = new CategorySnapshot(List.copyOf(categories), hashOf(categories));
+        
+        // 쓰기 트랜잭션 안에서 읽은 목록은 커밋 전 데이터일 수 있으므로 보관하지 않는다
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            snapshot = loaded;
+        }
+        return loaded;
+    }
+    
+    /**
+     * 카테고리 목록의 CRC32 해시를 계산한다
+     * @param categories 카테고리 DTO 목록
+     * @return 해시 값
+     */
+    private long hashOf(List<CategoryDTO> categories) {
+        CRC32 crc = new CRC32();
+        for (CategoryDTO category : categories) {
+            crc.update((category.getCategoryCode() + ":" + category.getCategoryName() + ";")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        return crc.getValue();
+    }
+    
     /**
      * Category 엔티티를 CategoryDTO로 변환한다
      * @param category 카테고리 엔티티
@@ -69,4 +124,10 @@ public class CategoryService {
         category.setCategoryCode(categoryDTO.getCategoryCode());
         return category;
     }
+    
+    /**
+     * 카테고리 목록과 그 해시
+     */
+    private record CategorySnapshot(List<CategoryDTO> categories, long hash) {
+    }
 } 
\ No newline at end of file
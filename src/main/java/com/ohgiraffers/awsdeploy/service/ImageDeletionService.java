@@ -0,0 +1,285 @@
+package com.ohgiraffers.awsdeploy.service;
+
+import com.ohgiraffers.awsdeploy.entity.ImageDeletion;
+import com.ohgiraffers.awsdeploy.entity.ImageObject;
+import com.ohgiraffers.awsdeploy.repository.ImageDeletionRepository;
+import com.ohgiraffers.awsdeploy.repository.ImageObjectRepository;
+import com.ohgiraffers.awsdeploy.util.FileUploadUtils;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 이미지 삭제 대기열 서비스
+ * 메뉴를 지우는 트랜잭션에는 지울 이미지만 기록하고, 저장소 삭제는 백그라운드에서 모아서 처리한다
+ * 기록은 메뉴 삭제와 함께 커밋되거나 롤백되므로, 메뉴는 남았는데 이미지만 사라지는 일이 없다
+ */
+@Service
+@Transactional(readOnly = true)
+@Timed(value = "service.calls", histogram = true)
+public class ImageDeletionService {
+    
+    private final ImageDeletionRepository imageDeletionRepository;
+    private final ImageObjectRepository imageObjectRepository;
+    private final S3Service s3Service;
+    private final FileUploadUtils fileUploadUtils;
+    private final TransactionTemplate transactionTemplate;
+    // 한 번에 처리할 최대 삭제 작업 수
+    private final int batchSize;
+    // 첫 재시도까지 기다릴 시간 (실패할 때마다 두 배로 늘린다)
+    private final Duration retryDelay;
+    // 재시도 간격의 상한
+    private final Duration maxRetryDelay;
+    // 저장소 삭제 요청을 기다릴 최대 시간
+    private final Duration storageTimeout;
+    // 가져간 작업과 지우는 중인 이미지의 임대 기간 (시간이 지난 요청이 끝날 여유를 두어 제한 시간의 두 배)
+    private final Duration lease;
+    
+    // 대기 중인 삭제 작업 수와 가장 오래 기다린 작업의 대기 시간 (마지막 처리 시점 기준)
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicLong queueLagMillis = new AtomicLong();
+    private final Counter deletedCounter;
+    private final Counter skippedCounter;
+    private final Counter failedCounter;
+    
+    @Value("${spring.profiles.active}")
+    private String activeProfile;
+    
+    @Autowired
+    public ImageDeletionService(ImageDeletionRepository imageDeletionRepository,
+                                ImageObjectRepository imageObjectRepository,
+                                S3Service s3Service,
+                                FileUploadUtils fileUploadUtils,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.image-deletion.batch-size:250}") int batchSize,
+                                @Value("${app.image-deletion.retry-delay:10s}") Duration retryDelay,
+                                @Value("${app.image-deletion.max-retry-delay:1h}") Duration maxRetryDelay,
+                                @Value("${app.image-deletion.storage-timeout:30s}") Duration storageTimeout) {
+        this.imageDeletionRepository = imageDeletionRepository;
+        this.imageObjectRepository = imageObjectRepository;
+        this.s3Service = s3Service;
+        this.fileUploadUtils = fileUploadUtils;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+        this.storageTimeout = storageTimeout;
+        this.lease = storageTimeout.multipliedBy(2);
+        this.deletedCounter = processedCounter(meterRegistry, "deleted");
+        this.skippedCounter = processedCounter(meterRegistry, "skipped");
+        this.failedCounter = processedCounter(meterRegistry, "failed");
+        Gauge.builder("image.deletion.queue.depth", queueDepth, AtomicLong::get)
+                .description("저장소 삭제를 기다리는 이미지 수")
+                .register(meterRegistry);
+        TimeGauge.builder("image.deletion.queue.lag", queueLagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("가장 오래 기다린 이미지 삭제의 대기 시간")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * 이미지 삭제를 대기열에 넣는다
+     * 호출한 트랜잭션과 함께 커밋되며, 롤백되면 삭제도 일어나지 않는다
+     * @param imageKey 이미지 파일명 (S3 객체 키)
+     */
+    @Transactional
+    public void enqueue(String imageKey) {
+        imageDeletionRepository.save(new ImageDeletion(imageKey, Instant.now()));
+    }
+    
+    /**
+     * 대기열의 삭제 작업을 주기적으로 처리한다
+     * 배치가 가득 차면 남은 작업이 더 있을 수 있으므로 이어서 처리한다
+     */
+    @Scheduled(fixedDelayString = "${app.image-deletion.poll-interval:5s}")
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void drain() {
+        try {
+            int processed;
+            do {
+                processed = drainBatch(Instant.now());
+            } while (processed == batchSize);
+        } finally {
+            updateQueueMetrics();
+        }
+    }
+    
+    /**
+     * 시도할 시각이 된 삭제 작업을 한 배치 처리한다
+     * 작업을 가져오는 트랜잭션과 결과를 기록하는 트랜잭션을 짧게 나누고, 저장소 요청은 그 사이에 트랜잭션 없이 보낸다
+     * S3를 기다리는 동안 DB 연결이나 대기열·참조 행 잠금을 붙잡지 않는다
+     * @param now 현재 시각
+     * @return 처리한 작업 수
+     */
+    int drainBatch(Instant now) {
+        Claim claim = transactionTemplate.execute(status -> claimDue(now));
+        if (claim.deletionIds().isEmpty()) {
+            return claim.size();
+        }
+        
+        Set<String> failed;
+        try {
+            failed = deleteFromStorage(claim.imageKeys());
+        } catch (RuntimeException e) {
+            // 요청이 통째로 실패하거나 제한 시간을 넘기면 모두 다시 시도한다
+            e.printStackTrace();
+            failed = claim.imageKeys();
+        }
+        
+        Set<String> notDeleted = failed;
+        transactionTemplate.execute(status -> {
+            finishClaim(claim, notDeleted, now);
+            return null;
+        });
+        return claim.size();
+    }
+    
+    /**
+     * 시도할 시각이 된 삭제 작업을 가져가고 지울 이미지에 삭제 임대를 건다
+     * 대기열에 들어간 뒤 다시 참조된 이미지는 지우지 않고 작업만 끝낸다
+     * 임대가 걸린 이미지는 참조를 늘릴 수 없으므로, 저장소 요청 중에 같은 이미지가 다시 올라와 지워지는 일이 없다
+     * @param now 현재 시각
+     * @return 가져간 작업
+     */
+    private Claim claimDue(Instant now) {
+        List<ImageDeletion> due = imageDeletionRepository.findDueForUpdate(now, Limit.of(batchSize));
+        if (due.isEmpty()) {
+            return new Claim(0, List.of(), Set.of());
+        }
+        
+        Instant leaseUntil = now.plus(lease);
+        Set<String> imageKeys = due.stream()
+                .map(ImageDeletion::getImageKey)
+                .collect(Collectors.toCollection(TreeSet::new));
+        for (ImageObject imageObject : imageObjectRepository.findAllByIdForUpdate(imageKeys)) {
+            if (imageObject.getRefCount() > 0) {
+                imageKeys.remove(imageObject.getImageKey());
+            } else {
+                imageObject.startDeletion(leaseUntil);
+            }
+        }
+        
+        List<Long> claimed = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        for (ImageDeletion deletion : due) {
+            if (imageKeys.contains(deletion.getImageKey())) {
+                deletion.claim(leaseUntil);
+                claimed.add(deletion.getDeletionId());
+            } else {
+                skipped.add(deletion.getDeletionId());
+                skippedCounter.increment();
+            }
+        }
+        if (!skipped.isEmpty()) {
+            imageDeletionRepository.deleteByIds(skipped);
+        }
+        return new Claim(due.size(), claimed, imageKeys);
+    }
+    
+    /**
+     * 저장소 삭제 결과를 기록하고 임대를 푼다
+     * 지운 이미지의 참조 행은 참조 수가 아직 0일 때만 지우고, 지우지 못한 작업은 다음 시도를 미룬다
+     * @param claim 가져간 작업
+     * @param failed 지우지 못한 이미지 파일명 목록
+     * @param now 현재 시각
+     */
+    private void finishClaim(Claim claim, Set<String> failed, Instant now) {
+        imageObjectRepository.findAllByIdForUpdate(claim.imageKeys()).forEach(ImageObject::finishDeletion);
+        Set<String> deleted = new TreeSet<>(claim.imageKeys());
+        deleted.removeAll(failed);
+        if (!deleted.isEmpty()) {
+            imageObjectRepository.deleteUnreferenced(deleted);
+        }
+        
+        List<Long> done = new ArrayList<>();
+        for (ImageDeletion deletion : imageDeletionRepository.findAllById(claim.deletionIds())) {
+            if (failed.contains(deletion.getImageKey())) {
+                recordFailure(deletion, now);
+            } else {
+                done.add(deletion.getDeletionId());
+                deletedCounter.increment();
+            }
+        }
+        if (!done.isEmpty()) {
+            imageDeletionRepository.deleteByIds(done);
+        }
+    }
+    
+    /**
+     * 현재 환경에 맞는 저장소에서 이미지와 크기별 변형 이미지를 삭제한다
+     * @param imageKeys 이미지 파일명 목록
+     * @return 지우지 못한 이미지 파일명 목록
+     */
+    private Set<String> deleteFromStorage(Collection<String> imageKeys) {
+        if (imageKeys.isEmpty()) {
+            return Set.of();
+        }
+        if ("aws".equals(activeProfile)) {
+            // AWS 환경: DeleteObjects 한 번에 최대 1000개 키씩 삭제 (응답이 없으면 제한 시간 뒤 실패로 본다)
+            return s3Service.deleteFilesAsync(imageKeys)
+                    .orTimeout(storageTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .join();
+        }
+        // 로컬 환경: 이미 없는 파일은 지워진 것으로 본다
+        imageKeys.forEach(fileUploadUtils::deleteFile);
+        return Set.of();
+    }
+    
+    /**
+     * 삭제 실패를 기록하고 다음 시도를 미룬다
+     * 실패할 때마다 간격을 두 배로 늘리되 상한을 넘지 않는다
+     * @param deletion 실패한 삭제 작업
+     * @param now 현재 시각
+     */
+    private void recordFailure(ImageDeletion deletion, Instant now) {
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(deletion.getAttempts(), 20));
+        deletion.recordFailure(now.plus(delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay));
+        failedCounter.increment();
+    }
+    
+    /**
+     * 대기열 길이와 가장 오래 기다린 작업의 대기 시간을 다시 잰다
+     */
+    private void updateQueueMetrics() {
+        queueDepth.set(imageDeletionRepository.count());
+        Instant oldest = imageDeletionRepository.findOldestCreatedAt();
+        queueLagMillis.set(oldest == null ? 0 : Duration.between(oldest, Instant.now()).toMillis());
+    }
+    
+    /**
+     * 한 배치에서 가져간 삭제 작업
+     * @param size 조회한 작업 수 (건너뛴 작업 포함)
+     * @param deletionIds 저장소에서 지울 작업 ID 목록
+     * @param imageKeys 저장소에서 지울 이미지 파일명 목록
+     */
+    private record Claim(int size, List<Long> deletionIds, Set<String> imageKeys) {
+    }
+    
+    private static Counter processedCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("image.deletion.processed")
+                .description("처리한 이미지 삭제 작업 수")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,128 @@
+package com.ohgiraffers.awsdeploy.service;
+
+import com.ohgiraffers.awsdeploy.entity.ImageObject;
+import com.ohgiraffers.awsdeploy.repository.ImageObjectRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * 이미지 참조 서비스
+ * 내용 해시로 저장한 이미지마다 참조하는 메뉴 수를 세어, 같은 이미지를 다시 저장하지 않고 마지막 참조가 사라질 때만 지우게 한다
+ * 참조 수가 0이 된 행은 삭제 대기열이 저장소에서 이미지를 지울 때 함께 지운다
+ */
+@Service
+@Transactional(readOnly = true)
+@Timed(value = "service.calls", histogram = true)
+public class ImageReferenceService {
+    
+    private final ImageObjectRepository imageObjectRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    public ImageReferenceService(ImageObjectRepository imageObjectRepository, TransactionTemplate transactionTemplate) {
+        this.imageObjectRepository = imageObjectRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+    
+    /**
+     * 이미지 참조를 하나 늘린다
+     * 업로드 전에 트랜잭션 밖에서 호출하며, 처음 보는 이미지면 참조 행을 만든다
+     * 저장된 것이 확인되지 않은 이미지(먼저 올리던 요청이 아직 쓰는 중이거나 실패한 이미지)는 호출한 쪽이 직접 쓰고 markStored를 호출해야 한다
+     * 삭제를 기다리는 이미지(참조 수 0)는 아직 저장소에 있으므로 참조만 되살리고, 삭제 대기열은 참조가 남은 이미지를 지우지 않는다
+     * 대기열이 저장소에서 지우는 중인 이미지는 참조를 늘리지 않고 거절한다 (삭제가 끝난 뒤 다시 올리면 새 이미지로 만든다)
+     * @param imageKey 이미지 파일명 (S3 객체 키)
+     * @return 참조를 늘린 뒤의 이미지 상태
+     * @throws IllegalStateException 삭제 대기열이 저장소에서 지우는 중인 이미지일 때
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Acquisition acquire(String imageKey) {
+        try {
+            return transactionTemplate.execute(status -> increment(imageKey));
+        } catch (DataIntegrityViolationException e) {
+            // 같은 이미지가 동시에 처음 올라와 다른 요청이 먼저 행을 만들었으면 그 행의 참조를 늘린다
+            return transactionTemplate.execute(status -> increment(imageKey));
+        }
+    }
+    
+    /**
+     * 이미지를 저장소에 다 쓴 것으로 기록한다
+     * 이후 같은 이미지를 올리는 요청은 쓰기를 건너뛴다
+     * @param imageKey 이미지 파일명 (S3 객체 키)
+     */
+    @Transactional
+    public void markStored(String imageKey) {
+        imageObjectRepository.findByIdForUpdate(imageKey).ifPresent(ImageObject::markStored);
+    }
+    
+    /**
+     * 이미지로 이미 만들어 둔 변형 너비를 조회한다
+     * @param imageKey 이미지 파일명 (S3 객체 키)
+     * @return 쉼표로 구분한 변형 너비 (참조 행이 없거나 아직 만들지 않았으면 빈 Optional)
+     */
+    public Optional<String> findVariantWidths(String imageKey) {
+        return imageObjectRepository.findById(imageKey).map(ImageObject::getVariantWidths);
+    }
+    
+    /**
+     * 이미지로 만든 변형 너비를 기록한다
+     * 이후 같은 이미지를 참조하는 메뉴는 변형을 다시 만들지 않고 이 너비를 옮겨 적는다
+     * @param imageKey 이미지 파일명 (S3 객체 키)
+     * @param variantWidths 쉼표로 구분한 변형 너비
+     */
+    @Transactional
+    public void recordVariantWidths(String imageKey, String variantWidths) {
+        imageObjectRepository.findByIdForUpdate(imageKey).ifPresent(imageObject -> imageObject.recordVariantWidths(variantWidths));
+    }
+    
+    /**
+     * 이미지 참조를 하나 줄인다
+     * 마지막 참조였다면 참조 행은 0으로 남기고, 호출한 쪽이 같은 트랜잭션에서 삭제 대기열에 이미지를 넣어야 한다
+     * @param imageKey 이미지 파일명 (S3 객체 키)
+     * @return 마지막 참조였으면 true (저장소에서 지워야 한다)
+     */
+    @Transactional
+    public boolean release(String imageKey) {
+        Optional<ImageObject> imageObject = imageObjectRepository.findByIdForUpdate(imageKey);
+        if (imageObject.isEmpty()) {
+            // 참조 수를 세기 전에 올린 이미지(UUID 파일명)는 메뉴 하나만 쓰므로 바로 지운다
+            return true;
+        }
+        return imageObject.get().decreaseRefCount() == 0;
+    }
+    
+    /**
+     * 참조 행을 잠그고 참조를 늘리거나, 행이 없으면 새로 만든다
+     * @param imageKey 이미지 파일명 (S3 객체 키)
+     * @return 참조를 늘린 뒤의 이미지 상태
+     */
+    private Acquisition increment(String imageKey) {
+        Optional<ImageObject> imageObject = imageObjectRepository.findByIdForUpdate(imageKey);
+        if (imageObject.isPresent()) {
+            // 삭제 요청이 끝나기 전에 다시 쓰면 그 요청이 새로 쓴 객체까지 지울 수 있다
+            if (imageObject.get().isDeleting(Instant.now())) {
+                throw new IllegalStateException("저장소에서 지우는 중인 이미지입니다: " + imageKey);
+            }
+            imageObject.get().increaseRefCount();
+            return new Acquisition(false, imageObject.get().isStored());
+        }
+        // 키 중복을 이 트랜잭션 안에서 알 수 있도록 바로 INSERT 한다
+        imageObjectRepository.saveAndFlush(new ImageObject(imageKey));
+        return new Acquisition(true, false);
+    }
+    
+    /**
+     * 참조를 늘린 뒤의 이미지 상태
+     * @param created 참조 행을 새로 만들었으면 true (처음 보는 이미지)
+     * @param stored 저장소에 다 쓴 것이 확인되었으면 true (쓰기를 건너뛴다)
+     */
+    public record Acquisition(boolean created, boolean stored) {
+    }
+}
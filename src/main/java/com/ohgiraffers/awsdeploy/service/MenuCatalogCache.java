@@ -0,0 +1,207 @@
+package com.ohgiraffers.awsdeploy.service;
+
+import com.ohgiraffers.awsdeploy.dto.MenuDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 메뉴 카탈로그 캐시
+ * 주문 가능한 메뉴 목록의 불변 스냅샷을 보관하고, 카탈로그 버전으로 유효성을 판단한다
+ * 카테고리별 목록은 카테고리마다 따로 버전을 두어 바뀐 카테고리만 다시 만든다
+ * 스냅샷과 버전은 인스턴스 메모리에만 있고 무효화도 이 인스턴스의 쓰기로만 일어나므로 태스크 하나로 운영한다
+ * (태스크를 늘리면 다른 태스크가 쓴 변경을 이 인스턴스가 모른다)
+ */
+@Component
+public class MenuCatalogCache {
+    
+    // 기동할 때 임의로 고른 시작 버전 (인스턴스 식별자 역할)
+    // 버전이 곧 ETag이므로 다른 태스크나 재시작 전 인스턴스가 내보낸 ETag가 이 인스턴스의 데이터로 304를 받지 않게 한다
+    private final long startVersion = ThreadLocalRandom.current().nextLong(1L << 62);
+    // 현재 카탈로그 버전
+    private final AtomicLong version = new AtomicLong(startVersion);
+    // 마지막으로 만들어진 스냅샷
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    // 따로 무효화된 적 없는 카테고리의 버전 (전체 무효화 때만 오른다)
+    private final AtomicLong categoryBaseVersion = new AtomicLong(version.get());
+    // 카테고리별 버전과 스냅샷 (버전은 무효화할 때만 만들어 요청한 카테고리 코드만큼 늘지 않는다)
+    private final ConcurrentMap<Long, AtomicLong> categoryVersions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Snapshot> categorySnapshots = new ConcurrentHashMap<>();
+    
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter categoryHitCounter;
+    private final Counter categoryMissCounter;
+    private final Timer rebuildTimer;
+    
+    public MenuCatalogCache(MeterRegistry meterRegistry) {
+        this.hitCounter = requestCounter(meterRegistry, "all", "hit");
+        this.missCounter = requestCounter(meterRegistry, "all", "miss");
+        this.categoryHitCounter = requestCounter(meterRegistry, "category", "hit");
+        this.categoryMissCounter = requestCounter(meterRegistry, "category", "miss");
+        this.rebuildTimer = Timer.builder("menu.catalog.cache.rebuild")
+                .description("메뉴 카탈로그 스냅샷 재생성 시간")
+                .register(meterRegistry);
+        Gauge.builder("menu.catalog.version", version, current -> current.get() - startVersion)
+                .description("기동 후 메뉴 카탈로그 버전이 오른 횟수")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * 현재 버전의 스냅샷을 반환하고, 없으면 loader로 다시 만든다
+     * @param loader 메뉴 목록을 조회하는 함수
+     * @return 변경할 수 없는 메뉴 DTO 목록
+     */
+    public List<MenuDTO> getOrLoad(Supplier<List<MenuDTO>> loader) {
+        long currentVersion = version.get();
+        Snapshot current = snapshot.get();
+        if (current != null && current.version() == currentVersion) {
+            hitCounter.increment();
+            return current.menus();
+        }
+        
+        missCounter.increment();
+        List<MenuDTO> menus = rebuildTimer.record(() -> List.copyOf(loader.get()));
+        
+        // 쓰기 트랜잭션 안에서 읽은 목록은 커밋 전 데이터일 수 있으므로 공유하지 않는다
+        if (isCacheableContext()) {
+            Snapshot fresh = new Snapshot(currentVersion, menus);
+            // 조회 중에 무효화가 일어났다면 더 오래된 버전이므로 다음 조회에서 버려진다
+            snapshot.accumulateAndGet(fresh,
+                    (prev, next) -> prev != null && prev.version() > next.version() ? prev : next);
+        }
+        return menus;
+    }
+    
+    /**
+     * 카테고리의 현재 버전 스냅샷을 반환하고, 없으면 loader로 다시 만든다
+     * @param categoryCode 카테고리 코드
+     * @param loader 카테고리의 메뉴 목록을 조회하는 함수
+     * @return 변경할 수 없는 메뉴 DTO 목록
+     */
+    public List<MenuDTO> getOrLoadByCategory(Long categoryCode, Supplier<List<MenuDTO>> loader) {
+        long currentVersion = getCategoryVersion(categoryCode);
+        Snapshot current = categorySnapshots.get(categoryCode);
+        if (current != null && current.version() == currentVersion) {
+            categoryHitCounter.increment();
+            return current.menus();
+        }
+        
+        categoryMissCounter.increment();
+        List<MenuDTO> menus = rebuildTimer.record(() -> List.copyOf(loader.get()));
+        
+        if (isCacheableContext()) {
+            categorySnapshots.merge(categoryCode, new Snapshot(currentVersion, menus),
+                    (prev, next) -> prev.version() > next.version() ? prev : next);
+        }
+        return menus;
+    }
+    
+    /**
+     * 현재 카탈로그 버전을 반환한다
+     * @return 카탈로그 버전
+     */
+    public long getVersion() {
+        return version.get();
+    }
+    
+    /**
+     * 카테고리의 현재 버전을 반환한다
+     * 따로 무효화된 적 없는 카테고리는 기본 버전을 쓰고, 조회만으로는 항목을 만들지 않는다
+     * (존재 여부를 확인하기 전에 불리므로 임의의 코드로 맵이 커지지 않게 한다)
+     * @param categoryCode 카테고리 코드
+     * @return 카테고리 버전
+     */
+    public long getCategoryVersion(Long categoryCode) {
+        AtomicLong categoryVersion = categoryVersions.get(categoryCode);
+        return categoryVersion != null ? categoryVersion.get() : categoryBaseVersion.get();
+    }
+    
+    /**
+     * 진행 중인 트랜잭션이 커밋된 후 카탈로그 전체를 무효화한다
+     * 트랜잭션이 없으면 즉시 무효화한다
+     */
+    public void invalidateAfterCommit() {
+        runAfterCommit(this::invalidate);
+    }
+    
+    /**
+     * 진행 중인 트랜잭션이 커밋된 후 전체 목록과 주어진 카테고리의 목록만 무효화한다
+     * 트랜잭션이 없으면 즉시 무효화한다
+     * @param categoryCodes 변경된 메뉴가 속한 카테고리 코드들
+     */
+    public void invalidateAfterCommit(Collection<Long> categoryCodes) {
+        List<Long> codes = List.copyOf(categoryCodes);
+        runAfterCommit(() -> invalidate(codes));
+    }
+    
+    /**
+     * 카탈로그 버전과 모든 카테고리 버전을 올리고 스냅샷을 버린다
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        snapshot.set(null);
+        categoryBaseVersion.incrementAndGet();
+        categoryVersions.values().forEach(AtomicLong::incrementAndGet);
+        categorySnapshots.clear();
+    }
+    
+    /**
+     * 카탈로그 버전과 주어진 카테고리의 버전만 올리고 해당 스냅샷을 버린다
+     * 처음 무효화하는 카테고리는 기본 버전 다음 값에서 시작하므로 이전에 내보낸 버전과 겹치지 않는다
+     * @param categoryCodes 카테고리 코드들
+     */
+    public void invalidate(Collection<Long> categoryCodes) {
+        version.incrementAndGet();
+        snapshot.set(null);
+        for (Long categoryCode : categoryCodes) {
+            categoryVersions.computeIfAbsent(categoryCode, code -> new AtomicLong(categoryBaseVersion.get())).incrementAndGet();
+            categorySnapshots.remove(categoryCode);
+        }
+    }
+    
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    private static Counter requestCounter(MeterRegistry meterRegistry, String partition, String result) {
+        return Counter.builder("menu.catalog.cache.requests")
+                .tag("partition", partition)
+                .tag("result", result)
+                .description("메뉴 카탈로그 캐시 조회 횟수")
+                .register(meterRegistry);
+    }
+    
+    private boolean isCacheableContext() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+    
+    /**
+     * 특정 버전의 메뉴 목록 스냅샷
+     */
+    private record Snapshot(long version, List<MenuDTO> menus) {
+    }
+}
@@ -2,19 +2,45 @@ package com.ohgiraffers.awsdeploy.service;
 
 import com.ohgiraffers.awsdeploy.dto.CategoryDTO;
 import com.ohgiraffers.awsdeploy.dto.MenuDTO;
+import com.ohgiraffers.awsdeploy.dto.MenuPageDTO;
+import com.ohgiraffers.awsdeploy.dto.MenuRegisterRequestDTO;
+import com.ohgiraffers.awsdeploy.dto.PresignedUploadDTO;
+import com.ohgiraffers.awsdeploy.dto.StockDecrementRequestDTO;
 import com.ohgiraffers.awsdeploy.entity.Category;
 import com.ohgiraffers.awsdeploy.entity.Menu;
 import com.ohgiraffers.awsdeploy.repository.CategoryRepository;
 import com.ohgiraffers.awsdeploy.repository.MenuRepository;
+import com.ohgiraffers.awsdeploy.util.CursorUtils;
 import com.ohgiraffers.awsdeploy.util.FileUploadUtils;
+import com.ohgiraffers.awsdeploy.util.FileUploadUtils.ImageContent;
+import com.ohgiraffers.awsdeploy.util.ImageVariantUtils;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -23,12 +49,24 @@ import java.util.stream.Collectors;
  */
 @Service
 @Transactional(readOnly = true)
+@Timed(value = "service.calls", histogram = true)
 public class MenuService {
     
+    // 한 페이지에 담을 수 있는 최대 메뉴 수
+    public static final int MAX_PAGE_SIZE = 100;
+    // 한 번에 등록할 수 있는 최대 메뉴 수
+    public static final int MAX_REGISTER_BATCH_SIZE = 1000;
+    
     private final MenuRepository menuRepository;
     private final CategoryRepository categoryRepository;
     private final FileUploadUtils fileUploadUtils;
     private final S3Service s3Service;
+    private final ImageReferenceService imageReferenceService;
+    private final ImageDeletionService imageDeletionService;
+    private final MenuCatalogCache menuCatalogCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor imageUploadExecutor;
+    private final Executor imageCallbackExecutor;
     
     @Value("${spring.profiles.active}")
     private String activeProfile;
@@ -37,22 +75,97 @@ public class MenuService {
     public MenuService(MenuRepository menuRepository, 
                        CategoryRepository categoryRepository,
                        FileUploadUtils fileUploadUtils,
-                       S3Service s3Service) {
+                       S3Service s3Service,
+                       ImageReferenceService imageReferenceService,
+                       ImageDeletionService imageDeletionService,
+                       MenuCatalogCache menuCatalogCache,
+                       TransactionTemplate transactionTemplate,
+                       @Qualifier("imageUploadExecutor") Executor imageUploadExecutor,
+                       @Qualifier("imageCallbackExecutor") Executor imageCallbackExecutor) {
         this.menuRepository = menuRepository;
         this.categoryRepository = categoryRepository;
         this.fileUploadUtils = fileUploadUtils;
         this.s3Service = s3Service;
+        this.imageReferenceService = imageReferenceService;
+        this.imageDeletionService = imageDeletionService;
+        this.menuCatalogCache = menuCatalogCache;
+        this.transactionTemplate = transactionTemplate;
+        this.imageUploadExecutor = imageUploadExecutor;
+        this.imageCallbackExecutor = imageCallbackExecutor;
     }
     
     /**
      * 모든 주문 가능한 메뉴 목록을 조회한다
-     * @return 메뉴 DTO 목록
+     * 카탈로그 캐시에 현재 버전의 스냅샷이 있으면 트랜잭션도 열지 않고 반환한다
+     * @return 변경할 수 없는 메뉴 DTO 목록
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<MenuDTO> findAllOrderableMenus() {
-        List<Menu> menus = menuRepository.findOrderableMenus();
-        return menus.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return menuCatalogCache.getOrLoad(menuRepository::findOrderableMenuDTOs);
+    }
+    
+    /**
+     * 주문 가능한 메뉴를 커서 기반으로 한 페이지씩 조회한다
+     * @param after 이전 페이지의 nextCursor (첫 페이지는 null)
+     * @param limit 페이지 크기 (1 ~ MAX_PAGE_SIZE)
+     * @return 메뉴 페이지 (마지막 페이지면 nextCursor가 null)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public MenuPageDTO findOrderableMenuPage(String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit은 1 이상 " + MAX_PAGE_SIZE + " 이하여야 합니다: " + limit);
+        }
+        Long afterMenuCode = (after == null || after.isEmpty())
+                ? Long.MAX_VALUE
+                : CursorUtils.decodeMenuCursor(after);
+        
+        // 다음 페이지가 있는지 알기 위해 하나 더 조회한다
+        List<MenuDTO> menus = menuRepository.findOrderableMenuDTOsAfter(afterMenuCode, Limit.of(limit + 1));
+        boolean hasNext = menus.size() > limit;
+        List<MenuDTO> page = hasNext ? menus.subList(0, limit) : menus;
+        
+        String nextCursor = hasNext
+                ? CursorUtils.encodeMenuCursor(page.get(page.size() - 1).getMenuCode())
+                : null;
+        return new MenuPageDTO(page, nextCursor);
+    }
+    
+    /**
+     * 현재 메뉴 카탈로그 버전을 조회한다
+     * 메뉴가 등록되거나 삭제되어 커밋될 때마다 증가한다
+     * @return 카탈로그 버전
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public long getCatalogVersion() {
+        return menuCatalogCache.getVersion();
+    }
+    
+    /**
+     * 카테고리에 속한 주문 가능한 메뉴 목록을 조회한다
+     * 카테고리별 캐시에 스냅샷이 있으면 DB를 조회하지 않는다
+     * @param categoryCode 카테고리 코드
+     * @return 변경할 수 없는 메뉴 DTO 목록
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<MenuDTO> findOrderableMenusByCategory(Long categoryCode) {
+        return menuCatalogCache.getOrLoadByCategory(categoryCode, () -> {
+            // 없는 카테고리 코드로 캐시 항목이 쌓이지 않도록 먼저 확인한다
+            if (!categoryRepository.existsById(categoryCode)) {
+                throw new IllegalArgumentException("해당 카테고리를 찾을 수 없습니다: " + categoryCode);
+            }
+            return menuRepository.findMenuDTOsByCategoryCode(categoryCode);
+        });
+    }
+    
+    /**
+     * 카테고리별 메뉴 목록의 현재 버전을 조회한다
+     * 해당 카테고리의 메뉴가 등록되거나 삭제되어 커밋될 때마다 증가한다
+     * @param categoryCode 카테고리 코드
+     * @return 카테고리 메뉴 목록 버전
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public long getCategoryCatalogVersion(Long categoryCode) {
+        return menuCatalogCache.getCategoryVersion(categoryCode);
     }
     
     /**
@@ -60,14 +173,15 @@ public class MenuService {
      * @param menuCode 메뉴 코드
      * @return 메뉴 DTO
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public MenuDTO findMenuByCode(Long menuCode) {
-        Menu menu = menuRepository.findById(menuCode)
+        return menuRepository.findMenuDTOById(menuCode)
                 .orElseThrow(() -> new IllegalArgumentException("해당 메뉴를 찾을 수 없습니다: " + menuCode));
-        return convertToDTO(menu);
     }
     
     /**
      * 새로운 메뉴를 등록한다
+     * 이미지는 트랜잭션 밖에서 먼저 업로드하고, 메뉴 저장만 짧은 트랜잭션으로 처리한다
      * @param menuName 메뉴명
      * @param menuPrice 메뉴 가격
      * @param menuDescription 메뉴 설명
@@ -76,43 +190,136 @@ public class MenuService {
      * @param imageFile 메뉴 이미지 파일
      * @return 등록된 메뉴 DTO
      */
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public MenuDTO registerMenu(String menuName, Integer menuPrice, String menuDescription,
                                Long categoryCode, Integer menuStock, MultipartFile imageFile) {
-        try {
-            // 카테고리 조회
-            Category category = categoryRepository.findById(categoryCode)
-                    .orElseThrow(() -> new IllegalArgumentException("해당 카테고리를 찾을 수 없습니다: " + categoryCode));
-            
-            // 이미지 파일 처리
-            String imageUrl = null;
-            if (imageFile != null && !imageFile.isEmpty()) {
-                if ("aws".equals(activeProfile)) {
-                    // AWS 환경: S3에 업로드
-                    String fileName = s3Service.uploadFile(imageFile);
-                    imageUrl = s3Service.getFileUrl(fileName);
-                } else {
-                    // 로컬 환경: 기존 로직 사용
-                    if (!fileUploadUtils.isImageFile(imageFile)) {
-                        throw new IllegalArgumentException("이미지 파일만 업로드 가능합니다.");
-                    }
-                    imageUrl = fileUploadUtils.uploadFile(imageFile);
+        // 카테고리 조회
+        Category category = findCategory(categoryCode);
+        
+        // 이미지 파일 처리
+        String imageUrl = null;
+        if (imageFile != null && !imageFile.isEmpty()) {
+            try {
+                imageUrl = uploadImage(imageFile);
+            } catch (IOException e) {
+                throw new RuntimeException("파일 업로드 중 오류가 발생했습니다.", e);
+            }
+        }
+        
+        return saveMenu(menuName, menuPrice, menuDescription, category, menuStock, imageUrl);
+    }
+    
+    /**
+     * 새로운 메뉴를 비동기로 등록한다
+     * 업로드를 기다리는 동안 요청 스레드와 DB 커넥션을 쓰지 않고, 업로드가 끝난 뒤에야 메뉴 행을 저장한다
+     * @param menuName 메뉴명
+     * @param menuPrice 메뉴 가격
+     * @param menuDescription 메뉴 설명
+     * @param categoryCode 카테고리 코드
+     * @param menuStock 메뉴 재고
+     * @param imageFile 메뉴 이미지 파일
+     * @return 저장이 끝나면 등록된 메뉴 DTO로 완료되는 future
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<MenuDTO> registerMenuAsync(String menuName, Integer menuPrice, String menuDescription,
+                                                        Long categoryCode, Integer menuStock, MultipartFile imageFile) {
+        // 카테고리 조회
+        Category category = findCategory(categoryCode);
+        
+        CompletableFuture<String> upload = (imageFile != null && !imageFile.isEmpty())
+                ? uploadImageAsync(imageFile)
+                : CompletableFuture.completedFuture(null);
+        
+        // S3 클라이언트의 완료 스레드에서 DB 작업을 하지 않도록 후처리 스레드 풀로 넘긴다
+        return upload.thenCompose(imageUrl -> handOff(() ->
+                saveMenu(menuName, menuPrice, menuDescription, category, menuStock, imageUrl)));
+    }
+    
+    /**
+     * 브라우저가 S3에 이미지를 직접 올릴 수 있는 서명된 업로드 URL을 발급한다
+     * @param contentType 이미지 MIME 타입
+     * @param contentLength 이미지 크기 (바이트)
+     * @return 서명된 업로드 정보
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public PresignedUploadDTO presignImageUpload(String contentType, long contentLength) {
+        requireS3();
+        return s3Service.presignImageUpload(contentType, contentLength);
+    }
+    
+    /**
+     * S3에 직접 업로드된 이미지로 새로운 메뉴를 비동기로 등록한다
+     * 이미지 바이트는 애플리케이션을 거치지 않으며, HeadObject로 업로드를 확인한 뒤에야 메뉴 행을 저장한다
+     * @param menuName 메뉴명
+     * @param menuPrice 메뉴 가격
+     * @param menuDescription 메뉴 설명
+     * @param categoryCode 카테고리 코드
+     * @param menuStock 메뉴 재고
+     * @param imageKey presignImageUpload로 발급받은 객체 키 (없으면 이미지 없이 등록)
+     * @return 저장이 끝나면 등록된 메뉴 DTO로 완료되는 future
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<MenuDTO> registerMenuWithUploadedImageAsync(String menuName, Integer menuPrice, String menuDescription,
+                                                                         Long categoryCode, Integer menuStock, String imageKey) {
+        // 카테고리 조회
+        Category category = findCategory(categoryCode);
+        
+        CompletableFuture<String> confirm;
+        if (imageKey == null || imageKey.isEmpty()) {
+            confirm = CompletableFuture.completedFuture(null);
+        } else {
+            requireS3();
+            confirm = s3Service.confirmImageUploadAsync(imageKey);
+        }
+        
+        return confirm.thenCompose(imageUrl -> handOff(() -> {
+            // 직접 업로드한 객체는 요청마다 새 키를 받으므로 다른 메뉴와 함께 쓰지 않는다
+            if (imageUrl != null) {
+                if (menuRepository.existsByMenuImageUrl(imageUrl)) {
+                    throw new IllegalArgumentException("이미 다른 메뉴에서 사용 중인 이미지입니다: " + imageKey);
                 }
+                if (!imageReferenceService.acquire(imageKey).created()) {
+                    // 같은 키로 동시에 등록한 요청이 먼저 참조를 만들었으면 늘린 참조만 되돌린다
+                    imageReferenceService.release(imageKey);
+                    throw new IllegalArgumentException("이미 다른 메뉴에서 사용 중인 이미지입니다: " + imageKey);
+                }
+                // HeadObject로 업로드가 끝난 것을 확인했다
+                imageReferenceService.markStored(imageKey);
             }
-            
-            // 메뉴 엔티티 생성 및 저장
-            Menu menu = new Menu(menuName, menuPrice, menuDescription, category, imageUrl, menuStock);
-            Menu savedMenu = menuRepository.save(menu);
-            
-            return convertToDTO(savedMenu);
-            
-        } catch (IOException e) {
-            throw new RuntimeException("파일 업로드 중 오류가 발생했습니다.", e);
+            return saveMenu(menuName, menuPrice, menuDescription, category, menuStock, imageUrl);
+        }));
+    }
+    
+    /**
+     * 여러 메뉴를 한 번에 등록한다
+     * 이미지는 트랜잭션 밖에서 병렬로 먼저 업로드하고, 메뉴는 한 트랜잭션에서 JDBC 배치 INSERT로 저장한다
+     * 저장에 실패하면 이미 업로드한 이미지를 지운다
+     * @param requests 등록할 메뉴 목록
+     * @param images 함께 업로드한 이미지 파일 (원본 파일명 → 파일)
+     * @return 등록된 메뉴 DTO 목록 (요청 순서)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<MenuDTO> registerMenus(List<MenuRegisterRequestDTO> requests, Map<String, MultipartFile> images) {
+        if (requests.isEmpty() || requests.size() > MAX_REGISTER_BATCH_SIZE) {
+            throw new IllegalArgumentException("한 번에 등록할 수 있는 메뉴는 1~" + MAX_REGISTER_BATCH_SIZE + "개입니다: " + requests.size());
+        }
+        validateRegisterRequests(requests, images);
+        
+        List<String> imageUrls = uploadImages(requests, images);
+        List<MenuDTO> menus;
+        try {
+            menus = transactionTemplate.execute(status -> saveMenus(requests, imageUrls));
+        } catch (RuntimeException e) {
+            releaseImages(imageUrls);
+            throw e;
         }
+        createImageVariants(menus);
+        return menus;
     }
     
     /**
      * 메뉴를 삭제한다
+     * 이미지는 다른 메뉴가 더 참조하지 않을 때만 삭제 대기열에 넣고, 저장소 삭제는 커밋 후 백그라운드에서 한다
      * @param menuCode 삭제할 메뉴 코드
      */
     @Transactional
@@ -120,20 +327,396 @@ public class MenuService {
         Menu menu = menuRepository.findById(menuCode)
                 .orElseThrow(() -> new IllegalArgumentException("해당 메뉴를 찾을 수 없습니다: " + menuCode));
         
-        // 이미지 파일 삭제
+        // 이미지 참조 해제 (마지막 참조면 삭제 대기열에 기록)
         if (menu.getMenuImageUrl() != null && !menu.getMenuImageUrl().isEmpty()) {
-            if ("aws".equals(activeProfile)) {
-                // AWS 환경: S3에서 삭제
-                String fileName = extractFileNameFromS3Url(menu.getMenuImageUrl());
-                s3Service.deleteFile(fileName);
-            } else {
-                // 로컬 환경: 기존 로직 사용
-                fileUploadUtils.deleteFile(menu.getMenuImageUrl());
-            }
+            releaseImage(menu.getMenuImageUrl());
         }
         
         // 메뉴 삭제
         menuRepository.delete(menu);
+        // 카테고리가 없는 메뉴는 어느 카테고리 목록에도 없으므로 전체 목록만 바뀐다
+        if (menu.getCategory() != null) {
+            menuCatalogCache.invalidateAfterCommit(List.of(menu.getCategory().getCategoryCode()));
+        } else {
+            menuCatalogCache.invalidateAfterCommit(List.of());
+        }
+    }
+    
+    /**
+     * 메뉴 재고를 차감한다
+     * 재고가 0이 되면 메뉴는 주문 불가 상태가 된다
+     * @param menuCode 메뉴 코드
+     * @param quantity 차감할 수량
+     * @return 차감 후 메뉴 DTO
+     */
+    @Transactional
+    public MenuDTO decrementStock(Long menuCode, int quantity) {
+        return decrementStocks(List.of(new StockDecrementRequestDTO(menuCode, quantity))).get(0);
+    }
+    
+    /**
+     * 여러 메뉴의 재고를 한 트랜잭션에서 차감한다
+     * 하나라도 재고가 부족하면 전체가 롤백된다
+     * @param items 메뉴별 차감 요청 (같은 메뉴가 여러 번 있으면 수량을 합친다)
+     * @return 차감 후 메뉴 DTO 목록 (메뉴 코드 순)
+     */
+    @Transactional
+    public List<MenuDTO> decrementStocks(List<StockDecrementRequestDTO> items) {
+        // 메뉴 코드 순으로 행 잠금을 잡아 동시에 실행되는 일괄 차감끼리 교착 상태가 생기지 않게 한다
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (StockDecrementRequestDTO item : items) {
+            quantities.merge(item.getMenuCode(), item.getQuantity(), Math::addExact);
+        }
+        
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Long menuCode = entry.getKey();
+            if (menuRepository.decrementStock(menuCode, entry.getValue()) == 0) {
+                if (!menuRepository.existsById(menuCode)) {
+                    throw new IllegalArgumentException("해당 메뉴를 찾을 수 없습니다: " + menuCode);
+                }
+                throw new IllegalStateException("재고가 부족합니다: " + menuCode);
+            }
+        }
+        
+        List<MenuDTO> menus = menuRepository.findMenuDTOsByIds(quantities.keySet());
+        menuCatalogCache.invalidateAfterCommit(menus.stream()
+                .map(MenuDTO::getCategory)
+                .filter(Objects::nonNull)
+                .map(CategoryDTO::getCategoryCode)
+                .distinct()
+                .toList());
+        return menus;
+    }
+    
+    /**
+     * 일괄 등록 요청의 필수 값, 이미지, 카테고리를 업로드 전에 모두 확인한다
+     * @param requests 등록할 메뉴 목록
+     * @param images 함께 업로드한 이미지 파일
+     */
+    private void validateRegisterRequests(List<MenuRegisterRequestDTO> requests, Map<String, MultipartFile> images) {
+        Set<Long> categoryCodes = new HashSet<>();
+        for (MenuRegisterRequestDTO request : requests) {
+            if (request.getMenuName() == null || request.getMenuName().isBlank()
+                    || request.getMenuPrice() == null || request.getCategoryCode() == null
+                    || request.getMenuStock() == null) {
+                throw new IllegalArgumentException("메뉴명, 가격, 카테고리, 재고는 필수입니다: " + request);
+            }
+            if (request.getImageName() != null) {
+                MultipartFile image = images.get(request.getImageName());
+                if (image == null || image.isEmpty()) {
+                    throw new IllegalArgumentException("이미지 파일을 찾을 수 없습니다: " + request.getImageName());
+                }
+                if (!fileUploadUtils.isImageFile(image)) {
+                    throw new IllegalArgumentException("이미지 파일만 업로드 가능합니다.");
+                }
+            }
+            categoryCodes.add(request.getCategoryCode());
+        }
+        
+        categoryRepository.findAllById(categoryCodes)
+                .forEach(category -> categoryCodes.remove(category.getCategoryCode()));
+        if (!categoryCodes.isEmpty()) {
+            throw new IllegalArgumentException("해당 카테고리를 찾을 수 없습니다: " + categoryCodes);
+        }
+    }
+    
+    /**
+     * 요청에 연결된 이미지를 이미지 업로드 스레드 풀에서 병렬로 업로드한다
+     * 하나라도 실패하면 성공한 업로드를 지우고 예외를 던진다
+     * @param requests 등록할 메뉴 목록
+     * @param images 함께 업로드한 이미지 파일
+     * @return 요청 순서대로의 이미지 URL 목록 (이미지가 없으면 null)
+     */
+    private List<String> uploadImages(List<MenuRegisterRequestDTO> requests, Map<String, MultipartFile> images) {
+        List<CompletableFuture<String>> uploads = new ArrayList<>(requests.size());
+        for (MenuRegisterRequestDTO request : requests) {
+            if (request.getImageName() == null) {
+                uploads.add(CompletableFuture.completedFuture(null));
+                continue;
+            }
+            uploads.add(uploadImageAsync(images.get(request.getImageName())));
+        }
+        
+        try {
+            CompletableFuture.allOf(uploads.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            releaseImages(uploads.stream()
+                    .filter(upload -> !upload.isCompletedExceptionally())
+                    .map(CompletableFuture::join)
+                    .toList());
+            if (e.getCause() instanceof IllegalArgumentException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("파일 업로드 중 오류가 발생했습니다.", e.getCause());
+        }
+        return uploads.stream().map(CompletableFuture::join).toList();
+    }
+    
+    /**
+     * 메뉴 엔티티를 만들어 한 번에 저장한다
+     * 메뉴 코드를 시퀀스에서 미리 할당받으므로 INSERT는 커밋 시점에 배치로 나간다
+     * @param requests 등록할 메뉴 목록
+     * @param imageUrls 요청 순서대로의 이미지 URL 목록
+     * @return 등록된 메뉴 DTO 목록
+     */
+    private List<MenuDTO> saveMenus(List<MenuRegisterRequestDTO> requests, List<String> imageUrls) {
+        List<Menu> menus = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            MenuRegisterRequestDTO request = requests.get(i);
+            Category category = categoryRepository.getReferenceById(request.getCategoryCode());
+            menus.add(new Menu(request.getMenuName(), request.getMenuPrice(), request.getMenuDescription(),
+                    category, imageUrls.get(i), request.getMenuStock()));
+        }
+        
+        List<Menu> savedMenus = menuRepository.saveAll(menus);
+        menuCatalogCache.invalidateAfterCommit(requests.stream()
+                .map(MenuRegisterRequestDTO::getCategoryCode)
+                .distinct()
+                .toList());
+        return savedMenus.stream().map(MenuService::convertToDTO).toList();
+    }
+    
+    /**
+     * 카테고리를 조회한다
+     * @param categoryCode 카테고리 코드
+     * @return 카테고리 엔티티
+     */
+    private Category findCategory(Long categoryCode) {
+        return categoryRepository.findById(categoryCode)
+                .orElseThrow(() -> new IllegalArgumentException("해당 카테고리를 찾을 수 없습니다: " + categoryCode));
+    }
+    
+    /**
+     * 이미지 직접 업로드를 쓸 수 있는 환경인지 확인한다
+     * 로컬 환경은 S3가 없으므로 기존 multipart 업로드만 사용한다
+     */
+    private void requireS3() {
+        if (!"aws".equals(activeProfile)) {
+            throw new IllegalStateException("이미지 직접 업로드는 S3 환경에서만 사용할 수 있습니다.");
+        }
+    }
+    
+    /**
+     * 메뉴 하나를 짧은 트랜잭션으로 저장한다
+     * 저장에 실패하면 먼저 업로드한 이미지를 지운다
+     * @param menuName 메뉴명
+     * @param menuPrice 메뉴 가격
+     * @param menuDescription 메뉴 설명
+     * @param category 카테고리
+     * @param menuStock 메뉴 재고
+     * @param imageUrl 업로드된 이미지 URL (없으면 null)
+     * @return 등록된 메뉴 DTO
+     */
+    private MenuDTO saveMenu(String menuName, Integer menuPrice, String menuDescription,
+                             Category category, Integer menuStock, String imageUrl) {
+        MenuDTO savedMenu;
+        try {
+            savedMenu = transactionTemplate.execute(status -> {
+                // 메뉴 엔티티 생성 및 저장
+                Menu menu = new Menu(menuName, menuPrice, menuDescription, category, imageUrl, menuStock);
+                Menu saved = menuRepository.save(menu);
+                menuCatalogCache.invalidateAfterCommit(List.of(category.getCategoryCode()));
+                return convertToDTO(saved);
+            });
+        } catch (RuntimeException e) {
+            releaseImages(Collections.singletonList(imageUrl));
+            throw e;
+        }
+        createImageVariants(List.of(savedMenu));
+        return savedMenu;
+    }
+    
+    /**
+     * 이미지가 있는 메뉴의 크기별 변형 이미지를 백그라운드에서 만든다
+     * 다 만들어지면 메뉴와 이미지에 변형 너비를 기록하고, 실패하면 원본 이미지만 계속 쓴다
+     * 같은 이미지로 이미 만들어 둔 변형이 있으면 다시 만들지 않고 기록된 너비를 메뉴에 옮겨 적는다
+     * @param menus 저장이 끝난 메뉴 목록
+     */
+    private void createImageVariants(List<MenuDTO> menus) {
+        for (MenuDTO menu : menus) {
+            String imageUrl = menu.getMenuImageUrl();
+            if (imageUrl == null) {
+                continue;
+            }
+            String imageKey = "aws".equals(activeProfile) ? extractFileNameFromS3Url(imageUrl) : imageUrl;
+            
+            // 같은 이미지를 다시 올릴 때마다 원본 다운로드와 리사이즈, 변형 업로드를 되풀이하지 않는다
+            Optional<String> recorded = imageReferenceService.findVariantWidths(imageKey);
+            if (recorded.isPresent()) {
+                recordImageVariants(menu, imageUrl, recorded.get());
+                continue;
+            }
+            
+            CompletableFuture<List<Integer>> variants = "aws".equals(activeProfile)
+                    ? s3Service.createVariantsAsync(imageKey)
+                    : fileUploadUtils.createVariantsAsync(imageKey);
+            // 변형 스레드 풀은 CPU 작업만 하도록 DB 기록은 후처리 스레드 풀로 넘긴다
+            variants.thenCompose(widths -> handOff(() -> {
+                        if (!widths.isEmpty()) {
+                            String variantWidths = widths.stream().sorted().map(String::valueOf).collect(Collectors.joining(","));
+                            imageReferenceService.recordVariantWidths(imageKey, variantWidths);
+                            recordImageVariants(menu, imageUrl, variantWidths);
+                        }
+                        return null;
+                    }))
+                    .exceptionally(failure -> {
+                        failure.printStackTrace();
+                        return null;
+                    });
+        }
+    }
+    
+    /**
+     * 만들어진 변형 너비를 메뉴에 기록하고 메뉴 목록 캐시를 비운다
+     * @param menu 메뉴
+     * @param imageUrl 변형을 만든 원본 이미지 URL
+     * @param variantWidths 쉼표로 구분한 변형 너비 (오름차순)
+     */
+    private void recordImageVariants(MenuDTO menu, String imageUrl, String variantWidths) {
+        transactionTemplate.execute(status -> {
+            if (menuRepository.updateImageVariants(menu.getMenuCode(), imageUrl, variantWidths) > 0) {
+                menuCatalogCache.invalidateAfterCommit(menu.getCategory() != null
+                        ? List.of(menu.getCategory().getCategoryCode())
+                        : List.of());
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * 현재 환경에 맞는 저장소에 이미지를 비동기로 업로드한다
+     * S3는 비동기 클라이언트를 그대로 쓰고, 로컬 디스크 저장은 이미지 업로드 스레드 풀에서 실행한다
+     * 같은 내용의 이미지가 이미 저장되어 있으면 업로드하지 않고 참조만 늘린다
+     * 먼저 올리던 요청이 아직 쓰는 중이거나 실패해 저장이 확인되지 않은 이미지는 직접 다시 올린다
+     * @param imageFile 이미지 파일
+     * @return 업로드가 끝나면 이미지 URL로 완료되는 future
+     */
+    private CompletableFuture<String> uploadImageAsync(MultipartFile imageFile) {
+        if ("aws".equals(activeProfile)) {
+            ImageContent image;
+            ImageReferenceService.Acquisition reference;
+            try {
+                image = inspectImage(imageFile);
+                reference = imageReferenceService.acquire(image.getFilename());
+            } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            String imageUrl = s3Service.getFileUrl(image.getFilename());
+            if (reference.stored()) {
+                return CompletableFuture.completedFuture(imageUrl);
+            }
+            // 같은 키에 같은 내용이므로 다른 요청과 겹쳐 올려도 되며, 다 올린 뒤에야 저장된 것으로 기록한다
+            // 업로드에 실패하면 방금 늘린 참조를 되돌린다 (DB 작업이므로 S3 클라이언트 스레드에서 하지 않는다)
+            return s3Service.uploadFileAsync(imageFile, image)
+                    .thenCompose(fileName -> handOff(() -> {
+                        imageReferenceService.markStored(image.getFilename());
+                        return imageUrl;
+                    }))
+                    .exceptionallyCompose(failure -> handOff(() -> {
+                        releaseImages(Collections.singletonList(imageUrl));
+                        throw failure instanceof CompletionException completion ? completion : new CompletionException(failure);
+                    }));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return uploadImage(imageFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, imageUploadExecutor);
+    }
+    
+    /**
+     * S3 완료 스레드나 변형 스레드가 이어서 할 DB 작업을 후처리 스레드 풀에서 실행한다
+     * 풀이 가득 차도 넘긴 스레드에서 대신 실행하지 않고 (Netty 이벤트 루프가 멈추면 모든 S3 요청이 멈춘다) 실패한 future를 돌려준다
+     * @param task 실행할 작업
+     * @return 작업 결과로 완료되는 future (풀이 가득 차면 RejectedExecutionException으로 실패)
+     */
+    private <T> CompletableFuture<T> handOff(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, imageCallbackExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * 현재 환경에 맞는 저장소에 이미지를 업로드한다
+     * 파일명은 내용 해시이므로, 같은 내용의 이미지가 이미 저장되어 있으면 다시 쓰지 않고 참조만 늘린다
+     * 저장이 확인되지 않은 이미지는 먼저 올리던 요청을 믿지 않고 직접 다시 쓴다
+     * @param imageFile 이미지 파일
+     * @return 이미지 URL (로컬 환경은 파일명)
+     * @throws IOException 파일 저장 실패시 발생
+     */
+    private String uploadImage(MultipartFile imageFile) throws IOException {
+        ImageContent image = inspectImage(imageFile);
+        String imageUrl = "aws".equals(activeProfile)
+                ? s3Service.getFileUrl(image.getFilename())
+                : image.getFilename();
+        if (imageReferenceService.acquire(image.getFilename()).stored()) {
+            return imageUrl;
+        }
+        
+        try {
+            if ("aws".equals(activeProfile)) {
+                // AWS 환경: S3에 업로드
+                s3Service.uploadFile(imageFile, image);
+            } else {
+                // 로컬 환경: 업로드 폴더에 저장
+                fileUploadUtils.storeFile(imageFile, image.getFilename());
+            }
+            imageReferenceService.markStored(image.getFilename());
+        } catch (IOException | RuntimeException e) {
+            releaseImages(Collections.singletonList(imageUrl));
+            throw e;
+        }
+        return imageUrl;
+    }
+    
+    /**
+     * 업로드한 파일이 이미지인지 확인하고 내용 해시와 실제 형식을 구한다
+     * @param imageFile 이미지 파일
+     * @return 업로드 이미지 정보 (파일명은 내용 해시 + 확장자)
+     * @throws IOException 파일 읽기 실패시 발생
+     */
+    private ImageContent inspectImage(MultipartFile imageFile) throws IOException {
+        if (!fileUploadUtils.isImageFile(imageFile)) {
+            throw new IllegalArgumentException("이미지 파일만 업로드 가능합니다.");
+        }
+        return fileUploadUtils.inspectImage(imageFile);
+    }
+    
+    /**
+     * 이미지 참조를 하나 줄이고, 마지막 참조였으면 같은 트랜잭션에서 삭제 대기열에 넣는다
+     * 저장소를 기다리지 않으며, 트랜잭션이 롤백되면 참조와 삭제 기록도 함께 되돌아간다
+     * @param imageUrl 이미지 URL (로컬 환경은 파일명)
+     */
+    private void releaseImage(String imageUrl) {
+        String imageKey = "aws".equals(activeProfile) ? extractFileNameFromS3Url(imageUrl) : imageUrl;
+        transactionTemplate.execute(status -> {
+            if (imageReferenceService.release(imageKey)) {
+                imageDeletionService.enqueue(imageKey);
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * 업로드를 되돌리기 위해 이미지 참조들을 해제한다
+     * 해제 실패는 원래 예외를 가리지 않도록 기록만 한다
+     * @param imageUrls 이미지 URL 목록 (null은 건너뛴다)
+     */
+    private void releaseImages(List<String> imageUrls) {
+        for (String imageUrl : imageUrls) {
+            if (imageUrl == null) {
+                continue;
+            }
+            try {
+                releaseImage(imageUrl);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
     }
     
     /**
@@ -148,10 +731,11 @@ public class MenuService {
     
     /**
      * Menu 엔티티를 MenuDTO로 변환한다
+     * JMH 벤치마크(src/jmh)가 직접 호출할 수 있도록 패키지 범위로 둔다
      * @param menu 메뉴 엔티티
      * @return 메뉴 DTO
      */
-    private MenuDTO convertToDTO(Menu menu) {
+    static MenuDTO convertToDTO(Menu menu) {
         CategoryDTO categoryDTO = null;
         if (menu.getCategory() != null) {
             categoryDTO = new CategoryDTO(
@@ -160,7 +744,7 @@ public class MenuService {
             );
         }
         
-        return new MenuDTO(
+        MenuDTO menuDTO = new MenuDTO(
                 menu.getMenuCode(),
                 menu.getMenuName(),
                 menu.getMenuPrice(),
@@ -170,5 +754,8 @@ public class MenuService {
                 menu.getMenuImageUrl(),
                 menu.getMenuStock()
         );
+        menuDTO.setMenuImageVariants(
+                ImageVariantUtils.variantUrls(menu.getMenuImageUrl(), menu.getMenuImageVariants()));
+        return menuDTO;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.ohgiraffers.awsdeploy.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ohgiraffers.awsdeploy.dto.MenuDTO;
+import com.ohgiraffers.awsdeploy.util.MenuCborCodec;
+import com.ohgiraffers.awsdeploy.util.PrecompressedJson;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * 목록 응답 본문 캐시
+ * 캐시된 불변 목록 스냅샷을 직렬화한 바이트(JSON과 gzip 압축본, 메뉴 목록 CBOR)를 보관해, 같은 스냅샷이면 다시 직렬화하지 않는다
+ * 스냅샷은 카탈로그 버전이 바뀔 때만 새로 만들어지므로, 스냅샷 객체가 같은지로 유효성을 판단한다
+ */
+@Component
+public class ResponseBodyCache {
+    
+    // 형식:응답 이름 → 마지막으로 만든 본문
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    private final ObjectMapper objectMapper;
+    private final FormatMeters jsonMeters;
+    private final FormatMeters cborMeters;
+    
+    public ResponseBodyCache(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.jsonMeters = FormatMeters.register(meterRegistry, "json");
+        this.cborMeters = FormatMeters.register(meterRegistry, "cbor");
+    }
+    
+    /**
+     * 스냅샷의 JSON 본문을 반환하고, 스냅샷이 바뀌었으면 다시 만든다
+     * @param key 응답 이름 (예: menus, category:3)
+     * @param snapshot 캐시에서 꺼낸 불변 목록 (같은 버전이면 같은 객체)
+     * @return 미리 압축한 JSON 본문
+     */
+    public PrecompressedJson getJson(String key, Object snapshot) {
+        return (PrecompressedJson) get(jsonMeters, "json:" + key, snapshot, () -> PrecompressedJson.of(serialize(snapshot)));
+    }
+    
+    /**
+     * 메뉴 목록 스냅샷의 CBOR 본문을 반환하고, 스냅샷이 바뀌었으면 다시 만든다
+     * @param key 응답 이름 (예: menus, category:3)
+     * @param snapshot 캐시에서 꺼낸 불변 메뉴 목록 (같은 버전이면 같은 객체)
+     * @return CBOR 바이트
+     */
+    public byte[] getMenuCbor(String key, List<MenuDTO> snapshot) {
+        return (byte[]) get(cborMeters, "cbor:" + key, snapshot, () -> MenuCborCodec.encode(snapshot));
+    }
+    
+    private Object get(FormatMeters meters, String entryKey, Object snapshot, Supplier<Object> encoder) {
+        Entry current = entries.get(entryKey);
+        if (current != null && current.snapshot() == snapshot) {
+            meters.hit().increment();
+            return current.body();
+        }
+        
+        meters.miss().increment();
+        Object body = meters.encode().record(encoder);
+        entries.put(entryKey, new Entry(snapshot, body));
+        return body;
+    }
+    
+    private byte[] serialize(Object snapshot) {
+        try {
+            return objectMapper.writeValueAsBytes(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("응답 JSON을 만들 수 없습니다", e);
+        }
+    }
+    
+    /**
+     * 스냅샷과 그 직렬화 결과
+     */
+    private record Entry(Object snapshot, Object body) {
+    }
+    
+    /**
+     * 형식별 캐시 조회 횟수와 직렬화 시간 지표
+     */
+    private record FormatMeters(Counter hit, Counter miss, Timer encode) {
+        
+        private static FormatMeters register(MeterRegistry meterRegistry, String format) {
+            return new FormatMeters(requestCounter(meterRegistry, format, "hit"),
+                    requestCounter(meterRegistry, format, "miss"),
+                    Timer.builder("response.body.cache.encode")
+                            .tag("format", format)
+                            .description("목록 응답 본문 직렬화와 압축 시간")
+                            .register(meterRegistry));
+        }
+        
+        private static Counter requestCounter(MeterRegistry meterRegistry, String format, String result) {
+            return Counter.builder("response.body.cache.requests")
+                    .tag("format", format)
+                    .tag("result", result)
+                    .description("목록 응답 본문 캐시 조회 횟수")
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -1,94 +1,333 @@
 package com.ohgiraffers.awsdeploy.service;
 
+import com.ohgiraffers.awsdeploy.dto.PresignedUploadDTO;
+import com.ohgiraffers.awsdeploy.util.FileUploadUtils.ImageContent;
+import com.ohgiraffers.awsdeploy.util.ImageVariantUtils;
+import com.ohgiraffers.awsdeploy.util.ImageVariantUtils.ImageVariant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.FileTransformerConfiguration;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
 /**
  * S3 파일 업로드 서비스
  * Amazon S3를 사용한 파일 업로드, 삭제, URL 생성 기능을 제공한다
+ * 업로드와 삭제는 S3AsyncClient로 처리해서 응답을 기다리는 동안 요청 스레드와 DB 커넥션을 붙잡지 않는다
+ * 브라우저가 이미지를 S3에 직접 올릴 수 있도록 서명된 PUT URL 발급과 업로드 확인도 제공한다
  */
 @Service
 public class S3Service {
 
-    // S3 클라이언트
-    private final S3Client s3Client;
+    // 직접 업로드를 허용하는 이미지 형식과 객체 키에 붙일 확장자
+    private static final Map<String, String> IMAGE_EXTENSIONS = Map.of(
+            "image/jpeg", ".jpg",
+            "image/png", ".png",
+            "image/gif", ".gif",
+            "image/webp", ".webp");
+    // presignImageUpload가 발급하는 객체 키 형식 (버킷의 다른 객체를 메뉴 이미지로 끌어 쓰지 못하게 한다)
+    private static final Pattern UPLOADED_IMAGE_KEY = Pattern.compile(
+            "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.(jpg|png|gif|webp)");
+    // 이름이 바뀌지 않는 한 내용도 바뀌지 않는 객체(내용 해시 키, 변형 이미지)의 캐시 설정
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+    // DeleteObjects 요청 하나에 담을 수 있는 최대 키 수
+    static final int MAX_DELETE_KEYS = 1000;
+
+    // S3 비동기 클라이언트 (업로드와 삭제가 하나의 커넥션 풀을 함께 쓴다)
+    private final S3AsyncClient s3AsyncClient;
+    // 업로드 URL 서명기
+    private final S3Presigner s3Presigner;
     // S3 버킷 이름
     private final String bucketName;
     // S3 리전
     private final String region;
+    // S3 호환 저장소 주소 (비어 있으면 AWS S3를 사용한다)
+    private final String endpoint;
+    // 서명된 업로드 URL의 유효 시간
+    private final Duration presignExpiration;
+    // 직접 업로드할 수 있는 최대 이미지 크기 (바이트)
+    private final long maxUploadSize;
+    // 크기별 변형 이미지 생성기
+    private final ImageVariantUtils imageVariantUtils;
+    // S3 요청 지연 시간, 실패 수, 업로드 바이트 지표
+    private final MeterRegistry meterRegistry;
+    private final Counter uploadedBytes;
 
-	/* S3Service 생성자를 만들 때 아래 4가지 파라미터를 받는다.
-	 * 1. AWS 액세스 키
+	/* S3Service 생성자를 만들 때 아래 8가지 파라미터를 받는다.
+	 * 1. AWS 액세스 키 (비어 있으면 ECS 태스크 역할 등 기본 자격 증명 체인을 사용한다)
 	 * 2. AWS 시크릿 키
 	 * 3. S3 버킷 이름
 	 * 4. S3 리전
+	 * 5. S3 호환 저장소 주소 (LocalStack, MinIO 등으로 테스트할 때만 설정한다)
+	 * 6. S3 최대 동시 연결 수
+	 * 7. 서명된 업로드 URL의 유효 시간
+	 * 8. 직접 업로드할 수 있는 최대 이미지 크기
 	 * 이 값들은 환경변수에 저장되어 있으며, 환경변수는 .env(또는 .env.example) 파일에 저장되어 있다.
 	 * 간단한 테스트를 위해 IDE에서 Run Profile의 Edit Configurations에서 환경변수를 설정한다.
+	 * 크기별 변형 이미지를 만드는 ImageVariantUtils와 지표를 기록할 MeterRegistry는 환경변수가 아닌 스프링 빈으로 주입받는다.
 	 */
+    @Autowired
     public S3Service(@Value("${aws.credentials.access-key}") String accessKey,
                      @Value("${aws.credentials.secret-key}") String secretKey,
                      @Value("${aws.s3.bucket}") String bucketName,
-                     @Value("${aws.region}") String region) {
-        
+                     @Value("${aws.region}") String region,
+                     @Value("${aws.s3.endpoint:}") String endpoint,
+                     @Value("${aws.s3.max-connections:50}") int maxConnections,
+                     @Value("${aws.s3.presign.expiration:10m}") Duration presignExpiration,
+                     @Value("${aws.s3.presign.max-size:10MB}") DataSize maxUploadSize,
+                     ImageVariantUtils imageVariantUtils,
+                     MeterRegistry meterRegistry) {
+        this(buildClient(accessKey, secretKey, region, endpoint, maxConnections),
+                buildPresigner(accessKey, secretKey, region, endpoint),
+                bucketName, region, endpoint, presignExpiration, maxUploadSize.toBytes(), imageVariantUtils, meterRegistry);
+    }
+
+    // 테스트에서 클라이언트를 직접 넣기 위한 생성자
+    S3Service(S3AsyncClient s3AsyncClient, S3Presigner s3Presigner, String bucketName, String region,
+              String endpoint, Duration presignExpiration, long maxUploadSize, ImageVariantUtils imageVariantUtils,
+              MeterRegistry meterRegistry) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.s3Presigner = s3Presigner;
         this.bucketName = bucketName;
         this.region = region;
-        
-        AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKey, secretKey);
-        this.s3Client = S3Client.builder()
-                .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(credentials))
-                .build();
+        this.endpoint = endpoint;
+        this.presignExpiration = presignExpiration;
+        this.maxUploadSize = maxUploadSize;
+        this.imageVariantUtils = imageVariantUtils;
+        this.meterRegistry = meterRegistry;
+        this.uploadedBytes = Counter.builder("image.upload.bytes")
+                .description("저장소에 올린 원본 이미지 바이트 수")
+                .baseUnit("bytes")
+                .tag("store", "s3")
+                .register(meterRegistry);
     }
 
     /**
-     * S3에 파일을 업로드한다
+     * S3에 파일을 업로드하고 완료될 때까지 기다린다
      * @param file 업로드할 파일
+     * @param image 내용으로 정한 객체 키와 형식 (FileUploadUtils.inspectImage 결과)
      * @return S3 객체 키 (파일명)
      */
-    public String uploadFile(MultipartFile file) {
+    public String uploadFile(MultipartFile file, ImageContent image) {
         try {
-            String fileName = generateFileName(file.getOriginalFilename());
-            
-            PutObjectRequest putRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(fileName)
-                    .contentType(file.getContentType())
-                    .build();
+            return uploadFileAsync(file, image).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Failed to upload file to S3", e.getCause());
+        }
+    }
 
-            s3Client.putObject(putRequest, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
-            
-            return fileName;
+    /**
+     * S3에 파일을 내용 해시로 정한 키로 비동기 업로드한다
+     * @param file 업로드할 파일
+     * @param image 내용으로 정한 객체 키와 형식 (FileUploadUtils.inspectImage 결과)
+     * @return 업로드가 끝나면 S3 객체 키 (파일명)로 완료되는 future
+     */
+    public CompletableFuture<String> uploadFileAsync(MultipartFile file, ImageContent image) {
+        String fileName = image.getFilename();
+        
+        // 업로드를 힙에 올리지 않도록 디스크의 임시 파일에서 조금씩 읽어 보낸다
+        // 멀티파트 임시 파일은 요청이 끝나면 지워지므로 업로드가 끝날 때까지 남는 파일로 복사해 둔다 (재시도할 때도 처음부터 다시 읽는다)
+        Path content;
+        try {
+            content = Files.createTempFile("s3-upload-", ".tmp");
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        try {
+            file.transferTo(content);
         } catch (IOException e) {
-            throw new RuntimeException("Failed to upload file to S3", e);
+            deleteTempFile(content);
+            return CompletableFuture.failedFuture(e);
         }
+        long contentLength = file.getSize();
+        
+        PutObjectRequest putRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .contentType(image.getContentType())
+                .contentLength(contentLength)
+                // 객체 키가 내용 해시이므로 같은 키의 내용은 바뀌지 않는다
+                .cacheControl(IMMUTABLE_CACHE_CONTROL)
+                .build();
+        
+        return timed("PutObject", () -> s3AsyncClient.putObject(putRequest, AsyncRequestBody.fromFile(content)))
+                .whenComplete((response, failure) -> deleteTempFile(content))
+                .thenApply(response -> {
+                    uploadedBytes.increment(contentLength);
+                    return fileName;
+                });
     }
 
     /**
-     * S3에서 파일을 삭제한다
+     * 업로드나 변형 생성에 쓴 임시 파일을 지운다
+     * 실패해도 결과에는 영향이 없으므로 기록만 한다
+     * @param content 임시 파일 경로
+     */
+    private static void deleteTempFile(Path content) {
+        try {
+            Files.deleteIfExists(content);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * S3에서 파일을 삭제하고 완료될 때까지 기다린다
      * @param fileName 삭제할 파일명
      */
     public void deleteFile(String fileName) {
         try {
-            DeleteObjectRequest deleteRequest = DeleteObjectRequest.builder()
+            deleteFileAsync(fileName).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Failed to delete file from S3", e.getCause());
+        }
+    }
+
+    /**
+     * S3에서 파일과 크기별 변형 이미지를 한 번의 요청으로 비동기 삭제한다
+     * @param fileName 삭제할 파일명
+     * @return 삭제가 끝나면 완료되는 future
+     */
+    public CompletableFuture<Void> deleteFileAsync(String fileName) {
+        return deleteFilesAsync(List.of(fileName)).thenApply(failed -> {
+            if (!failed.isEmpty()) {
+                throw new IllegalStateException("Failed to delete file from S3: " + fileName);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * S3에서 여러 파일과 각각의 크기별 변형 이미지를 비동기 삭제한다
+     * 키를 DeleteObjects 요청 하나에 최대 1000개씩 묶어 요청 수를 줄인다
+     * @param fileNames 삭제할 파일명 목록
+     * @return 삭제가 끝나면 지우지 못한 파일명 목록으로 완료되는 future (변형 하나라도 실패하면 원본 파일명이 담긴다)
+     */
+    public CompletableFuture<Set<String>> deleteFilesAsync(Collection<String> fileNames) {
+        // 변형 키의 삭제 실패를 원본 파일명으로 되돌려 보고하기 위해 키마다 원본을 기억한다
+        Map<String, String> owners = new LinkedHashMap<>();
+        for (String fileName : fileNames) {
+            owners.put(fileName, fileName);
+            for (int width : imageVariantUtils.getWidths()) {
+                owners.put(ImageVariantUtils.variantName(fileName, width), fileName);
+            }
+        }
+        
+        List<String> keys = new ArrayList<>(owners.keySet());
+        List<CompletableFuture<List<String>>> requests = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += MAX_DELETE_KEYS) {
+            List<ObjectIdentifier> objects = keys.subList(from, Math.min(from + MAX_DELETE_KEYS, keys.size())).stream()
+                    .map(key -> ObjectIdentifier.builder().key(key).build())
+                    .toList();
+            DeleteObjectsRequest deleteRequest = DeleteObjectsRequest.builder()
                     .bucket(bucketName)
-                    .key(fileName)
+                    // quiet 모드는 실패한 키만 응답에 담는다
+                    .delete(Delete.builder().objects(objects).quiet(true).build())
                     .build();
-            
-            s3Client.deleteObject(deleteRequest);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to delete file from S3", e);
+            requests.add(timed("DeleteObjects", () -> s3AsyncClient.deleteObjects(deleteRequest)).thenApply(response -> {
+                if (!response.hasErrors()) {
+                    return List.of();
+                }
+                // 요청은 성공했어도 키마다 실패할 수 있으므로 실패한 키도 오류 코드별로 센다
+                response.errors().forEach(error -> countError("DeleteObjects", error.code()));
+                return response.errors().stream().map(error -> error.key()).toList();
+            }));
+        }
+        
+        return CompletableFuture.allOf(requests.toArray(new CompletableFuture[0])).thenApply(done -> {
+            Set<String> failed = new HashSet<>();
+            for (CompletableFuture<List<String>> request : requests) {
+                request.join().forEach(key -> failed.add(owners.getOrDefault(key, key)));
+            }
+            return failed;
+        });
+    }
+
+    /**
+     * S3에 올라간 이미지로 크기별 변형 이미지를 만들어 같은 버킷에 올린다
+     * 원본이 서명된 URL로 직접 올라왔을 수도 있으므로 S3에서 다시 읽고, 변환은 이미지 변형 스레드 풀에서 한다
+     * @param fileName 원본 파일명
+     * @return 올라간 변형 너비 목록으로 완료되는 future
+     */
+    public CompletableFuture<List<Integer>> createVariantsAsync(String fileName) {
+        GetObjectRequest getRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .build();
+        
+        // 원본을 힙에 통째로 올리지 않도록 임시 파일로 받아 그 파일에서 디코딩한다
+        Path original;
+        try {
+            original = Files.createTempFile("s3-variant-", ".tmp");
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        
+        return timed("GetObject", () -> s3AsyncClient.getObject(getRequest,
+                        AsyncResponseTransformer.toFile(original, FileTransformerConfiguration.defaultCreateOrReplaceExisting())))
+                .thenCompose(response -> imageVariantUtils.createVariantsAsync(original))
+                .whenComplete((variants, failure) -> deleteTempFile(original))
+                .thenCompose(variants -> {
+                    List<CompletableFuture<?>> uploads = new ArrayList<>();
+                    for (ImageVariant variant : variants) {
+                        PutObjectRequest putRequest = PutObjectRequest.builder()
+                                .bucket(bucketName)
+                                .key(ImageVariantUtils.variantName(fileName, variant.getWidth()))
+                                .contentType("image/jpeg")
+                                .contentLength((long) variant.getContent().length)
+                                // 변형 파일명은 원본 이름(UUID 또는 내용 해시)을 이어받아 내용이 바뀌지 않으므로 오래 캐시해도 된다
+                                .cacheControl(IMMUTABLE_CACHE_CONTROL)
+                                .build();
+                        uploads.add(timed("PutObject",
+                                () -> s3AsyncClient.putObject(putRequest, AsyncRequestBody.fromBytes(variant.getContent()))));
+                    }
+                    return CompletableFuture.allOf(uploads.toArray(new CompletableFuture[0]))
+                            .thenApply(done -> variants.stream().map(ImageVariant::getWidth).toList());
+                });
     }
 
     /**
@@ -97,19 +336,203 @@ public class S3Service {
      * @return S3 객체의 전체 URL
      */
     public String getFileUrl(String fileName) {
+        if (endpoint != null && !endpoint.isBlank()) {
+            // S3 호환 저장소는 경로 방식 주소를 사용한다
+            String base = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+            return String.format("%s/%s/%s", base, bucketName, fileName);
+        }
         return String.format("https://%s.s3.%s.amazonaws.com/%s", bucketName, region, fileName);
     }
 
     /**
-     * 고유한 파일명을 생성한다
-     * @param originalFilename 원본 파일명
-     * @return 고유한 파일명
+     * 브라우저가 S3에 이미지를 직접 올릴 수 있도록 서명된 PUT URL을 발급한다
+     * Content-Type과 Content-Length가 서명에 포함되므로 다른 형식이나 크기로는 업로드할 수 없다
+     * @param contentType 이미지 MIME 타입
+     * @param contentLength 이미지 크기 (바이트)
+     * @return 객체 키, 업로드 URL, 함께 보낼 헤더, 만료 시각
+     */
+    public PresignedUploadDTO presignImageUpload(String contentType, long contentLength) {
+        String extension = IMAGE_EXTENSIONS.get(contentType);
+        if (extension == null) {
+            throw new IllegalArgumentException("이미지 파일만 업로드 가능합니다.");
+        }
+        if (contentLength < 1 || contentLength > maxUploadSize) {
+            throw new IllegalArgumentException("업로드할 수 있는 파일 크기는 1~" + maxUploadSize + "바이트입니다: " + contentLength);
+        }
+        
+        String fileName = UUID.randomUUID().toString() + extension;
+        PutObjectRequest putRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .build();
+        PresignedPutObjectRequest presigned = s3Presigner.presignPutObject(PutObjectPresignRequest.builder()
+                .signatureDuration(presignExpiration)
+                .putObjectRequest(putRequest)
+                .build());
+        
+        // Host와 Content-Length는 브라우저가 직접 채우므로 나머지 서명 헤더만 알려 준다
+        Map<String, String> headers = new LinkedHashMap<>();
+        presigned.signedHeaders().forEach((name, values) -> {
+            if (!"host".equalsIgnoreCase(name) && !"content-length".equalsIgnoreCase(name)) {
+                headers.put(name, String.join(",", values));
+            }
+        });
+        return new PresignedUploadDTO(fileName, presigned.url().toString(), headers, presigned.expiration());
+    }
+
+    /**
+     * 서명된 URL로 직접 올라온 이미지를 HeadObject로 확인한다
+     * 이미지 바이트는 내려받지 않고 메타데이터만 확인한다
+     * @param fileName presignImageUpload가 발급한 객체 키
+     * @return 객체가 있고 허용된 형식과 크기이면 이미지 URL로 완료되는 future
+     *         (없거나 허용되지 않는 객체면 IllegalArgumentException으로 실패한다)
      */
-    private String generateFileName(String originalFilename) {
-        String extension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+    public CompletableFuture<String> confirmImageUploadAsync(String fileName) {
+        if (fileName == null || !UPLOADED_IMAGE_KEY.matcher(fileName).matches()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("잘못된 이미지 키입니다: " + fileName));
         }
-        return UUID.randomUUID().toString() + extension;
+        
+        HeadObjectRequest headRequest = HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .build();
+        
+        return timed("HeadObject", () -> s3AsyncClient.headObject(headRequest)).handle((response, failure) -> {
+            if (failure != null) {
+                Throwable cause = (failure instanceof CompletionException && failure.getCause() != null)
+                        ? failure.getCause()
+                        : failure;
+                if (cause instanceof S3Exception s3Exception && s3Exception.statusCode() == 404) {
+                    throw new IllegalArgumentException("업로드된 이미지를 찾을 수 없습니다: " + fileName);
+                }
+                throw new CompletionException(cause);
+            }
+            Long size = response.contentLength();
+            if (!IMAGE_EXTENSIONS.containsKey(response.contentType())
+                    || size == null || size < 1 || size > maxUploadSize) {
+                throw new IllegalArgumentException("허용되지 않는 이미지입니다: " + fileName);
+            }
+            return getFileUrl(fileName);
+        });
+    }
+
+    /**
+     * S3 요청의 지연 시간을 API와 결과별로 재고, 실패하면 오류 코드별로 센다
+     * @param operation S3 API 이름 (예: PutObject)
+     * @param request 요청을 보내는 함수
+     * @return 요청 결과로 완료되는 future
+     */
+    private <T> CompletableFuture<T> timed(String operation, Supplier<CompletableFuture<T>> request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return request.get().whenComplete((result, failure) -> {
+            sample.stop(Timer.builder("s3.requests")
+                    .description("S3 요청 지연 시간")
+                    .tag("operation", operation)
+                    .tag("outcome", failure == null ? "success" : "error")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            if (failure != null) {
+                countError(operation, errorCode(failure));
+            }
+        });
+    }
+
+    private void countError(String operation, String errorCode) {
+        Counter.builder("s3.request.errors")
+                .description("실패한 S3 요청 수")
+                .tag("operation", operation)
+                .tag("error", errorCode)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 실패 원인에서 지표 태그로 쓸 오류 코드를 구한다
+     * S3가 돌려준 오류는 오류 코드(없으면 HTTP 상태), 그 밖의 실패는 예외 이름을 쓴다
+     * @param failure 요청 실패 원인
+     * @return 오류 코드
+     */
+    private static String errorCode(Throwable failure) {
+        Throwable cause = (failure instanceof CompletionException && failure.getCause() != null)
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof S3Exception s3Exception) {
+            return (s3Exception.awsErrorDetails() != null && s3Exception.awsErrorDetails().errorCode() != null)
+                    ? s3Exception.awsErrorDetails().errorCode()
+                    : String.valueOf(s3Exception.statusCode());
+        }
+        return cause.getClass().getSimpleName();
+    }
+
+    /**
+     * 애플리케이션 종료 시 클라이언트와 커넥션 풀을 닫는다
+     */
+    @PreDestroy
+    public void close() {
+        s3Presigner.close();
+        s3AsyncClient.close();
+    }
+
+    /**
+     * 커넥션 풀을 공유하는 S3 비동기 클라이언트를 만든다
+     * @param accessKey AWS 액세스 키
+     * @param secretKey AWS 시크릿 키
+     * @param region S3 리전
+     * @param endpoint S3 호환 저장소 주소
+     * @param maxConnections 최대 동시 연결 수
+     * @return S3 비동기 클라이언트
+     */
+    private static S3AsyncClient buildClient(String accessKey, String secretKey, String region,
+                                             String endpoint, int maxConnections) {
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider(accessKey, secretKey))
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(maxConnections)
+                        .connectionAcquisitionTimeout(Duration.ofSeconds(10)));
+        
+        if (endpoint != null && !endpoint.isBlank()) {
+            // LocalStack, MinIO 같은 S3 호환 저장소는 버킷을 경로에 넣는 방식을 사용한다
+            builder.endpointOverride(URI.create(endpoint))
+                    .forcePathStyle(true);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 업로드 URL 서명기를 만든다
+     * 서명기는 요청을 보내지 않으므로 커넥션 풀이 필요 없다
+     * @param accessKey AWS 액세스 키
+     * @param secretKey AWS 시크릿 키
+     * @param region S3 리전
+     * @param endpoint S3 호환 저장소 주소
+     * @return S3 서명기
+     */
+    private static S3Presigner buildPresigner(String accessKey, String secretKey, String region, String endpoint) {
+        S3Presigner.Builder builder = S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider(accessKey, secretKey));
+        
+        if (endpoint != null && !endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint))
+                    .serviceConfiguration(S3Configuration.builder()
+                            .pathStyleAccessEnabled(true)
+                            .build());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 자격 증명 공급자를 만든다
+     * @param accessKey AWS 액세스 키 (비어 있으면 기본 자격 증명 체인을 사용한다)
+     * @param secretKey AWS 시크릿 키
+     * @return 자격 증명 공급자
+     */
+    private static AwsCredentialsProvider credentialsProvider(String accessKey, String secretKey) {
+        return (accessKey == null || accessKey.isBlank())
+                ? DefaultCredentialsProvider.create()
+                : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
     }
 } 
\ No newline at end of file
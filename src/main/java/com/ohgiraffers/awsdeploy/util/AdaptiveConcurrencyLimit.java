@@ -0,0 +1,128 @@
+package com.ohgiraffers.awsdeploy.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 응답 시간에 따라 스스로 조정되는 동시 처리 한도
+ * 최근 응답 시간(단기 평균)이 평소(장기 평균)와 비슷하면 한도를 조금씩 늘리고, 평소보다 길어지면 그 비율만큼 줄인다 (gradient 방식)
+ * 요청이 실패(5xx, 예외)하면 응답 시간과 관계없이 한도를 일정 비율로 바로 줄인다 (AIMD의 곱셈 감소)
+ */
+public class AdaptiveConcurrencyLimit {
+    
+    // 장기 평균 응답 시간을 계산할 표본 수 (평소 수준)
+    private static final int LONG_WINDOW = 600;
+    
+    // 단기 평균 응답 시간을 계산할 표본 수 (최근 수준)
+    private static final int SHORT_WINDOW = 10;
+    
+    // 단기 평균이 장기 평균의 이 배수까지는 한도를 줄이지 않는다
+    private static final double TOLERANCE = 1.5;
+    
+    // 새로 계산한 한도를 반영하는 비율 (한 번에 크게 흔들리지 않게 한다)
+    private static final double SMOOTHING = 0.2;
+    
+    // 요청이 실패하면 한도에 곱하는 비율
+    private static final double BACKOFF_RATIO = 0.9;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    
+    private volatile double limit;
+    
+    // 아래 값은 update에서만 바꾼다 (synchronized)
+    private long samples;
+    private double shortRtt;
+    private double longRtt;
+    
+    /**
+     * @param initialLimit 시작 한도
+     * @param minLimit 한도 하한 (이만큼은 항상 처리한다)
+     * @param maxLimit 한도 상한 (요청 스레드 수 등 실제 처리 한계)
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("동시 처리 한도는 1 <= 최소(" + minLimit + ") <= 시작(" + initialLimit
+                    + ") <= 최대(" + maxLimit + ")여야 합니다");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+    
+    /**
+     * 처리 중인 요청이 한도보다 적으면 자리를 하나 차지한다
+     * @return 자리를 얻었으면 true (처리가 끝나면 release를 불러야 한다)
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * 자리를 돌려주고 응답 시간으로 한도를 조정한다
+     * @param rttNanos 자리를 얻은 뒤 처리가 끝날 때까지 걸린 시간 (나노초)
+     * @param dropped 요청이 실패했으면 true
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inflightAtRelease = inflight.getAndDecrement();
+        update(rttNanos, dropped, inflightAtRelease);
+    }
+    
+    /**
+     * @return 현재 동시 처리 한도
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+    
+    /**
+     * @return 처리 중인 요청 수
+     */
+    public int getInflight() {
+        return inflight.get();
+    }
+    
+    private synchronized void update(long rttNanos, boolean dropped, int inflightAtRelease) {
+        if (dropped) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            return;
+        }
+        
+        samples++;
+        if (samples == 1) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+        shortRtt = ewma(shortRtt, rttNanos, SHORT_WINDOW);
+        // 표본이 적을 때는 장기 평균도 빨리 따라가게 한다
+        longRtt = ewma(longRtt, rttNanos, (int) Math.min(samples, LONG_WINDOW));
+        // 느려졌던 시기가 지나 단기 평균이 크게 내려가면 장기 평균도 빨리 평소 수준으로 돌린다
+        if (longRtt > shortRtt * 2) {
+            longRtt *= 0.95;
+        }
+        
+        // 한도의 절반도 쓰지 않을 때의 응답 시간은 한도가 적절한지 알려주지 않으므로 조정하지 않는다
+        if (inflightAtRelease < limit / 2) {
+            return;
+        }
+        
+        // 최근 응답 시간이 평소의 몇 배인지에 따라 한도를 줄이고 (최대 절반), 여유분(√한도)만큼 늘린다
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+    
+    private static double ewma(double average, double value, int window) {
+        return average + (value - average) * 2 / (window + 1);
+    }
+}
@@ -0,0 +1,45 @@
+package com.ohgiraffers.awsdeploy.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 페이지 커서 유틸리티
+ * 메뉴 코드를 클라이언트가 해석하지 않는 불투명한 커서 문자열로 변환한다
+ */
+public final class CursorUtils {
+    
+    // 커서 형식이 바뀌어도 이전 커서를 구분할 수 있도록 붙이는 접두사
+    private static final String MENU_CURSOR_PREFIX = "m1:";
+    
+    private CursorUtils() {}
+    
+    /**
+     * 메뉴 코드를 커서로 변환한다
+     * @param menuCode 마지막으로 전달한 메뉴 코드
+     * @return URL에 그대로 쓸 수 있는 커서
+     */
+    public static String encodeMenuCursor(Long menuCode) {
+        byte[] raw = (MENU_CURSOR_PREFIX + menuCode).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+    
+    /**
+     * 커서를 메뉴 코드로 되돌린다
+     * @param cursor 커서 문자열
+     * @return 메뉴 코드
+     * @throws IllegalArgumentException 올바르지 않은 커서일 때 발생
+     */
+    public static Long decodeMenuCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(MENU_CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("올바르지 않은 커서입니다: " + cursor);
+            }
+            return Long.parseLong(raw.substring(MENU_CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            // Base64 디코딩 실패와 숫자 변환 실패(NumberFormatException)를 모두 포함한다
+            throw new IllegalArgumentException("올바르지 않은 커서입니다: " + cursor, e);
+        }
+    }
+}
@@ -1,15 +1,28 @@
 package com.ohgiraffers.awsdeploy.util;
 
+import com.ohgiraffers.awsdeploy.util.ImageVariantUtils.ImageVariant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.UUID;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 파일 업로드 유틸리티
@@ -18,40 +31,138 @@ import java.util.UUID;
 @Component
 public class FileUploadUtils {
     
-    @Value("${file.upload.path}")
-    private String uploadPath;
+    // 업로드를 옮겨 쓸 때 쓰는 버퍼 크기 (파일 크기와 관계없이 업로드 하나당 이만큼만 힙을 쓴다)
+    private static final int COPY_BUFFER_SIZE = 8 * 1024;
+    // 이미지 형식을 판별하는 데 필요한 파일 앞부분 길이 (WebP의 RIFF....WEBP)
+    private static final int MAGIC_LENGTH = 12;
+    
+    // 업로드 폴더 절대 경로 (시작할 때 프로젝트 루트 기준으로 한 번만 계산한다)
+    private final Path uploadRoot;
+    private final ImageVariantUtils imageVariantUtils;
+    // 파일 저장/삭제 지연 시간과 저장한 바이트 지표
+    private final MeterRegistry meterRegistry;
+    private final Counter storedBytes;
+    
+    @Autowired
+    public FileUploadUtils(@Value("${file.upload.path}") String uploadPath, ImageVariantUtils imageVariantUtils,
+                           MeterRegistry meterRegistry) {
+        this.uploadRoot = Paths.get(System.getProperty("user.dir")).resolve(uploadPath).toAbsolutePath().normalize();
+        this.imageVariantUtils = imageVariantUtils;
+        this.meterRegistry = meterRegistry;
+        this.storedBytes = Counter.builder("image.upload.bytes")
+                .description("저장소에 올린 원본 이미지 바이트 수")
+                .baseUnit("bytes")
+                .tag("store", "local")
+                .register(meterRegistry);
+    }
     
     /**
-     * 파일을 업로드하고 저장된 파일명을 반환한다
+     * 업로드 폴더 안의 파일 경로를 구한다
+     * @param filename 파일명
+     * @return 파일 절대 경로
+     * @throws IllegalArgumentException 업로드 폴더 밖을 가리키는 파일명인 경우
+     */
+    public Path resolve(String filename) {
+        Path filePath = uploadRoot.resolve(filename).normalize();
+        if (!uploadRoot.equals(filePath.getParent())) {
+            throw new IllegalArgumentException("잘못된 파일명입니다: " + filename);
+        }
+        return filePath;
+    }
+    
+    /**
+     * 업로드 파일을 고정 크기 버퍼로 한 번 읽으며 SHA-256 해시를 계산하고 앞부분으로 이미지 형식을 판별한다
+     * 저장할 파일명은 내용 해시와 판별한 형식의 확장자로 정해지므로 같은 내용은 항상 같은 이름이 된다
      * @param file 업로드할 파일
-     * @return 저장된 파일명
-     * @throws IOException 파일 저장 실패시 발생
+     * @return 업로드 이미지 정보
+     * @throws IOException 파일 읽기 실패시 발생
      */
-    public String uploadFile(MultipartFile file) throws IOException {
+    public ImageContent inspectImage(MultipartFile file) throws IOException {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("파일이 비어있습니다.");
         }
         
-        // 프로젝트 루트 기준으로 절대 경로 생성
-        String projectRoot = System.getProperty("user.dir");
-        String fullUploadPath = projectRoot + File.separator + uploadPath;
-        
-        // 업로드 디렉토리 생성
-        File uploadDir = new File(fullUploadPath);
-        if (!uploadDir.exists()) {
-            uploadDir.mkdirs();
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        String contentType;
+        long size = 0;
+        try (InputStream in = file.getInputStream()) {
+            // 첫 블록으로 실제 이미지 형식을 확인한다 (클라이언트가 보낸 Content-Type과 확장자는 믿지 않는다)
+            int read = in.readNBytes(buffer, 0, buffer.length);
+            contentType = detectImageType(buffer, read);
+            if (contentType == null) {
+                throw new IllegalArgumentException("지원하지 않는 이미지 형식입니다.");
+            }
+            while (read > 0) {
+                digest.update(buffer, 0, read);
+                size += read;
+                read = in.read(buffer);
+            }
         }
         
-        // 고유한 파일명 생성
-        String originalFilename = file.getOriginalFilename();
-        String extension = getFileExtension(originalFilename);
-        String uniqueFilename = UUID.randomUUID().toString() + extension;
+        String contentHash = HexFormat.of().formatHex(digest.digest());
+        return new ImageContent(contentHash + extensionOf(contentType), contentHash, contentType, size);
+    }
+    
+    /**
+     * 업로드 스트림을 고정 크기 버퍼로 임시 파일에 옮겨 쓴 뒤 지정한 이름으로 한 번에 옮긴다
+     * 파일 전체를 힙에 올리지 않으며, 쓰는 도중의 파일이 서빙되지 않게 한다
+     * @param file 업로드할 파일
+     * @param filename 저장할 파일명 (inspectImage로 구한 이름)
+     * @return 저장된 파일명
+     * @throws IOException 파일 저장 실패시 발생
+     */
+    public String storeFile(MultipartFile file, String filename) throws IOException {
+        Path filePath = resolve(filename);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         
-        // 파일 저장
-        Path filePath = Paths.get(fullUploadPath + File.separator + uniqueFilename);
-        Files.write(filePath, file.getBytes());
+        // 업로드 디렉토리 생성
+        Files.createDirectories(uploadRoot);
         
-        return uniqueFilename;
+        Path tempFile = Files.createTempFile(uploadRoot, "upload-", ".tmp");
+        try {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            long written = 0;
+            try (InputStream in = file.getInputStream(); OutputStream out = Files.newOutputStream(tempFile)) {
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, read);
+                    written += read;
+                }
+            }
+            // 같은 이름은 같은 내용이므로 이미 있으면 그대로 덮어쓴다
+            Files.move(tempFile, filePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            storedBytes.increment(written);
+            outcome = "success";
+            return filename;
+        } finally {
+            Files.deleteIfExists(tempFile);
+            sample.stop(fileTimer("store", outcome));
+        }
+    }
+    
+    /**
+     * 저장된 이미지로 크기별 변형 이미지를 만들어 같은 폴더에 저장한다
+     * 이미지 변형 스레드 풀에서 실행되므로 업로드 응답을 기다리게 하지 않는다
+     * @param filename 저장된 원본 파일명
+     * @return 만들어진 변형 너비 목록으로 완료되는 future
+     */
+    public CompletableFuture<List<Integer>> createVariantsAsync(String filename) {
+        return imageVariantUtils.createVariantsAsync(resolve(filename))
+                .thenApply(variants -> {
+                    List<Integer> widths = new ArrayList<>();
+                    for (ImageVariant variant : variants) {
+                        Path variantPath = resolve(ImageVariantUtils.variantName(filename, variant.getWidth()));
+                        try {
+                            Files.write(variantPath, variant.getContent());
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        widths.add(variant.getWidth());
+                    }
+                    return widths;
+                });
     }
     
     /**
@@ -64,28 +175,82 @@ public class FileUploadUtils {
             return false;
         }
         
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            // 프로젝트 루트 기준으로 절대 경로 생성
-            String projectRoot = System.getProperty("user.dir");
-            String fullUploadPath = projectRoot + File.separator + uploadPath;
-            Path filePath = Paths.get(fullUploadPath + File.separator + filename);
-            return Files.deleteIfExists(filePath);
-        } catch (IOException e) {
+            boolean deleted = Files.deleteIfExists(resolve(filename));
+            
+            // 크기별 변형 이미지도 함께 삭제
+            for (int width : imageVariantUtils.getWidths()) {
+                Files.deleteIfExists(resolve(ImageVariantUtils.variantName(filename, width)));
+            }
+            sample.stop(fileTimer("delete", "success"));
+            return deleted;
+        } catch (IOException | IllegalArgumentException e) {
             e.printStackTrace();
+            sample.stop(fileTimer("delete", "error"));
             return false;
         }
     }
     
+    private Timer fileTimer(String operation, String outcome) {
+        return Timer.builder("file.store.requests")
+                .description("로컬 파일 저장소 작업 시간")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    /**
+     * 파일 앞부분의 시그니처(매직 바이트)로 이미지 형식을 판별한다
+     * @param header 파일 앞부분
+     * @param length header에서 유효한 길이
+     * @return 이미지 MIME 타입 (JPEG, PNG, GIF, WebP가 아니면 null)
+     */
+    public static String detectImageType(byte[] header, int length) {
+        if (length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (length >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G'
+                && header[4] == 0x0D && header[5] == 0x0A && header[6] == 0x1A && header[7] == 0x0A) {
+            return "image/png";
+        }
+        if (length >= 6 && header[0] == 'G' && header[1] == 'I' && header[2] == 'F' && header[3] == '8'
+                && (header[4] == '7' || header[4] == '9') && header[5] == 'a') {
+            return "image/gif";
+        }
+        if (length >= MAGIC_LENGTH && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return "image/webp";
+        }
+        return null;
+    }
+    
     /**
-     * 파일의 확장자를 추출한다
-     * @param filename 파일명
+     * 이미지 MIME 타입에 맞는 확장자를 반환한다
+     * @param contentType 이미지 MIME 타입
      * @return 확장자 (점 포함)
      */
-    private String getFileExtension(String filename) {
-        if (filename == null || !filename.contains(".")) {
-            return "";
+    private static String extensionOf(String contentType) {
+        return switch (contentType) {
+            case "image/jpeg" -> ".jpg";
+            case "image/png" -> ".png";
+            case "image/gif" -> ".gif";
+            default -> ".webp";
+        };
+    }
+    
+    /**
+     * 업로드 내용 해시에 쓸 SHA-256 다이제스트를 만든다
+     * @return SHA-256 다이제스트
+     */
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // 모든 JVM은 SHA-256을 지원해야 한다
+            throw new IllegalStateException(e);
         }
-        return filename.substring(filename.lastIndexOf("."));
     }
     
     /**
@@ -97,4 +262,45 @@ public class FileUploadUtils {
         String contentType = file.getContentType();
         return contentType != null && contentType.startsWith("image/");
     }
+    
+    /**
+     * 업로드 이미지 정보
+     * 내용으로 정한 파일명과 해시, 형식, 크기를 담는다
+     */
+    public static class ImageContent {
+        
+        // 저장할 파일명 (S3 객체 키), 내용 해시 + 확장자
+        private final String filename;
+        // 내용의 SHA-256 해시 (16진수 소문자)
+        private final String contentHash;
+        // 매직 바이트로 판별한 이미지 MIME 타입
+        private final String contentType;
+        // 파일 크기 (바이트)
+        private final long size;
+        
+        // 생성자
+        public ImageContent(String filename, String contentHash, String contentType, long size) {
+            this.filename = filename;
+            this.contentHash = contentHash;
+            this.contentType = contentType;
+            this.size = size;
+        }
+        
+        // Getter
+        public String getFilename() {
+            return filename;
+        }
+        
+        public String getContentHash() {
+            return contentHash;
+        }
+        
+        public String getContentType() {
+            return contentType;
+        }
+        
+        public long getSize() {
+            return size;
+        }
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.ohgiraffers.awsdeploy.util;
+
+/**
+ * HTTP 캐시 유틸리티
+ * ETag 생성과 If-None-Match 비교 기능을 제공한다
+ */
+public final class HttpCacheUtils {
+    
+    private HttpCacheUtils() {}
+    
+    /**
+     * 주어진 값들로 강한 ETag를 만든다
+     * @param parts ETag를 구성하는 값들
+     * @return 큰따옴표로 감싼 ETag
+     */
+    public static String strongETag(Object... parts) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                builder.append('-');
+            }
+            builder.append(parts[i]);
+        }
+        return builder.append('"').toString();
+    }
+    
+    /**
+     * If-None-Match 헤더가 현재 ETag와 일치하는지 확인한다
+     * 조건부 GET에서는 약한 비교를 사용하므로 W/ 접두사는 무시한다
+     * @param ifNoneMatch If-None-Match 헤더 값 (없으면 null)
+     * @param etag 현재 ETag
+     * @return 일치 여부
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || etag == null) {
+            return false;
+        }
+        String current = stripWeakPrefix(etag.trim());
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag) || stripWeakPrefix(tag).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String stripWeakPrefix(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,402 @@
+package com.ohgiraffers.awsdeploy.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.NodeList;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.plugins.jpeg.JPEGImageWriteParam;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 이미지 변형 유틸리티
+ * 업로드된 메뉴 이미지로 고정 너비의 JPEG 변형(썸네일)을 만든다
+ * 다시 인코딩할 때 메타데이터를 쓰지 않으므로 EXIF(촬영 위치 등)는 남지 않는다
+ */
+@Component
+public class ImageVariantUtils {
+    
+    // 변형 파일명 접미사와 확장자 (원본이 abc.png면 abc_w160.jpg)
+    private static final String VARIANT_SUFFIX = "_w";
+    private static final String VARIANT_EXTENSION = ".jpg";
+    // JPEG 메타데이터 형식과 EXIF가 담기는 APP1 마커
+    private static final String JPEG_METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+    private static final String APP1_MARKER = "225";
+    // EXIF 방향 태그
+    private static final int EXIF_ORIENTATION_TAG = 0x0112;
+    
+    // 만들 변형 너비 (내림차순, 큰 변형을 줄여 작은 변형을 만든다)
+    private final int[] widths;
+    // JPEG 압축 품질 (0.0 ~ 1.0)
+    private final float jpegQuality;
+    private final Executor imageVariantExecutor;
+    
+    @Autowired
+    public ImageVariantUtils(@Value("${app.image-variant.widths:160,480,1024}") int[] widths,
+                             @Value("${app.image-variant.jpeg-quality:0.8}") float jpegQuality,
+                             @Qualifier("imageVariantExecutor") Executor imageVariantExecutor) {
+        this.widths = Arrays.stream(widths).filter(width -> width > 0).distinct()
+                .boxed().sorted(Collections.reverseOrder()).mapToInt(Integer::intValue).toArray();
+        this.jpegQuality = jpegQuality;
+        this.imageVariantExecutor = imageVariantExecutor;
+    }
+    
+    /**
+     * 설정된 변형 너비 목록을 반환한다
+     * @return 변형 너비 목록 (오름차순)
+     */
+    public List<Integer> getWidths() {
+        List<Integer> result = new ArrayList<>();
+        for (int i = widths.length - 1; i >= 0; i--) {
+            result.add(widths[i]);
+        }
+        return result;
+    }
+    
+    /**
+     * 디스크에 저장된 이미지로 변형을 만든다
+     * 이미지 변형 스레드 풀에서 실행하며, 풀이 가득 차면 RejectedExecutionException으로 실패한다
+     * @param source 원본 이미지 파일 경로
+     * @return 변형 목록으로 완료되는 future (디코딩할 수 없는 형식이면 빈 목록)
+     */
+    public CompletableFuture<List<ImageVariant>> createVariantsAsync(Path source) {
+        return submit(() -> {
+            try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+                return createVariants(input);
+            }
+        });
+    }
+    
+    /**
+     * 메모리에 있는 이미지로 변형을 만든다
+     * 이미지 변형 스레드 풀에서 실행하며, 풀이 가득 차면 RejectedExecutionException으로 실패한다
+     * @param source 원본 이미지 바이트
+     * @return 변형 목록으로 완료되는 future (디코딩할 수 없는 형식이면 빈 목록)
+     */
+    public CompletableFuture<List<ImageVariant>> createVariantsAsync(byte[] source) {
+        return submit(() -> {
+            // 기본 ImageIO 스트림은 임시 파일에 캐시하므로 메모리 캐시 스트림을 직접 쓴다
+            try (ImageInputStream input = new MemoryCacheImageInputStream(new ByteArrayInputStream(source))) {
+                return createVariants(input);
+            }
+        });
+    }
+    
+    /**
+     * 원본 이미지 이름(또는 URL)으로 변형 이름(또는 URL)을 만든다
+     * @param imageName 원본 이미지 파일명 또는 URL
+     * @param width 변형 너비
+     * @return 변형 파일명 또는 URL
+     */
+    public static String variantName(String imageName, int width) {
+        int slash = imageName.lastIndexOf('/');
+        int dot = imageName.lastIndexOf('.');
+        String base = dot > slash ? imageName.substring(0, dot) : imageName;
+        return base + VARIANT_SUFFIX + width + VARIANT_EXTENSION;
+    }
+    
+    /**
+     * 메뉴에 기록된 변형 너비로 너비별 변형 URL을 만든다
+     * @param imageUrl 원본 이미지 URL (로컬 환경은 파일명)
+     * @param variantWidths 쉼표로 구분한 변형 너비 (예: 160,480,1024)
+     * @return 너비별 변형 URL (이미지나 변형이 없으면 빈 맵)
+     */
+    public static Map<Integer, String> variantUrls(String imageUrl, String variantWidths) {
+        if (imageUrl == null || variantWidths == null || variantWidths.isBlank()) {
+            return Map.of();
+        }
+        Map<Integer, String> urls = new LinkedHashMap<>();
+        for (String width : variantWidths.split(",")) {
+            int value = Integer.parseInt(width.trim());
+            urls.put(value, variantName(imageUrl, value));
+        }
+        return urls;
+    }
+    
+    /**
+     * 이미지를 디코딩해서 원본보다 좁은 설정 너비마다 JPEG 변형을 만든다
+     * 원본이 충분히 크면 디코딩 단계에서부터 줄여 읽어 힙 사용량을 줄인다
+     * @param input 원본 이미지 스트림
+     * @return 변형 목록 (디코딩할 수 없는 형식이면 빈 목록)
+     * @throws IOException 디코딩 또는 인코딩 실패시 발생
+     */
+    List<ImageVariant> createVariants(ImageInputStream input) throws IOException {
+        if (input == null || widths.length == 0) {
+            return List.of();
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            return List.of();
+        }
+        
+        ImageReader reader = readers.next();
+        BufferedImage image;
+        try {
+            reader.setInput(input, true, false);
+            int orientation = readExifOrientation(reader);
+            // 90도 회전이 필요한 사진은 세로 길이가 화면에서의 너비가 된다
+            int displayWidth = orientation >= 5 ? reader.getHeight(0) : reader.getWidth(0);
+            
+            ImageReadParam param = reader.getDefaultReadParam();
+            // 가장 큰 변형의 2배 이상은 남기도록 건너뛰며 읽는다 (화질을 지키면서 디코딩 메모리를 줄인다)
+            int subsampling = Math.max(1, displayWidth / (widths[0] * 2));
+            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            image = normalize(reader.read(0, param), orientation);
+        } finally {
+            reader.dispose();
+        }
+        
+        List<ImageVariant> variants = new ArrayList<>();
+        BufferedImage current = image;
+        for (int width : widths) {
+            // 원본보다 크게 늘리지는 않는다
+            if (width >= current.getWidth()) {
+                continue;
+            }
+            current = resize(current, width);
+            variants.add(new ImageVariant(width, encodeJpeg(current)));
+        }
+        Collections.reverse(variants);
+        return variants;
+    }
+    
+    /**
+     * 작업을 이미지 변형 스레드 풀에 넣는다
+     * @param task 변형 생성 작업
+     * @return 작업 결과로 완료되는 future
+     */
+    private CompletableFuture<List<ImageVariant>> submit(Callable<List<ImageVariant>> task) {
+        CompletableFuture<List<ImageVariant>> future = new CompletableFuture<>();
+        try {
+            imageVariantExecutor.execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+    
+    /**
+     * JPEG의 EXIF에서 방향 값을 읽는다
+     * 방향을 알 수 없으면 회전하지 않는다
+     * @param reader 입력이 지정된 이미지 리더
+     * @return EXIF 방향 (1 ~ 8)
+     */
+    private int readExifOrientation(ImageReader reader) {
+        try {
+            IIOMetadata metadata = reader.getImageMetadata(0);
+            if (metadata == null || !JPEG_METADATA_FORMAT.equals(metadata.getNativeMetadataFormatName())) {
+                return 1;
+            }
+            IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(JPEG_METADATA_FORMAT);
+            NodeList markers = root.getElementsByTagName("unknown");
+            for (int i = 0; i < markers.getLength(); i++) {
+                IIOMetadataNode marker = (IIOMetadataNode) markers.item(i);
+                if (APP1_MARKER.equals(marker.getAttribute("MarkerTag"))
+                        && marker.getUserObject() instanceof byte[] app1) {
+                    int orientation = parseExifOrientation(app1);
+                    if (orientation != 0) {
+                        return orientation;
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // 메타데이터가 깨져 있어도 이미지는 그대로 변환한다
+        }
+        return 1;
+    }
+    
+    /**
+     * APP1 세그먼트의 TIFF 구조에서 첫 번째 IFD의 방향 태그를 찾는다
+     * @param app1 APP1 세그먼트 본문 ("Exif\0\0"로 시작)
+     * @return EXIF 방향 (없거나 잘못된 값이면 0)
+     */
+    private int parseExifOrientation(byte[] app1) {
+        if (app1.length < 14 || app1[0] != 'E' || app1[1] != 'x' || app1[2] != 'i' || app1[3] != 'f') {
+            return 0;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(app1, 6, app1.length - 6).slice();
+        tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        
+        int ifdOffset = tiff.getInt(4);
+        if (ifdOffset < 8 || ifdOffset + 2 > tiff.limit()) {
+            return 0;
+        }
+        int entryCount = tiff.getShort(ifdOffset) & 0xFFFF;
+        for (int i = 0; i < entryCount; i++) {
+            int entry = ifdOffset + 2 + i * 12;
+            if (entry + 12 > tiff.limit()) {
+                break;
+            }
+            if ((tiff.getShort(entry) & 0xFFFF) == EXIF_ORIENTATION_TAG) {
+                int orientation = tiff.getShort(entry + 8) & 0xFFFF;
+                return (orientation >= 1 && orientation <= 8) ? orientation : 0;
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * EXIF 방향대로 이미지를 돌리고 흰 배경의 RGB 이미지로 바꾼다
+     * JPEG에는 투명도가 없으므로 PNG/GIF의 투명한 부분은 흰색이 된다
+     * @param image 디코딩한 이미지
+     * @param orientation EXIF 방향 (1 ~ 8)
+     * @return 화면 방향의 RGB 이미지
+     */
+    private BufferedImage normalize(BufferedImage image, int orientation) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        // (m00, m10, m01, m11, m02, m12) - 저장된 좌표를 화면 좌표로 옮기는 변환
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);
+            default -> new AffineTransform();
+        };
+        
+        boolean rotated = orientation >= 5;
+        BufferedImage result = new BufferedImage(rotated ? h : w, rotated ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = result.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, result.getWidth(), result.getHeight());
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+    
+    /**
+     * 이미지를 목표 너비로 줄인다
+     * 한 번에 크게 줄이면 계단 현상이 생기므로 절반씩 줄인 뒤 마지막에 목표 너비로 맞춘다
+     * @param source 원본 이미지
+     * @param targetWidth 목표 너비
+     * @return 줄인 이미지
+     */
+    private BufferedImage resize(BufferedImage source, int targetWidth) {
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= targetWidth) {
+            current = draw(current, current.getWidth() / 2, Math.max(1, current.getHeight() / 2));
+        }
+        if (current.getWidth() == targetWidth) {
+            return current;
+        }
+        int targetHeight = Math.max(1, Math.round((float) current.getHeight() * targetWidth / current.getWidth()));
+        return draw(current, targetWidth, targetHeight);
+    }
+    
+    /**
+     * 이미지를 주어진 크기로 다시 그린다
+     * @param source 원본 이미지
+     * @param width 너비
+     * @param height 높이
+     * @return 다시 그린 이미지
+     */
+    private BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = result.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+    
+    /**
+     * 이미지를 메타데이터 없는 JPEG로 인코딩한다
+     * @param image RGB 이미지
+     * @return JPEG 바이트
+     * @throws IOException 인코딩 실패시 발생
+     */
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+        if (param instanceof JPEGImageWriteParam jpegParam) {
+            // 이미지마다 허프만 테이블을 최적화해서 같은 화질에서 크기를 조금 더 줄인다
+            jpegParam.setOptimizeHuffmanTables(true);
+        }
+        
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutput = new MemoryCacheImageOutputStream(output)) {
+            writer.setOutput(imageOutput);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+    
+    /**
+     * 변형 이미지
+     * 너비와 JPEG 바이트를 담는다
+     */
+    public static class ImageVariant {
+        
+        private final int width;
+        private final byte[] content;
+        
+        // 생성자
+        public ImageVariant(int width, byte[] content) {
+            this.width = width;
+            this.content = content;
+        }
+        
+        // Getter
+        public int getWidth() {
+            return width;
+        }
+        
+        public byte[] getContent() {
+            return content;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.ohgiraffers.awsdeploy.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.ohgiraffers.awsdeploy.dto.CategoryDTO;
+import com.ohgiraffers.awsdeploy.dto.MenuDTO;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 메뉴 목록 바이너리 형식 (CBOR)
+ * 키오스크 등 클라이언트가 Accept: application/vnd.ohgiraffers.menus+cbor 로 요청하면 JSON 대신 이 형식으로 응답한다
+ *
+ * 필드 이름 대신 정수 태그를 쓰고, 행마다 반복되는 이미지 URL 앞부분과 카테고리는 표로 한 번만 싣는다
+ * <pre>
+ * {
+ *   1: ["https://bucket.s3.ap-northeast-2.amazonaws.com/menus/", ...],   이미지 URL 앞부분 표 (마지막 / 까지)
+ *   2: [[1, "식사"], ...],                                                카테고리 표 [코드, 이름]
+ *   3: [                                                                   메뉴 목록 (값이 없는 필드는 생략)
+ *     { 1: 메뉴 코드, 2: 이름, 3: 가격, 4: 설명, 5: 주문 가능 여부(bool), 6: 카테고리 코드,
+ *       7: [URL 표 번호, 파일명], 8: 재고, 9: { 너비: [URL 표 번호, 파일명], ... } }
+ *   ]
+ * }
+ * </pre>
+ */
+public final class MenuCborCodec {
+    
+    // 메뉴 목록 바이너리 미디어 타입
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.ohgiraffers.menus+cbor";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+    
+    // 최상위 태그
+    private static final int URL_PREFIXES = 1;
+    private static final int CATEGORIES = 2;
+    private static final int MENUS = 3;
+    
+    // 메뉴 필드 태그
+    private static final int MENU_CODE = 1;
+    private static final int MENU_NAME = 2;
+    private static final int MENU_PRICE = 3;
+    private static final int MENU_DESCRIPTION = 4;
+    private static final int MENU_ORDERABLE = 5;
+    private static final int CATEGORY_CODE = 6;
+    private static final int IMAGE_URL = 7;
+    private static final int MENU_STOCK = 8;
+    private static final int IMAGE_VARIANTS = 9;
+    
+    private static final CBORFactory CBOR_FACTORY = new CBORFactory();
+    private static final ObjectMapper CBOR_MAPPER = new ObjectMapper(CBOR_FACTORY);
+    
+    private MenuCborCodec() {}
+    
+    /**
+     * Accept 헤더가 메뉴 목록 바이너리 형식을 요청하는지 확인한다
+     * 와일드카드(*&#47;*)로는 선택하지 않고 미디어 타입을 명시한 경우에만 바이너리로 응답한다
+     * 명시했더라도 JSON의 품질 값(q)이 더 높으면 JSON으로 응답하고, 같으면 명시한 바이너리를 고른다
+     * @param accept Accept 헤더 값 (없으면 null)
+     * @return 바이너리 형식 요청 여부
+     */
+    public static boolean isRequested(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        
+        double binaryQuality = 0;
+        for (MediaType mediaType : mediaTypes) {
+            if (MEDIA_TYPE.equalsTypeAndSubtype(mediaType)) {
+                binaryQuality = Math.max(binaryQuality, mediaType.getQualityValue());
+            }
+        }
+        return binaryQuality > 0 && binaryQuality >= jsonQuality(mediaTypes);
+    }
+    
+    /**
+     * Accept 헤더가 JSON에 준 품질 값을 구한다
+     * RFC 9110에 따라 application/json을 포함하는 범위 중 가장 구체적인 것의 값을 쓴다 (application/json > application/* > *&#47;*)
+     * @param mediaTypes Accept 헤더의 미디어 타입 목록
+     * @return JSON의 품질 값 (포함하는 범위가 없으면 0)
+     */
+    private static double jsonQuality(List<MediaType> mediaTypes) {
+        double quality = 0;
+        int specificity = -1;
+        for (MediaType mediaType : mediaTypes) {
+            if (!mediaType.includes(MediaType.APPLICATION_JSON)) {
+                continue;
+            }
+            int current = mediaType.isWildcardType() ? 0 : mediaType.isWildcardSubtype() ? 1 : 2;
+            if (current > specificity) {
+                specificity = current;
+                quality = mediaType.getQualityValue();
+            } else if (current == specificity) {
+                quality = Math.max(quality, mediaType.getQualityValue());
+            }
+        }
+        return quality;
+    }
+    
+    /**
+     * 메뉴 목록을 바이너리 형식으로 만든다
+     * @param menus 메뉴 DTO 목록
+     * @return CBOR 바이트
+     */
+    public static byte[] encode(List<MenuDTO> menus) {
+        Map<String, Integer> prefixes = new LinkedHashMap<>();
+        Map<Long, String> categories = new LinkedHashMap<>();
+        for (MenuDTO menu : menus) {
+            indexPrefix(prefixes, menu.getMenuImageUrl());
+            variants(menu).values().forEach(url -> indexPrefix(prefixes, url));
+            if (menu.getCategory() != null) {
+                categories.putIfAbsent(menu.getCategory().getCategoryCode(), menu.getCategory().getCategoryName());
+            }
+        }
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream(menus.size() * 64 + 64);
+        try (CBORGenerator generator = CBOR_FACTORY.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeFieldId(URL_PREFIXES);
+            generator.writeStartArray(null, prefixes.size());
+            for (String prefix : prefixes.keySet()) {
+                generator.writeString(prefix);
+            }
+            generator.writeEndArray();
+            
+            generator.writeFieldId(CATEGORIES);
+            generator.writeStartArray(null, categories.size());
+            for (Map.Entry<Long, String> category : categories.entrySet()) {
+                generator.writeStartArray(null, 2);
+                generator.writeNumber(category.getKey());
+                writeStringOrNull(generator, category.getValue());
+                generator.writeEndArray();
+            }
+            generator.writeEndArray();
+            
+            generator.writeFieldId(MENUS);
+            generator.writeStartArray(null, menus.size());
+            for (MenuDTO menu : menus) {
+                writeMenu(generator, menu, prefixes);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+    
+    /**
+     * 바이너리 형식의 메뉴 목록을 읽는다
+     * @param cbor CBOR 바이트
+     * @return 메뉴 DTO 목록
+     */
+    public static List<MenuDTO> decode(byte[] cbor) {
+        JsonNode root;
+        try {
+            root = CBOR_MAPPER.readTree(cbor);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("메뉴 목록 형식이 올바르지 않습니다", e);
+        }
+        
+        List<String> prefixes = new ArrayList<>();
+        root.path(tag(URL_PREFIXES)).forEach(prefix -> prefixes.add(prefix.asText()));
+        Map<Long, CategoryDTO> categories = new LinkedHashMap<>();
+        for (JsonNode category : root.path(tag(CATEGORIES))) {
+            long code = category.get(0).asLong();
+            categories.put(code, new CategoryDTO(code, category.get(1).isNull() ? null : category.get(1).asText()));
+        }
+        
+        List<MenuDTO> menus = new ArrayList<>();
+        for (JsonNode node : root.path(tag(MENUS))) {
+            MenuDTO menu = new MenuDTO();
+            menu.setMenuCode(node.has(tag(MENU_CODE)) ? node.get(tag(MENU_CODE)).asLong() : null);
+            menu.setMenuName(text(node, MENU_NAME));
+            menu.setMenuPrice(node.has(tag(MENU_PRICE)) ? node.get(tag(MENU_PRICE)).asInt() : null);
+            menu.setMenuDescription(text(node, MENU_DESCRIPTION));
+            if (node.has(tag(MENU_ORDERABLE))) {
+                menu.setMenuOrderable(node.get(tag(MENU_ORDERABLE)).asBoolean() ? "Y" : "N");
+            }
+            if (node.has(tag(CATEGORY_CODE))) {
+                menu.setCategory(categories.get(node.get(tag(CATEGORY_CODE)).asLong()));
+            }
+            menu.setMenuImageUrl(url(node.get(tag(IMAGE_URL)), prefixes));
+            menu.setMenuStock(node.has(tag(MENU_STOCK)) ? node.get(tag(MENU_STOCK)).asInt() : null);
+            Map<Integer, String> variants = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonNode> variant : node.path(tag(IMAGE_VARIANTS)).properties()) {
+                variants.put(Integer.parseInt(variant.getKey()), url(variant.getValue(), prefixes));
+            }
+            menu.setMenuImageVariants(variants);
+            menus.add(menu);
+        }
+        return menus;
+    }
+    
+    private static void writeMenu(CBORGenerator generator, MenuDTO menu, Map<String, Integer> prefixes) throws IOException {
+        generator.writeStartObject();
+        if (menu.getMenuCode() != null) {
+            generator.writeFieldId(MENU_CODE);
+            generator.writeNumber(menu.getMenuCode());
+        }
+        if (menu.getMenuName() != null) {
+            generator.writeFieldId(MENU_NAME);
+            generator.writeString(menu.getMenuName());
+        }
+        if (menu.getMenuPrice() != null) {
+            generator.writeFieldId(MENU_PRICE);
+            generator.writeNumber(menu.getMenuPrice());
+        }
+        if (menu.getMenuDescription() != null) {
+            generator.writeFieldId(MENU_DESCRIPTION);
+            generator.writeString(menu.getMenuDescription());
+        }
+        if (menu.getMenuOrderable() != null) {
+            generator.writeFieldId(MENU_ORDERABLE);
+            generator.writeBoolean("Y".equals(menu.getMenuOrderable()));
+        }
+        if (menu.getCategory() != null) {
+            generator.writeFieldId(CATEGORY_CODE);
+            generator.writeNumber(menu.getCategory().getCategoryCode());
+        }
+        if (menu.getMenuImageUrl() != null) {
+            generator.writeFieldId(IMAGE_URL);
+            writeUrl(generator, menu.getMenuImageUrl(), prefixes);
+        }
+        if (menu.getMenuStock() != null) {
+            generator.writeFieldId(MENU_STOCK);
+            generator.writeNumber(menu.getMenuStock());
+        }
+        if (!variants(menu).isEmpty()) {
+            generator.writeFieldId(IMAGE_VARIANTS);
+            generator.writeStartObject();
+            for (Map.Entry<Integer, String> variant : variants(menu).entrySet()) {
+                generator.writeFieldId(variant.getKey());
+                writeUrl(generator, variant.getValue(), prefixes);
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+    
+    /**
+     * URL을 [앞부분 표 번호, 파일명]으로 쓴다
+     */
+    private static void writeUrl(CBORGenerator generator, String url, Map<String, Integer> prefixes) throws IOException {
+        int split = url.lastIndexOf('/') + 1;
+        generator.writeStartArray(null, 2);
+        generator.writeNumber(prefixes.get(url.substring(0, split)));
+        generator.writeString(url.substring(split));
+        generator.writeEndArray();
+    }
+    
+    private static void writeStringOrNull(CBORGenerator generator, String value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+    
+    private static Map<Integer, String> variants(MenuDTO menu) {
+        return menu.getMenuImageVariants() == null ? Map.of() : menu.getMenuImageVariants();
+    }
+    
+    private static void indexPrefix(Map<String, Integer> prefixes, String url) {
+        if (url != null) {
+            prefixes.putIfAbsent(url.substring(0, url.lastIndexOf('/') + 1), prefixes.size());
+        }
+    }
+    
+    private static String url(JsonNode node, List<String> prefixes) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        return prefixes.get(node.get(0).asInt()) + node.get(1).asText();
+    }
+    
+    private static String text(JsonNode node, int fieldTag) {
+        JsonNode value = node.get(tag(fieldTag));
+        return value == null ? null : value.asText();
+    }
+    
+    // CBOR 파서는 정수 키를 문자열 필드 이름으로 읽는다
+    private static String tag(int fieldTag) {
+        return String.valueOf(fieldTag);
+    }
+}
@@ -0,0 +1,150 @@
+package com.ohgiraffers.awsdeploy.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 미리 직렬화하고 압축해 둔 JSON 응답 본문
+ * 한 번 만들어 두면 요청마다 Jackson 직렬화와 압축 없이 바이트를 그대로 응답에 쓴다
+ */
+public final class PrecompressedJson {
+    
+    // 이보다 작은 본문은 압축해도 헤더 크기만큼 이득이 없으므로 압축본을 만들지 않는다
+    static final int MIN_COMPRESS_SIZE = 256;
+    
+    private static final String GZIP = "gzip";
+    
+    private final byte[] identity;
+    // gzip 압축본 (작은 본문이거나 압축해도 줄지 않으면 null)
+    private final byte[] gzip;
+    
+    private PrecompressedJson(byte[] identity, byte[] gzip) {
+        this.identity = identity;
+        this.gzip = gzip;
+    }
+    
+    /**
+     * 직렬화된 JSON으로 압축본을 함께 만든다
+     * 한 번만 만들어 여러 요청에 쓰므로 가장 높은 압축 수준을 쓴다
+     * @param json UTF-8 JSON 바이트
+     * @return 미리 압축한 JSON
+     */
+    public static PrecompressedJson of(byte[] json) {
+        if (json.length < MIN_COMPRESS_SIZE) {
+            return new PrecompressedJson(json, null);
+        }
+        byte[] gzip = gzip(json);
+        return new PrecompressedJson(json, gzip.length < json.length ? gzip : null);
+    }
+    
+    /**
+     * Accept-Encoding에 맞는 본문으로 응답을 만든다
+     * 빌더에 이미 있는 Vary 값은 그대로 두고 Accept-Encoding을 더한다
+     * @param builder 상태 코드와 캐시 헤더를 채운 응답 빌더
+     * @param acceptEncoding 요청의 Accept-Encoding 헤더 (없으면 null)
+     * @return JSON 응답
+     */
+    public ResponseEntity<byte[]> toResponse(ResponseEntity.BodyBuilder builder, String acceptEncoding) {
+        builder.contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip != null && acceptsGzip(acceptEncoding)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, GZIP).body(gzip);
+        }
+        return builder.body(identity);
+    }
+    
+    /**
+     * 응답 본문의 인코딩까지 구분하는 강한 ETag를 만든다
+     * 압축본과 원본은 바이트가 다르므로 같은 강한 ETag를 쓰면 캐시가 한쪽 본문으로 다른 쪽 요청에 304를 주거나 Range를 섞을 수 있다
+     * 304 판단은 본문을 고르기 전에 하므로 Accept-Encoding만 보고 정한다 (압축본이 없는 작은 본문은 같은 바이트에 ETag가 둘이 될 뿐이다)
+     * @param acceptEncoding 요청의 Accept-Encoding 헤더 (없으면 null)
+     * @param parts ETag를 이루는 값들
+     * @return gzip을 받는 요청이면 "gzip"을 덧붙인 강한 ETag
+     */
+    public static String strongETag(String acceptEncoding, Object... parts) {
+        if (!acceptsGzip(acceptEncoding)) {
+            return HttpCacheUtils.strongETag(parts);
+        }
+        Object[] encodedParts = Arrays.copyOf(parts, parts.length + 1);
+        encodedParts[parts.length] = GZIP;
+        return HttpCacheUtils.strongETag(encodedParts);
+    }
+    
+    /**
+     * 압축하지 않은 JSON 바이트를 반환한다
+     * @return UTF-8 JSON 바이트
+     */
+    public byte[] getIdentity() {
+        return identity;
+    }
+    
+    /**
+     * gzip 압축본을 반환한다
+     * @return gzip 바이트 (압축본이 없으면 null)
+     */
+    public byte[] getGzip() {
+        return gzip;
+    }
+    
+    /**
+     * Accept-Encoding이 gzip을 허용하는지 확인한다
+     * q=0으로 명시한 인코딩은 허용하지 않은 것으로 보고, gzip이 없으면 *를 따른다
+     * @param acceptEncoding Accept-Encoding 헤더 값 (없으면 null)
+     * @return gzip 허용 여부
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] params = candidate.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = quality(params) > 0;
+            if (GZIP.equals(coding) || "x-gzip".equals(coding)) {
+                return accepted;
+            }
+            if ("*".equals(coding)) {
+                wildcard = accepted;
+            }
+        }
+        return wildcard;
+    }
+    
+    private static double quality(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+    
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
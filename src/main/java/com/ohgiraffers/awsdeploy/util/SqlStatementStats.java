@@ -0,0 +1,91 @@
+package com.ohgiraffers.awsdeploy.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP 요청 하나가 실행한 SQL 문 수와 JDBC 실행 시간
+ * 요청을 처리하는 스레드에 묶어 두면 데이터소스 리스너가 실행한 문마다 더한다
+ * 요청 스레드가 실행기에 넘긴 작업은 wrap으로 같은 통계에 묶으므로 여러 스레드가 동시에 더할 수 있다
+ */
+public class SqlStatementStats {
+    
+    // 현재 스레드가 처리 중인 요청의 통계
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+    
+    // 실행한 SQL 문 수 (JDBC 배치는 한 번으로 센다)
+    private final LongAdder statementCount = new LongAdder();
+    
+    // JDBC 실행 시간 합계 (밀리초)
+    private final LongAdder elapsedMillis = new LongAdder();
+    
+    /**
+     * 현재 스레드에 묶인 통계를 조회한다
+     * @return 요청 통계 (요청 밖에서 실행 중이면 null)
+     */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+    
+    /**
+     * 현재 스레드에 통계를 묶는다
+     * @param stats 묶을 통계
+     * @return 이전에 묶여 있던 통계 (restore로 되돌린다)
+     */
+    public static SqlStatementStats bind(SqlStatementStats stats) {
+        SqlStatementStats previous = CURRENT.get();
+        CURRENT.set(stats);
+        return previous;
+    }
+    
+    /**
+     * bind 전의 통계로 되돌린다
+     * 스레드 풀 스레드에 통계가 남지 않도록 이전 값이 없으면 지운다
+     * @param previous bind가 반환한 통계
+     */
+    public static void restore(SqlStatementStats previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+    
+    /**
+     * 작업을 제출한 스레드의 통계를 작업을 실행할 스레드에도 묶는다
+     * 실행기의 TaskDecorator로 써서 요청이 기다리는 병렬 작업의 SQL도 그 요청에 센다
+     * @param task 실행할 작업
+     * @return 통계를 묶어 실행하는 작업 (제출한 스레드에 통계가 없으면 원래 작업)
+     */
+    public static Runnable wrap(Runnable task) {
+        SqlStatementStats stats = current();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            SqlStatementStats previous = bind(stats);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+    
+    /**
+     * 실행한 SQL 문 하나를 더한다
+     * @param elapsedMillis JDBC 실행 시간 (밀리초)
+     */
+    public void record(long elapsedMillis) {
+        this.statementCount.increment();
+        this.elapsedMillis.add(elapsedMillis);
+    }
+    
+    // Getter
+    public long getStatementCount() {
+        return statementCount.sum();
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis.sum();
+    }
+}
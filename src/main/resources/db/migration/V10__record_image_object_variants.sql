@@ -0,0 +1,6 @@
+-- --------------------------------------------------------
+-- 이미지 객체마다 만들어 둔 변형 너비를 기록한다
+-- 같은 이미지를 다시 올린 메뉴는 변형을 다시 만들지 않고 이 너비를 옮겨 적는다
+-- --------------------------------------------------------
+
+ALTER TABLE tbl_image_object ADD COLUMN variant_widths VARCHAR(64);
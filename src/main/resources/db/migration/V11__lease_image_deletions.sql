@@ -0,0 +1,6 @@
+-- --------------------------------------------------------
+-- 저장소에서 지우는 중인 이미지 객체에 임대 만료 시각을 기록한다
+-- 삭제 대기열은 S3 요청을 트랜잭션 밖에서 보내므로, 그동안 같은 이미지를 다시 올리는 요청을 행 잠금 대신 이 값으로 막는다
+-- --------------------------------------------------------
+
+ALTER TABLE tbl_image_object ADD COLUMN deleting_until TIMESTAMPTZ;
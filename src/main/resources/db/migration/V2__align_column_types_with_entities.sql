@@ -0,0 +1,16 @@
+-- --------------------------------------------------------
+-- 컬럼 타입을 엔티티 매핑에 맞춘다
+-- Hibernate 스키마 검증(ddl-auto: validate)은 Long 식별자를 BIGINT로, 길이 1의 String을 VARCHAR(1)로 기대한다
+-- --------------------------------------------------------
+
+-- 카테고리 코드 (Category.categoryCode, Menu.category)
+ALTER TABLE tbl_category ALTER COLUMN category_code TYPE BIGINT;
+ALTER SEQUENCE tbl_category_category_code_seq AS BIGINT;
+ALTER TABLE tbl_menu ALTER COLUMN category_code TYPE BIGINT;
+
+-- 메뉴 코드 (Menu.menuCode)
+ALTER TABLE tbl_menu ALTER COLUMN menu_code TYPE BIGINT;
+ALTER SEQUENCE tbl_menu_menu_code_seq AS BIGINT;
+
+-- 주문 가능 여부 (Menu.menuOrderable)
+ALTER TABLE tbl_menu ALTER COLUMN menu_orderable TYPE VARCHAR(1);
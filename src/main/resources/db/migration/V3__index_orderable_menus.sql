@@ -0,0 +1,6 @@
+-- --------------------------------------------------------
+-- 커서 기반 메뉴 목록 조회용 인덱스
+-- menu_orderable = 'Y' AND menu_code < ? ORDER BY menu_code DESC
+-- --------------------------------------------------------
+
+CREATE INDEX idx_menu_orderable_code ON tbl_menu (menu_orderable, menu_code DESC);
@@ -0,0 +1,5 @@
+-- --------------------------------------------------------
+-- 카테고리별 메뉴 목록 조회(카테고리 + 주문 가능 여부 + 메뉴 코드 순)를 위한 인덱스
+-- --------------------------------------------------------
+
+CREATE INDEX idx_menu_category_orderable_code ON tbl_menu (category_code, menu_orderable, menu_code);
@@ -0,0 +1,6 @@
+-- --------------------------------------------------------
+-- 애플리케이션은 메뉴 코드를 50개씩 미리 할당받으므로 (@SequenceGenerator allocationSize) 증가폭을 맞춘다
+-- 이미 발급한 코드 뒤에서 이어지므로 기존 메뉴 코드와 겹치지 않는다
+-- --------------------------------------------------------
+
+ALTER SEQUENCE tbl_menu_menu_code_seq INCREMENT BY 50;
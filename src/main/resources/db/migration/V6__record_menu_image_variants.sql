@@ -0,0 +1,6 @@
+-- --------------------------------------------------------
+-- 메뉴마다 만들어진 크기별 변형 이미지 너비를 기록한다 (예: 160,480,1024)
+-- 기존 메뉴는 비워 두며, 목록 응답은 변형이 없으면 원본 이미지 URL만 내보낸다
+-- --------------------------------------------------------
+
+ALTER TABLE tbl_menu ADD COLUMN menu_image_variants VARCHAR(64);
@@ -0,0 +1,8 @@
+-- --------------------------------------------------------
+-- 이미지 객체 테이블 (내용 해시로 저장한 이미지 파일과 그 이미지를 쓰는 메뉴 수)
+-- --------------------------------------------------------
+
+CREATE TABLE tbl_image_object (
+    image_key VARCHAR(255) PRIMARY KEY,  -- SHA-256 해시 + 확장자 (S3 객체 키)
+    ref_count INTEGER NOT NULL
+);
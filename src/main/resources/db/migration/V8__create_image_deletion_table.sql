@@ -0,0 +1,14 @@
+-- --------------------------------------------------------
+-- 이미지 삭제 대기열 테이블 (메뉴 삭제와 같은 트랜잭션에 기록하고 백그라운드에서 저장소 이미지를 지운다)
+-- --------------------------------------------------------
+
+CREATE TABLE tbl_image_deletion (
+    deletion_id BIGSERIAL PRIMARY KEY,
+    image_key VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- 시도할 시각이 된 삭제 작업 조회용 인덱스 (next_attempt_at <= ? ORDER BY deletion_id)
+CREATE INDEX idx_image_deletion_next_attempt ON tbl_image_deletion (next_attempt_at, deletion_id);
@@ -0,0 +1,7 @@
+-- --------------------------------------------------------
+-- 이미지 객체가 저장소에 다 쓰였는지 기록한다
+-- 같은 이미지를 먼저 올리던 요청이 아직 쓰는 중이거나 실패했으면, 뒤따른 요청이 건너뛰지 않고 직접 쓰게 한다
+-- 이전에 만든 행은 업로드가 끝난 뒤에만 남았으므로 저장된 것으로 본다
+-- --------------------------------------------------------
+
+ALTER TABLE tbl_image_object ADD COLUMN stored BOOLEAN NOT NULL DEFAULT TRUE;
@@ -68,6 +68,14 @@ function createMenuCard(menu) {
             : `${API_BASE_URL}/images/${menu.menuImageUrl}`)
         : '';
     
+    // 서버가 만든 너비별 변형 이미지가 있으면 화면 크기에 맞는 것을 브라우저가 고르게 한다
+    const srcset = Object.entries(menu.menuImageVariants || {})
+        .map(([width, url]) => `${url.startsWith('https://') ? url : `${API_BASE_URL}/images/${url}`} ${width}w`)
+        .join(', ');
+    const srcsetAttributes = srcset
+        ? `srcset="${srcset}, ${imageUrl} 2048w" sizes="(max-width: 768px) 100vw, 400px"`
+        : '';
+    
     const formatPrice = (price) => {
         return new Intl.NumberFormat('ko-KR').format(price);
     };
@@ -75,7 +83,7 @@ function createMenuCard(menu) {
     card.innerHTML = `
         <div onclick="openMenuDetailModal(${menu.menuCode})" style="cursor: pointer;">
             ${imageUrl 
-                ? `<img src="${imageUrl}" alt="${menu.menuName}" class="menu-image" onerror="this.style.display='none'">` 
+                ? `<img src="${imageUrl}" ${srcsetAttributes} alt="${menu.menuName}" class="menu-image" loading="lazy" decoding="async" onerror="this.style.display='none'">` 
                 : '<div class="menu-image">이미지 없음</div>'
             }
             <div class="menu-content">
@@ -249,18 +257,65 @@ window.onclick = function(event) {
     }
 }
 
+// 서명된 URL로 이미지를 S3에 직접 업로드한 뒤 imageKey로 메뉴를 등록한다
+// 직접 업로드를 쓸 수 없는 환경(로컬)이면 null을 반환해서 기존 multipart 등록을 쓰게 한다
+async function registerMenuWithDirectUpload(formData, imageFile) {
+    const presignResponse = await fetch(`${API_BASE_URL}/menus/images/presign`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json' },
+        body: JSON.stringify({ contentType: imageFile.type, contentLength: imageFile.size })
+    });
+    if (presignResponse.status === 409) {
+        return null;
+    }
+    if (!presignResponse.ok) {
+        return presignResponse;
+    }
+    
+    const upload = await presignResponse.json();
+    const uploadResponse = await fetch(upload.uploadUrl, {
+        method: 'PUT',
+        headers: upload.headers,
+        body: imageFile
+    });
+    if (!uploadResponse.ok) {
+        return uploadResponse;
+    }
+    
+    return fetch(`${API_BASE_URL}/menus`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json' },
+        body: JSON.stringify({
+            menuName: formData.get('menuName'),
+            menuPrice: Number(formData.get('menuPrice')),
+            menuDescription: formData.get('menuDescription'),
+            categoryCode: Number(formData.get('categoryCode')),
+            menuStock: Number(formData.get('menuStock')),
+            imageKey: upload.imageKey
+        })
+    });
+}
+
 // 메뉴 등록 폼 제출 이벤트 리스너
 document.addEventListener('DOMContentLoaded', function() {
     document.getElementById('addMenuForm').addEventListener('submit', async function(e) {
         e.preventDefault();
         
         const formData = new FormData(this);
+        const imageFile = formData.get('imageFile');
         
         try {
-            const response = await fetch(`${API_BASE_URL}/menus`, {
-                method: 'POST',
-                body: formData
-            });
+            let response = null;
+            if (imageFile && imageFile.size > 0) {
+                // S3 환경이면 이미지를 서버를 거치지 않고 S3에 직접 올린 뒤 등록한다
+                response = await registerMenuWithDirectUpload(formData, imageFile);
+            }
+            if (response === null) {
+                response = await fetch(`${API_BASE_URL}/menus`, {
+                    method: 'POST',
+                    body: formData
+                });
+            }
             
             if (response.ok) {
                 alert('메뉴가 성공적으로 등록되었습니다.');
@@ -0,0 +1,131 @@
+package com.ohgiraffers.awsdeploy.config;
+
+import com.ohgiraffers.awsdeploy.util.AdaptiveConcurrencyLimit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ConcurrencyLimitFilter 테스트
+ * 한도를 테스트가 직접 차지해 두고 요청이 거절되거나 통과하는지, 자리를 언제 돌려주는지 확인한다
+ */
+@DisplayName("ConcurrencyLimitFilter 테스트")
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyLimit readLimit = new AdaptiveConcurrencyLimit(1, 1, 1);
+    private final AdaptiveConcurrencyLimit writeLimit = new AdaptiveConcurrencyLimit(4, 1, 4);
+    private final AdaptiveConcurrencyLimit storageLimit = new AdaptiveConcurrencyLimit(1, 1, 1);
+    private final ConcurrencyLimitFilter filter =
+            new ConcurrencyLimitFilter(meterRegistry, readLimit, writeLimit, storageLimit, Duration.ofSeconds(2));
+    private final AtomicInteger chainCalls = new AtomicInteger();
+
+    @Test
+    @DisplayName("조회 한도가 차면 컨트롤러를 부르지 않고 503과 Retry-After로 응답한다")
+    void should_Reject_when_ReadLimitIsFull() throws Exception {
+        // given: 조회 한도(1)를 다른 요청이 차지하고 있다
+        readLimit.tryAcquire();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when: 조회 요청
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/menus"), response, countingChain());
+
+        // then: 바로 거절한다
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(chainCalls.get()).isZero();
+        assertThat(requestCount("read", "rejected")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("쓰기 요청은 조회 한도와 따로 센다")
+    void should_AcceptWrite_when_OnlyReadLimitIsFull() throws Exception {
+        // given: 조회 한도가 차 있다
+        readLimit.tryAcquire();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when: 재고 차감 요청
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/menus/1/stock/decrement"), response, countingChain());
+
+        // then: 쓰기 한도로 처리하고 끝나면 자리를 돌려준다
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(chainCalls.get()).isEqualTo(1);
+        assertThat(writeLimit.getInflight()).isZero();
+        assertThat(requestCount("write", "accepted")).isEqualTo(1);
+        assertThat(meterRegistry.get("http.server.concurrency.limit").tag("group", "write").gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("업로드와 삭제로 저장소 한도가 차도 재고 차감은 받는다")
+    void should_AcceptStockDecrement_when_StorageLimitIsFull() throws Exception {
+        // given: 저장소 한도(1)를 진행 중인 업로드가 차지하고 있다
+        storageLimit.tryAcquire();
+        MockHttpServletRequest upload = new MockHttpServletRequest("POST", "/api/menus");
+        upload.setContentType("multipart/form-data; boundary=menu");
+        MockHttpServletResponse uploadResponse = new MockHttpServletResponse();
+        MockHttpServletResponse deleteResponse = new MockHttpServletResponse();
+        MockHttpServletResponse decrementResponse = new MockHttpServletResponse();
+
+        // when: 업로드, 삭제, 재고 차감 요청이 함께 들어온다
+        filter.doFilter(upload, uploadResponse, countingChain());
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/api/menus/1"), deleteResponse, countingChain());
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/menus/1/stock/decrement"), decrementResponse, countingChain());
+
+        // then: 업로드와 삭제만 거절하고 재고 차감은 쓰기 한도로 처리한다
+        assertThat(uploadResponse.getStatus()).isEqualTo(503);
+        assertThat(deleteResponse.getStatus()).isEqualTo(503);
+        assertThat(decrementResponse.getStatus()).isEqualTo(200);
+        assertThat(chainCalls.get()).isEqualTo(1);
+        assertThat(requestCount("storage", "rejected")).isEqualTo(2);
+        assertThat(requestCount("write", "accepted")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("5xx로 끝난 요청은 한도를 줄인다")
+    void should_BackOff_when_ResponseIsServerError() throws Exception {
+        // given: 500으로 끝나는 JSON 메뉴 등록
+        FilterChain failingChain = (request, response) -> ((MockHttpServletResponse) response).setStatus(500);
+
+        // when
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/menus"), new MockHttpServletResponse(), failingChain);
+
+        // then: 쓰기 한도가 4에서 3으로 줄어든다
+        assertThat(writeLimit.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("비동기 요청은 응답을 마칠 때 자리를 돌려준다")
+    void should_HoldPermitUntilComplete_when_AsyncStarted() throws Exception {
+        // given: 컨트롤러가 비동기 처리를 시작하는 메뉴 등록 요청
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/menus");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain asyncChain = (req, res) -> req.startAsync();
+
+        // when: 필터를 지나도 비동기 처리가 끝나지 않았다
+        filter.doFilter(request, response, asyncChain);
+
+        // then: 응답을 마칠 때까지 자리를 차지한다
+        assertThat(writeLimit.getInflight()).isEqualTo(1);
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertThat(writeLimit.getInflight()).isZero();
+    }
+
+    private FilterChain countingChain() {
+        return (request, response) -> chainCalls.incrementAndGet();
+    }
+
+    private double requestCount(String group, String result) {
+        return meterRegistry.get("http.server.concurrency.requests").tag("group", group).tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,149 @@
+package com.ohgiraffers.awsdeploy.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ReadReplicaRouter 테스트
+ * 인메모리 H2 두 개를 주 DB와 복제본으로 두고, 각 DB에 자기 이름을 넣어 읽기가 어디로 갔는지 확인한다
+ */
+@DisplayName("ReadReplicaRouter 테스트")
+class ReadReplicaRouterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReadReplicaRouter router;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        router.close();
+    }
+
+    @Test
+    @DisplayName("읽기 전용 트랜잭션은 지연이 기준 안인 복제본에서 읽는다")
+    void should_ReadFromReplica_when_ReadOnlyTransaction() {
+        // given: 지연이 0인 복제본
+        setUp("SELECT 0", Duration.ofSeconds(5), "replica");
+        router.checkReplicaLag();
+
+        // when & then: 읽기 전용 트랜잭션은 복제본, 일반 트랜잭션은 주 DB에서 읽는다
+        assertThat(readNode(readOnlyTransaction)).isEqualTo("replica");
+        assertThat(readNode(readWriteTransaction)).isEqualTo("primary");
+        assertThat(routeCount("replica", "read")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("복제본이 여러 개면 번갈아 읽는다")
+    void should_AlternateReplicas_when_SeveralAvailable() {
+        // given: 지연이 0인 복제본 두 개
+        setUp("SELECT 0", Duration.ofSeconds(5), "replica-a", "replica-b");
+        router.checkReplicaLag();
+
+        // when & then: 읽을 때마다 다음 복제본으로 간다
+        assertThat(readNode(readOnlyTransaction)).isEqualTo("replica-a");
+        assertThat(readNode(readOnlyTransaction)).isEqualTo("replica-b");
+        assertThat(readNode(readOnlyTransaction)).isEqualTo("replica-a");
+    }
+
+    @Test
+    @DisplayName("주 DB에 쓴 뒤에는 읽기 전용 트랜잭션도 한동안 주 DB에서 읽는다")
+    void should_ReadFromPrimary_when_WithinReadYourWritesWindow() {
+        // given: 지연이 0인 복제본과 주 DB에 쓴 트랜잭션
+        setUp("SELECT 0", Duration.ofMinutes(1), "replica");
+        router.checkReplicaLag();
+        readWriteTransaction.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = 'primary-updated'"));
+
+        // when: 바로 읽기 전용 트랜잭션으로 읽는다
+        String node = readNode(readOnlyTransaction);
+
+        // then: 방금 쓴 값을 주 DB에서 읽는다
+        assertThat(node).isEqualTo("primary-updated");
+        assertThat(routeCount("primary", "read_your_writes")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("복제 지연이 기준을 넘거나 아직 재지 않은 복제본은 쓰지 않는다")
+    void should_ReadFromPrimary_when_ReplicaLagging() {
+        // given: 지연이 5초인 복제본 (기준 1초)
+        setUp("SELECT 5", Duration.ofSeconds(5), "replica");
+
+        // when & then: 지연을 재기 전에도, 잰 뒤에도 주 DB에서 읽는다
+        assertThat(readNode(readOnlyTransaction)).isEqualTo("primary");
+        router.checkReplicaLag();
+        assertThat(readNode(readOnlyTransaction)).isEqualTo("primary");
+        assertThat(routeCount("primary", "replica_unavailable")).isEqualTo(2);
+        assertThat(meterRegistry.get("datasource.replica.lag").tag("replica", "replica").gauge().value()).isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("지연 측정이 실패한 복제본은 빼고 지연을 NaN으로 남긴다")
+    void should_MarkReplicaUnavailable_when_LagQueryFails() {
+        // given: 지연을 잴 수 없는 복제본
+        setUp("SELECT lag FROM missing_table", Duration.ofSeconds(5), "replica");
+
+        // when: 지연을 잰다
+        router.checkReplicaLag();
+
+        // then: 주 DB에서 읽는다
+        assertThat(readNode(readOnlyTransaction)).isEqualTo("primary");
+        assertThat(meterRegistry.get("datasource.replica.lag").tag("replica", "replica").gauge().value()).isNaN();
+    }
+
+    @Test
+    @DisplayName("데이터를 바꾸는 문만 쓰기로 본다")
+    void should_ClassifyWrites_when_Statement() {
+        assertThat(ReadReplicaRouter.isWrite("INSERT INTO tbl_menu VALUES (1)")).isTrue();
+        assertThat(ReadReplicaRouter.isWrite("  update tbl_menu set menu_stock = 1")).isTrue();
+        assertThat(ReadReplicaRouter.isWrite("delete from tbl_menu")).isTrue();
+        assertThat(ReadReplicaRouter.isWrite("select * from tbl_menu for update")).isFalse();
+    }
+
+    private void setUp(String lagQuery, Duration readYourWritesWindow, String... replicaNames) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String name : replicaNames) {
+            replicas.put(name, node(name));
+        }
+        router = new ReadReplicaRouter(node("primary"), replicas, Duration.ofSeconds(1), readYourWritesWindow,
+                lagQuery, meterRegistry);
+        jdbcTemplate = new JdbcTemplate(router.getDataSource());
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(router.getDataSource());
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // 자기 이름 한 행을 담은 인메모리 DB
+    private static DataSource node(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:router-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate node = new JdbcTemplate(dataSource);
+        node.execute("DROP TABLE IF EXISTS node");
+        node.execute("CREATE TABLE node (name VARCHAR(50))");
+        node.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private String readNode(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private double routeCount(String target, String reason) {
+        return meterRegistry.get("datasource.routing").tags("target", target, "reason", reason).counter().count();
+    }
+}
@@ -1,12 +1,22 @@
 package com.ohgiraffers.awsdeploy.controller;
 
 import com.ohgiraffers.awsdeploy.dto.CategoryDTO;
+import com.ohgiraffers.awsdeploy.dto.MenuDTO;
 import com.ohgiraffers.awsdeploy.service.CategoryService;
+import com.ohgiraffers.awsdeploy.service.MenuService;
+import com.ohgiraffers.awsdeploy.service.ResponseBodyCache;
+import com.ohgiraffers.awsdeploy.util.MenuCborCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -14,6 +24,8 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -22,6 +34,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * HTTP 요청/응답과 컨트롤러 로직을 테스트한다
  */
 @WebMvcTest(CategoryController.class)
+@Import(ResponseBodyCache.class)
 @DisplayName("CategoryController 테스트")
 class CategoryControllerTest {
 
@@ -31,6 +44,9 @@ class CategoryControllerTest {
     @MockitoBean
     private CategoryService categoryService;
 
+    @MockitoBean
+    private MenuService menuService;
+
     @Test
     @DisplayName("카테고리 목록 조회 API 호출 시 JSON 응답이 정상 반환된다")
     void should_ReturnCategoriesAsJson_when_GetCategories() throws Exception {
@@ -69,4 +85,97 @@ class CategoryControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.length()").value(0));
     }
+
+    @Test
+    @DisplayName("카테고리 목록 응답에 목록 해시 기반 ETag와 Cache-Control이 포함된다")
+    void should_ReturnETag_when_GetCategories() throws Exception {
+        // given: 카테고리 목록과 해시를 준비한다
+        given(categoryService.getCategoriesHash()).willReturn(0xabcL);
+        given(categoryService.findAllCategories()).willReturn(List.of(new CategoryDTO(1L, "식사")));
+
+        // when & then: ETag와 Cache-Control 헤더가 반환된다
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"categories-abc\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=600, must-revalidate"));
+    }
+
+    @Test
+    @DisplayName("If-None-Match가 현재 ETag와 같으면 목록 조회 없이 304가 반환된다")
+    void should_Return304_when_ETagMatches() throws Exception {
+        // given: 현재 목록 해시를 준비한다
+        given(categoryService.getCategoriesHash()).willReturn(0xabcL);
+
+        // when & then: 같은 ETag로 요청하면 본문 없이 304가 반환된다
+        mockMvc.perform(get("/api/categories")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"categories-abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"categories-abc\""))
+                .andExpect(header().string(HttpHeaders.VARY, "Accept-Encoding"))
+                .andExpect(content().string(""));
+
+        verify(categoryService, never()).findAllCategories();
+    }
+
+    @Test
+    @DisplayName("카테고리별 메뉴 목록 조회 시 카테고리 버전 기반 ETag와 함께 반환된다")
+    void should_ReturnMenusWithETag_when_GetMenusByCategory() throws Exception {
+        // given: 카테고리 버전과 메뉴 목록을 준비한다
+        MenuDTO menu = new MenuDTO(1L, "김치찌개", 8000, null, "Y", new CategoryDTO(1L, "식사"), null, 10);
+        given(menuService.getCategoryCatalogVersion(1L)).willReturn(7L);
+        given(menuService.findOrderableMenusByCategory(1L)).willReturn(List.of(menu));
+
+        // when & then: 메뉴 목록과 ETag, Cache-Control이 반환된다
+        mockMvc.perform(get("/api/categories/1/menus"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"category-1-menus-7\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].menuName").value("김치찌개"))
+                .andExpect(jsonPath("$[0].category.categoryCode").value(1));
+    }
+
+    @Test
+    @DisplayName("카테고리 버전이 같으면 메뉴 목록 조회 없이 304가 반환된다")
+    void should_Return304_when_CategoryMenusETagMatches() throws Exception {
+        // given: 현재 카테고리 버전을 준비한다
+        given(menuService.getCategoryCatalogVersion(1L)).willReturn(7L);
+
+        // when & then: 같은 ETag로 요청하면 200 응답과 같은 Vary와 함께 본문 없이 304가 반환된다
+        mockMvc.perform(get("/api/categories/1/menus")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"category-1-menus-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/categories/1/menus")
+                        .header(HttpHeaders.ACCEPT, MenuCborCodec.MEDIA_TYPE_VALUE)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"category-1-menus-7-cbor\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, "Accept"));
+
+        verify(menuService, never()).findOrderableMenusByCategory(1L);
+    }
+
+    @Test
+    @DisplayName("존재하지 않는 카테고리의 메뉴 목록 조회 시 404가 반환된다")
+    void should_Return404_when_GetMenusByNonExistentCategory() throws Exception {
+        // given: 존재하지 않는 카테고리 조회 시 예외를 던지도록 설정한다
+        given(menuService.getCategoryCatalogVersion(999L)).willReturn(7L);
+        given(menuService.findOrderableMenusByCategory(999L))
+                .willThrow(new IllegalArgumentException("해당 카테고리를 찾을 수 없습니다: 999"));
+
+        // when & then: 404가 반환된다
+        mockMvc.perform(get("/api/categories/999/menus"))
+                .andExpect(status().isNotFound());
+    }
+
+    // 웹 계층 테스트에는 지표 설정이 없으므로 메모리 레지스트리를 넣는다
+    @TestConfiguration
+    static class MetricsConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
 } 
\ No newline at end of file
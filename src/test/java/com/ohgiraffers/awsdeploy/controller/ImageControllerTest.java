@@ -0,0 +1,191 @@
+package com.ohgiraffers.awsdeploy.controller;
+
+import com.ohgiraffers.awsdeploy.util.FileUploadUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * ImageController 웹 계층 테스트
+ * 조건부 요청, Range 요청, 캐시 헤더를 임시 폴더의 실제 파일로 테스트한다
+ */
+@WebMvcTest(ImageController.class)
+@DisplayName("ImageController 테스트")
+class ImageControllerTest {
+
+    private static final String IMAGE_NAME = "123e4567-e89b-12d3-a456-426614174000.png";
+    private static final String CONTENT = "0123456789abcdef";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private FileUploadUtils fileUploadUtils;
+
+    @TempDir
+    Path uploadRoot;
+
+    private Path imagePath;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        imagePath = Files.writeString(uploadRoot.resolve(IMAGE_NAME), CONTENT);
+        given(fileUploadUtils.resolve(IMAGE_NAME)).willReturn(imagePath);
+    }
+
+    @Test
+    @DisplayName("이미지 조회 시 본문과 함께 ETag, Last-Modified, 불변 캐시 헤더를 반환한다")
+    void should_ReturnImageWithCacheHeaders_when_ServeImage() throws Exception {
+        // given: 같은 컨텍스트를 쓰는 다른 테스트가 남긴 지표
+        long hitsBefore = serveCount(ImageController.SERVE_HIT);
+
+        // when & then: 전체 파일과 캐시 헤더가 반환된다
+        mockMvc.perform(get("/api/images/" + IMAGE_NAME))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(content().string(CONTENT))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length()))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"));
+
+        // then: 서빙 시간이 hit로 기록된다
+        assertThat(serveCount(ImageController.SERVE_HIT)).isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    @DisplayName("If-None-Match가 현재 ETag와 같으면 본문 없이 304를 반환한다")
+    void should_ReturnNotModified_when_EtagMatches() throws Exception {
+        // given: 첫 응답의 ETag
+        String etag = mockMvc.perform(get("/api/images/" + IMAGE_NAME))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when & then: 같은 ETag로 다시 요청하면 304가 반환된다
+        mockMvc.perform(get("/api/images/" + IMAGE_NAME).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Range 요청 시 해당 구간만 206으로 반환한다")
+    void should_ReturnPartialContent_when_RangeRequested() throws Exception {
+        // when & then: 2~5 바이트만 반환된다
+        mockMvc.perform(get("/api/images/" + IMAGE_NAME).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("2345"))
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/16"));
+
+        // when & then: 끝에서 3바이트만 반환된다
+        mockMvc.perform(get("/api/images/" + IMAGE_NAME).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("def"));
+    }
+
+    @Test
+    @DisplayName("파일 크기를 벗어난 Range 요청은 416을 반환한다")
+    void should_ReturnRangeNotSatisfiable_when_RangeOutOfBounds() throws Exception {
+        // given
+        long hitsBefore = serveCount(ImageController.SERVE_HIT);
+        long unsatisfiableBefore = serveCount(ImageController.SERVE_RANGE_NOT_SATISFIABLE);
+
+        // when & then: 파일 길이 이후 구간을 요청하면 416이 반환된다
+        mockMvc.perform(get("/api/images/" + IMAGE_NAME).header(HttpHeaders.RANGE, "bytes=100-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */16"));
+
+        // then: 적중(hit)이 아닌 별도 결과로 기록된다
+        assertThat(serveCount(ImageController.SERVE_RANGE_NOT_SATISFIABLE)).isEqualTo(unsatisfiableBefore + 1);
+        assertThat(serveCount(ImageController.SERVE_HIT)).isEqualTo(hitsBefore);
+    }
+
+    @Test
+    @DisplayName("If-Range가 현재 ETag와 다르면 Range를 무시하고 전체 파일을 반환한다")
+    void should_ReturnWholeFile_when_IfRangeDoesNotMatch() throws Exception {
+        // when & then: 바뀐 파일의 ETag로 요청하면 전체 파일이 반환된다
+        mockMvc.perform(get("/api/images/" + IMAGE_NAME)
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_RANGE, "\"outdated\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    @DisplayName("Tomcat이 sendfile을 지원하면 본문 대신 sendfile 속성으로 파일 구간을 넘긴다")
+    void should_DelegateToSendfile_when_Supported() throws Exception {
+        // given: sendfile 기준보다 큰 파일
+        Files.write(imagePath, new byte[64 * 1024]);
+
+        // when: sendfile을 지원하는 요청으로 구간을 요청한다
+        MvcResult result = mockMvc.perform(get("/api/images/" + IMAGE_NAME)
+                        .header(HttpHeaders.RANGE, "bytes=1024-")
+                        .requestAttr(ImageController.SENDFILE_SUPPORTED, Boolean.TRUE))
+                .andExpect(status().isPartialContent())
+                .andReturn();
+
+        // then: 본문은 비어 있고 파일 경로와 구간이 요청 속성에 담긴다
+        assertThat(result.getResponse().getContentAsByteArray()).isEmpty();
+        assertThat(result.getResponse().getContentLengthLong()).isEqualTo(63 * 1024);
+        assertThat(result.getRequest().getAttribute(ImageController.SENDFILE_FILENAME)).isEqualTo(imagePath.toString());
+        assertThat(result.getRequest().getAttribute(ImageController.SENDFILE_START)).isEqualTo(1024L);
+        assertThat(result.getRequest().getAttribute(ImageController.SENDFILE_END)).isEqualTo(64L * 1024);
+    }
+
+    @Test
+    @DisplayName("업로드 폴더 밖을 가리키거나 없는 파일은 404를 반환한다")
+    void should_ReturnNotFound_when_FileMissingOrOutsideRoot() throws Exception {
+        // given: 폴더 밖 경로는 거절되고, 다른 파일은 존재하지 않는다
+        given(fileUploadUtils.resolve("outside.png")).willThrow(new IllegalArgumentException("잘못된 파일명입니다"));
+        given(fileUploadUtils.resolve("missing.png")).willReturn(uploadRoot.resolve("missing.png"));
+        long hitsBefore = serveCount(ImageController.SERVE_HIT);
+        long missesBefore = serveCount(ImageController.SERVE_MISS);
+
+        // when & then: 모두 404가 반환된다
+        mockMvc.perform(get("/api/images/{filename}", "outside.png"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/images/missing.png"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(""));
+
+        // then: 두 요청 모두 서빙 시간이 miss로 기록된다
+        assertThat(serveCount(ImageController.SERVE_MISS)).isEqualTo(missesBefore + 2);
+        assertThat(serveCount(ImageController.SERVE_HIT)).isEqualTo(hitsBefore);
+    }
+
+    private long serveCount(String result) {
+        return meterRegistry.get("image.serve").tag("result", result).timer().count();
+    }
+
+    // 웹 계층 테스트에는 지표 설정이 없으므로 메모리 레지스트리를 넣는다
+    @TestConfiguration
+    static class MetricsConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
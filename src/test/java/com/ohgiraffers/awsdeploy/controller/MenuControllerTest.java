@@ -2,21 +2,42 @@ package com.ohgiraffers.awsdeploy.controller;
 
 import com.ohgiraffers.awsdeploy.dto.CategoryDTO;
 import com.ohgiraffers.awsdeploy.dto.MenuDTO;
+import com.ohgiraffers.awsdeploy.dto.PresignedUploadDTO;
 import com.ohgiraffers.awsdeploy.service.MenuService;
+import com.ohgiraffers.awsdeploy.service.ResponseBodyCache;
+import com.ohgiraffers.awsdeploy.util.MenuCborCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -26,6 +47,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * HTTP 요청/응답과 컨트롤러 로직을 테스트한다
  */
 @WebMvcTest(MenuController.class)
+@Import(ResponseBodyCache.class)
 @DisplayName("MenuController 테스트")
 class MenuControllerTest {
 
@@ -74,6 +96,135 @@ class MenuControllerTest {
                 .andExpect(jsonPath("$[1].menuPrice").value(4000));
     }
 
+    @Test
+    @DisplayName("메뉴 목록 응답에 카탈로그 버전 기반 ETag가 포함된다")
+    void should_ReturnVersionETag_when_GetMenus() throws Exception {
+        // given: 현재 카탈로그 버전을 준비한다
+        given(menuService.getCatalogVersion()).willReturn(42L);
+        given(menuService.findAllOrderableMenus()).willReturn(List.of());
+
+        // when & then: ETag와 no-cache 헤더가 반환된다
+        mockMvc.perform(get("/api/menus"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"menus-42\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    @DisplayName("gzip을 받는 클라이언트에는 미리 압축한 메뉴 목록을 Content-Encoding과 함께 반환한다")
+    void should_ReturnGzipBody_when_AcceptEncodingGzip() throws Exception {
+        // given: 압축할 만큼 긴 메뉴 목록
+        List<MenuDTO> menus = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            menus.add(new MenuDTO((long) i + 1, "메뉴" + i, 1000 + i, "메뉴 설명 " + i, "Y",
+                    new CategoryDTO(1L, "식사"), i + ".png", 10));
+        }
+        given(menuService.findAllOrderableMenus()).willReturn(List.copyOf(menus));
+
+        // when: gzip을 받는다고 알리고, 알리지 않고 각각 조회한다
+        MvcResult gzip = mockMvc.perform(get("/api/menus")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        MvcResult identity = mockMvc.perform(get("/api/menus"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.length()").value(10))
+                .andReturn();
+
+        // then: 압축본을 풀면 압축하지 않은 본문과 같고, 캐시가 인코딩별로 나누어 보관하도록 Vary를 붙인다
+        assertThat(String.join(",", gzip.getResponse().getHeaders(HttpHeaders.VARY))).contains(HttpHeaders.ACCEPT_ENCODING);
+        byte[] compressed = gzip.getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(in.readAllBytes()).isEqualTo(identity.getResponse().getContentAsByteArray());
+        }
+        assertThat(compressed.length).isLessThan(identity.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("gzip 본문과 압축하지 않은 본문은 서로 다른 ETag를 받고, 304 판단도 같은 값으로 한다")
+    void should_SplitETagByEncoding_when_AcceptEncodingDiffers() throws Exception {
+        // given: 현재 카탈로그 버전과 압축할 만큼 긴 메뉴 목록
+        given(menuService.getCatalogVersion()).willReturn(42L);
+        List<MenuDTO> menus = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            menus.add(new MenuDTO((long) i + 1, "메뉴" + i, 1000 + i, "메뉴 설명 " + i, "Y",
+                    new CategoryDTO(1L, "식사"), i + ".png", 10));
+        }
+        given(menuService.findAllOrderableMenus()).willReturn(List.copyOf(menus));
+
+        // when: gzip을 받는다고 알리고, 알리지 않고 각각 조회한다
+        String gzipETag = mockMvc.perform(get("/api/menus")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String identityETag = mockMvc.perform(get("/api/menus"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // then: 두 ETag가 다르고, 한쪽 ETag로는 다른 인코딩 요청에 304를 받지 못한다
+        assertThat(gzipETag).isEqualTo("\"menus-42-gzip\"");
+        assertThat(identityETag).isEqualTo("\"menus-42\"");
+        mockMvc.perform(get("/api/menus")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipETag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, gzipETag));
+        mockMvc.perform(get("/api/menus")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, identityETag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    @Test
+    @DisplayName("Accept에 메뉴 목록 바이너리 형식을 명시하면 CBOR로 응답하고 ETag를 JSON과 나눈다")
+    void should_ReturnCbor_when_AcceptMenuBinaryType() throws Exception {
+        // given: 현재 카탈로그 버전과 메뉴 목록
+        given(menuService.getCatalogVersion()).willReturn(42L);
+        List<MenuDTO> menus = List.of(new MenuDTO(1L, "아메리카노", 3000, null, "Y",
+                new CategoryDTO(1L, "음료"), "https://bucket.s3.amazonaws.com/menus/a.png", 10));
+        given(menuService.findAllOrderableMenus()).willReturn(menus);
+
+        // when: 바이너리 형식으로 조회한다
+        MvcResult result = mockMvc.perform(get("/api/menus")
+                        .header(HttpHeaders.ACCEPT, MenuCborCodec.MEDIA_TYPE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MenuCborCodec.MEDIA_TYPE))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"menus-42-cbor\""))
+                .andReturn();
+
+        // then: 본문을 읽으면 같은 메뉴 목록이다
+        List<MenuDTO> decoded = MenuCborCodec.decode(result.getResponse().getContentAsByteArray());
+        assertThat(decoded).singleElement().satisfies(menu -> {
+            assertThat(menu.getMenuName()).isEqualTo("아메리카노");
+            assertThat(menu.getMenuImageUrl()).isEqualTo("https://bucket.s3.amazonaws.com/menus/a.png");
+            assertThat(menu.getCategory().getCategoryName()).isEqualTo("음료");
+        });
+    }
+
+    @Test
+    @DisplayName("If-None-Match가 현재 카탈로그 버전과 같으면 메뉴 조회 없이 304가 반환된다")
+    void should_Return304WithoutLoadingMenus_when_ETagMatches() throws Exception {
+        // given: 현재 카탈로그 버전을 준비한다
+        given(menuService.getCatalogVersion()).willReturn(42L);
+
+        // when & then: 목록과 상세 모두 304가 반환되고 서비스 조회는 일어나지 않는다
+        mockMvc.perform(get("/api/menus")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"menus-42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/menus/{id}", 7L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"menu-7-42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().doesNotExist(HttpHeaders.VARY));
+
+        verify(menuService, never()).findAllOrderableMenus();
+        verify(menuService, never()).findMenuByCode(7L);
+    }
+
     @Test
     @DisplayName("특정 메뉴 조회 API 호출 시 해당 메뉴 정보가 정상 반환된다")
     void should_ReturnMenuDetail_when_GetMenuById() throws Exception {
@@ -129,17 +280,22 @@ class MenuControllerTest {
         registeredMenu.setMenuStock(menuStock);
         registeredMenu.setMenuImageUrl("uploaded-image.jpg");
 
-        given(menuService.registerMenu(eq(menuName), eq(menuPrice), eq(menuDescription),
-                eq(categoryCode), eq(menuStock), any())).willReturn(registeredMenu);
+        given(menuService.registerMenuAsync(eq(menuName), eq(menuPrice), eq(menuDescription),
+                eq(categoryCode), eq(menuStock), any())).willReturn(CompletableFuture.completedFuture(registeredMenu));
 
-        // when & then: POST /api/menus 호출 시 메뉴가 정상 등록된다
-        mockMvc.perform(multipart("/api/menus")
+        // when: POST /api/menus 호출 시 비동기 처리가 시작된다
+        MvcResult mvcResult = mockMvc.perform(multipart("/api/menus")
                         .file(imageFile)
                         .param("menuName", menuName)
                         .param("menuPrice", menuPrice.toString())
                         .param("menuDescription", menuDescription)
                         .param("categoryCode", categoryCode.toString())
                         .param("menuStock", menuStock.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then: 등록이 끝나면 메뉴가 정상 반환된다
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.menuCode").value(1))
@@ -147,10 +303,178 @@ class MenuControllerTest {
                 .andExpect(jsonPath("$.menuPrice").value(menuPrice))
                 .andExpect(jsonPath("$.menuImageUrl").value("uploaded-image.jpg"));
 
-        verify(menuService).registerMenu(eq(menuName), eq(menuPrice), eq(menuDescription),
+        verify(menuService).registerMenuAsync(eq(menuName), eq(menuPrice), eq(menuDescription),
                 eq(categoryCode), eq(menuStock), any());
     }
 
+    @Test
+    @DisplayName("비동기 메뉴 등록이 잘못된 요청으로 실패하면 400이 반환된다")
+    void should_Return400_when_AsyncRegisterFailsWithInvalidArgument() throws Exception {
+        // given: 업로드 후 잘못된 이미지로 실패하는 future를 준비한다
+        given(menuService.registerMenuAsync(any(), any(), any(), any(), any(), any()))
+                .willReturn(CompletableFuture.failedFuture(
+                        new CompletionException(new IllegalArgumentException("이미지 파일만 업로드 가능합니다."))));
+
+        // when: POST /api/menus 호출 시 비동기 처리가 시작된다
+        MvcResult mvcResult = mockMvc.perform(multipart("/api/menus")
+                        .param("menuName", "메뉴")
+                        .param("menuPrice", "1000")
+                        .param("menuDescription", "설명")
+                        .param("categoryCode", "1")
+                        .param("menuStock", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then: 400이 반환된다
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("업로드 후처리 대기열이 가득 차 비동기 메뉴 등록이 거절되면 503과 Retry-After가 반환된다")
+    void should_Return503_when_AsyncRegisterRejected() throws Exception {
+        // given: 후처리 실행기가 거절해 실패한 future를 준비한다
+        given(menuService.registerMenuAsync(any(), any(), any(), any(), any(), any()))
+                .willReturn(CompletableFuture.failedFuture(new RejectedExecutionException("대기열이 가득 찼습니다")));
+
+        // when: POST /api/menus 호출 시 비동기 처리가 시작된다
+        MvcResult mvcResult = mockMvc.perform(multipart("/api/menus")
+                        .param("menuName", "메뉴")
+                        .param("menuPrice", "1000")
+                        .param("menuDescription", "설명")
+                        .param("categoryCode", "1")
+                        .param("menuStock", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then: 잠시 뒤 다시 시도하라는 503이 반환된다
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    @DisplayName("저장소에서 지우는 중인 이미지로 비동기 메뉴 등록이 실패하면 409가 반환된다")
+    void should_Return409_when_AsyncRegisterImageBeingDeleted() throws Exception {
+        // given: 삭제 대기열이 지우는 중인 이미지라 실패한 future를 준비한다
+        given(menuService.registerMenuAsync(any(), any(), any(), any(), any(), any()))
+                .willReturn(CompletableFuture.failedFuture(new IllegalStateException("저장소에서 지우는 중인 이미지입니다")));
+
+        // when: POST /api/menus 호출 시 비동기 처리가 시작된다
+        MvcResult mvcResult = mockMvc.perform(multipart("/api/menus")
+                        .param("menuName", "메뉴")
+                        .param("menuPrice", "1000")
+                        .param("menuDescription", "설명")
+                        .param("categoryCode", "1")
+                        .param("menuStock", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then: 충돌로 응답한다
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("JSON 일괄 메뉴 등록 API 호출 시 등록된 메뉴 목록이 반환된다")
+    void should_ReturnMenus_when_RegisterMenusAsJson() throws Exception {
+        // given: Service에서 반환할 등록 결과를 준비한다
+        List<MenuDTO> registered = List.of(
+                new MenuDTO(1L, "비빔밥", 9000, null, "Y", new CategoryDTO(1L, "식사"), null, 10),
+                new MenuDTO(2L, "국밥", 8000, null, "Y", new CategoryDTO(1L, "식사"), null, 5));
+        given(menuService.registerMenus(anyList(), anyMap())).willReturn(registered);
+
+        // when & then: POST /api/menus/batch 호출 시 등록된 메뉴 목록이 반환된다
+        mockMvc.perform(post("/api/menus/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"menuName\":\"비빔밥\",\"menuPrice\":9000,\"categoryCode\":1,\"menuStock\":10},"
+                                + "{\"menuName\":\"국밥\",\"menuPrice\":8000,\"categoryCode\":1,\"menuStock\":5}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].menuCode").value(2));
+
+        verify(menuService).registerMenus(argThat(menus -> menus.size() == 2), eq(Map.of()));
+    }
+
+    @Test
+    @DisplayName("multipart 일괄 메뉴 등록 시 이미지가 원본 파일명으로 메뉴와 연결된다")
+    void should_PassImagesByName_when_RegisterMenusWithImages() throws Exception {
+        // given: 메뉴 JSON 파트와 이미지 파트를 준비한다
+        MockMultipartFile menusPart = new MockMultipartFile("menus", "", MediaType.APPLICATION_JSON_VALUE,
+                "[{\"menuName\":\"비빔밥\",\"menuPrice\":9000,\"categoryCode\":1,\"menuStock\":10,\"imageName\":\"bibimbap.jpg\"}]"
+                        .getBytes(StandardCharsets.UTF_8));
+        MockMultipartFile imagePart = new MockMultipartFile("images", "bibimbap.jpg", "image/jpeg", "image".getBytes());
+        given(menuService.registerMenus(anyList(), anyMap())).willReturn(List.of(
+                new MenuDTO(1L, "비빔밥", 9000, null, "Y", null, "uploaded.jpg", 10)));
+
+        // when & then: 이미지가 파일명으로 전달되고 등록 결과가 반환된다
+        mockMvc.perform(multipart("/api/menus/batch")
+                        .file(menusPart)
+                        .file(imagePart))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].menuImageUrl").value("uploaded.jpg"));
+
+        verify(menuService).registerMenus(argThat(menus -> "bibimbap.jpg".equals(menus.get(0).getImageName())),
+                argThat(images -> images.containsKey("bibimbap.jpg")));
+    }
+
+    @Test
+    @DisplayName("이미지 업로드 URL 발급 API 호출 시 서명된 URL이 캐시 금지로 반환된다")
+    void should_ReturnPresignedUpload_when_PresignImageUpload() throws Exception {
+        // given: Service에서 반환할 업로드 정보를 준비한다
+        PresignedUploadDTO upload = new PresignedUploadDTO("abc.png", "https://bucket.s3.amazonaws.com/abc.png?X-Amz-Signature=sig",
+                Map.of("content-type", "image/png"), Instant.parse("2025-01-01T00:10:00Z"));
+        given(menuService.presignImageUpload("image/png", 2048L)).willReturn(upload);
+
+        // when & then: 업로드 정보가 반환된다
+        mockMvc.perform(post("/api/menus/images/presign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"contentType\":\"image/png\",\"contentLength\":2048}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"))
+                .andExpect(jsonPath("$.imageKey").value("abc.png"))
+                .andExpect(jsonPath("$.headers.content-type").value("image/png"));
+    }
+
+    @Test
+    @DisplayName("S3 환경이 아니면 이미지 업로드 URL 발급 API는 409를 반환한다")
+    void should_Return409_when_PresignOutsideAws() throws Exception {
+        // given: 직접 업로드를 쓸 수 없는 환경을 준비한다
+        given(menuService.presignImageUpload(anyString(), anyLong()))
+                .willThrow(new IllegalStateException("이미지 직접 업로드는 S3 환경에서만 사용할 수 있습니다."));
+
+        // when & then: 409가 반환된다
+        mockMvc.perform(post("/api/menus/images/presign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"contentType\":\"image/png\",\"contentLength\":2048}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("JSON 메뉴 등록 API 호출 시 직접 업로드한 이미지 키로 등록된다")
+    void should_RegisterMenuWithImageKey_when_PostMenuAsJson() throws Exception {
+        // given: Service에서 반환할 등록 결과를 준비한다
+        MenuDTO registered = new MenuDTO(1L, "비빔밥", 9000, null, "Y", new CategoryDTO(1L, "식사"),
+                "https://bucket.s3.amazonaws.com/abc.png", 10);
+        given(menuService.registerMenuWithUploadedImageAsync("비빔밥", 9000, null, 1L, 10, "abc.png"))
+                .willReturn(CompletableFuture.completedFuture(registered));
+
+        // when: JSON으로 POST /api/menus 호출 시 비동기 처리가 시작된다
+        MvcResult mvcResult = mockMvc.perform(post("/api/menus")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"menuName\":\"비빔밥\",\"menuPrice\":9000,\"categoryCode\":1,"
+                                + "\"menuStock\":10,\"imageKey\":\"abc.png\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then: 확인된 이미지 URL로 등록된 메뉴가 반환된다
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.menuImageUrl").value("https://bucket.s3.amazonaws.com/abc.png"));
+
+        verify(menuService, never()).registerMenuAsync(any(), any(), any(), any(), any(), any());
+    }
+
     @Test
     @DisplayName("메뉴 삭제 API 호출 시 정상적으로 삭제된다")
     void should_DeleteMenu_when_DeleteMenuById() throws Exception {
@@ -177,4 +501,78 @@ class MenuControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    @DisplayName("재고 차감 API 호출 시 차감 후 메뉴가 반환된다")
+    void should_ReturnMenu_when_DecrementStock() throws Exception {
+        // given: 차감 후 메뉴 DTO를 준비한다
+        MenuDTO menu = new MenuDTO(1L, "아메리카노", 3000, null, "N", null, null, 0);
+        given(menuService.decrementStock(1L, 2)).willReturn(menu);
+
+        // when & then: 차감 후 재고와 주문 가능 여부가 반환된다
+        mockMvc.perform(post("/api/menus/{id}/stock/decrement", 1L)
+                        .param("quantity", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.menuStock").value(0))
+                .andExpect(jsonPath("$.menuOrderable").value("N"));
+    }
+
+    @Test
+    @DisplayName("재고가 부족하면 409, 수량이 1보다 작으면 400이 반환된다")
+    void should_Return409Or400_when_DecrementStockFails() throws Exception {
+        // given: 재고 부족 예외를 던지도록 설정한다
+        given(menuService.decrementStock(1L, 5))
+                .willThrow(new IllegalStateException("재고가 부족합니다: 1"));
+
+        // when & then: 재고 부족은 409, 잘못된 수량은 400이 반환된다
+        mockMvc.perform(post("/api/menus/{id}/stock/decrement", 1L)
+                        .param("quantity", "5"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/api/menus/{id}/stock/decrement", 1L)
+                        .param("quantity", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(menuService, never()).decrementStock(1L, 0);
+    }
+
+    @Test
+    @DisplayName("일괄 재고 차감 API 호출 시 차감된 메뉴 목록이 반환된다")
+    void should_ReturnMenus_when_DecrementStocks() throws Exception {
+        // given: 차감 후 메뉴 DTO 목록을 준비한다
+        List<MenuDTO> menus = List.of(
+                new MenuDTO(1L, "아메리카노", 3000, null, "Y", null, null, 8),
+                new MenuDTO(2L, "라떼", 4000, null, "Y", null, null, 4));
+        given(menuService.decrementStocks(anyList())).willReturn(menus);
+
+        // when & then: 메뉴 목록이 반환된다
+        mockMvc.perform(post("/api/menus/stock/decrement")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"menuCode\":1,\"quantity\":2},{\"menuCode\":2,\"quantity\":1}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].menuStock").value(8))
+                .andExpect(jsonPath("$[1].menuStock").value(4));
+    }
+
+    @Test
+    @DisplayName("일괄 재고 차감 요청에 잘못된 항목이 있으면 400이 반환된다")
+    void should_Return400_when_DecrementStocksWithInvalidItem() throws Exception {
+        // when & then: 수량이 없는 항목이 있으면 Service를 호출하지 않고 400이 반환된다
+        mockMvc.perform(post("/api/menus/stock/decrement")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"menuCode\":1}]"))
+                .andExpect(status().isBadRequest());
+
+        verify(menuService, never()).decrementStocks(anyList());
+    }
+
+    // 웹 계층 테스트에는 지표 설정이 없으므로 메모리 레지스트리를 넣는다
+    @TestConfiguration
+    static class MetricsConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
 } 
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.ohgiraffers.awsdeploy.integration;
 
 import com.ohgiraffers.awsdeploy.dto.CategoryDTO;
 import com.ohgiraffers.awsdeploy.dto.MenuDTO;
+import com.ohgiraffers.awsdeploy.dto.MenuRegisterRequestDTO;
 import com.ohgiraffers.awsdeploy.entity.Category;
 import com.ohgiraffers.awsdeploy.repository.CategoryRepository;
 import com.ohgiraffers.awsdeploy.service.CategoryService;
@@ -13,7 +14,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -134,4 +137,25 @@ class ApplicationIntegrationTest {
         assertThat(foundMenu.getMenuCode()).isEqualTo(newMenu.getMenuCode());
         assertThat(foundMenu.getMenuName()).isEqualTo("서비스테스트메뉴");
     }
+
+    @Test
+    @DisplayName("일괄 메뉴 등록 시 모든 메뉴가 시퀀스로 할당된 코드와 함께 저장된다")
+    void should_RegisterAllMenus_when_RegisterMenusInBatch() {
+        // Given: 테스트용 카테고리와 시퀀스 할당 크기보다 많은 메뉴 등록 요청
+        Category savedCategory = categoryRepository.save(new Category("일괄등록카테고리"));
+        List<MenuRegisterRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            requests.add(new MenuRegisterRequestDTO("일괄메뉴" + i, 1000 + i, null,
+                    savedCategory.getCategoryCode(), 10, null));
+        }
+
+        // When: 메뉴를 일괄 등록
+        List<MenuDTO> registered = menuService.registerMenus(requests, Map.of());
+
+        // Then: 요청 순서대로 서로 다른 메뉴 코드가 할당되고 조회된다
+        assertThat(registered).hasSize(120);
+        assertThat(registered).extracting(MenuDTO::getMenuCode).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(registered.get(0).getMenuName()).isEqualTo("일괄메뉴0");
+        assertThat(menuService.findOrderableMenusByCategory(savedCategory.getCategoryCode())).hasSize(120);
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.ohgiraffers.awsdeploy.integration;
+
+import com.ohgiraffers.awsdeploy.Chap02AwsDeployApplication;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.CoreMigrationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 스키마 마이그레이션 테스트
+ *
+ * 운영 DB와 같은 경로를 그대로 밟는다. 마이그레이션 도입 전 schema.sql로 만든 PostgreSQL DB에 데이터가 있는 상태에서
+ * 기본 설정(Flyway baseline-on-migrate, ddl-auto: validate)으로 애플리케이션을 띄우면
+ * V1로 baseline 된 뒤 이후 버전이 모두 적용되고, 엔티티 매핑 검증을 통과해야 한다.
+ * H2는 PostgreSQL 전용 마이그레이션(SERIAL 시퀀스 변경 등)을 실행하지 못하므로 Docker의 PostgreSQL로 돌리고, Docker가 없으면 건너뛴다.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("스키마 마이그레이션 테스트")
+class FlywayMigrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // 마이그레이션 도입 전 애플리케이션이 시작할 때 실행하던 schema.sql 그대로 DB를 만든다
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        new ResourceDatabasePopulator(new ClassPathResource("db/baseline/schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    @DisplayName("schema.sql로 만든 DB는 V1로 baseline 된 뒤 이후 마이그레이션이 적용되고 스키마 검증을 통과한다")
+    void should_MigrateAndValidate_when_DatabaseCreatedByBaselineSchema() {
+        // given: 운영 중 쌓인 카테고리와 메뉴
+        jdbcTemplate.update("INSERT INTO tbl_category (category_name) VALUES ('식사')");
+        jdbcTemplate.update("INSERT INTO tbl_menu (menu_name, menu_price, menu_orderable, category_code, menu_stock) "
+                + "VALUES ('김치찌개', 8000, 'Y', 1, 5)");
+
+        // when: 운영과 같은 기본 설정(Flyway + ddl-auto: validate)으로 애플리케이션을 띄운다
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Chap02AwsDeployApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + POSTGRES.getJdbcUrl(),
+                "--spring.datasource.username=" + POSTGRES.getUsername(),
+                "--spring.datasource.password=" + POSTGRES.getPassword())) {
+            Flyway flyway = context.getBean(Flyway.class);
+
+            // then: 모든 버전이 적용되었고 (검증에 실패했다면 시작하지 못한다) 기존 데이터는 그대로다
+            assertThat(context.isRunning()).isTrue();
+            assertThat(flyway.info().applied()[0].getType()).isEqualTo(CoreMigrationType.BASELINE);
+            assertThat(flyway.info().applied()[0].getVersion().getVersion()).isEqualTo("1");
+            assertThat(flyway.info().pending()).isEmpty();
+            assertThat(jdbcTemplate.queryForObject("SELECT menu_name FROM tbl_menu", String.class)).isEqualTo("김치찌개");
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tbl_image_object", Integer.class)).isZero();
+        }
+    }
+}
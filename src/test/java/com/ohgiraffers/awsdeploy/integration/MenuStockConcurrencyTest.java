@@ -0,0 +1,130 @@
+package com.ohgiraffers.awsdeploy.integration;
+
+import com.ohgiraffers.awsdeploy.dto.StockDecrementRequestDTO;
+import com.ohgiraffers.awsdeploy.entity.Category;
+import com.ohgiraffers.awsdeploy.entity.Menu;
+import com.ohgiraffers.awsdeploy.repository.CategoryRepository;
+import com.ohgiraffers.awsdeploy.repository.MenuRepository;
+import com.ohgiraffers.awsdeploy.service.MenuService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 메뉴 재고 동시성 테스트
+ *
+ * 여러 스레드가 동시에 같은 메뉴의 재고를 차감해도 재고 이상으로 팔리지 않는지 검증한다.
+ * 각 스레드가 자기 트랜잭션을 커밋해야 하므로 테스트 트랜잭션을 사용하지 않고, 만든 데이터는 직접 지운다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("메뉴 재고 동시성 테스트")
+class MenuStockConcurrencyTest {
+
+    private static final int THREAD_COUNT = 200;
+    private static final int INITIAL_STOCK = 50;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category category;
+    private final List<Long> menuCodes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.save(new Category("동시성테스트"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        menuRepository.deleteAllById(menuCodes);
+        categoryRepository.delete(category);
+        menuCodes.clear();
+    }
+
+    @Test
+    @DisplayName("200개 스레드가 동시에 차감해도 재고만큼만 성공하고 재고는 음수가 되지 않는다")
+    void should_NotOversell_when_ConcurrentDecrements() throws Exception {
+        // given: 재고가 50개인 메뉴와 동시에 출발하는 200개 스레드를 준비한다
+        Long menuCode = saveMenu("한정메뉴", INITIAL_STOCK);
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch ready = new CountDownLatch(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        // when: 모든 스레드가 1개씩 차감한다
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            executor.submit(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                    menuService.decrementStock(menuCode, 1);
+                    succeeded.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    soldOut.incrementAndGet();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                }
+            });
+        }
+        ready.await();
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        // then: 정확히 재고만큼만 성공하고, 재고는 0이 되며 주문 불가로 바뀐다
+        Menu menu = menuRepository.findById(menuCode).orElseThrow();
+        assertThat(failed.get()).isZero();
+        assertThat(succeeded.get()).isEqualTo(INITIAL_STOCK);
+        assertThat(soldOut.get()).isEqualTo(THREAD_COUNT - INITIAL_STOCK);
+        assertThat(menu.getMenuStock()).isZero();
+        assertThat(menu.getMenuOrderable()).isEqualTo("N");
+    }
+
+    @Test
+    @DisplayName("일괄 차감 중 하나라도 재고가 부족하면 모든 차감이 롤백된다")
+    void should_RollbackAll_when_AnyItemOutOfStock() {
+        // given: 재고가 충분한 메뉴와 부족한 메뉴를 준비한다
+        Long enoughCode = saveMenu("넉넉한메뉴", 5);
+        Long shortCode = saveMenu("부족한메뉴", 1);
+
+        // when & then: 일괄 차감 시 예외가 발생한다
+        assertThatThrownBy(() -> menuService.decrementStocks(List.of(
+                new StockDecrementRequestDTO(enoughCode, 2),
+                new StockDecrementRequestDTO(shortCode, 3))))
+                .isInstanceOf(IllegalStateException.class);
+
+        // then: 먼저 차감된 메뉴의 재고도 원래대로 남아 있다
+        assertThat(menuRepository.findById(enoughCode).orElseThrow().getMenuStock()).isEqualTo(5);
+        assertThat(menuRepository.findById(shortCode).orElseThrow().getMenuStock()).isEqualTo(1);
+    }
+
+    private Long saveMenu(String menuName, int stock) {
+        Menu menu = menuRepository.save(new Menu(menuName, 1000, null, category, null, stock));
+        menuCodes.add(menu.getMenuCode());
+        return menu.getMenuCode();
+    }
+}
@@ -0,0 +1,165 @@
+package com.ohgiraffers.awsdeploy.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import com.ohgiraffers.awsdeploy.config.SqlStatsFilter;
+import com.ohgiraffers.awsdeploy.entity.Category;
+import com.ohgiraffers.awsdeploy.entity.Menu;
+import com.ohgiraffers.awsdeploy.repository.CategoryRepository;
+import com.ohgiraffers.awsdeploy.repository.MenuRepository;
+import com.ohgiraffers.awsdeploy.service.MenuCatalogCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 요청별 SQL 문 수 테스트
+ *
+ * 조회 API가 메뉴 수와 관계없이 정해진 수의 SQL만 실행하는지 X-SQL-Count 응답 헤더로 검증한다.
+ * 연관 엔티티를 하나씩 읽는 N+1 조회가 생기면 메뉴 수만큼 SQL이 늘어나 테스트가 실패한다.
+ * 메뉴 목록 캐시가 DB 조회를 가리지 않도록 요청마다 캐시를 비운다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("요청별 SQL 문 수 테스트")
+class SqlStatementCountTest {
+
+    private static final int MENU_COUNT = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MenuCatalogCache menuCatalogCache;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private final List<Category> categories = new ArrayList<>();
+    private final List<Long> menuCodes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // 카테고리 둘에 메뉴를 나눠 담아 메뉴마다 카테고리를 따로 읽으면 SQL 수가 드러나게 한다
+        categories.add(categoryRepository.save(new Category("SQL테스트-한식")));
+        categories.add(categoryRepository.save(new Category("SQL테스트-양식")));
+        for (int i = 0; i < MENU_COUNT; i++) {
+            Menu menu = menuRepository.save(new Menu("SQL테스트메뉴" + i, 1000 + i, null,
+                    categories.get(i % 2), "menu-" + i + ".png", 10));
+            menuCodes.add(menu.getMenuCode());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        menuRepository.deleteAllById(menuCodes);
+        categoryRepository.deleteAll(categories);
+        menuCodes.clear();
+        categories.clear();
+        menuCatalogCache.invalidate();
+    }
+
+    @Test
+    @DisplayName("GET /api/menus는 메뉴 수와 관계없이 SQL을 1개만 실행한다")
+    void should_ExecuteOneStatement_when_GetAllMenus() throws Exception {
+        // when & then: 전체 메뉴 목록을 조회한다
+        assertThat(statementCount(get("/api/menus"))).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("GET /api/menus?limit=은 한 페이지를 SQL 1개로 조회한다")
+    void should_ExecuteOneStatement_when_GetMenuPage() throws Exception {
+        // when & then: 메뉴 전체를 한 페이지로 조회한다
+        assertThat(statementCount(get("/api/menus").param("limit", String.valueOf(MENU_COUNT)))).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("GET /api/menus/{menuCode}는 SQL을 1개만 실행한다")
+    void should_ExecuteOneStatement_when_GetMenuByCode() throws Exception {
+        // when & then: 메뉴 하나를 조회한다
+        assertThat(statementCount(get("/api/menus/{menuCode}", menuCodes.get(0)))).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("GET /api/categories/{categoryCode}/menus는 카테고리 확인과 메뉴 조회 SQL 2개만 실행한다")
+    void should_ExecuteTwoStatements_when_GetMenusByCategory() throws Exception {
+        // when & then: 카테고리의 메뉴 목록을 조회한다
+        long count = statementCount(get("/api/categories/{categoryCode}/menus", categories.get(0).getCategoryCode()));
+        assertThat(count).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("POST /api/menus/batch는 메뉴 수만큼 SQL을 실행하지 않고 한 번에 저장한다")
+    void should_NotScaleWithMenuCount_when_RegisterMenus() throws Exception {
+        // given: 이미지 없이 등록할 메뉴 20개
+        StringJoiner body = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < MENU_COUNT; i++) {
+            body.add("{\"menuName\":\"SQL테스트일괄" + i + "\",\"menuPrice\":1000,\"categoryCode\":"
+                    + categories.get(i % 2).getCategoryCode() + ",\"menuStock\":5}");
+        }
+
+        // when: 한 번에 등록한다
+        MvcResult result = mockMvc.perform(post("/api/menus/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.toString()))
+                .andReturn();
+        List<Number> registered = JsonPath.read(result.getResponse().getContentAsString(), "$[*].menuCode");
+        registered.forEach(menuCode -> menuCodes.add(menuCode.longValue()));
+
+        // then: 카테고리 확인, 시퀀스 할당, 배치 INSERT만 실행한다
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        assertThat(registered).hasSize(MENU_COUNT);
+        assertThat(Long.parseLong(result.getResponse().getHeader(SqlStatsFilter.COUNT_HEADER))).isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("요청별 SQL 문 수를 엔드포인트 패턴 태그로 지표에 남긴다")
+    void should_RecordMetric_when_RequestCompletes() throws Exception {
+        // given: 같은 컨텍스트를 쓰는 다른 테스트가 남긴 지표
+        long before = requestCount("/api/menus/{menuCode}");
+
+        // when: 메뉴 하나를 조회한다
+        statementCount(get("/api/menus/{menuCode}", menuCodes.get(0)));
+
+        // then: 실제 경로가 아닌 매핑 패턴으로 기록된다
+        assertThat(requestCount("/api/menus/{menuCode}")).isEqualTo(before + 1);
+    }
+
+    private long statementCount(RequestBuilder request) throws Exception {
+        menuCatalogCache.invalidate();
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn();
+        return Long.parseLong(result.getResponse().getHeader(SqlStatsFilter.COUNT_HEADER));
+    }
+
+    private long requestCount(String uri) {
+        var summary = meterRegistry.find("http.server.sql.statements").tags("method", "GET", "uri", uri).summary();
+        return summary == null ? 0 : summary.count();
+    }
+}
@@ -0,0 +1,68 @@
+package com.ohgiraffers.awsdeploy.integration;
+
+import com.ohgiraffers.awsdeploy.Chap02AwsDeployApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 애플리케이션 시작 시간 테스트
+ *
+ * 애플리케이션을 실제로 띄워 ApplicationReadyEvent(요청을 받을 준비가 된 시점)까지 걸린 시간을 잰다.
+ * 시작할 때 DB를 다시 만들거나 무거운 초기화를 넣는 변경이 들어오면 기준 시간을 넘어 테스트가 실패한다.
+ * 다른 테스트 컨텍스트가 쓰는 H2 DB를 지우지 않도록 별도 인메모리 DB로 띄운다.
+ * H2 스키마는 Hibernate가 만들므로 운영의 Flyway 마이그레이션과 스키마 검증 경로는 FlywayMigrationTest가 확인한다.
+ */
+@DisplayName("애플리케이션 시작 시간 테스트")
+class StartupTimeTest {
+
+    // CI 장비 차이를 고려한 시작 시간 상한 (./gradlew test -PstartupBudgetSeconds=40 처럼 조정)
+    private static final Duration STARTUP_BUDGET = Duration.ofSeconds(Long.getLong("startup.budget-seconds", 20));
+
+    @Test
+    @DisplayName("애플리케이션은 기준 시간 안에 요청을 받을 준비가 된다")
+    void should_BecomeReady_when_WithinStartupBudget() {
+        // given: 시작 단계별 시간을 모으는 애플리케이션
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(4096);
+        AtomicLong readyAt = new AtomicLong();
+        SpringApplicationBuilder application = new SpringApplicationBuilder(Chap02AwsDeployApplication.class)
+                .applicationStartup(startup)
+                .listeners((ApplicationListener<ApplicationReadyEvent>) event -> readyAt.set(System.nanoTime()));
+
+        // when: 애플리케이션을 띄운다
+        long startedAt = System.nanoTime();
+        try (ConfigurableApplicationContext context = application.run(
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.jpa.show-sql=false")) {
+            Duration timeToReady = Duration.ofNanos(readyAt.get() - startedAt);
+
+            // then: 준비 시간이 기준 안이고, 넘으면 오래 걸린 시작 단계를 함께 보여준다
+            assertThat(context.isRunning()).isTrue();
+            assertThat(timeToReady)
+                    .as("시작에 %dms 걸렸다. 오래 걸린 단계:%n%s", timeToReady.toMillis(), slowestSteps(startup.getBufferedTimeline()))
+                    .isLessThan(STARTUP_BUDGET);
+        }
+    }
+
+    private static String slowestSteps(StartupTimeline timeline) {
+        return timeline.getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(10)
+                .map(event -> event.getDuration().toMillis() + "ms " + event.getStartupStep().getName())
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+}
@@ -0,0 +1,90 @@
+package com.ohgiraffers.awsdeploy.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 정적 자원 서빙 테스트
+ *
+ * 빌드(processResources)가 index.html의 CSS/JS 참조를 내용 해시가 붙은 이름으로 바꾸고,
+ * 그 자원이 미리 압축한 본문과 immutable 캐시 헤더로 서빙되는지 검증한다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("정적 자원 서빙 테스트")
+class StaticAssetTest {
+
+    private static final Pattern STYLE_ASSET = Pattern.compile("assets/style\\.[0-9a-f]{12}\\.css");
+    private static final Pattern SCRIPT_ASSET = Pattern.compile("assets/menu\\.[0-9a-f]{12}\\.js");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("index.html은 지문이 붙은 자원을 참조하고 매번 재검증한다")
+    void should_referenceFingerprintedAssets_when_indexRequested() throws Exception {
+        // given: 빌드가 바꾼 index.html
+
+        // when: index.html 조회
+        MvcResult result = mockMvc.perform(get("/index.html"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // then: 원래 경로 대신 해시가 붙은 경로를 참조하고, 캐시는 재검증한다
+        String html = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(STYLE_ASSET.matcher(html).find()).isTrue();
+        assertThat(SCRIPT_ASSET.matcher(html).find()).isTrue();
+        assertThat(html).doesNotContain("\"css/style.css\"", "\"js/menu.js\"");
+        assertThat(result.getResponse().getHeader(HttpHeaders.CACHE_CONTROL)).contains("no-cache");
+    }
+
+    @Test
+    @DisplayName("지문이 붙은 자원은 gzip 압축본과 immutable 캐시 헤더로 응답한다")
+    void should_servePrecompressedImmutableAsset_when_gzipAccepted() throws Exception {
+        // given: index.html이 참조하는 CSS 경로
+        String html = mockMvc.perform(get("/index.html"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        Matcher matcher = STYLE_ASSET.matcher(html);
+        assertThat(matcher.find()).isTrue();
+
+        // when & then: gzip을 받는 클라이언트는 미리 만든 .gz 본문을 받는다
+        mockMvc.perform(get("/" + matcher.group())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    @DisplayName("압축을 받지 않는 클라이언트는 원본 자원을 받는다")
+    void should_serveIdentityAsset_when_encodingNotAccepted() throws Exception {
+        // given: index.html이 참조하는 JS 경로
+        String html = mockMvc.perform(get("/index.html"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        Matcher matcher = SCRIPT_ASSET.matcher(html);
+        assertThat(matcher.find()).isTrue();
+
+        // when & then: Content-Encoding 없이 원본을 받는다
+        mockMvc.perform(get("/" + matcher.group()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+    }
+}
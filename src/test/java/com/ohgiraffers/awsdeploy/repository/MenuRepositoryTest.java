@@ -1,5 +1,6 @@
 package com.ohgiraffers.awsdeploy.repository;
 
+import com.ohgiraffers.awsdeploy.dto.MenuDTO;
 import com.ohgiraffers.awsdeploy.entity.Category;
 import com.ohgiraffers.awsdeploy.entity.Menu;
 import org.junit.jupiter.api.DisplayName;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.TestPropertySource;
 
 import java.util.List;
@@ -73,6 +75,72 @@ class MenuRepositoryTest {
         assertThat(orderableMenus).allMatch(menu -> "Y".equals(menu.getMenuOrderable()));
     }
 
+    @Test
+    @DisplayName("커서 이후의 주문 가능한 메뉴가 최신순으로 limit개만 조회된다")
+    void should_ReturnNextPage_when_FindOrderableMenusAfter() {
+        // given: 주문 가능한 메뉴 4개와 주문 불가능한 메뉴 1개를 준비한다
+        Category category = new Category("식사");
+        entityManager.persistAndFlush(category);
+
+        Menu[] menus = new Menu[5];
+        for (int i = 0; i < menus.length; i++) {
+            Menu menu = new Menu();
+            menu.setMenuName("메뉴" + i);
+            menu.setMenuPrice(1000 * (i + 1));
+            menu.setMenuOrderable(i == 2 ? "N" : "Y");
+            menu.setCategory(category);
+            menu.setMenuStock(10);
+            menus[i] = entityManager.persistAndFlush(menu);
+        }
+
+        // when: 첫 페이지와 그 다음 페이지를 조회한다
+        List<MenuDTO> firstPage = menuRepository.findOrderableMenuDTOsAfter(Long.MAX_VALUE, Limit.of(2));
+        List<MenuDTO> secondPage = menuRepository.findOrderableMenuDTOsAfter(
+                firstPage.get(firstPage.size() - 1).getMenuCode(), Limit.of(2));
+
+        // then: 주문 불가능한 메뉴를 건너뛰고 중복 없이 최신순으로 이어진다
+        assertThat(firstPage).extracting(MenuDTO::getMenuName).containsExactly("메뉴4", "메뉴3");
+        assertThat(secondPage).extracting(MenuDTO::getMenuName).containsExactly("메뉴1", "메뉴0");
+    }
+
+    @Test
+    @DisplayName("DTO 프로젝션 조회 시 카테고리 정보까지 한 번에 채워진다")
+    void should_ReturnMenuDTOWithCategory_when_FindMenuDTOById() {
+        // given: 카테고리가 있는 메뉴와 없는 메뉴를 준비한다
+        Category category = new Category("디저트");
+        entityManager.persistAndFlush(category);
+
+        Menu menu = new Menu();
+        menu.setMenuName("케이크");
+        menu.setMenuPrice(8000);
+        menu.setMenuOrderable("Y");
+        menu.setCategory(category);
+        menu.setMenuStock(3);
+        Menu savedMenu = entityManager.persistAndFlush(menu);
+
+        Menu uncategorized = new Menu();
+        uncategorized.setMenuName("미분류메뉴");
+        uncategorized.setMenuPrice(1000);
+        uncategorized.setMenuOrderable("Y");
+        uncategorized.setMenuStock(1);
+        Menu savedUncategorized = entityManager.persistAndFlush(uncategorized);
+        entityManager.clear();
+
+        // when: DTO로 조회한다
+        Optional<MenuDTO> found = menuRepository.findMenuDTOById(savedMenu.getMenuCode());
+        Optional<MenuDTO> foundUncategorized = menuRepository.findMenuDTOById(savedUncategorized.getMenuCode());
+
+        // then: 카테고리 정보가 채워지고, 카테고리가 없는 메뉴도 조회된다
+        assertThat(found).isPresent();
+        assertThat(found.get().getMenuName()).isEqualTo("케이크");
+        assertThat(found.get().getCategory().getCategoryName()).isEqualTo("디저트");
+        assertThat(foundUncategorized).isPresent();
+        assertThat(foundUncategorized.get().getCategory()).isNull();
+        assertThat(menuRepository.findMenuDTOsByCategoryCode(category.getCategoryCode()))
+                .extracting(MenuDTO::getMenuName)
+                .containsExactly("케이크");
+    }
+
     @Test
     @DisplayName("카테고리별 메뉴 조회 시 해당 카테고리의 주문 가능한 메뉴만 조회된다")
     void should_ReturnMenusByCategory_when_FindMenusByCategoryCode() {
@@ -186,4 +254,30 @@ class MenuRepositoryTest {
         Optional<Menu> deletedMenu = menuRepository.findById(menuId);
         assertThat(deletedMenu).isEmpty();
     }
+
+    @Test
+    @DisplayName("재고 차감은 재고가 충분할 때만 적용되고, 0이 되면 주문 불가로 바뀐다")
+    void should_DecrementOnlyWhenEnoughStock_when_DecrementStock() {
+        // given: 재고가 3개인 주문 가능한 메뉴를 준비한다
+        Menu menu = new Menu();
+        menu.setMenuName("한정메뉴");
+        menu.setMenuPrice(5000);
+        menu.setMenuOrderable("Y");
+        menu.setMenuStock(3);
+        Long menuCode = entityManager.persistAndFlush(menu).getMenuCode();
+
+        // when: 2개, 2개, 1개 순서로 차감한다
+        int first = menuRepository.decrementStock(menuCode, 2);
+        int second = menuRepository.decrementStock(menuCode, 2);
+        int third = menuRepository.decrementStock(menuCode, 1);
+
+        // then: 재고가 부족한 두 번째 차감만 적용되지 않고, 재고가 0이 되면서 주문 불가가 된다
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(third).isEqualTo(1);
+        Menu found = menuRepository.findById(menuCode).orElseThrow();
+        assertThat(found.getMenuStock()).isZero();
+        assertThat(found.getMenuOrderable()).isEqualTo("N");
+        assertThat(menuRepository.decrementStock(menuCode, 1)).isZero();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,253 @@
+package com.ohgiraffers.awsdeploy.service;
+
+import com.ohgiraffers.awsdeploy.entity.ImageDeletion;
+import com.ohgiraffers.awsdeploy.entity.ImageObject;
+import com.ohgiraffers.awsdeploy.repository.ImageDeletionRepository;
+import com.ohgiraffers.awsdeploy.repository.ImageObjectRepository;
+import com.ohgiraffers.awsdeploy.util.FileUploadUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+/**
+ * ImageDeletionService 단위 테스트
+ * 삭제 대기열의 배치 처리, 다시 참조된 이미지 건너뛰기, 재시도 간격, 대기열 메트릭을 테스트한다
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImageDeletionService 테스트")
+class ImageDeletionServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-07-01T00:00:00Z");
+
+    @Mock
+    private ImageDeletionRepository imageDeletionRepository;
+
+    @Mock
+    private ImageObjectRepository imageObjectRepository;
+
+    @Mock
+    private S3Service s3Service;
+
+    @Mock
+    private FileUploadUtils fileUploadUtils;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // 트랜잭션 콜백을 실행하는 중인지 (저장소 요청이 트랜잭션 밖에서 나가는지 확인한다)
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+
+    private ImageDeletionService imageDeletionService;
+
+    @BeforeEach
+    void setUp() {
+        imageDeletionService = deletionService(Duration.ofSeconds(30));
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            inTransaction.set(true);
+            try {
+                return invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            } finally {
+                inTransaction.set(false);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("참조가 없는 이미지는 한 번의 일괄 삭제로 지우고 대기열과 참조 행에서 뺀다")
+    void should_DeleteUnreferencedImages_when_DrainBatch() {
+        // given: 삭제를 기다리는 이미지 두 개 (하나는 참조 행이 0으로 남아 있다)
+        ImageDeletion first = deletion(1L, "a.png");
+        ImageDeletion second = deletion(2L, "b.png");
+        ImageObject pending = new ImageObject("a.png");
+        pending.decreaseRefCount();
+        given(imageDeletionRepository.findDueForUpdate(NOW, Limit.of(10))).willReturn(List.of(first, second));
+        given(imageObjectRepository.findAllByIdForUpdate(Set.of("a.png", "b.png"))).willReturn(List.of(pending));
+        given(imageDeletionRepository.findAllById(List.of(1L, 2L))).willReturn(List.of(first, second));
+        given(s3Service.deleteFilesAsync(Set.of("a.png", "b.png"))).willReturn(CompletableFuture.completedFuture(Set.of()));
+
+        // when: 한 배치를 처리한다
+        int processed = imageDeletionService.drainBatch(NOW);
+
+        // then: 두 이미지를 지우고 대기열과 참조 행을 정리한다
+        assertThat(processed).isEqualTo(2);
+        verify(s3Service, times(1)).deleteFilesAsync(any());
+        verify(imageObjectRepository).deleteUnreferenced(Set.of("a.png", "b.png"));
+        verify(imageDeletionRepository).deleteByIds(List.of(1L, 2L));
+        assertThat(pending.getDeletingUntil()).isNull();
+        assertThat(meterRegistry.counter("image.deletion.processed", "result", "deleted").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("저장소 요청은 작업을 가져온 트랜잭션이 끝난 뒤 트랜잭션 밖에서 보내고, 결과는 새 트랜잭션에 기록한다")
+    void should_CallStorageOutsideTransaction_when_DrainBatch() {
+        // given: 참조 수가 0인 이미지의 삭제 작업
+        ImageDeletion deletion = deletion(1L, "a.png");
+        ImageObject pending = new ImageObject("a.png");
+        pending.markStored();
+        pending.decreaseRefCount();
+        given(imageDeletionRepository.findDueForUpdate(NOW, Limit.of(10))).willReturn(List.of(deletion));
+        given(imageObjectRepository.findAllByIdForUpdate(Set.of("a.png"))).willReturn(List.of(pending));
+        given(imageDeletionRepository.findAllById(List.of(1L))).willReturn(List.of(deletion));
+        given(s3Service.deleteFilesAsync(Set.of("a.png"))).willAnswer(invocation -> {
+            // 요청 중에는 트랜잭션이 없고, 작업과 이미지에는 임대가 걸려 있다
+            assertThat(inTransaction).isFalse();
+            assertThat(deletion.getNextAttemptAt()).isEqualTo(NOW.plusSeconds(60));
+            assertThat(pending.isDeleting(NOW)).isTrue();
+            assertThat(pending.isStored()).isFalse();
+            return CompletableFuture.completedFuture(Set.of());
+        });
+
+        // when: 한 배치를 처리한다
+        imageDeletionService.drainBatch(NOW);
+
+        // then: 가져오기와 결과 기록이 각각 짧은 트랜잭션으로 나뉜다
+        InOrder order = inOrder(transactionTemplate, s3Service);
+        order.verify(transactionTemplate).execute(any());
+        order.verify(s3Service).deleteFilesAsync(Set.of("a.png"));
+        order.verify(transactionTemplate).execute(any());
+        verify(imageDeletionRepository).deleteByIds(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("대기열에 들어간 뒤 다시 참조된 이미지는 지우지 않고 대기열에서만 뺀다")
+    void should_SkipReacquiredImage_when_DrainBatch() {
+        // given: 삭제를 기다리는 사이 다른 메뉴가 같은 이미지를 다시 올렸다
+        ImageDeletion deletion = deletion(1L, "a.png");
+        given(imageDeletionRepository.findDueForUpdate(NOW, Limit.of(10))).willReturn(List.of(deletion));
+        given(imageObjectRepository.findAllByIdForUpdate(Set.of("a.png"))).willReturn(List.of(new ImageObject("a.png")));
+
+        // when: 한 배치를 처리한다
+        imageDeletionService.drainBatch(NOW);
+
+        // then: 저장소는 건드리지 않고 작업을 가져오는 트랜잭션에서 바로 끝낸다
+        verifyNoInteractions(s3Service);
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(imageObjectRepository, never()).deleteUnreferenced(any());
+        verify(imageDeletionRepository).deleteByIds(List.of(1L));
+        assertThat(meterRegistry.counter("image.deletion.processed", "result", "skipped").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("일부 이미지만 지우지 못하면 그 작업만 남기고 재시도 간격을 두 배로 늘린다")
+    void should_BackOffFailedImages_when_SomeDeletesFail() {
+        // given: 한 번 실패했던 작업과 새 작업, 그리고 b.png 삭제가 거절되는 저장소
+        ImageDeletion first = deletion(1L, "a.png");
+        ImageDeletion second = deletion(2L, "b.png");
+        second.recordFailure(NOW);
+        given(imageDeletionRepository.findDueForUpdate(NOW, Limit.of(10))).willReturn(List.of(first, second));
+        given(imageObjectRepository.findAllByIdForUpdate(any())).willReturn(List.of());
+        given(imageDeletionRepository.findAllById(List.of(1L, 2L))).willReturn(List.of(first, second));
+        given(s3Service.deleteFilesAsync(any())).willReturn(CompletableFuture.completedFuture(Set.of("b.png")));
+
+        // when: 한 배치를 처리한다
+        imageDeletionService.drainBatch(NOW);
+
+        // then: a.png만 끝나고 b.png는 20초 뒤에 다시 시도한다
+        verify(imageDeletionRepository).deleteByIds(List.of(1L));
+        verify(imageObjectRepository).deleteUnreferenced(Set.of("a.png"));
+        assertThat(second.getAttempts()).isEqualTo(2);
+        assertThat(second.getNextAttemptAt()).isEqualTo(NOW.plusSeconds(20));
+    }
+
+    @Test
+    @DisplayName("저장소 요청이 통째로 실패하면 결과를 기록하는 트랜잭션에서 모든 작업의 재시도를 미룬다")
+    void should_RecordFailureForBatch_when_StorageUnavailable() {
+        // given: 저장소 요청이 실패한다
+        ImageDeletion deletion = deletion(1L, "a.png");
+        given(imageDeletionRepository.findDueForUpdate(NOW, Limit.of(10))).willReturn(List.of(deletion));
+        given(imageObjectRepository.findAllByIdForUpdate(any())).willReturn(List.of());
+        given(imageDeletionRepository.findAllById(List.of(1L))).willReturn(List.of(deletion));
+        given(s3Service.deleteFilesAsync(any()))
+                .willReturn(CompletableFuture.failedFuture(new IllegalStateException("S3 장애")));
+
+        // when: 한 배치를 처리한다
+        int processed = imageDeletionService.drainBatch(NOW);
+
+        // then: 작업은 남고 첫 재시도 간격 뒤로 미뤄진다
+        assertThat(processed).isEqualTo(1);
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(imageDeletionRepository, never()).deleteByIds(any());
+        assertThat(deletion.getAttempts()).isEqualTo(1);
+        assertThat(deletion.getNextAttemptAt()).isEqualTo(NOW.plusSeconds(10));
+    }
+
+    @Test
+    @DisplayName("저장소가 제한 시간 안에 응답하지 않으면 기다리지 않고 임대를 풀어 재시도를 미룬다")
+    void should_RecordFailure_when_StorageTimesOut() {
+        // given: 응답하지 않는 저장소와 짧은 제한 시간
+        imageDeletionService = deletionService(Duration.ofMillis(50));
+        ImageDeletion deletion = deletion(1L, "a.png");
+        ImageObject pending = new ImageObject("a.png");
+        pending.decreaseRefCount();
+        given(imageDeletionRepository.findDueForUpdate(NOW, Limit.of(10))).willReturn(List.of(deletion));
+        given(imageObjectRepository.findAllByIdForUpdate(Set.of("a.png"))).willReturn(List.of(pending));
+        given(imageDeletionRepository.findAllById(List.of(1L))).willReturn(List.of(deletion));
+        given(s3Service.deleteFilesAsync(any())).willReturn(new CompletableFuture<>());
+
+        // when: 한 배치를 처리한다
+        imageDeletionService.drainBatch(NOW);
+
+        // then: 참조 행은 남기고 임대를 풀며, 작업은 첫 재시도 간격 뒤로 미뤄진다
+        verify(imageObjectRepository, never()).deleteUnreferenced(any());
+        verify(imageDeletionRepository, never()).deleteByIds(any());
+        assertThat(pending.getDeletingUntil()).isNull();
+        assertThat(deletion.getAttempts()).isEqualTo(1);
+        assertThat(deletion.getNextAttemptAt()).isEqualTo(NOW.plusSeconds(10));
+    }
+
+    @Test
+    @DisplayName("대기열 처리가 끝나면 대기 수와 가장 오래 기다린 시간을 메트릭으로 남긴다")
+    void should_UpdateQueueMetrics_when_Drain() {
+        // given: 처리할 작업은 없고, 재시도를 기다리는 작업이 3개 남아 있다
+        Instant oldest = Instant.now().minusSeconds(60);
+        given(imageDeletionRepository.findDueForUpdate(any(), any())).willReturn(List.of());
+        given(imageDeletionRepository.count()).willReturn(3L);
+        given(imageDeletionRepository.findOldestCreatedAt()).willReturn(oldest);
+
+        // when: 대기열을 처리한다
+        imageDeletionService.drain();
+
+        // then: 대기 수와 지연이 기록된다
+        assertThat(meterRegistry.get("image.deletion.queue.depth").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("image.deletion.queue.lag").timeGauge().value(TimeUnit.SECONDS))
+                .isGreaterThanOrEqualTo(60);
+    }
+
+    private ImageDeletionService deletionService(Duration storageTimeout) {
+        ImageDeletionService service = new ImageDeletionService(imageDeletionRepository, imageObjectRepository, s3Service,
+                fileUploadUtils, transactionTemplate, meterRegistry, 10, Duration.ofSeconds(10), Duration.ofMinutes(1),
+                storageTimeout);
+        ReflectionTestUtils.setField(service, "activeProfile", "aws");
+        return service;
+    }
+
+    private static ImageDeletion deletion(Long deletionId, String imageKey) {
+        ImageDeletion deletion = new ImageDeletion(imageKey, NOW.minusSeconds(30));
+        ReflectionTestUtils.setField(deletion, "deletionId", deletionId);
+        return deletion;
+    }
+}
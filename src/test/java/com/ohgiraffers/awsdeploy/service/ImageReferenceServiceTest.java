@@ -0,0 +1,208 @@
+package com.ohgiraffers.awsdeploy.service;
+
+import com.ohgiraffers.awsdeploy.entity.ImageObject;
+import com.ohgiraffers.awsdeploy.repository.ImageObjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+/**
+ * ImageReferenceService 단위 테스트
+ * 내용 해시 이미지의 참조 수 증감과 저장소 쓰기/삭제 여부 판단을 테스트한다
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImageReferenceService 테스트")
+class ImageReferenceServiceTest {
+
+    private static final String IMAGE_KEY = "3a7bd3e2360a3d29eea436fcfb7e44c735d117c42d1c1835420b6b9942dd4f1b.png";
+
+    @Mock
+    private ImageObjectRepository imageObjectRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ImageReferenceService imageReferenceService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("처음 보는 이미지는 참조 행을 만들고 아직 저장되지 않았다고 반환한다")
+    void should_CreateReference_when_AcquireNewImage() {
+        // given: 참조 행이 없다
+        given(imageObjectRepository.findByIdForUpdate(IMAGE_KEY)).willReturn(Optional.empty());
+
+        // when: 참조를 늘린다
+        ImageReferenceService.Acquisition acquisition = imageReferenceService.acquire(IMAGE_KEY);
+
+        // then: 참조 하나짜리 저장 전 행이 바로 INSERT 된다
+        assertThat(acquisition.created()).isTrue();
+        assertThat(acquisition.stored()).isFalse();
+        verify(imageObjectRepository).saveAndFlush(argThat(object ->
+                object.getImageKey().equals(IMAGE_KEY) && object.getRefCount() == 1 && !object.isStored()));
+    }
+
+    @Test
+    @DisplayName("이미 저장된 이미지는 참조 수만 늘리고 저장되었다고 반환한다")
+    void should_IncreaseRefCount_when_AcquireStoredImage() {
+        // given: 메뉴 하나가 참조 중이고 저장이 끝난 이미지
+        ImageObject imageObject = new ImageObject(IMAGE_KEY);
+        imageObject.markStored();
+        given(imageObjectRepository.findByIdForUpdate(IMAGE_KEY)).willReturn(Optional.of(imageObject));
+
+        // when: 참조를 늘린다
+        ImageReferenceService.Acquisition acquisition = imageReferenceService.acquire(IMAGE_KEY);
+
+        // then: 새 행 없이 참조 수가 2가 되고 쓰기를 건너뛴다
+        assertThat(acquisition.created()).isFalse();
+        assertThat(acquisition.stored()).isTrue();
+        assertThat(imageObject.getRefCount()).isEqualTo(2);
+        verify(imageObjectRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("먼저 올리던 요청이 아직 저장을 마치지 않은 이미지는 저장되지 않았다고 반환한다")
+    void should_ReportNotStored_when_AcquireImageStillUploading() {
+        // given: 다른 요청이 참조를 만들었지만 아직 업로드 중인 이미지
+        ImageObject imageObject = new ImageObject(IMAGE_KEY);
+        given(imageObjectRepository.findByIdForUpdate(IMAGE_KEY)).willReturn(Optional.of(imageObject));
+
+        // when: 참조를 늘린다
+        ImageReferenceService.Acquisition acquisition = imageReferenceService.acquire(IMAGE_KEY);
+
+        // then: 참조 수는 늘지만 호출한 쪽이 직접 써야 한다
+        assertThat(acquisition.created()).isFalse();
+        assertThat(acquisition.stored()).isFalse();
+        assertThat(imageObject.getRefCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("업로드가 끝나면 이미지를 저장된 것으로 기록한다")
+    void should_MarkStored_when_UploadCompleted() {
+        // given: 업로드 중인 이미지
+        ImageObject imageObject = new ImageObject(IMAGE_KEY);
+        given(imageObjectRepository.findByIdForUpdate(IMAGE_KEY)).willReturn(Optional.of(imageObject));
+
+        // when: 저장된 것으로 기록한다
+        imageReferenceService.markStored(IMAGE_KEY);
+
+        // then: 이후 같은 이미지를 올리는 요청은 쓰기를 건너뛴다
+        assertThat(imageObject.isStored()).isTrue();
+    }
+
+    @Test
+    @DisplayName("같은 이미지의 행을 동시에 만들다 키가 충돌하면 다시 조회해 참조 수를 늘린다")
+    void should_RetryAsExisting_when_ConcurrentInsertConflicts() {
+        // given: 첫 조회에는 행이 없지만 INSERT가 충돌하고, 다시 조회하면 다른 요청이 만든 행이 있다
+        ImageObject imageObject = new ImageObject(IMAGE_KEY);
+        given(imageObjectRepository.findByIdForUpdate(IMAGE_KEY))
+                .willReturn(Optional.empty())
+                .willReturn(Optional.of(imageObject));
+        given(imageObjectRepository.saveAndFlush(any())).willThrow(new DataIntegrityViolationException("중복 키"));
+
+        // when: 참조를 늘린다
+        ImageReferenceService.Acquisition acquisition = imageReferenceService.acquire(IMAGE_KEY);
+
+        // then: 새 행을 만들지 않고 기존 행의 참조 수만 늘린다
+        assertThat(acquisition.created()).isFalse();
+        assertThat(imageObject.getRefCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("변형 너비를 기록하면 같은 이미지의 다음 조회에서 그대로 돌려준다")
+    void should_ReturnRecordedWidths_when_VariantWidthsRecorded() {
+        // given: 변형을 아직 만들지 않은 이미지
+        ImageObject imageObject = new ImageObject(IMAGE_KEY);
+        given(imageObjectRepository.findByIdForUpdate(IMAGE_KEY)).willReturn(Optional.of(imageObject));
+        given(imageObjectRepository.findById(IMAGE_KEY)).willReturn(Optional.of(imageObject));
+        assertThat(imageReferenceService.findVariantWidths(IMAGE_KEY)).isEmpty();
+
+        // when: 만든 변형 너비를 기록한다
+        imageReferenceService.recordVariantWidths(IMAGE_KEY, "160,480");
+
+        // then: 기록된 너비를 돌려준다
+        assertThat(imageReferenceService.findVariantWidths(IMAGE_KEY)).contains("160,480");
+    }
+
+    @Test
+    @DisplayName("다른 메뉴가 아직 참조하면 false, 마지막 참조면 행을 0으로 남기고 true를 반환한다")
+    void should_ReturnTrueOnlyForLastReference_when_Release() {
+        // given: 메뉴 두 개가 참조 중인 이미지
+        ImageObject imageObject = new ImageObject(IMAGE_KEY);
+        imageObject.increaseRefCount();
+        given(imageObjectRepository.findByIdForUpdate(IMAGE_KEY)).willReturn(Optional.of(imageObject));
+
+        // when & then: 첫 해제는 참조 수만 줄이고, 두 번째 해제에서 지워야 한다고 알린다
+        assertThat(imageReferenceService.release(IMAGE_KEY)).isFalse();
+        assertThat(imageReferenceService.release(IMAGE_KEY)).isTrue();
+
+        // then: 참조 행은 삭제 대기열이 지울 때까지 0으로 남는다
+        assertThat(imageObject.getRefCount()).isZero();
+        verify(imageObjectRepository, never()).delete(any());
+    }
+
+    @Test
+    @DisplayName("삭제를 기다리는 이미지를 다시 올리면 저장소에 쓰지 않고 참조만 되살린다")
+    void should_ReviveReference_when_AcquirePendingDeletion() {
+        // given: 마지막 참조가 해제되어 삭제를 기다리는 이미지
+        ImageObject imageObject = new ImageObject(IMAGE_KEY);
+        imageObject.markStored();
+        imageObject.decreaseRefCount();
+        given(imageObjectRepository.findByIdForUpdate(IMAGE_KEY)).willReturn(Optional.of(imageObject));
+
+        // when: 참조를 늘린다
+        ImageReferenceService.Acquisition acquisition = imageReferenceService.acquire(IMAGE_KEY);
+
+        // then: 아직 저장소에 있으므로 다시 쓰지 않고, 참조 수 1이 되어 삭제 대기열이 건너뛴다
+        assertThat(acquisition.stored()).isTrue();
+        assertThat(imageObject.getRefCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("삭제 대기열이 저장소에서 지우는 중인 이미지는 참조를 늘리지 않고 거절한다")
+    void should_Reject_when_AcquireImageBeingDeleted() {
+        // given: 삭제 임대가 걸린 이미지
+        ImageObject imageObject = new ImageObject(IMAGE_KEY);
+        imageObject.decreaseRefCount();
+        imageObject.startDeletion(Instant.now().plusSeconds(60));
+        given(imageObjectRepository.findByIdForUpdate(IMAGE_KEY)).willReturn(Optional.of(imageObject));
+
+        // when & then: 삭제 요청이 새로 쓴 객체를 지우지 않도록 거절한다
+        assertThatThrownBy(() -> imageReferenceService.acquire(IMAGE_KEY))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(imageObject.getRefCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("참조 수를 세기 전에 올린 이미지는 행이 없어도 지우도록 true를 반환한다")
+    void should_ReturnTrue_when_ReleaseLegacyImage() {
+        // given: 참조 행이 없는 UUID 파일명 이미지
+        String legacyKey = "123e4567-e89b-12d3-a456-426614174000.png";
+        given(imageObjectRepository.findByIdForUpdate(legacyKey)).willReturn(Optional.empty());
+
+        // when & then: 저장소에서 지워야 한다
+        assertThat(imageReferenceService.release(legacyKey)).isTrue();
+        verify(imageObjectRepository, never()).delete(any());
+    }
+}
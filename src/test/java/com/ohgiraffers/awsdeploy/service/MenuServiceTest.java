@@ -1,22 +1,43 @@
 package com.ohgiraffers.awsdeploy.service;
 
+import com.ohgiraffers.awsdeploy.dto.CategoryDTO;
 import com.ohgiraffers.awsdeploy.dto.MenuDTO;
+import com.ohgiraffers.awsdeploy.dto.MenuPageDTO;
+import com.ohgiraffers.awsdeploy.dto.MenuRegisterRequestDTO;
+import com.ohgiraffers.awsdeploy.dto.StockDecrementRequestDTO;
 import com.ohgiraffers.awsdeploy.entity.Category;
 import com.ohgiraffers.awsdeploy.entity.Menu;
 import com.ohgiraffers.awsdeploy.repository.CategoryRepository;
 import com.ohgiraffers.awsdeploy.repository.MenuRepository;
+import com.ohgiraffers.awsdeploy.util.CursorUtils;
 import com.ohgiraffers.awsdeploy.util.FileUploadUtils;
+import com.ohgiraffers.awsdeploy.util.FileUploadUtils.ImageContent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -32,6 +53,10 @@ import static org.mockito.Mockito.*;
 @DisplayName("MenuService 테스트")
 class MenuServiceTest {
 
+    // 처음 보는 이미지와 이미 저장된 이미지의 참조 결과
+    private static final ImageReferenceService.Acquisition NEW_IMAGE = new ImageReferenceService.Acquisition(true, false);
+    private static final ImageReferenceService.Acquisition STORED_IMAGE = new ImageReferenceService.Acquisition(false, true);
+
     @Mock
     private MenuRepository menuRepository;
 
@@ -44,36 +69,36 @@ class MenuServiceTest {
     @Mock
     private MultipartFile imageFile;
 
+    @Spy
+    private MenuCatalogCache menuCatalogCache = new MenuCatalogCache(new SimpleMeterRegistry());
+
+    @Mock
+    private S3Service s3Service;
+
+    @Mock
+    private ImageReferenceService imageReferenceService;
+
+    @Mock
+    private ImageDeletionService imageDeletionService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private SyncTaskExecutor imageUploadExecutor = new SyncTaskExecutor();
+
     @InjectMocks
     private MenuService menuService;
 
     @Test
     @DisplayName("주문 가능한 메뉴 조회 시 DTO 목록이 정상 반환된다")
     void should_ReturnMenuDTOList_when_FindAllOrderableMenus() {
-        // given: Repository에서 반환할 메뉴 엔티티들을 준비한다
-        Category category = new Category("음료");
-        category.setCategoryCode(1L);
+        // given: Repository에서 반환할 메뉴 DTO들을 준비한다
+        CategoryDTO category = new CategoryDTO(1L, "음료");
+        MenuDTO menu1 = new MenuDTO(1L, "아메리카노", 3000, "쓴맛 커피", "Y", category, null, 10);
+        MenuDTO menu2 = new MenuDTO(2L, "라떼", 4000, "부드러운 커피", "Y", category, null, 15);
 
-        Menu menu1 = new Menu();
-        menu1.setMenuCode(1L);
-        menu1.setMenuName("아메리카노");
-        menu1.setMenuPrice(3000);
-        menu1.setMenuDescription("쓴맛 커피");
-        menu1.setMenuOrderable("Y");
-        menu1.setCategory(category);
-        menu1.setMenuStock(10);
-
-        Menu menu2 = new Menu();
-        menu2.setMenuCode(2L);
-        menu2.setMenuName("라떼");
-        menu2.setMenuPrice(4000);
-        menu2.setMenuDescription("부드러운 커피");
-        menu2.setMenuOrderable("Y");
-        menu2.setCategory(category);
-        menu2.setMenuStock(15);
-
-        List<Menu> menus = Arrays.asList(menu1, menu2);
-        given(menuRepository.findOrderableMenus()).willReturn(menus);
+        given(menuRepository.findOrderableMenuDTOs()).willReturn(Arrays.asList(menu1, menu2));
 
         // when: 주문 가능한 메뉴를 조회한다
         List<MenuDTO> result = menuService.findAllOrderableMenus();
@@ -85,27 +110,142 @@ class MenuServiceTest {
         assertThat(result.get(1).getMenuCode()).isEqualTo(2L);
         assertThat(result.get(1).getMenuName()).isEqualTo("라떼");
 
-        verify(menuRepository).findOrderableMenus();
+        verify(menuRepository).findOrderableMenuDTOs();
     }
 
     @Test
-    @DisplayName("메뉴 코드로 조회 시 해당 메뉴 DTO가 정상 반환된다")
-    void should_ReturnMenuDTO_when_FindMenuByCode() {
-        // given: Repository에서 반환할 메뉴 엔티티를 준비한다
-        Long menuCode = 1L;
-        Category category = new Category("디저트");
-        category.setCategoryCode(2L);
+    @DisplayName("카탈로그가 바뀌지 않았다면 두 번째 메뉴 목록 조회는 캐시에서 반환된다")
+    void should_ReturnCachedMenus_when_CatalogUnchanged() {
+        // given: Repository에서 반환할 메뉴 DTO를 준비한다
+        MenuDTO menu = new MenuDTO(1L, "아메리카노", 3000, null, "Y", null, null, 10);
+        given(menuRepository.findOrderableMenuDTOs()).willReturn(List.of(menu));
+
+        // when: 메뉴 목록을 두 번 조회한다
+        List<MenuDTO> first = menuService.findAllOrderableMenus();
+        List<MenuDTO> second = menuService.findAllOrderableMenus();
+
+        // then: 같은 스냅샷이 반환되고 Repository는 한 번만 호출된다
+        assertThat(second).isSameAs(first);
+        verify(menuRepository, times(1)).findOrderableMenuDTOs();
+    }
 
+    @Test
+    @DisplayName("메뉴 삭제 후에는 카탈로그 버전이 올라가고 목록을 다시 조회한다")
+    void should_ReloadMenus_when_MenuDeleted() {
+        // given: 캐시된 메뉴 목록과 삭제할 메뉴를 준비한다
         Menu menu = new Menu();
-        menu.setMenuCode(menuCode);
-        menu.setMenuName("케이크");
-        menu.setMenuPrice(8000);
-        menu.setMenuDescription("달콤한 케이크");
-        menu.setMenuOrderable("Y");
+        menu.setMenuCode(1L);
+        menu.setMenuName("삭제할메뉴");
+        MenuDTO menuDTO = new MenuDTO(1L, "삭제할메뉴", 1000, null, "Y", null, null, 1);
+        given(menuRepository.findOrderableMenuDTOs()).willReturn(List.of(menuDTO), List.of());
+        given(menuRepository.findById(1L)).willReturn(Optional.of(menu));
+        menuService.findAllOrderableMenus();
+        long versionBefore = menuService.getCatalogVersion();
+
+        // when: 메뉴를 삭제하고 다시 조회한다
+        menuService.deleteMenu(1L);
+        List<MenuDTO> result = menuService.findAllOrderableMenus();
+
+        // then: 버전이 올라가고 새 목록이 조회된다
+        assertThat(menuService.getCatalogVersion()).isGreaterThan(versionBefore);
+        assertThat(result).isEmpty();
+        verify(menuRepository, times(2)).findOrderableMenuDTOs();
+    }
+
+    @Test
+    @DisplayName("메뉴 삭제 시 해당 메뉴의 카테고리 목록만 다시 조회한다")
+    void should_ReloadOnlyChangedCategory_when_MenuDeleted() {
+        // given: 두 카테고리의 메뉴 목록을 캐시하고, 1번 카테고리의 메뉴를 삭제 대상으로 준비한다
+        Category category = new Category("식사");
+        category.setCategoryCode(1L);
+        Menu menu = new Menu();
+        menu.setMenuCode(1L);
         menu.setCategory(category);
-        menu.setMenuStock(5);
+        given(categoryRepository.existsById(any())).willReturn(true);
+        given(menuRepository.findMenuDTOsByCategoryCode(1L)).willReturn(List.of());
+        given(menuRepository.findMenuDTOsByCategoryCode(2L)).willReturn(List.of());
+        given(menuRepository.findById(1L)).willReturn(Optional.of(menu));
+        menuService.findOrderableMenusByCategory(1L);
+        menuService.findOrderableMenusByCategory(2L);
+        long category1VersionBefore = menuService.getCategoryCatalogVersion(1L);
+        long category2VersionBefore = menuService.getCategoryCatalogVersion(2L);
+
+        // when: 메뉴를 삭제하고 두 카테고리를 다시 조회한다
+        menuService.deleteMenu(1L);
+        menuService.findOrderableMenusByCategory(1L);
+        menuService.findOrderableMenusByCategory(2L);
+
+        // then: 1번 카테고리만 버전이 올라가고 다시 조회된다
+        assertThat(menuService.getCategoryCatalogVersion(1L)).isGreaterThan(category1VersionBefore);
+        assertThat(menuService.getCategoryCatalogVersion(2L)).isEqualTo(category2VersionBefore);
+        verify(menuRepository, times(2)).findMenuDTOsByCategoryCode(1L);
+        verify(menuRepository, times(1)).findMenuDTOsByCategoryCode(2L);
+    }
 
-        given(menuRepository.findById(menuCode)).willReturn(Optional.of(menu));
+    @Test
+    @DisplayName("존재하지 않는 카테고리의 메뉴 목록 조회 시 예외가 발생한다")
+    void should_ThrowException_when_FindMenusByNonExistentCategory() {
+        // given: 존재하지 않는 카테고리 코드를 준비한다
+        given(categoryRepository.existsById(999L)).willReturn(false);
+
+        // when & then: 예외가 발생하고 메뉴 목록은 조회하지 않는다
+        assertThatThrownBy(() -> menuService.findOrderableMenusByCategory(999L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("해당 카테고리를 찾을 수 없습니다: 999");
+
+        verify(menuRepository, never()).findMenuDTOsByCategoryCode(any());
+    }
+
+    @Test
+    @DisplayName("다음 페이지가 있으면 마지막 메뉴 코드로 만든 커서가 함께 반환된다")
+    void should_ReturnNextCursor_when_MoreMenusExist() {
+        // given: limit보다 하나 많은 메뉴가 조회되도록 설정한다
+        MenuDTO menu1 = new MenuDTO();
+        menu1.setMenuCode(30L);
+        MenuDTO menu2 = new MenuDTO();
+        menu2.setMenuCode(20L);
+        MenuDTO menu3 = new MenuDTO();
+        menu3.setMenuCode(10L);
+        given(menuRepository.findOrderableMenuDTOsAfter(Long.MAX_VALUE, Limit.of(3)))
+                .willReturn(Arrays.asList(menu1, menu2, menu3));
+
+        // when: 첫 페이지를 조회한다
+        MenuPageDTO page = menuService.findOrderableMenuPage(null, 2);
+
+        // then: limit개만 반환되고 커서는 마지막 메뉴를 가리킨다
+        assertThat(page.getMenus()).extracting(MenuDTO::getMenuCode).containsExactly(30L, 20L);
+        assertThat(CursorUtils.decodeMenuCursor(page.getNextCursor())).isEqualTo(20L);
+    }
+
+    @Test
+    @DisplayName("마지막 페이지에서는 다음 커서가 없고, 잘못된 커서는 예외가 발생한다")
+    void should_HandleLastPageAndInvalidCursor_when_FindOrderableMenuPage() {
+        // given: 커서 이후에 메뉴가 하나만 남아 있도록 설정한다
+        MenuDTO menu = new MenuDTO();
+        menu.setMenuCode(5L);
+        given(menuRepository.findOrderableMenuDTOsAfter(20L, Limit.of(3))).willReturn(List.of(menu));
+
+        // when: 커서를 넘겨 다음 페이지를 조회한다
+        MenuPageDTO page = menuService.findOrderableMenuPage(CursorUtils.encodeMenuCursor(20L), 2);
+
+        // then: 다음 커서가 없고, 잘못된 커서나 limit은 예외가 발생한다
+        assertThat(page.getMenus()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+        assertThatThrownBy(() -> menuService.findOrderableMenuPage("not-a-cursor", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> menuService.findOrderableMenuPage(null, MenuService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("메뉴 코드로 조회 시 해당 메뉴 DTO가 정상 반환된다")
+    void should_ReturnMenuDTO_when_FindMenuByCode() {
+        // given: Repository에서 반환할 메뉴 DTO를 준비한다
+        Long menuCode = 1L;
+        MenuDTO menu = new MenuDTO(menuCode, "케이크", 8000, "달콤한 케이크", "Y",
+                2L, "디저트", null, 5);
+
+        given(menuRepository.findMenuDTOById(menuCode)).willReturn(Optional.of(menu));
 
         // when: 메뉴 코드로 메뉴를 조회한다
         MenuDTO result = menuService.findMenuByCode(menuCode);
@@ -117,7 +257,7 @@ class MenuServiceTest {
         assertThat(result.getMenuDescription()).isEqualTo("달콤한 케이크");
         assertThat(result.getCategory().getCategoryCode()).isEqualTo(2L);
 
-        verify(menuRepository).findById(menuCode);
+        verify(menuRepository).findMenuDTOById(menuCode);
     }
 
     @Test
@@ -125,14 +265,14 @@ class MenuServiceTest {
     void should_ThrowException_when_FindMenuByNonExistentCode() {
         // given: Repository에서 빈 결과를 반환하도록 설정한다
         Long nonExistentCode = 999L;
-        given(menuRepository.findById(nonExistentCode)).willReturn(Optional.empty());
+        given(menuRepository.findMenuDTOById(nonExistentCode)).willReturn(Optional.empty());
 
         // when & then: 존재하지 않는 메뉴 코드로 조회 시 예외가 발생한다
         assertThatThrownBy(() -> menuService.findMenuByCode(nonExistentCode))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("해당 메뉴를 찾을 수 없습니다: " + nonExistentCode);
 
-        verify(menuRepository).findById(nonExistentCode);
+        verify(menuRepository).findMenuDTOById(nonExistentCode);
     }
 
     @Test
@@ -162,8 +302,12 @@ class MenuServiceTest {
         given(categoryRepository.findById(categoryCode)).willReturn(Optional.of(category));
         given(imageFile.isEmpty()).willReturn(false);
         given(fileUploadUtils.isImageFile(imageFile)).willReturn(true);
-        given(fileUploadUtils.uploadFile(imageFile)).willReturn(uploadedFileName);
+        given(fileUploadUtils.inspectImage(imageFile)).willReturn(imageContent(uploadedFileName));
+        given(imageReferenceService.acquire(uploadedFileName)).willReturn(NEW_IMAGE);
+        given(fileUploadUtils.createVariantsAsync(uploadedFileName)).willReturn(CompletableFuture.completedFuture(List.of()));
         given(menuRepository.save(any(Menu.class))).willReturn(savedMenu);
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
 
         // when: 이미지와 함께 메뉴를 등록한다
         MenuDTO result = menuService.registerMenu(menuName, menuPrice, menuDescription, 
@@ -175,7 +319,8 @@ class MenuServiceTest {
         assertThat(result.getMenuImageUrl()).isEqualTo(uploadedFileName);
 
         verify(categoryRepository).findById(categoryCode);
-        verify(fileUploadUtils).uploadFile(imageFile);
+        verify(fileUploadUtils).storeFile(imageFile, uploadedFileName);
+        verify(imageReferenceService).markStored(uploadedFileName);
         verify(menuRepository).save(any(Menu.class));
     }
 
@@ -203,6 +348,8 @@ class MenuServiceTest {
 
         given(categoryRepository.findById(categoryCode)).willReturn(Optional.of(category));
         given(menuRepository.save(any(Menu.class))).willReturn(savedMenu);
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
 
         // when: 이미지 파일 없이 메뉴를 등록한다
         MenuDTO result = menuService.registerMenu(menuName, menuPrice, menuDescription, 
@@ -236,7 +383,407 @@ class MenuServiceTest {
     }
 
     @Test
-    @DisplayName("메뉴 삭제 시 이미지 파일도 함께 삭제된다")
+    @DisplayName("비동기 메뉴 등록 시 이미지 업로드가 끝난 뒤에 메뉴를 저장한다")
+    void should_SaveMenuAfterUpload_when_RegisterMenuAsync() throws Exception {
+        // given: 카테고리와 이미지 업로드, 저장 결과를 준비한다
+        Category category = new Category("식사");
+        category.setCategoryCode(1L);
+        Menu savedMenu = new Menu("비빔밥", 9000, null, category, "uploaded.jpg", 10);
+        savedMenu.setMenuCode(1L);
+
+        given(categoryRepository.findById(1L)).willReturn(Optional.of(category));
+        given(imageFile.isEmpty()).willReturn(false);
+        given(fileUploadUtils.isImageFile(imageFile)).willReturn(true);
+        given(fileUploadUtils.inspectImage(imageFile)).willReturn(imageContent("uploaded.jpg"));
+        given(imageReferenceService.acquire("uploaded.jpg")).willReturn(NEW_IMAGE);
+        given(fileUploadUtils.createVariantsAsync("uploaded.jpg")).willReturn(CompletableFuture.completedFuture(List.of()));
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(menuRepository.save(any(Menu.class))).willReturn(savedMenu);
+
+        // when: 메뉴를 비동기로 등록하고 완료를 기다린다
+        MenuDTO result = menuService.registerMenuAsync("비빔밥", 9000, null, 1L, 10, imageFile).join();
+
+        // then: 업로드가 먼저 끝나고 메뉴가 저장된다
+        assertThat(result.getMenuImageUrl()).isEqualTo("uploaded.jpg");
+        InOrder order = inOrder(fileUploadUtils, transactionTemplate, menuRepository);
+        order.verify(fileUploadUtils).storeFile(imageFile, "uploaded.jpg");
+        order.verify(transactionTemplate).execute(any());
+        order.verify(menuRepository).save(any(Menu.class));
+    }
+
+    @Test
+    @DisplayName("비동기 메뉴 등록 중 업로드가 실패하면 메뉴를 저장하지 않는다")
+    void should_NotSaveMenu_when_AsyncUploadFails() throws Exception {
+        // given: 업로드가 실패하도록 설정한다
+        Category category = new Category("식사");
+        category.setCategoryCode(1L);
+        given(categoryRepository.findById(1L)).willReturn(Optional.of(category));
+        given(imageFile.isEmpty()).willReturn(false);
+        given(fileUploadUtils.isImageFile(imageFile)).willReturn(true);
+        given(fileUploadUtils.inspectImage(imageFile)).willReturn(imageContent("uploaded.jpg"));
+        given(imageReferenceService.acquire("uploaded.jpg")).willReturn(NEW_IMAGE);
+        given(fileUploadUtils.storeFile(imageFile, "uploaded.jpg")).willThrow(new IOException("디스크 오류"));
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        // when & then: future가 실패로 끝나고 메뉴는 저장되지 않으며 늘린 참조는 되돌린다
+        assertThatThrownBy(() -> menuService.registerMenuAsync("비빔밥", 9000, null, 1L, 10, imageFile).join())
+                .isInstanceOf(CompletionException.class)
+                .hasRootCauseInstanceOf(IOException.class);
+
+        verify(imageReferenceService).release("uploaded.jpg");
+        verify(menuRepository, never()).save(any(Menu.class));
+    }
+
+    @Test
+    @DisplayName("업로드 후처리 대기열이 가득 차면 완료 스레드에서 대신 저장하지 않고 실패로 끝낸다")
+    void should_FailWithoutSaving_when_CallbackExecutorRejects() {
+        // given: 작업을 거절하는 후처리 실행기
+        ReflectionTestUtils.setField(menuService, "imageCallbackExecutor", (Executor) task -> {
+            throw new RejectedExecutionException("대기열이 가득 찼습니다");
+        });
+        Category category = new Category("식사");
+        category.setCategoryCode(1L);
+        given(categoryRepository.findById(1L)).willReturn(Optional.of(category));
+
+        // when & then: future가 거절로 실패하고 메뉴는 저장되지 않는다
+        assertThatThrownBy(() -> menuService.registerMenuAsync("비빔밥", 9000, null, 1L, 10, null).join())
+                .isInstanceOf(CompletionException.class)
+                .hasRootCauseInstanceOf(RejectedExecutionException.class);
+
+        verify(menuRepository, never()).save(any(Menu.class));
+    }
+
+    @Test
+    @DisplayName("메뉴 저장 후 변형 이미지가 만들어지면 변형 너비를 메뉴에 기록한다")
+    void should_RecordVariantWidths_when_ImageVariantsCreated() throws Exception {
+        // given: 이미지 업로드와 변형 생성 결과를 준비한다
+        Category category = new Category("식사");
+        category.setCategoryCode(1L);
+        Menu savedMenu = new Menu("비빔밥", 9000, null, category, "uploaded.jpg", 10);
+        savedMenu.setMenuCode(1L);
+
+        given(categoryRepository.findById(1L)).willReturn(Optional.of(category));
+        given(imageFile.isEmpty()).willReturn(false);
+        given(fileUploadUtils.isImageFile(imageFile)).willReturn(true);
+        given(fileUploadUtils.inspectImage(imageFile)).willReturn(imageContent("uploaded.jpg"));
+        given(imageReferenceService.acquire("uploaded.jpg")).willReturn(NEW_IMAGE);
+        given(fileUploadUtils.createVariantsAsync("uploaded.jpg"))
+                .willReturn(CompletableFuture.completedFuture(List.of(480, 160)));
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(menuRepository.save(any(Menu.class))).willReturn(savedMenu);
+        given(menuRepository.updateImageVariants(1L, "uploaded.jpg", "160,480")).willReturn(1);
+
+        // when: 메뉴를 등록한다
+        MenuDTO result = menuService.registerMenu("비빔밥", 9000, null, 1L, 10, imageFile);
+
+        // then: 응답은 원본 이미지로 나가고, 변형 너비는 원본 URL이 그대로일 때만 오름차순으로 기록된다
+        assertThat(result.getMenuImageUrl()).isEqualTo("uploaded.jpg");
+        assertThat(result.getMenuImageVariants()).isEmpty();
+        verify(menuRepository).updateImageVariants(1L, "uploaded.jpg", "160,480");
+        verify(imageReferenceService).recordVariantWidths("uploaded.jpg", "160,480");
+    }
+
+    @Test
+    @DisplayName("같은 이미지로 만들어 둔 변형이 있으면 다시 만들지 않고 기록된 너비를 메뉴에 옮겨 적는다")
+    void should_CopyRecordedVariants_when_SameContentUploaded() throws Exception {
+        // given: 변형까지 만들어 둔 이미지를 다시 올린다
+        String imageName = "3a7bd3e2360a3d29eea436fcfb7e44c735d117c42d1c1835420b6b9942dd4f1b.png";
+        Category category = new Category("식사");
+        category.setCategoryCode(1L);
+        Menu savedMenu = new Menu("비빔밥", 9000, null, category, imageName, 10);
+        savedMenu.setMenuCode(2L);
+
+        given(categoryRepository.findById(1L)).willReturn(Optional.of(category));
+        given(imageFile.isEmpty()).willReturn(false);
+        given(fileUploadUtils.isImageFile(imageFile)).willReturn(true);
+        given(fileUploadUtils.inspectImage(imageFile)).willReturn(imageContent(imageName));
+        given(imageReferenceService.acquire(imageName)).willReturn(STORED_IMAGE);
+        given(imageReferenceService.findVariantWidths(imageName)).willReturn(Optional.of("160,480"));
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(menuRepository.save(any(Menu.class))).willReturn(savedMenu);
+
+        // when: 메뉴를 등록한다
+        menuService.registerMenu("비빔밥", 9000, null, 1L, 10, imageFile);
+
+        // then: 변형을 다시 만들지 않고 기록된 너비만 새 메뉴에 적는다
+        verify(fileUploadUtils, never()).createVariantsAsync(any());
+        verify(menuRepository).updateImageVariants(2L, imageName, "160,480");
+        verify(imageReferenceService, never()).recordVariantWidths(any(), any());
+    }
+
+    @Test
+    @DisplayName("변형 이미지 생성이 실패해도 메뉴 등록은 성공한다")
+    void should_RegisterMenu_when_ImageVariantsFail() throws Exception {
+        // given: 변형 생성이 실패하도록 설정한다
+        Category category = new Category("식사");
+        category.setCategoryCode(1L);
+        Menu savedMenu = new Menu("비빔밥", 9000, null, category, "uploaded.jpg", 10);
+        savedMenu.setMenuCode(1L);
+
+        given(categoryRepository.findById(1L)).willReturn(Optional.of(category));
+        given(imageFile.isEmpty()).willReturn(false);
+        given(fileUploadUtils.isImageFile(imageFile)).willReturn(true);
+        given(fileUploadUtils.inspectImage(imageFile)).willReturn(imageContent("uploaded.jpg"));
+        given(imageReferenceService.acquire("uploaded.jpg")).willReturn(NEW_IMAGE);
+        given(fileUploadUtils.createVariantsAsync("uploaded.jpg"))
+                .willReturn(CompletableFuture.failedFuture(new IOException("디코딩 실패")));
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(menuRepository.save(any(Menu.class))).willReturn(savedMenu);
+
+        // when: 메뉴를 등록한다
+        MenuDTO result = menuService.registerMenu("비빔밥", 9000, null, 1L, 10, imageFile);
+
+        // then: 메뉴는 등록되고 변형 너비는 기록되지 않는다
+        assertThat(result.getMenuCode()).isEqualTo(1L);
+        verify(menuRepository, never()).updateImageVariants(any(), any(), any());
+        verify(fileUploadUtils, never()).deleteFile(any());
+    }
+
+    @Test
+    @DisplayName("같은 내용의 이미지가 이미 저장되어 있으면 파일을 다시 쓰지 않고 같은 파일명으로 등록한다")
+    void should_ReuseStoredImage_when_SameContentUploaded() throws Exception {
+        // given: 이미 참조 중인 내용 해시의 이미지를 준비한다
+        String imageName = "3a7bd3e2360a3d29eea436fcfb7e44c735d117c42d1c1835420b6b9942dd4f1b.png";
+        Category category = new Category("식사");
+        category.setCategoryCode(1L);
+        Menu savedMenu = new Menu("비빔밥", 9000, null, category, imageName, 10);
+        savedMenu.setMenuCode(2L);
+
+        given(categoryRepository.findById(1L)).willReturn(Optional.of(category));
+        given(imageFile.isEmpty()).willReturn(false);
+        given(fileUploadUtils.isImageFile(imageFile)).willReturn(true);
+        given(fileUploadUtils.inspectImage(imageFile)).willReturn(imageContent(imageName));
+        given(imageReferenceService.acquire(imageName)).willReturn(STORED_IMAGE);
+        given(fileUploadUtils.createVariantsAsync(imageName)).willReturn(CompletableFuture.completedFuture(List.of()));
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(menuRepository.save(any(Menu.class))).willReturn(savedMenu);
+
+        // when: 메뉴를 등록한다
+        MenuDTO result = menuService.registerMenu("비빔밥", 9000, null, 1L, 10, imageFile);
+
+        // then: 참조만 늘리고 파일은 다시 저장하지 않는다
+        assertThat(result.getMenuImageUrl()).isEqualTo(imageName);
+        verify(fileUploadUtils, never()).storeFile(any(), any());
+    }
+
+    @Test
+    @DisplayName("S3 환경에서 같은 내용의 이미지가 이미 있으면 PutObject 없이 기존 객체 URL로 등록한다")
+    void should_SkipS3Upload_when_SameContentUploaded() throws Exception {
+        // given: S3 환경과 이미 참조 중인 이미지를 준비한다
+        ReflectionTestUtils.setField(menuService, "activeProfile", "aws");
+        String imageKey = "3a7bd3e2360a3d29eea436fcfb7e44c735d117c42d1c1835420b6b9942dd4f1b.png";
+        String imageUrl = "https://bucket.s3.ap-northeast-2.amazonaws.com/" + imageKey;
+        Category category = new Category("식사");
+        category.setCategoryCode(1L);
+        Menu savedMenu = new Menu("비빔밥", 9000, null, category, imageUrl, 10);
+        savedMenu.setMenuCode(2L);
+
+        given(categoryRepository.findById(1L)).willReturn(Optional.of(category));
+        given(imageFile.isEmpty()).willReturn(false);
+        given(fileUploadUtils.isImageFile(imageFile)).willReturn(true);
+        given(fileUploadUtils.inspectImage(imageFile)).willReturn(imageContent(imageKey));
+        given(s3Service.getFileUrl(imageKey)).willReturn(imageUrl);
+        given(imageReferenceService.acquire(imageKey)).willReturn(STORED_IMAGE);
+        given(s3Service.createVariantsAsync(imageKey)).willReturn(CompletableFuture.completedFuture(List.of()));
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(menuRepository.save(any(Menu.class))).willReturn(savedMenu);
+
+        // when: 메뉴를 비동기로 등록한다
+        MenuDTO result = menuService.registerMenuAsync("비빔밥", 9000, null, 1L, 10, imageFile).join();
+
+        // then: 기존 객체 URL로 저장되고 S3에는 올리지 않는다
+        assertThat(result.getMenuImageUrl()).isEqualTo(imageUrl);
+        verify(s3Service, never()).uploadFileAsync(any(), any());
+    }
+
+    @Test
+    @DisplayName("S3 환경에서 같은 내용의 이미지를 먼저 올리던 요청이 아직 저장을 마치지 않았으면 직접 올린 뒤 등록한다")
+    void should_UploadAgain_when_SameContentNotYetStored() throws Exception {
+        // given: 다른 요청이 참조를 만들었지만 아직 업로드 중인 이미지를 준비한다
+        ReflectionTestUtils.setField(menuService, "activeProfile", "aws");
+        String imageKey = "3a7bd3e2360a3d29eea436fcfb7e44c735d117c42d1c1835420b6b9942dd4f1b.png";
+        String imageUrl = "https://bucket.s3.ap-northeast-2.amazonaws.com/" + imageKey;
+        Category category = new Category("식사");
+        category.setCategoryCode(1L);
+        Menu savedMenu = new Menu("비빔밥", 9000, null, category, imageUrl, 10);
+        savedMenu.setMenuCode(2L);
+
+        given(categoryRepository.findById(1L)).willReturn(Optional.of(category));
+        given(imageFile.isEmpty()).willReturn(false);
+        given(fileUploadUtils.isImageFile(imageFile)).willReturn(true);
+        given(fileUploadUtils.inspectImage(imageFile)).willReturn(imageContent(imageKey));
+        given(s3Service.getFileUrl(imageKey)).willReturn(imageUrl);
+        given(imageReferenceService.acquire(imageKey)).willReturn(new ImageReferenceService.Acquisition(false, false));
+        given(s3Service.uploadFileAsync(eq(imageFile), any())).willReturn(CompletableFuture.completedFuture(imageKey));
+        given(s3Service.createVariantsAsync(imageKey)).willReturn(CompletableFuture.completedFuture(List.of()));
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(menuRepository.save(any(Menu.class))).willReturn(savedMenu);
+
+        // when: 메뉴를 비동기로 등록한다
+        MenuDTO result = menuService.registerMenuAsync("비빔밥", 9000, null, 1L, 10, imageFile).join();
+
+        // then: 같은 키로 다시 올려 저장을 확인한 뒤에야 메뉴를 저장한다
+        assertThat(result.getMenuImageUrl()).isEqualTo(imageUrl);
+        InOrder order = inOrder(s3Service, imageReferenceService, menuRepository);
+        order.verify(s3Service).uploadFileAsync(eq(imageFile), any());
+        order.verify(imageReferenceService).markStored(imageKey);
+        order.verify(menuRepository).save(any(Menu.class));
+    }
+
+    @Test
+    @DisplayName("S3에 직접 올린 이미지로 등록하면 업로드를 확인한 뒤 메뉴를 저장한다")
+    void should_SaveMenuAfterConfirm_when_RegisterMenuWithUploadedImage() {
+        // given: S3 환경과 업로드 확인 결과를 준비한다
+        ReflectionTestUtils.setField(menuService, "activeProfile", "aws");
+        String imageKey = "123e4567-e89b-12d3-a456-426614174000.png";
+        String imageUrl = "https://bucket.s3.ap-northeast-2.amazonaws.com/" + imageKey;
+        Category category = new Category("식사");
+        category.setCategoryCode(1L);
+        Menu savedMenu = new Menu("비빔밥", 9000, null, category, imageUrl, 10);
+        savedMenu.setMenuCode(1L);
+
+        given(categoryRepository.findById(1L)).willReturn(Optional.of(category));
+        given(s3Service.confirmImageUploadAsync(imageKey)).willReturn(CompletableFuture.completedFuture(imageUrl));
+        given(menuRepository.existsByMenuImageUrl(imageUrl)).willReturn(false);
+        given(imageReferenceService.acquire(imageKey)).willReturn(NEW_IMAGE);
+        given(s3Service.createVariantsAsync(imageKey)).willReturn(CompletableFuture.completedFuture(List.of()));
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(menuRepository.save(any(Menu.class))).willReturn(savedMenu);
+
+        // when: 객체 키로 메뉴를 등록한다
+        MenuDTO result = menuService.registerMenuWithUploadedImageAsync("비빔밥", 9000, null, 1L, 10, imageKey).join();
+
+        // then: 확인된 URL로 저장되고 이미지는 다시 올리지 않는다
+        assertThat(result.getMenuImageUrl()).isEqualTo(imageUrl);
+        InOrder order = inOrder(s3Service, transactionTemplate);
+        order.verify(s3Service).confirmImageUploadAsync(imageKey);
+        order.verify(transactionTemplate).execute(any());
+        verify(imageReferenceService).markStored(imageKey);
+        verify(s3Service, never()).uploadFileAsync(any(), any());
+    }
+
+    @Test
+    @DisplayName("다른 메뉴가 쓰는 이미지로 등록하면 저장하지 않고 이미지도 지우지 않는다")
+    void should_NotSaveMenu_when_UploadedImageAlreadyUsed() {
+        // given: 이미 다른 메뉴에 연결된 이미지를 준비한다
+        ReflectionTestUtils.setField(menuService, "activeProfile", "aws");
+        String imageKey = "123e4567-e89b-12d3-a456-426614174000.png";
+        String imageUrl = "https://bucket.s3.ap-northeast-2.amazonaws.com/" + imageKey;
+        Category category = new Category("식사");
+        category.setCategoryCode(1L);
+
+        given(categoryRepository.findById(1L)).willReturn(Optional.of(category));
+        given(s3Service.confirmImageUploadAsync(imageKey)).willReturn(CompletableFuture.completedFuture(imageUrl));
+        given(menuRepository.existsByMenuImageUrl(imageUrl)).willReturn(true);
+
+        // when & then: 잘못된 요청으로 실패한다
+        assertThatThrownBy(() -> menuService.registerMenuWithUploadedImageAsync("비빔밥", 9000, null, 1L, 10, imageKey).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(transactionTemplate, imageReferenceService);
+        verify(s3Service, never()).deleteFile(any());
+    }
+
+    @Test
+    @DisplayName("로컬 환경에서는 이미지 직접 업로드를 사용할 수 없다")
+    void should_ThrowException_when_PresignOutsideAws() {
+        // when & then: S3가 없는 환경이면 예외가 발생한다
+        assertThatThrownBy(() -> menuService.presignImageUpload("image/png", 100))
+                .isInstanceOf(IllegalStateException.class);
+
+        verifyNoInteractions(s3Service);
+    }
+
+    @Test
+    @DisplayName("일괄 메뉴 등록 시 이미지를 트랜잭션 전에 업로드하고 메뉴를 한 번에 저장한다")
+    void should_UploadImagesBeforeTransaction_when_RegisterMenus() throws Exception {
+        // given: 이미지가 있는 메뉴와 없는 메뉴 등록 요청을 준비한다
+        Category category = new Category("식사");
+        category.setCategoryCode(1L);
+        List<MenuRegisterRequestDTO> requests = List.of(
+                new MenuRegisterRequestDTO("비빔밥", 9000, null, 1L, 10, "bibimbap.jpg"),
+                new MenuRegisterRequestDTO("국밥", 8000, null, 1L, 5, null));
+
+        given(categoryRepository.findAllById(any())).willReturn(List.of(category));
+        given(imageFile.isEmpty()).willReturn(false);
+        given(fileUploadUtils.isImageFile(imageFile)).willReturn(true);
+        given(fileUploadUtils.inspectImage(imageFile)).willReturn(imageContent("uploaded.jpg"));
+        given(imageReferenceService.acquire("uploaded.jpg")).willReturn(NEW_IMAGE);
+        given(fileUploadUtils.createVariantsAsync("uploaded.jpg")).willReturn(CompletableFuture.completedFuture(List.of()));
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(categoryRepository.getReferenceById(1L)).willReturn(category);
+        given(menuRepository.saveAll(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+
+        // when: 메뉴를 일괄 등록한다
+        List<MenuDTO> result = menuService.registerMenus(requests, Map.of("bibimbap.jpg", imageFile));
+
+        // then: 요청 순서대로 등록되고, 업로드는 트랜잭션 시작 전에 끝난다
+        assertThat(result).extracting(MenuDTO::getMenuName).containsExactly("비빔밥", "국밥");
+        assertThat(result.get(0).getMenuImageUrl()).isEqualTo("uploaded.jpg");
+        assertThat(result.get(1).getMenuImageUrl()).isNull();
+        InOrder order = inOrder(fileUploadUtils, transactionTemplate);
+        order.verify(fileUploadUtils).storeFile(imageFile, "uploaded.jpg");
+        order.verify(transactionTemplate).execute(any());
+        verify(menuRepository, times(1)).saveAll(anyList());
+        verify(menuRepository, never()).save(any(Menu.class));
+    }
+
+    @Test
+    @DisplayName("일괄 메뉴 저장에 실패하면 이미 업로드한 이미지를 삭제한다")
+    void should_DeleteUploadedImages_when_RegisterMenusFails() throws Exception {
+        // given: 이미지 업로드는 성공하고 저장은 실패하도록 설정한다
+        Category category = new Category("식사");
+        category.setCategoryCode(1L);
+        List<MenuRegisterRequestDTO> requests = List.of(
+                new MenuRegisterRequestDTO("비빔밥", 9000, null, 1L, 10, "bibimbap.jpg"));
+
+        given(categoryRepository.findAllById(any())).willReturn(List.of(category));
+        given(imageFile.isEmpty()).willReturn(false);
+        given(fileUploadUtils.isImageFile(imageFile)).willReturn(true);
+        given(fileUploadUtils.inspectImage(imageFile)).willReturn(imageContent("uploaded.jpg"));
+        given(imageReferenceService.acquire("uploaded.jpg")).willReturn(NEW_IMAGE);
+        given(imageReferenceService.release("uploaded.jpg")).willReturn(true);
+        given(transactionTemplate.execute(any()))
+                .willThrow(new DataIntegrityViolationException("저장 실패"))
+                .willAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        // when & then: 예외가 전달되고 업로드한 이미지는 참조를 해제하며 삭제 대기열에 들어간다
+        assertThatThrownBy(() -> menuService.registerMenus(requests, Map.of("bibimbap.jpg", imageFile)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        verify(imageDeletionService).enqueue("uploaded.jpg");
+    }
+
+    @Test
+    @DisplayName("일괄 메뉴 등록 요청에 없는 카테고리가 있으면 업로드 없이 예외가 발생한다")
+    void should_ThrowException_when_RegisterMenusWithNonExistentCategory() throws Exception {
+        // given: 존재하지 않는 카테고리를 가진 요청을 준비한다
+        List<MenuRegisterRequestDTO> requests = List.of(
+                new MenuRegisterRequestDTO("비빔밥", 9000, null, 999L, 10, null));
+        given(categoryRepository.findAllById(any())).willReturn(List.of());
+
+        // when & then: 예외가 발생하고 업로드와 저장은 일어나지 않는다
+        assertThatThrownBy(() -> menuService.registerMenus(requests, Map.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("해당 카테고리를 찾을 수 없습니다: [999]");
+
+        verify(fileUploadUtils, never()).inspectImage(any());
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("메뉴 삭제 시 이미지 파일은 저장소를 기다리지 않고 삭제 대기열에 들어간다")
     void should_DeleteMenuAndImage_when_DeleteMenuWithImage() {
         // given: 이미지가 있는 메뉴를 준비한다
         Long menuCode = 1L;
@@ -248,15 +795,39 @@ class MenuServiceTest {
         menu.setMenuImageUrl(imageFileName);
 
         given(menuRepository.findById(menuCode)).willReturn(Optional.of(menu));
-        given(fileUploadUtils.deleteFile(imageFileName)).willReturn(true);
+        given(imageReferenceService.release(imageFileName)).willReturn(true);
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
 
         // when: 메뉴를 삭제한다
         menuService.deleteMenu(menuCode);
 
-        // then: 메뉴와 이미지가 함께 삭제된다
+        // then: 메뉴가 삭제되고 이미지는 같은 트랜잭션에서 삭제 대기열에 기록된다
         verify(menuRepository).findById(menuCode);
-        verify(fileUploadUtils).deleteFile(imageFileName);
+        verify(imageDeletionService).enqueue(imageFileName);
+        verify(menuRepository).delete(menu);
+        verify(fileUploadUtils, never()).deleteFile(any());
+    }
+
+    @Test
+    @DisplayName("다른 메뉴도 쓰는 이미지는 메뉴를 삭제해도 파일을 지우지 않는다")
+    void should_KeepSharedImage_when_DeleteMenuWithSharedImage() {
+        // given: 다른 메뉴도 참조하는 이미지를 가진 메뉴를 준비한다
+        Menu menu = new Menu();
+        menu.setMenuCode(1L);
+        menu.setMenuImageUrl("shared.png");
+
+        given(menuRepository.findById(1L)).willReturn(Optional.of(menu));
+        given(imageReferenceService.release("shared.png")).willReturn(false);
+        given(transactionTemplate.execute(any())).willAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        // when: 메뉴를 삭제한다
+        menuService.deleteMenu(1L);
+
+        // then: 메뉴만 삭제되고 이미지는 삭제 대기열에 들어가지 않는다
         verify(menuRepository).delete(menu);
+        verifyNoInteractions(imageDeletionService);
     }
 
     @Test
@@ -275,4 +846,65 @@ class MenuServiceTest {
         verify(menuRepository, never()).delete(any());
         verifyNoInteractions(fileUploadUtils);
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("재고 차감 시 조건부 UPDATE 후 메뉴를 다시 조회하고 카탈로그를 무효화한다")
+    void should_ReturnUpdatedMenu_when_DecrementStock() {
+        // given: 차감에 성공하는 메뉴를 준비한다
+        MenuDTO updated = new MenuDTO(1L, "아메리카노", 3000, null, "Y", new CategoryDTO(2L, "음료"), null, 8);
+        given(menuRepository.decrementStock(1L, 2)).willReturn(1);
+        given(menuRepository.findMenuDTOsByIds(any())).willReturn(List.of(updated));
+        long versionBefore = menuService.getCatalogVersion();
+
+        // when: 재고를 차감한다
+        MenuDTO result = menuService.decrementStock(1L, 2);
+
+        // then: 차감된 메뉴가 반환되고 엔티티를 읽어 수정하지 않는다
+        assertThat(result.getMenuStock()).isEqualTo(8);
+        assertThat(menuService.getCatalogVersion()).isGreaterThan(versionBefore);
+        verify(menuRepository, never()).findById(any());
+        verify(menuRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("일괄 재고 차감 시 같은 메뉴의 수량을 합쳐 메뉴 코드 순으로 차감한다")
+    void should_MergeAndSortItems_when_DecrementStocks() {
+        // given: 순서가 섞이고 같은 메뉴가 두 번 있는 요청을 준비한다
+        given(menuRepository.decrementStock(any(), anyInt())).willReturn(1);
+        given(menuRepository.findMenuDTOsByIds(any())).willReturn(List.of());
+
+        // when: 재고를 일괄 차감한다
+        menuService.decrementStocks(List.of(
+                new StockDecrementRequestDTO(3L, 1),
+                new StockDecrementRequestDTO(1L, 2),
+                new StockDecrementRequestDTO(3L, 4)));
+
+        // then: 메뉴 코드 순으로 합친 수량만큼 한 번씩 차감된다
+        InOrder order = inOrder(menuRepository);
+        order.verify(menuRepository).decrementStock(1L, 2);
+        order.verify(menuRepository).decrementStock(3L, 5);
+    }
+
+    @Test
+    @DisplayName("재고가 부족하면 IllegalStateException, 메뉴가 없으면 IllegalArgumentException이 발생한다")
+    void should_ThrowException_when_DecrementStockFails() {
+        // given: 두 메뉴 모두 차감되지 않고, 1번만 존재하도록 설정한다
+        given(menuRepository.decrementStock(any(), anyInt())).willReturn(0);
+        given(menuRepository.existsById(1L)).willReturn(true);
+        given(menuRepository.existsById(999L)).willReturn(false);
+
+        // when & then: 원인에 따라 다른 예외가 발생한다
+        assertThatThrownBy(() -> menuService.decrementStock(1L, 5))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("재고가 부족합니다: 1");
+        assertThatThrownBy(() -> menuService.decrementStock(999L, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("해당 메뉴를 찾을 수 없습니다: 999");
+
+        verify(menuRepository, never()).findMenuDTOsByIds(any());
+    }
+
+    private static ImageContent imageContent(String filename) {
+        return new ImageContent(filename, filename.substring(0, filename.lastIndexOf('.')), "image/jpeg", 100);
+    }
+}
\ No newline at end of file
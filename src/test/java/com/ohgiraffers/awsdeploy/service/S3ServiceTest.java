@@ -0,0 +1,330 @@
+package com.ohgiraffers.awsdeploy.service;
+
+import com.ohgiraffers.awsdeploy.dto.PresignedUploadDTO;
+import com.ohgiraffers.awsdeploy.util.FileUploadUtils.ImageContent;
+import com.ohgiraffers.awsdeploy.util.ImageVariantUtils;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * S3Service 테스트
+ * 로컬 HTTP 서버를 S3 호환 저장소 대신 띄워 비동기 클라이언트의 실제 요청을 검증한다
+ */
+@DisplayName("S3Service 테스트")
+class S3ServiceTest {
+
+    private static final String BUCKET = "test-bucket";
+
+    private HttpServer server;
+    private String endpoint;
+    private S3Service s3Service;
+    private SimpleMeterRegistry meterRegistry;
+
+    // 받은 요청 ("메서드 경로") 과 저장된 객체 (경로 → 본문)
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<String, String> contentTypes = new ConcurrentHashMap<>();
+    // 일괄 삭제 요청(DeleteObjects)에 담긴 키
+    private final List<String> deletedKeys = new CopyOnWriteArrayList<>();
+    // true이면 모든 요청을 403으로 거절한다
+    private volatile boolean denyAll = false;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            requests.add(method + " " + path);
+
+            if (denyAll) {
+                exchange.sendResponseHeaders(403, -1);
+            } else if ("PUT".equals(method)) {
+                objects.put(path, body);
+                contentTypes.put(path, String.valueOf(exchange.getRequestHeaders().getFirst("Content-Type")));
+                exchange.sendResponseHeaders(200, -1);
+            } else if ("HEAD".equals(method)) {
+                if (objects.containsKey(path)) {
+                    exchange.getResponseHeaders().set("Content-Type", contentTypes.get(path));
+                    exchange.getResponseHeaders().set("Content-Length", String.valueOf(objects.get(path).length));
+                    exchange.sendResponseHeaders(200, -1);
+                } else {
+                    exchange.sendResponseHeaders(404, -1);
+                }
+            } else if ("GET".equals(method)) {
+                if (objects.containsKey(path)) {
+                    exchange.getResponseHeaders().set("Content-Type", contentTypes.get(path));
+                    exchange.sendResponseHeaders(200, objects.get(path).length);
+                    exchange.getResponseBody().write(objects.get(path));
+                } else {
+                    exchange.sendResponseHeaders(404, -1);
+                }
+            } else if ("DELETE".equals(method)) {
+                objects.remove(path);
+                contentTypes.remove(path);
+                exchange.sendResponseHeaders(204, -1);
+            } else if ("POST".equals(method) && "delete".equals(exchange.getRequestURI().getQuery())) {
+                Matcher keys = Pattern.compile("<Key>(.+?)</Key>").matcher(new String(body, StandardCharsets.UTF_8));
+                StringBuilder errors = new StringBuilder();
+                while (keys.find()) {
+                    // locked-로 시작하는 키는 삭제를 거절하고 응답의 Error로 알린다
+                    if (keys.group(1).startsWith("locked-")) {
+                        errors.append("<Error><Key>").append(keys.group(1)).append("</Key><Code>AccessDenied</Code></Error>");
+                        continue;
+                    }
+                    deletedKeys.add(keys.group(1));
+                    objects.remove(path + "/" + keys.group(1));
+                    contentTypes.remove(path + "/" + keys.group(1));
+                }
+                byte[] result = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><DeleteResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">"
+                        + errors + "</DeleteResult>").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/xml");
+                exchange.sendResponseHeaders(200, result.length);
+                exchange.getResponseBody().write(result);
+            } else {
+                exchange.sendResponseHeaders(405, -1);
+            }
+            exchange.close();
+        });
+        server.start();
+
+        endpoint = "http://localhost:" + server.getAddress().getPort();
+        meterRegistry = new SimpleMeterRegistry();
+        s3Service = new S3Service("test-access-key", "test-secret-key", BUCKET, "ap-northeast-2", endpoint, 4,
+                Duration.ofMinutes(10), DataSize.ofKilobytes(1), new ImageVariantUtils(new int[] {160, 480}, 0.8f, Runnable::run),
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3Service.close();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("비동기 업로드 시 경로 방식 주소로 내용 해시 키에 객체를 올리고 판별한 형식을 Content-Type으로 쓴다")
+    void should_PutObjectWithPathStyle_when_UploadFileAsync() {
+        // given: 확장자와 다른 형식으로 판별된 이미지 파일을 준비한다
+        MockMultipartFile file = new MockMultipartFile(
+                "imageFile", "menu.jpg", "image/jpeg", "png-content".getBytes(StandardCharsets.UTF_8));
+        ImageContent image = imageContent("png");
+
+        // when: 비동기로 업로드하고 완료를 기다린다
+        String fileName = s3Service.uploadFileAsync(file, image).join();
+
+        // then: 버킷 경로 아래에 객체가 저장되고 URL도 같은 저장소를 가리킨다
+        assertThat(fileName).isEqualTo(image.getFilename());
+        assertThat(contentTypes.get("/" + BUCKET + "/" + fileName)).isEqualTo("image/png");
+        assertThat(requests).containsExactly("PUT /" + BUCKET + "/" + fileName);
+        assertThat(new String(objects.get("/" + BUCKET + "/" + fileName), StandardCharsets.ISO_8859_1))
+                .contains("png-content");
+        assertThat(s3Service.getFileUrl(fileName)).isEqualTo(endpoint + "/" + BUCKET + "/" + fileName);
+        // then: 요청 시간과 올린 바이트가 지표로 남는다
+        assertThat(meterRegistry.get("s3.requests").tags("operation", "PutObject", "outcome", "success").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("image.upload.bytes").tag("store", "s3").counter().count())
+                .isEqualTo(file.getSize());
+    }
+
+    @Test
+    @DisplayName("파일 삭제 시 원본과 변형 이미지를 한 번의 일괄 삭제 요청으로 지운다")
+    void should_DeleteObject_when_DeleteFile() {
+        // given: 업로드된 파일을 준비한다
+        MockMultipartFile file = new MockMultipartFile(
+                "imageFile", "menu.jpg", "image/jpeg", "jpg-content".getBytes(StandardCharsets.UTF_8));
+        String fileName = s3Service.uploadFile(file, imageContent("jpeg"));
+
+        // when: 파일을 삭제한다
+        s3Service.deleteFile(fileName);
+
+        // then: 일괄 삭제 요청 하나에 원본과 변형 키가 모두 담기고 객체가 사라진다
+        assertThat(requests).containsExactly("PUT /" + BUCKET + "/" + fileName, "POST /" + BUCKET);
+        assertThat(deletedKeys).containsExactlyInAnyOrder(fileName,
+                ImageVariantUtils.variantName(fileName, 160), ImageVariantUtils.variantName(fileName, 480));
+        assertThat(objects).isEmpty();
+    }
+
+    @Test
+    @DisplayName("여러 파일을 지우면 원본과 변형 키를 DeleteObjects 요청 하나에 최대 1000개씩 묶는다")
+    void should_BatchDeleteObjects_when_DeleteFilesAsync() {
+        // given: 변형 2개씩, 키 1200개가 되는 파일 400개
+        List<String> fileNames = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            fileNames.add("image-" + i + ".png");
+        }
+
+        // when: 한꺼번에 삭제한다
+        Set<String> failed = s3Service.deleteFilesAsync(fileNames).join();
+
+        // then: 1000개, 200개 키의 요청 두 번으로 모두 지운다
+        assertThat(failed).isEmpty();
+        assertThat(requests).containsExactly("POST /" + BUCKET, "POST /" + BUCKET);
+        assertThat(deletedKeys).hasSize(3 * 400)
+                .contains("image-399.png", ImageVariantUtils.variantName("image-0.png", 480));
+    }
+
+    @Test
+    @DisplayName("일부 키만 지우지 못하면 그 키의 원본 파일명을 실패로 돌려준다")
+    void should_ReportFailedFiles_when_SomeKeysRejected() {
+        // when: 지울 수 없는 파일이 섞인 목록을 삭제한다
+        Set<String> failed = s3Service.deleteFilesAsync(List.of("a.png", "locked-b.png")).join();
+
+        // then: 거절된 원본과 변형 키는 원본 파일명 하나로 보고된다
+        assertThat(failed).containsExactly("locked-b.png");
+        assertThat(deletedKeys).contains("a.png").doesNotContain("locked-b.png");
+        // then: 요청은 성공으로 기록되고, 거절된 키 3개(원본과 변형 2개)는 오류 코드별로 센다
+        assertThat(meterRegistry.get("s3.requests").tags("operation", "DeleteObjects", "outcome", "success").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("s3.request.errors").tags("operation", "DeleteObjects", "error", "AccessDenied").counter().count())
+                .isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("S3의 원본 이미지로 변형 이미지를 만들어 같은 버킷에 JPEG로 올린다")
+    void should_PutJpegVariants_when_CreateVariantsAsync() throws Exception {
+        // given: 너비 600인 원본 PNG가 버킷에 있다
+        BufferedImage original = new BufferedImage(600, 300, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(original, "png", png);
+        String fileName = "123e4567-e89b-12d3-a456-426614174000.png";
+        objects.put("/" + BUCKET + "/" + fileName, png.toByteArray());
+        contentTypes.put("/" + BUCKET + "/" + fileName, "image/png");
+        long tempFilesBefore = countVariantTempFiles();
+
+        // when: 변형 이미지를 만든다
+        List<Integer> widths = s3Service.createVariantsAsync(fileName).join();
+
+        // then: 원본을 한 번 읽고 너비별 JPEG를 올린다
+        assertThat(widths).containsExactly(160, 480);
+        assertThat(requests).first().isEqualTo("GET /" + BUCKET + "/" + fileName);
+        assertThat(requests).contains(
+                "PUT /" + BUCKET + "/" + ImageVariantUtils.variantName(fileName, 160),
+                "PUT /" + BUCKET + "/" + ImageVariantUtils.variantName(fileName, 480));
+        assertThat(contentTypes.get("/" + BUCKET + "/" + ImageVariantUtils.variantName(fileName, 160)))
+                .isEqualTo("image/jpeg");
+        // then: 원본을 받아 둔 임시 파일은 지운다
+        assertThat(countVariantTempFiles()).isEqualTo(tempFilesBefore);
+    }
+
+    @Test
+    @DisplayName("저장소가 업로드를 거절하면 동기 업로드는 예외를 던진다")
+    void should_ThrowException_when_UploadRejected() {
+        // given: 모든 요청을 거절하도록 설정한다
+        denyAll = true;
+        MockMultipartFile file = new MockMultipartFile(
+                "imageFile", "menu.jpg", "image/jpeg", "jpg-content".getBytes(StandardCharsets.UTF_8));
+
+        // when & then: 업로드 실패 예외가 발생한다
+        assertThatThrownBy(() -> s3Service.uploadFile(file, imageContent("jpeg")))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Failed to upload file to S3");
+        // then: 실패한 요청이 지표로 남고 올린 바이트는 늘지 않는다
+        assertThat(meterRegistry.get("s3.requests").tags("operation", "PutObject", "outcome", "error").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("s3.request.errors").tag("operation", "PutObject").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("image.upload.bytes").tag("store", "s3").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("서명된 URL로 직접 올린 이미지는 HeadObject 확인 후 이미지 URL을 돌려준다")
+    void should_ConfirmUpload_when_ImagePutWithPresignedUrl() throws Exception {
+        // given: 업로드 URL을 발급받는다
+        byte[] image = "png-content".getBytes(StandardCharsets.UTF_8);
+        PresignedUploadDTO upload = s3Service.presignImageUpload("image/png", image.length);
+
+        // when: 브라우저처럼 서명된 URL로 직접 PUT 한 뒤 업로드를 확인한다
+        HttpRequest.Builder put = HttpRequest.newBuilder(URI.create(upload.getUploadUrl()))
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(image));
+        upload.getHeaders().forEach(put::header);
+        HttpResponse<Void> putResponse = HttpClient.newHttpClient().send(put.build(), HttpResponse.BodyHandlers.discarding());
+        String imageUrl = s3Service.confirmImageUploadAsync(upload.getImageKey()).join();
+
+        // then: 서명에 형식이 포함되고, 애플리케이션은 HEAD만 보내 이미지 URL을 얻는다
+        assertThat(upload.getImageKey()).endsWith(".png");
+        assertThat(upload.getUploadUrl()).startsWith(endpoint + "/" + BUCKET + "/" + upload.getImageKey() + "?");
+        assertThat(upload.getUploadUrl()).contains("X-Amz-Signature=");
+        assertThat(upload.getHeaders().entrySet()).anySatisfy(header -> {
+            assertThat(header.getKey()).isEqualToIgnoringCase("Content-Type");
+            assertThat(header.getValue()).isEqualTo("image/png");
+        });
+        assertThat(putResponse.statusCode()).isEqualTo(200);
+        assertThat(requests).containsExactly(
+                "PUT /" + BUCKET + "/" + upload.getImageKey(),
+                "HEAD /" + BUCKET + "/" + upload.getImageKey());
+        assertThat(imageUrl).isEqualTo(endpoint + "/" + BUCKET + "/" + upload.getImageKey());
+    }
+
+    @Test
+    @DisplayName("이미지가 아니거나 너무 큰 파일은 업로드 URL을 발급하지 않는다")
+    void should_ThrowException_when_PresignNonImageOrTooLarge() {
+        // when & then: 형식이나 크기가 허용 범위를 벗어나면 예외가 발생한다
+        assertThatThrownBy(() -> s3Service.presignImageUpload("text/html", 100))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> s3Service.presignImageUpload("image/png", DataSize.ofKilobytes(1).toBytes() + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> s3Service.presignImageUpload("image/png", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("업로드되지 않았거나 발급한 형식이 아닌 키는 확인에 실패한다")
+    void should_FailWithInvalidArgument_when_ConfirmMissingOrForeignKey() {
+        // given: 발급 형식이지만 올라오지 않은 키를 준비한다
+        String missingKey = "123e4567-e89b-12d3-a456-426614174000.png";
+
+        // when & then: 없는 객체와 형식이 다른 키 모두 잘못된 요청으로 실패한다
+        assertThatThrownBy(() -> s3Service.confirmImageUploadAsync(missingKey).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> s3Service.confirmImageUploadAsync("../secret/report.pdf").join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(requests).containsExactly("HEAD /" + BUCKET + "/" + missingKey);
+    }
+
+    private static ImageContent imageContent(String subtype) {
+        String hash = "3a7bd3e2360a3d29eea436fcfb7e44c735d117c42d1c1835420b6b9942dd4f1b";
+        return new ImageContent(hash + "." + subtype, hash, "image/" + subtype, 11);
+    }
+
+    private static long countVariantTempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("s3-variant-")).count();
+        }
+    }
+}
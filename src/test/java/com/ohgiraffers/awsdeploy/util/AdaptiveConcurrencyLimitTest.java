@@ -0,0 +1,108 @@
+package com.ohgiraffers.awsdeploy.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * AdaptiveConcurrencyLimit 단위 테스트
+ * 한도만큼 요청을 채웠다가 같은 응답 시간으로 돌려주는 일을 반복해 한도가 어떻게 조정되는지 검증한다
+ */
+@DisplayName("AdaptiveConcurrencyLimit 테스트")
+class AdaptiveConcurrencyLimitTest {
+
+    @Test
+    @DisplayName("처리 중인 요청이 한도에 닿으면 자리를 돌려받을 때까지 거절한다")
+    void should_Reject_when_InflightReachesLimit() {
+        // given: 한도가 2인 리미터
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 2);
+
+        // when & then: 두 자리를 차지하면 세 번째는 거절되고, 하나를 돌려주면 다시 받는다
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        limit.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+        assertThat(limit.getInflight()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("한도를 다 쓰는 동안 응답 시간이 일정하면 한도를 최대까지 늘린다")
+    void should_IncreaseLimit_when_LatencyIsStable() {
+        // given: 시작 한도 10, 최대 50
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 50);
+
+        // when: 한도만큼 채우고 10ms로 돌려주기를 반복한다
+        runRounds(limit, 100, 10);
+
+        // then: 최대 한도까지 늘어난다
+        assertThat(limit.getLimit()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("응답 시간이 평소보다 길어지면 한도를 줄인다")
+    void should_DecreaseLimit_when_LatencyRises() {
+        // given: 10ms 응답으로 한도가 최대까지 늘어난 리미터
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 50);
+        runRounds(limit, 100, 10);
+        assertThat(limit.getLimit()).isEqualTo(50);
+
+        // when: 응답 시간이 10배로 늘어난다
+        runRounds(limit, 20, 100);
+
+        // then: 한도가 크게 줄어든다
+        assertThat(limit.getLimit()).isLessThan(25);
+    }
+
+    @Test
+    @DisplayName("요청이 실패하면 한도를 비율로 줄이되 최소 한도 아래로는 줄이지 않는다")
+    void should_BackOffToMinLimit_when_RequestsFail() {
+        // given: 시작 한도 10, 최소 3
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 3, 20);
+
+        // when: 한 번 실패한다
+        limit.tryAcquire();
+        limit.release(TimeUnit.MILLISECONDS.toNanos(10), true);
+
+        // then: 한도가 10%만큼 줄어든다
+        assertThat(limit.getLimit()).isEqualTo(9);
+
+        // when: 계속 실패한다
+        for (int i = 0; i < 50; i++) {
+            limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(10), true);
+        }
+
+        // then: 최소 한도에서 멈춘다
+        assertThat(limit.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("시작 한도가 최소~최대 범위를 벗어나면 만들 수 없다")
+    void should_Throw_when_LimitsAreInvalid() {
+        // when & then
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(30, 1, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(1, 0, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * 한도만큼 자리를 채운 뒤 모두 같은 응답 시간으로 돌려주기를 반복한다
+     */
+    private void runRounds(AdaptiveConcurrencyLimit limit, int rounds, long rttMillis) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (limit.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limit.release(TimeUnit.MILLISECONDS.toNanos(rttMillis), false);
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.ohgiraffers.awsdeploy.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * FileUploadUtils 단위 테스트
+ * 임시 폴더를 업로드 폴더로 써서 스트리밍 저장, 형식 판별, 경로 검증을 테스트한다
+ */
+@DisplayName("FileUploadUtils 테스트")
+class FileUploadUtilsTest {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+
+    @TempDir
+    Path uploadRoot;
+
+    @TempDir
+    Path multipartDir;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private FileUploadUtils fileUploadUtils;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        fileUploadUtils = new FileUploadUtils(uploadRoot.toString(),
+                new ImageVariantUtils(new int[] {160}, 0.8f, Runnable::run), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("업로드 내용의 SHA-256 해시와 실제 형식의 확장자로 파일명을 정한다")
+    void should_NameByHashAndSniffedExtension_when_InspectImage() throws Exception {
+        // given: 확장자는 jpg지만 내용은 PNG인 업로드
+        byte[] content = imageContent(PNG_SIGNATURE, 20_000);
+        MockMultipartFile file = new MockMultipartFile("image", "photo.jpg", "image/jpeg", content);
+
+        // when: 업로드를 확인한다
+        FileUploadUtils.ImageContent image = fileUploadUtils.inspectImage(file);
+
+        // then: 해시와 크기가 내용과 일치하고 파일명은 해시 + .png이며 아직 아무 파일도 쓰지 않는다
+        String contentHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        assertThat(image.getContentHash()).isEqualTo(contentHash);
+        assertThat(image.getFilename()).isEqualTo(contentHash + ".png");
+        assertThat(image.getContentType()).isEqualTo("image/png");
+        assertThat(image.getSize()).isEqualTo(content.length);
+        try (var files = Files.list(uploadRoot)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("같은 내용의 업로드는 같은 파일명이 되고, 저장 후 임시 파일은 남지 않는다")
+    void should_StoreSameFile_when_SameContentUploadedTwice() throws Exception {
+        // given: 원본 파일명만 다른 같은 내용의 업로드 두 개
+        byte[] content = imageContent(PNG_SIGNATURE, 20_000);
+        MockMultipartFile first = new MockMultipartFile("image", "a.png", "image/png", content);
+        MockMultipartFile second = new MockMultipartFile("image", "b.png", "image/png", content);
+
+        // when: 두 업로드를 확인하고 저장한다
+        String firstName = fileUploadUtils.storeFile(first, fileUploadUtils.inspectImage(first).getFilename());
+        String secondName = fileUploadUtils.storeFile(second, fileUploadUtils.inspectImage(second).getFilename());
+
+        // then: 파일 하나만 남고 내용이 그대로다
+        assertThat(secondName).isEqualTo(firstName);
+        assertThat(Files.readAllBytes(uploadRoot.resolve(firstName))).isEqualTo(content);
+        try (var files = Files.list(uploadRoot)) {
+            assertThat(files).hasSize(1);
+        }
+        // then: 저장 시간과 저장한 바이트가 지표로 남는다
+        assertThat(meterRegistry.get("file.store.requests").tags("operation", "store", "outcome", "success").timer().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("image.upload.bytes").tag("store", "local").counter().count())
+                .isEqualTo(2.0 * content.length);
+    }
+
+    @Test
+    @DisplayName("이미지 시그니처가 없는 업로드는 거절하고 아무 파일도 남기지 않는다")
+    void should_RejectAndCleanUp_when_ContentIsNotImage() throws Exception {
+        // given: Content-Type만 이미지인 텍스트 업로드
+        MockMultipartFile file = new MockMultipartFile("image", "fake.png", "image/png", "<script>".getBytes());
+
+        // when & then: 예외가 발생하고 업로드 폴더는 비어 있다
+        assertThatThrownBy(() -> fileUploadUtils.inspectImage(file))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("지원하지 않는 이미지 형식입니다.");
+        try (var files = Files.list(uploadRoot)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("JPEG, PNG, GIF, WebP 시그니처를 판별한다")
+    void should_DetectImageType_when_MagicBytesMatch() {
+        // when & then: 형식별 시그니처를 판별한다
+        assertThat(FileUploadUtils.detectImageType(new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0}, 4)).isEqualTo("image/jpeg");
+        assertThat(FileUploadUtils.detectImageType(PNG_SIGNATURE, 8)).isEqualTo("image/png");
+        assertThat(FileUploadUtils.detectImageType("GIF89a".getBytes(), 6)).isEqualTo("image/gif");
+        assertThat(FileUploadUtils.detectImageType("RIFF\0\0\0\0WEBP".getBytes(), 12)).isEqualTo("image/webp");
+        assertThat(FileUploadUtils.detectImageType("RIFF\0\0\0\0WAVE".getBytes(), 12)).isNull();
+        assertThat(FileUploadUtils.detectImageType(PNG_SIGNATURE, 4)).isNull();
+    }
+
+    @Test
+    @DisplayName("업로드를 확인하고 저장하는 동안 힙 할당량은 파일 크기와 관계없이 일정하다")
+    void should_AllocateConstantHeap_when_UploadSizeGrows() throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // given: 실제 멀티파트처럼 디스크 임시 파일에 담긴 1MB, 16MB 업로드
+        MultipartFile small = diskMultipartFile(1024 * 1024);
+        MultipartFile large = diskMultipartFile(16 * 1024 * 1024);
+        store(small);
+
+        // when: 각 업로드를 저장하는 동안 이 스레드가 할당한 힙을 잰다
+        long smallAllocated = allocatedDuring(threads, small);
+        long largeAllocated = allocatedDuring(threads, large);
+
+        // then: 16배 큰 파일도 고정 크기 버퍼만큼만 할당한다
+        assertThat(largeAllocated).isLessThan(256 * 1024);
+        assertThat(largeAllocated - smallAllocated).isLessThan(64 * 1024);
+    }
+
+    @Test
+    @DisplayName("업로드 폴더 밖을 가리키는 파일명은 거절한다")
+    void should_RejectPath_when_FilenameEscapesUploadRoot() {
+        // when & then: 상위 폴더나 하위 폴더를 가리키면 예외가 발생한다
+        assertThatThrownBy(() -> fileUploadUtils.resolve("../secret.png"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> fileUploadUtils.resolve("nested/secret.png"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(fileUploadUtils.resolve("a.png")).isEqualTo(uploadRoot.resolve("a.png"));
+    }
+
+    private long allocatedDuring(com.sun.management.ThreadMXBean threads, MultipartFile file) throws IOException {
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        store(file);
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private void store(MultipartFile file) throws IOException {
+        fileUploadUtils.storeFile(file, fileUploadUtils.inspectImage(file).getFilename());
+    }
+
+    private static byte[] imageContent(byte[] signature, int size) {
+        byte[] content = new byte[size];
+        System.arraycopy(signature, 0, content, 0, signature.length);
+        for (int i = signature.length; i < size; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+
+    /**
+     * 내용을 디스크 파일에 두는 MultipartFile을 만든다
+     * 서블릿 컨테이너의 멀티파트처럼 getInputStream은 파일을 스트리밍하고, getBytes는 파일 전체를 힙에 읽는다
+     */
+    private MultipartFile diskMultipartFile(int size) throws IOException {
+        Path path = Files.createTempFile(multipartDir, "part-", ".png");
+        try (OutputStream out = Files.newOutputStream(path)) {
+            out.write(PNG_SIGNATURE);
+            byte[] chunk = new byte[64 * 1024];
+            for (long written = PNG_SIGNATURE.length; written < size; written += chunk.length) {
+                out.write(chunk, 0, (int) Math.min(chunk.length, size - written));
+            }
+        }
+        return new MultipartFile() {
+            @Override public String getName() { return "image"; }
+            @Override public String getOriginalFilename() { return "photo.png"; }
+            @Override public String getContentType() { return "image/png"; }
+            @Override public boolean isEmpty() { return size == 0; }
+            @Override public long getSize() { return size; }
+            @Override public byte[] getBytes() throws IOException { return Files.readAllBytes(path); }
+            @Override public InputStream getInputStream() throws IOException { return Files.newInputStream(path); }
+            @Override public void transferTo(File dest) throws IOException { Files.copy(path, dest.toPath()); }
+        };
+    }
+}
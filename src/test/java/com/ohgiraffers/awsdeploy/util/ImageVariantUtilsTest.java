@@ -0,0 +1,136 @@
+package com.ohgiraffers.awsdeploy.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ImageVariantUtils 단위 테스트
+ * 실제 이미지를 메모리에서 만들어 변형 너비, 방향 보정, 이름 규칙을 검증한다
+ */
+@DisplayName("ImageVariantUtils 테스트")
+class ImageVariantUtilsTest {
+
+    private final ImageVariantUtils imageVariantUtils = new ImageVariantUtils(new int[] {480, 160, 1024}, 0.8f, Runnable::run);
+
+    @Test
+    @DisplayName("원본보다 좁은 너비만 비율을 유지한 JPEG 변형으로 만든다")
+    void should_CreateNarrowerVariants_when_ImageIsWide() throws IOException {
+        // given: 800x400 PNG
+        byte[] png = encode(new BufferedImage(800, 400, BufferedImage.TYPE_INT_RGB), "png");
+
+        // when: 변형을 만든다
+        List<ImageVariantUtils.ImageVariant> variants = imageVariantUtils.createVariantsAsync(png).join();
+
+        // then: 1024는 건너뛰고 160, 480 변형이 오름차순으로 만들어진다
+        assertThat(variants).extracting(ImageVariantUtils.ImageVariant::getWidth).containsExactly(160, 480);
+        BufferedImage small = decode(variants.get(0).getContent());
+        assertThat(small.getWidth()).isEqualTo(160);
+        assertThat(small.getHeight()).isEqualTo(80);
+        assertThat(variants.get(0).getContent()).startsWith((byte) 0xFF, (byte) 0xD8);
+    }
+
+    @Test
+    @DisplayName("투명한 PNG도 JPEG 변형으로 만든다")
+    void should_CreateVariants_when_PngHasAlpha() throws IOException {
+        // given: 투명도가 있는 PNG
+        byte[] png = encode(new BufferedImage(300, 300, BufferedImage.TYPE_INT_ARGB), "png");
+
+        // when: 변형을 만든다
+        List<ImageVariantUtils.ImageVariant> variants = imageVariantUtils.createVariantsAsync(png).join();
+
+        // then: 흰 배경의 160px 변형이 만들어진다
+        assertThat(variants).hasSize(1);
+        BufferedImage variant = decode(variants.get(0).getContent());
+        assertThat(variant.getWidth()).isEqualTo(160);
+        assertThat(variant.getRGB(80, 80) & 0xFFFFFF).isGreaterThan(0xF0F0F0);
+    }
+
+    @Test
+    @DisplayName("이미지가 아닌 데이터는 빈 목록을 돌려준다")
+    void should_ReturnEmpty_when_NotAnImage() {
+        // when: 이미지가 아닌 바이트로 변형을 만든다
+        List<ImageVariantUtils.ImageVariant> variants = imageVariantUtils.createVariantsAsync("not an image".getBytes()).join();
+
+        // then: 변형이 없다
+        assertThat(variants).isEmpty();
+    }
+
+    @Test
+    @DisplayName("EXIF 방향이 90도 회전이면 가로세로를 바꿔 변형을 만든다")
+    void should_RotateVariant_when_ExifOrientationIsSix() throws IOException {
+        // given: 가로 600, 세로 300으로 저장됐지만 EXIF 방향 6(시계 방향 90도)인 JPEG
+        byte[] jpeg = withExifOrientation(encode(new BufferedImage(600, 300, BufferedImage.TYPE_INT_RGB), "jpg"), 6);
+
+        // when: 변형을 만든다
+        List<ImageVariantUtils.ImageVariant> variants = imageVariantUtils.createVariantsAsync(jpeg).join();
+
+        // then: 화면 방향(가로 300, 세로 600) 기준으로 160px 변형만 만들어진다
+        assertThat(variants).extracting(ImageVariantUtils.ImageVariant::getWidth).containsExactly(160);
+        BufferedImage variant = decode(variants.get(0).getContent());
+        assertThat(variant.getWidth()).isEqualTo(160);
+        assertThat(variant.getHeight()).isEqualTo(320);
+    }
+
+    @Test
+    @DisplayName("원본 이름과 기록된 너비로 변형 이름과 URL을 만든다")
+    void should_BuildVariantNames_when_WidthsRecorded() {
+        // when: 변형 URL을 만든다
+        Map<Integer, String> urls = ImageVariantUtils.variantUrls("https://bucket.s3.amazonaws.com/abc.png", "160,480");
+
+        // then: 확장자가 .jpg인 너비별 URL이 순서대로 만들어진다
+        assertThat(ImageVariantUtils.variantName("abc.png", 160)).isEqualTo("abc_w160.jpg");
+        assertThat(urls).containsExactly(
+                Map.entry(160, "https://bucket.s3.amazonaws.com/abc_w160.jpg"),
+                Map.entry(480, "https://bucket.s3.amazonaws.com/abc_w480.jpg"));
+        assertThat(ImageVariantUtils.variantUrls("abc.png", null)).isEmpty();
+        assertThat(imageVariantUtils.getWidths()).containsExactly(160, 480, 1024);
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    private static BufferedImage decode(byte[] content) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(content));
+    }
+
+    /**
+     * JFIF APP0 바로 뒤에 방향 태그 하나만 있는 EXIF APP1 세그먼트를 끼워 넣는다
+     */
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        byte[] exif = {
+                'E', 'x', 'i', 'f', 0, 0,
+                // TIFF 헤더 (빅 엔디언, 첫 IFD 오프셋 8)
+                'M', 'M', 0, 42, 0, 0, 0, 8,
+                // IFD: 항목 1개 - 방향(0x0112), SHORT, 1개, 값
+                0, 1, 0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+                // 다음 IFD 없음
+                0, 0, 0, 0
+        };
+        int app0Length = ((jpeg[4] & 0xFF) << 8) | (jpeg[5] & 0xFF);
+        int insertAt = 4 + app0Length;
+        int segmentLength = exif.length + 2;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, insertAt);
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write(segmentLength >> 8);
+        out.write(segmentLength & 0xFF);
+        out.write(exif, 0, exif.length);
+        out.write(jpeg, insertAt, jpeg.length - insertAt);
+        return out.toByteArray();
+    }
+}
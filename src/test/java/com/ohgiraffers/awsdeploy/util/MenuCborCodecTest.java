@@ -0,0 +1,84 @@
+package com.ohgiraffers.awsdeploy.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ohgiraffers.awsdeploy.dto.CategoryDTO;
+import com.ohgiraffers.awsdeploy.dto.MenuDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MenuCborCodec 단위 테스트
+ * 메뉴 목록을 바이너리로 만들고 다시 읽어 값이 그대로인지, JSON보다 작은지, Accept 협상이 맞는지 검증한다
+ */
+@DisplayName("MenuCborCodec 테스트")
+class MenuCborCodecTest {
+
+    private static final String PREFIX = "https://ohgiraffers-menu.s3.ap-northeast-2.amazonaws.com/menus/";
+
+    @Test
+    @DisplayName("만든 바이너리를 읽으면 이미지 URL, 변형, 카테고리까지 원래 메뉴와 같다")
+    void should_RoundTrip_when_EncodeAndDecode() {
+        // given: 이미지와 변형이 있는 메뉴와 비어 있는 필드가 많은 메뉴
+        MenuDTO full = new MenuDTO(1L, "김치찌개", 9000, "얼큰한 찌개", "Y",
+                new CategoryDTO(1L, "식사"), PREFIX + "a.png", 10);
+        full.setMenuImageVariants(Map.of(160, PREFIX + "a-160.jpg", 480, PREFIX + "a-480.jpg"));
+        MenuDTO sparse = new MenuDTO(2L, "물", 0, null, "N", null, "/api/images/b.png", null);
+
+        // when: 바이너리로 만들고 다시 읽는다
+        List<MenuDTO> decoded = MenuCborCodec.decode(MenuCborCodec.encode(List.of(full, sparse)));
+
+        // then: 값이 그대로다
+        assertThat(decoded).hasSize(2);
+        assertThat(decoded.get(0)).usingRecursiveComparison().isEqualTo(full);
+        assertThat(decoded.get(1)).usingRecursiveComparison().isEqualTo(sparse);
+    }
+
+    @Test
+    @DisplayName("URL 앞부분과 필드 이름을 반복하지 않아 같은 목록의 JSON보다 훨씬 작다")
+    void should_BeSmallerThanJson_when_UrlsShareOnePrefix() throws Exception {
+        // given: 같은 버킷 이미지를 쓰는 메뉴 100개
+        List<MenuDTO> menus = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            MenuDTO menu = new MenuDTO((long) i, "메뉴" + i, 1000 + i, null, "Y",
+                    new CategoryDTO((long) i % 3, "카테고리" + i % 3), PREFIX + i + ".png", 10);
+            menu.setMenuImageVariants(Map.of(160, PREFIX + i + "-160.jpg"));
+            menus.add(menu);
+        }
+
+        // when: 두 형식으로 만든다
+        byte[] json = new ObjectMapper().writeValueAsBytes(menus);
+        byte[] cbor = MenuCborCodec.encode(menus);
+
+        // then: 바이너리가 JSON의 절반보다 작다
+        assertThat(cbor.length).isLessThan(json.length / 2);
+    }
+
+    @Test
+    @DisplayName("Accept에 바이너리 미디어 타입을 명시했을 때만 바이너리로 응답한다")
+    void should_DetectBinaryType_when_Accept() {
+        assertThat(MenuCborCodec.isRequested(MenuCborCodec.MEDIA_TYPE_VALUE)).isTrue();
+        assertThat(MenuCborCodec.isRequested("application/json;q=0.5, " + MenuCborCodec.MEDIA_TYPE_VALUE)).isTrue();
+        assertThat(MenuCborCodec.isRequested(MenuCborCodec.MEDIA_TYPE_VALUE + ";q=0")).isFalse();
+        assertThat(MenuCborCodec.isRequested("*/*")).isFalse();
+        assertThat(MenuCborCodec.isRequested("application/json")).isFalse();
+        assertThat(MenuCborCodec.isRequested(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("바이너리를 명시했더라도 JSON의 품질 값이 더 높으면 JSON으로 응답한다")
+    void should_PreferJson_when_JsonRankedHigher() {
+        assertThat(MenuCborCodec.isRequested("application/json, " + MenuCborCodec.MEDIA_TYPE_VALUE + ";q=0.1")).isFalse();
+        assertThat(MenuCborCodec.isRequested(MenuCborCodec.MEDIA_TYPE_VALUE + ";q=0.5, */*")).isFalse();
+        assertThat(MenuCborCodec.isRequested(MenuCborCodec.MEDIA_TYPE_VALUE + ";q=0.5, application/*;q=0.8")).isFalse();
+        // 가장 구체적인 범위의 값을 쓰므로 application/json;q=0.2가 */*보다 우선한다
+        assertThat(MenuCborCodec.isRequested(MenuCborCodec.MEDIA_TYPE_VALUE + ";q=0.5, application/json;q=0.2, */*")).isTrue();
+        assertThat(MenuCborCodec.isRequested(MenuCborCodec.MEDIA_TYPE_VALUE + ", */*;q=0.1")).isTrue();
+        assertThat(MenuCborCodec.isRequested("application/json, " + MenuCborCodec.MEDIA_TYPE_VALUE)).isTrue();
+    }
+}
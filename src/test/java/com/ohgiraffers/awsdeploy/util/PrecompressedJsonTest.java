@@ -0,0 +1,54 @@
+package com.ohgiraffers.awsdeploy.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PrecompressedJson 단위 테스트
+ * 압축본 생성 기준과 Accept-Encoding 협상을 검증한다
+ */
+@DisplayName("PrecompressedJson 테스트")
+class PrecompressedJsonTest {
+
+    @Test
+    @DisplayName("충분히 긴 JSON은 풀면 원본과 같은 gzip 압축본을 함께 만든다")
+    void should_CreateGzip_when_JsonIsLarge() throws IOException {
+        // given: 반복되는 항목이 많은 JSON
+        byte[] json = ("[" + "{\"menuName\":\"메뉴\",\"menuPrice\":1000},".repeat(50) + "{}]").getBytes(StandardCharsets.UTF_8);
+
+        // when: 압축본을 만든다
+        PrecompressedJson body = PrecompressedJson.of(json);
+
+        // then: 원본보다 작고 풀면 원본과 같다
+        assertThat(body.getIdentity()).isSameAs(json);
+        assertThat(body.getGzip()).hasSizeLessThan(json.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.getGzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(json);
+        }
+    }
+
+    @Test
+    @DisplayName("작은 JSON은 압축본을 만들지 않는다")
+    void should_SkipGzip_when_JsonIsSmall() {
+        // when & then: 기준보다 작은 본문은 압축하지 않는다
+        assertThat(PrecompressedJson.of("[]".getBytes(StandardCharsets.UTF_8)).getGzip()).isNull();
+    }
+
+    @Test
+    @DisplayName("Accept-Encoding의 gzip 허용 여부를 q 값과 *까지 따져 판단한다")
+    void should_NegotiateGzip_when_AcceptEncoding() {
+        assertThat(PrecompressedJson.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(PrecompressedJson.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+        assertThat(PrecompressedJson.acceptsGzip("*")).isTrue();
+        assertThat(PrecompressedJson.acceptsGzip("gzip;q=0, *")).isFalse();
+        assertThat(PrecompressedJson.acceptsGzip("identity")).isFalse();
+        assertThat(PrecompressedJson.acceptsGzip(null)).isFalse();
+    }
+}